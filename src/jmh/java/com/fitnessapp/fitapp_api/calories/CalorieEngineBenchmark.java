@@ -0,0 +1,135 @@
+package com.fitnessapp.fitapp_api.calories;
+
+import com.fitnessapp.fitapp_api.calories.dto.CCActivityRequest;
+import com.fitnessapp.fitapp_api.calories.service.implementation.CalorieCalculationServiceImpl;
+import com.fitnessapp.fitapp_api.gamification.util.PointsConfig;
+import com.fitnessapp.fitapp_api.profile.cache.ProfileSnapshot;
+import com.fitnessapp.fitapp_api.profile.util.Gender;
+import com.fitnessapp.fitapp_api.routeexecution.model.RouteExecution.ActivityType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara el cálculo de calorías y puntos por km anterior (enum -> String, toUpperCase, switch de cadenas,
+ * edad con Period y BMR desde BigDecimal en cada llamada) con el motor actual
+ * (tablas por ordinal y coeficiente kcal/s precalculado en el ProfileSnapshot).
+ * Ejecutar con: mvn -Pbenchmark -DskipTests test-compile exec:exec -Djmh.args="CalorieEngineBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CalorieEngineBenchmark {
+
+    @Param({"WALKING_SLOW", "RUNNING_MODERATE", "CYCLING_INTENSE"})
+    public ActivityType activityType;
+
+    private final CalorieCalculationServiceImpl service = new CalorieCalculationServiceImpl();
+
+    private ProfileSnapshot profile;
+    private CCActivityRequest request;
+    private long durationSec;
+
+    @Setup
+    public void setUp() {
+        profile = new ProfileSnapshot(1L, "bench@example.com", Gender.FEMALE, LocalDate.of(1988, 5, 17),
+                BigDecimal.valueOf(168), BigDecimal.valueOf(63.5), null, 2200, true);
+        durationSec = 2700L;
+        request = new CCActivityRequest(activityType, durationSec);
+    }
+
+    @Benchmark
+    public double caloriesLegacy() {
+        return LegacyEngine.calculateCalories(profile, activityType.toString(), durationSec);
+    }
+
+    @Benchmark
+    public double caloriesPrecomputed() {
+        return service.calculateCalories(profile, request);
+    }
+
+    @Benchmark
+    public int pointsPerKmLegacy() {
+        return LegacyEngine.getPointsPerKm(activityType.toString());
+    }
+
+    @Benchmark
+    public int pointsPerKmTable() {
+        return PointsConfig.getPointsPerKm(activityType);
+    }
+
+    /**
+     * Copia literal de la implementación previa, solo como línea base del benchmark.
+     */
+    private static final class LegacyEngine {
+
+        static double calculateCalories(ProfileSnapshot profile, String activityType, long duration) {
+            double bmr = calculateBMR(
+                    String.valueOf(profile.gender()),
+                    profile.weightKg().doubleValue(),
+                    profile.heightCm().doubleValue(),
+                    Period.between(profile.birthDate(), LocalDate.now()).getYears()
+            );
+            double met = getMET(activityType);
+            double bmrMinutes = (bmr / 24) / 60;
+            double durationMinutes = duration / 60.0;
+            return bmrMinutes * met * durationMinutes;
+        }
+
+        static double calculateBMR(String gender, double weight, double height, int age) {
+            if (gender.equals("MALE")) {
+                return (10 * weight) + (6.25 * height) - (5 * age) + 5;
+            } else if (gender.equals("FEMALE")) {
+                return (10 * weight) + (6.25 * height) - (5 * age) - 161;
+            } else {
+                throw new IllegalArgumentException("Invalid gender: " + gender);
+            }
+        }
+
+        static double getMET(String activityType) {
+            return switch (activityType.toUpperCase()) {
+                case "RUNNING_SLOW" -> 8.3;
+                case "RUNNING_MODERATE" -> 9.8;
+                case "RUNNING_INTENSE" -> 11.8;
+                case "CYCLING_SLOW" -> 4.3;
+                case "CYCLING_MODERATE" -> 7.0;
+                case "CYCLING_INTENSE" -> 9.0;
+                case "WALKING_SLOW" -> 2.0;
+                case "WALKING_MODERATE" -> 3.5;
+                case "WALKING_INTENSE" -> 5.0;
+                default -> throw new IllegalArgumentException("Unknown activity type: " + activityType);
+            };
+        }
+
+        static int getPointsPerKm(String activityType) {
+            return switch (activityType.toUpperCase()) {
+                case "RUNNING_SLOW" -> 12;
+                case "RUNNING_MODERATE" -> 15;
+                case "RUNNING_INTENSE" -> 18;
+                case "CYCLING_SLOW" -> 4;
+                case "CYCLING_MODERATE" -> 6;
+                case "CYCLING_INTENSE" -> 8;
+                case "WALKING_SLOW" -> 3;
+                case "WALKING_MODERATE" -> 5;
+                case "WALKING_INTENSE" -> 7;
+                default -> 5;
+            };
+        }
+    }
+}
@@ -2,17 +2,18 @@ package com.fitnessapp.fitapp_api.auth.controller;
 
 import com.fitnessapp.fitapp_api.auth.dto.*;
 import com.fitnessapp.fitapp_api.auth.service.UserAuthService;
+import com.fitnessapp.fitapp_api.core.security.AuthenticatedUser;
+import com.fitnessapp.fitapp_api.core.util.JwtUtils;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
@@ -106,6 +107,44 @@ public class UserAuthController {
         return ResponseEntity.ok(userAuthResponseDTO);
     }
 
+    @Operation(
+            summary = "Renovar el token de acceso",
+            description = "Emite un nuevo JWT a partir de un refresh token sin volver a enviar la contraseña. " +
+                    "El refresh token enviado queda revocado y se devuelve uno nuevo; reutilizar uno ya usado " +
+                    "revoca todos los de esa sesión.",
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    required = true,
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = RefreshTokenRequestDTO.class)
+                    )
+            ),
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Tokens renovados",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = RefreshTokenResponseDTO.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "401",
+                            description = "Refresh token inválido, caducado o ya utilizado",
+                            content = @Content(mediaType = "application/json")
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Datos de entrada inválidos",
+                            content = @Content(mediaType = "application/json")
+                    )
+            }
+    )
+    @PostMapping("/refresh")
+    public ResponseEntity<RefreshTokenResponseDTO> refresh(@Valid @RequestBody RefreshTokenRequestDTO refreshTokenRequestDTO) {
+        return ResponseEntity.ok(userAuthService.refresh(refreshTokenRequestDTO));
+    }
+
     @Operation(
             summary = "Cambiar contraseña del usuario",
             description = "Permite a un usuario autenticado cambiar su contraseña actual por una nueva.",
@@ -135,9 +174,44 @@ public class UserAuthController {
     @PostMapping("/change-password")
     public ResponseEntity<UserAuthResponseDTO> changePassword(
             Principal principal,
+            @RequestHeader(HttpHeaders.AUTHORIZATION) String authorization,
             @Valid @RequestBody ChangePasswordRequestDTO requestDTO
     ) {
-        UserAuthResponseDTO response = userAuthService.changePassword(principal.getName(), requestDTO);
+        UserAuthResponseDTO response = userAuthService.changePassword(principal.getName(),
+                JwtUtils.extractBearerToken(authorization), requestDTO);
         return ResponseEntity.ok(response);
     }
+
+    @Operation(
+            summary = "Cerrar sesión",
+            description = "Revoca el JWT con el que se hace la petición, que deja de aceptarse aunque no haya caducado. " +
+                    "Si se envía el refresh token de la sesión, también se revoca.",
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    required = false,
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = LogoutRequestDTO.class)
+                    )
+            ),
+            responses = {
+                    @ApiResponse(
+                            responseCode = "204",
+                            description = "Sesión cerrada"
+                    ),
+                    @ApiResponse(
+                            responseCode = "401",
+                            description = "Token ausente, inválido o ya revocado",
+                            content = @Content(mediaType = "application/json")
+                    )
+            }
+    )
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @RequestHeader(HttpHeaders.AUTHORIZATION) String authorization,
+            @RequestBody(required = false) LogoutRequestDTO logoutRequestDTO
+    ) {
+        userAuthService.logout(principal.id(), JwtUtils.extractBearerToken(authorization), logoutRequestDTO);
+        return ResponseEntity.noContent().build();
+    }
 }
\ No newline at end of file
@@ -9,6 +9,12 @@ public record LoginUserResponseDTO(
         )
         String token,
 
+        @Schema(
+                description = "Refresh token para obtener nuevos JWT sin repetir el login",
+                example = "q3Jx0v2bX8..."
+        )
+        String refreshToken,
+
         @Schema(
                 description = "Indica si el usuario ya tiene perfil creado",
                 example = "false"
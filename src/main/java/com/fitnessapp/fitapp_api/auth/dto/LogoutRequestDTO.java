@@ -0,0 +1,13 @@
+package com.fitnessapp.fitapp_api.auth.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+public record LogoutRequestDTO(
+        @Schema(
+                description = "Refresh token de la sesión a cerrar. Si se envía, deja de poder renovarse",
+                example = "q3Jx0v2bX8...",
+                requiredMode = Schema.RequiredMode.NOT_REQUIRED
+        )
+        String refreshToken
+) {
+}
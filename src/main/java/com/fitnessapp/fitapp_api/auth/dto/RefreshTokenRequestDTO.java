@@ -0,0 +1,15 @@
+package com.fitnessapp.fitapp_api.auth.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+
+public record RefreshTokenRequestDTO(
+        @Schema(
+                description = "Refresh token obtenido en el login, registro o último refresco",
+                example = "q3Jx0v2bX8...",
+                requiredMode = Schema.RequiredMode.REQUIRED
+        )
+        @NotBlank(message = "Refresh token is required")
+        String refreshToken
+) {
+}
@@ -0,0 +1,18 @@
+package com.fitnessapp.fitapp_api.auth.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+public record RefreshTokenResponseDTO(
+        @Schema(
+                description = "Nuevo JWT de acceso",
+                example = "eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9..."
+        )
+        String token,
+
+        @Schema(
+                description = "Nuevo refresh token; el enviado queda revocado",
+                example = "q3Jx0v2bX8..."
+        )
+        String refreshToken
+) {
+}
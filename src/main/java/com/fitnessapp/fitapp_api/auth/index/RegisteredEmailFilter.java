@@ -0,0 +1,99 @@
+package com.fitnessapp.fitapp_api.auth.index;
+
+import com.fitnessapp.fitapp_api.auth.repository.UserAuthRepository;
+import com.fitnessapp.fitapp_api.auth.repository.UserEmailView;
+import com.fitnessapp.fitapp_api.core.util.BloomFilter;
+import com.fitnessapp.fitapp_api.core.util.Emails;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Filtro de Bloom con los emails (normalizados) ya registrados. Si dice que un email no existe es seguro,
+ * y el registro se ahorra la consulta existsByEmail; si dice que puede existir se confirma en BD.
+ * Mientras no termina la carga inicial responde siempre "puede existir" (se consulta la BD como antes).
+ * Los emails dados de alta durante la carga se añaden al mismo filtro, así que no se pierde ninguno.
+ * La última garantía contra duplicados sigue siendo uk_user_auth_email.
+ */
+@Component
+public class RegisteredEmailFilter {
+
+    private static final int BATCH_SIZE = 5_000;
+
+    private final UserAuthRepository userAuthRepository;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+
+    private volatile BloomFilter filter;
+    private volatile boolean loaded;
+
+    private final Counter skipped;
+    private final Counter checked;
+
+    public RegisteredEmailFilter(UserAuthRepository userAuthRepository,
+                                 @Value("${app.auth.email-filter.expected-insertions:1000000}") long expectedInsertions,
+                                 @Value("${app.auth.email-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                                 MeterRegistry meterRegistry) {
+        this.userAuthRepository = userAuthRepository;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.skipped = lookupCounter(meterRegistry, "skipped");
+        this.checked = lookupCounter(meterRegistry, "checked");
+    }
+
+    /**
+     * false solo si el email seguro que no está registrado.
+     */
+    public boolean mightExist(String email) {
+        BloomFilter current = filter;
+        if (!loaded || current == null || current.mightContain(Emails.normalize(email))) {
+            checked.increment();
+            return true;
+        }
+        skipped.increment();
+        return false;
+    }
+
+    public void add(String email) {
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(Emails.normalize(email));
+        }
+    }
+
+    /**
+     * Carga el filtro recorriendo user_auth por lotes de id. Devuelve cuántos emails se han cargado.
+     */
+    public int load() {
+        loaded = false;
+        // Holgura para los registros posteriores sin que suba la tasa de falsos positivos
+        BloomFilter next = new BloomFilter(Math.max(expectedInsertions, userAuthRepository.count() * 2), falsePositiveRate);
+        filter = next;
+
+        int total = 0;
+        long lastId = 0L;
+        List<UserEmailView> page;
+        do {
+            page = userAuthRepository.findEmailsPageAfter(lastId, Limit.of(BATCH_SIZE));
+            for (UserEmailView user : page) {
+                next.put(Emails.normalize(user.getEmail()));
+                lastId = user.getId();
+            }
+            total += page.size();
+        } while (page.size() == BATCH_SIZE);
+
+        loaded = true;
+        return total;
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("auth.register.email_filter")
+                .description("Comprobaciones de email en el registro: resueltas por el filtro o enviadas a BD")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,27 @@
+package com.fitnessapp.fitapp_api.auth.job;
+
+import com.fitnessapp.fitapp_api.auth.service.RefreshTokenService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Borra periódicamente los refresh tokens caducados para que la tabla no crezca sin límite.
+ * Con lazy-initialization activada el bean debe crearse al arrancar para que se programe.
+ */
+@Slf4j
+@Component
+@Lazy(false)
+@RequiredArgsConstructor
+public class RefreshTokenCleanupJob {
+
+    private final RefreshTokenService refreshTokenService;
+
+    @Scheduled(cron = "${security.jwt.refresh-cleanup.cron:0 15 4 * * *}")
+    public void purgeExpired() {
+        int deleted = refreshTokenService.purgeExpired();
+        log.info("Refresh token cleanup deleted {} expired tokens", deleted);
+    }
+}
@@ -0,0 +1,31 @@
+package com.fitnessapp.fitapp_api.auth.job;
+
+import com.fitnessapp.fitapp_api.auth.index.RegisteredEmailFilter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Carga al arrancar el filtro de emails registrados. Si falla, el registro sigue consultando la BD.
+ */
+@Slf4j
+@Component
+@Order(10)
+@RequiredArgsConstructor
+public class RegisteredEmailFilterLoadJob implements ApplicationRunner {
+
+    private final RegisteredEmailFilter registeredEmailFilter;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            int emails = registeredEmailFilter.load();
+            log.info("Registered email filter loaded: {} emails", emails);
+        } catch (RuntimeException e) {
+            log.warn("Registered email filter load failed; registration will query the database", e);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.fitnessapp.fitapp_api.auth.job;
+
+import com.fitnessapp.fitapp_api.auth.service.TokenRevocationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Mantiene el filtro de revocación de access tokens: lo carga al arrancar, lo reconstruye periódicamente
+ * (revocaciones hechas por otras instancias, descarte de las caducadas) y purga la tabla.
+ * Con lazy-initialization activada el bean debe crearse al arrancar para que se programe.
+ */
+@Slf4j
+@Component
+@Lazy(false)
+@RequiredArgsConstructor
+public class TokenRevocationJob {
+
+    private final TokenRevocationService tokenRevocationService;
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${security.jwt.revocation.rebuild-interval:PT5M}")
+    public void rebuildFilter() {
+        try {
+            tokenRevocationService.rebuildFilter();
+        } catch (RuntimeException e) {
+            // Se conserva el filtro anterior (o la consulta directa a BD si aún no hay ninguno)
+            log.warn("Revocation filter rebuild failed", e);
+        }
+    }
+
+    @Scheduled(cron = "${security.jwt.revocation.cleanup.cron:0 20 4 * * *}")
+    public void purgeExpired() {
+        int deleted = tokenRevocationService.purgeExpired();
+        log.info("Revoked token cleanup deleted {} expired entries", deleted);
+    }
+}
@@ -0,0 +1,53 @@
+package com.fitnessapp.fitapp_api.auth.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Refresh token persistido. Solo se guarda el hash; cada uso lo revoca y emite otro de la misma familia
+ * (rotación). Presentar un token ya revocado indica robo o reutilización y revoca la familia entera.
+ */
+@Getter
+@Setter
+@Entity
+@Table(
+        name = "refresh_tokens",
+        uniqueConstraints = @UniqueConstraint(name = "uk_refresh_tokens_token_hash", columnNames = "token_hash"),
+        indexes = {
+                @Index(name = "idx_refresh_tokens_family_id", columnList = "family_id"),
+                @Index(name = "idx_refresh_tokens_user_id", columnList = "user_id"),
+                @Index(name = "idx_refresh_tokens_expires_at", columnList = "expires_at")
+        }
+)
+@AllArgsConstructor
+@NoArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class RefreshToken {
+
+    @EqualsAndHashCode.Include
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id", nullable = false, foreignKey = @ForeignKey(name = "fk_refresh_tokens_user"))
+    private UserAuth user;
+
+    @Column(name = "token_hash", length = 64, nullable = false, columnDefinition = "CHAR(64)")
+    private String tokenHash;
+
+    @Column(name = "family_id", length = 36, nullable = false, columnDefinition = "CHAR(36)")
+    private String familyId;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false, updatable = false)
+    private LocalDateTime expiresAt;
+
+    // Null mientras el token es utilizable
+    @Column(name = "revoked_at")
+    private LocalDateTime revokedAt;
+}
@@ -0,0 +1,40 @@
+package com.fitnessapp.fitapp_api.auth.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Access token revocado antes de caducar, identificado por su jti. La fila solo es necesaria hasta expiresAt.
+ */
+@Getter
+@Setter
+@Entity
+@Table(
+        name = "revoked_tokens",
+        indexes = {
+                @Index(name = "idx_revoked_tokens_expires_at", columnList = "expires_at"),
+                @Index(name = "idx_revoked_tokens_revoked_at", columnList = "revoked_at")
+        }
+)
+@AllArgsConstructor
+@NoArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class RevokedToken {
+
+    @EqualsAndHashCode.Include
+    @Id
+    @Column(name = "jti", length = 36, nullable = false, columnDefinition = "CHAR(36)")
+    private String jti;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id", nullable = false, foreignKey = @ForeignKey(name = "fk_revoked_tokens_user"))
+    private UserAuth user;
+
+    @Column(name = "revoked_at", nullable = false, updatable = false)
+    private LocalDateTime revokedAt;
+
+    @Column(name = "expires_at", nullable = false, updatable = false)
+    private LocalDateTime expiresAt;
+}
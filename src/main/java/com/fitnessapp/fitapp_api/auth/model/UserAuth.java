@@ -1,11 +1,14 @@
 package com.fitnessapp.fitapp_api.auth.model;
 
+import com.fitnessapp.fitapp_api.core.util.Emails;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.time.LocalDateTime;
+
 @Getter
 @Setter
 @Entity
@@ -39,12 +42,16 @@ public class UserAuth {
     @Column(name = "credentials_non_expired", nullable = false)
     private boolean credentialsNonExpired = true;
 
+    // Los access tokens emitidos antes (iat) se rechazan; null si nunca ha cambiado la contraseña
+    @Column(name = "password_changed_at")
+    private LocalDateTime passwordChangedAt;
+
     // Normalización del email antes de persistir o actualizar
     @PrePersist
     @PreUpdate
     private void normalizeEmail() {
         if (this.email != null) {
-            this.email = this.email.trim().toLowerCase();
+            this.email = Emails.normalize(this.email);
         }
     }
 
@@ -0,0 +1,25 @@
+package com.fitnessapp.fitapp_api.auth.repository;
+
+import com.fitnessapp.fitapp_api.auth.model.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    // jti de los tokens revocados que aún no han caducado (los únicos que deben estar en el filtro)
+    @Query("SELECT t.jti FROM RevokedToken t WHERE t.expiresAt > :now")
+    List<String> findActiveJtis(@Param("now") LocalDateTime now);
+
+    // Revocados durante una reconstrucción del filtro, para no perderlos al sustituirlo
+    @Query("SELECT t.jti FROM RevokedToken t WHERE t.revokedAt >= :since")
+    List<String> findJtisRevokedSince(@Param("since") LocalDateTime since);
+
+    @Modifying
+    @Query("DELETE FROM RevokedToken t WHERE t.expiresAt < :before")
+    int deleteExpiredBefore(@Param("before") LocalDateTime before);
+}
@@ -1,9 +1,14 @@
 package com.fitnessapp.fitapp_api.auth.repository;
 
 import com.fitnessapp.fitapp_api.auth.model.UserAuth;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +16,16 @@ public interface UserAuthRepository extends JpaRepository<UserAuth, Long> {
     boolean existsByEmail(String email);
 
     Optional<UserAuth> findByEmail(String email);
+
+    // Instante del último cambio de contraseña (vacío si nunca ha cambiado) para invalidar tokens anteriores
+    @Query("SELECT u.passwordChangedAt FROM UserAuth u WHERE u.id = :id")
+    Optional<LocalDateTime> findPasswordChangedAtById(@Param("id") Long id);
+
+    // Recorrido por lotes de ids (keyset) para jobs de mantenimiento
+    @Query("SELECT u.id FROM UserAuth u WHERE u.id > :lastId ORDER BY u.id")
+    List<Long> findIdsAfter(@Param("lastId") Long lastId, Limit limit);
+
+    // Emails por lotes de id (keyset) para cargar el filtro de emails registrados
+    @Query("SELECT u.id AS id, u.email AS email FROM UserAuth u WHERE u.id > :lastId ORDER BY u.id")
+    List<UserEmailView> findEmailsPageAfter(@Param("lastId") Long lastId, Limit limit);
 }
\ No newline at end of file
@@ -0,0 +1,11 @@
+package com.fitnessapp.fitapp_api.auth.repository;
+
+/**
+ * Proyección id + email, devuelta por {@link UserAuthRepository#findEmailsPageAfter}.
+ */
+public interface UserEmailView {
+
+    Long getId();
+
+    String getEmail();
+}
@@ -0,0 +1,21 @@
+package com.fitnessapp.fitapp_api.auth.service;
+
+import com.fitnessapp.fitapp_api.auth.dto.RefreshTokenResponseDTO;
+
+public interface RefreshTokenService {
+
+    // Emite un refresh token de una familia nueva (login, registro, cambio de contraseña)
+    String issue(Long userId);
+
+    // Rota el refresh token y emite un nuevo access token, sin verificar la contraseña
+    RefreshTokenResponseDTO refresh(String refreshToken);
+
+    // Revoca la familia del refresh token (logout de una sesión); se ignora si no es del usuario
+    void revokeSession(Long userId, String refreshToken);
+
+    // Revoca todos los refresh tokens activos del usuario
+    void revokeAllForUser(Long userId);
+
+    // Borra los tokens caducados; devuelve cuántos
+    int purgeExpired();
+}
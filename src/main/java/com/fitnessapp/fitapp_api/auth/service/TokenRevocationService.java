@@ -0,0 +1,25 @@
+package com.fitnessapp.fitapp_api.auth.service;
+
+import java.time.Instant;
+
+public interface TokenRevocationService {
+
+    // Revoca el access token (JWT) hasta su exp; tokens inválidos o ya caducados se ignoran
+    void revoke(String accessToken);
+
+    // Indica si el jti está revocado. Sin acceso a BD en el caso habitual (token no revocado)
+    boolean isRevoked(String jti);
+
+    // Invalida todos los access tokens del usuario emitidos antes de since (cambio de contraseña);
+    // quien llama ya ha guardado since en user_auth.password_changed_at
+    void revokeIssuedBefore(Long userId, Instant since);
+
+    // Indica si el token se emitió antes del último cambio de contraseña del usuario
+    boolean isIssuedBeforePasswordChange(Long userId, Instant issuedAt);
+
+    // Reconstruye el filtro en memoria a partir de la tabla
+    void rebuildFilter();
+
+    // Borra las revocaciones de tokens ya caducados; devuelve cuántas
+    int purgeExpired();
+}
@@ -9,7 +9,13 @@ public interface UserAuthService {
     // Metodo para loguear un usuario
     LoginUserResponseDTO login(LoginUserRequestDTO loginUserRequestDTO);
 
-    // Metodo para cambiar contraseña
-    UserAuthResponseDTO changePassword(String email, ChangePasswordRequestDTO dto);
+    // Metodo para renovar el JWT con un refresh token (sin contraseña)
+    RefreshTokenResponseDTO refresh(RefreshTokenRequestDTO refreshTokenRequestDTO);
+
+    // Metodo para cerrar sesión: revoca el access token y, si se envía, el refresh token de la sesión
+    void logout(Long userId, String accessToken, LogoutRequestDTO logoutRequestDTO);
+
+    // Metodo para cambiar contraseña (el access token con el que se pide queda revocado)
+    UserAuthResponseDTO changePassword(String email, String accessToken, ChangePasswordRequestDTO dto);
 
 }
\ No newline at end of file
@@ -0,0 +1,121 @@
+package com.fitnessapp.fitapp_api.auth.service.implementation;
+
+import com.fitnessapp.fitapp_api.auth.dto.RefreshTokenResponseDTO;
+import com.fitnessapp.fitapp_api.auth.model.RefreshToken;
+import com.fitnessapp.fitapp_api.auth.model.UserAuth;
+import com.fitnessapp.fitapp_api.auth.repository.RefreshTokenRepository;
+import com.fitnessapp.fitapp_api.auth.repository.UserAuthRepository;
+import com.fitnessapp.fitapp_api.auth.service.RefreshTokenService;
+import com.fitnessapp.fitapp_api.core.exception.InvalidRefreshTokenException;
+import com.fitnessapp.fitapp_api.core.util.JwtUtils;
+import com.fitnessapp.fitapp_api.core.util.TokenHashes;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Refresh tokens opacos (256 bits aleatorios) con rotación en cada uso y detección de reutilización.
+ * El refresco solo hace un SHA-256 y dos escrituras indexadas: no pasa por BCrypt ni por el AuthenticationManager.
+ */
+@Slf4j
+@Service
+@Transactional
+public class RefreshTokenServiceImpl implements RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserAuthRepository userAuthRepository;
+    private final JwtUtils jwtUtils;
+    private final Duration refreshTtl;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    public RefreshTokenServiceImpl(RefreshTokenRepository refreshTokenRepository,
+                                   UserAuthRepository userAuthRepository,
+                                   JwtUtils jwtUtils,
+                                   @Value("${security.jwt.refresh-ttl:P30D}") Duration refreshTtl) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userAuthRepository = userAuthRepository;
+        this.jwtUtils = jwtUtils;
+        this.refreshTtl = refreshTtl;
+    }
+
+    @Override
+    public String issue(Long userId) {
+        return save(userAuthRepository.getReferenceById(userId), UUID.randomUUID().toString());
+    }
+
+    /**
+     * Un token revocado que vuelve a llegar significa que alguien lo ha copiado: se revoca toda la familia
+     * (el cliente legítimo tendrá que hacer login). La revocación se confirma aunque la petición falle.
+     */
+    @Override
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public RefreshTokenResponseDTO refresh(String refreshToken) {
+        LocalDateTime now = LocalDateTime.now();
+        RefreshToken current = refreshTokenRepository.findByTokenHashWithUser(TokenHashes.sha256Hex(refreshToken))
+                .orElseThrow(() -> new InvalidRefreshTokenException("Invalid refresh token"));
+
+        if (current.getRevokedAt() != null || refreshTokenRepository.revokeIfActive(current.getId(), now) == 0) {
+            int revoked = refreshTokenRepository.revokeFamily(current.getFamilyId(), now);
+            log.warn("Refresh token reuse detected for user {}: revoked {} tokens of family {}",
+                    current.getUser().getId(), revoked, current.getFamilyId());
+            throw new InvalidRefreshTokenException("Refresh token has already been used");
+        }
+        if (!current.getExpiresAt().isAfter(now)) {
+            throw new InvalidRefreshTokenException("Refresh token has expired");
+        }
+
+        UserAuth user = current.getUser();
+        if (!user.isEnabled() || !user.isAccountNonLocked() || !user.isAccountNonExpired()) {
+            refreshTokenRepository.revokeFamily(current.getFamilyId(), now);
+            throw new InvalidRefreshTokenException("User account is not active");
+        }
+
+        // Mismas authorities que UserDetailsServiceImpl (de momento ninguna)
+        String accessToken = jwtUtils.createToken(user.getId(), user.getEmail(), List.of());
+        String rotated = save(user, current.getFamilyId());
+        return new RefreshTokenResponseDTO(accessToken, rotated);
+    }
+
+    @Override
+    public void revokeSession(Long userId, String refreshToken) {
+        refreshTokenRepository.findByTokenHashWithUser(TokenHashes.sha256Hex(refreshToken))
+                .filter(token -> token.getUser().getId().equals(userId))
+                .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId(), LocalDateTime.now()));
+    }
+
+    @Override
+    public void revokeAllForUser(Long userId) {
+        refreshTokenRepository.revokeAllByUserId(userId, LocalDateTime.now());
+    }
+
+    @Override
+    public int purgeExpired() {
+        return refreshTokenRepository.deleteExpiredBefore(LocalDateTime.now());
+    }
+
+    private String save(UserAuth user, String familyId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        LocalDateTime now = LocalDateTime.now();
+        RefreshToken entity = new RefreshToken();
+        entity.setUser(user);
+        entity.setTokenHash(TokenHashes.sha256Hex(token));
+        entity.setFamilyId(familyId);
+        entity.setCreatedAt(now);
+        entity.setExpiresAt(now.plus(refreshTtl));
+        refreshTokenRepository.save(entity);
+        return token;
+    }
+}
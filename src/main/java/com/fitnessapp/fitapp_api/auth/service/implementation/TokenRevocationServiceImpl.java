@@ -0,0 +1,201 @@
+package com.fitnessapp.fitapp_api.auth.service.implementation;
+
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.fitnessapp.fitapp_api.auth.model.RevokedToken;
+import com.fitnessapp.fitapp_api.auth.repository.RevokedTokenRepository;
+import com.fitnessapp.fitapp_api.auth.repository.UserAuthRepository;
+import com.fitnessapp.fitapp_api.auth.service.TokenRevocationService;
+import com.fitnessapp.fitapp_api.core.security.JwtAuthenticationCache;
+import com.fitnessapp.fitapp_api.core.util.BloomFilter;
+import com.fitnessapp.fitapp_api.core.util.JwtUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Lista de revocación de access tokens por jti. La tabla es la fuente de verdad; delante hay un filtro de Bloom
+ * en memoria que responde "no revocado" sin ir a BD para casi todos los tokens. Solo los positivos del filtro
+ * (tokens revocados y algún falso positivo) se confirman contra la tabla.
+ * El filtro se reconstruye periódicamente desde la tabla (recoge revocaciones de otras instancias y descarta
+ * las ya caducadas). Hasta la primera carga no hay filtro y toda consulta va a BD.
+ * Un cambio de contraseña invalida de golpe los tokens anteriores del usuario por su iat frente a
+ * user_auth.password_changed_at, que se cachea por usuario con un TTL corto: otras instancias lo recogen
+ * en como mucho ese TTL, igual que las revocaciones sueltas con la reconstrucción del filtro.
+ */
+@Slf4j
+@Service
+public class TokenRevocationServiceImpl implements TokenRevocationService {
+
+    // Margen al recoger las revocaciones hechas durante una reconstrucción (transacciones aún sin confirmar)
+    private static final Duration REBUILD_OVERLAP = Duration.ofMinutes(1);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final UserAuthRepository userAuthRepository;
+    private final JwtUtils jwtUtils;
+    private final JwtAuthenticationCache authenticationCache;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+
+    private volatile BloomFilter filter;
+    // jti ya confirmados como revocados: un token revocado que se sigue enviando no va a BD en cada petición
+    private final Cache<String, Boolean> confirmedRevoked;
+    // Último cambio de contraseña por usuario (vacío si nunca ha cambiado)
+    private final Cache<Long, Optional<Instant>> passwordChangedAt;
+
+    private final Counter filterNegative;
+    private final Counter confirmed;
+    private final Counter falsePositive;
+    private final Counter unfiltered;
+
+    public TokenRevocationServiceImpl(RevokedTokenRepository revokedTokenRepository,
+                                      UserAuthRepository userAuthRepository,
+                                      JwtUtils jwtUtils,
+                                      JwtAuthenticationCache authenticationCache,
+                                      @Value("${security.jwt.revocation.expected-insertions:100000}") long expectedInsertions,
+                                      @Value("${security.jwt.revocation.false-positive-rate:0.01}") double falsePositiveRate,
+                                      @Value("${security.jwt.ttl-seconds:1800}") long accessTokenTtlSeconds,
+                                      @Value("${security.jwt.revocation.password-change-cache-ttl:PT1M}") Duration passwordChangeCacheTtl,
+                                      MeterRegistry meterRegistry) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.userAuthRepository = userAuthRepository;
+        this.jwtUtils = jwtUtils;
+        this.authenticationCache = authenticationCache;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.confirmedRevoked = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(accessTokenTtlSeconds))
+                .maximumSize(10_000)
+                .build();
+        this.passwordChangedAt = Caffeine.newBuilder()
+                .expireAfterWrite(passwordChangeCacheTtl)
+                .maximumSize(100_000)
+                .build();
+        this.filterNegative = lookupCounter(meterRegistry, "filter_negative");
+        this.confirmed = lookupCounter(meterRegistry, "revoked");
+        this.falsePositive = lookupCounter(meterRegistry, "false_positive");
+        this.unfiltered = lookupCounter(meterRegistry, "unfiltered");
+    }
+
+    @Override
+    @Transactional
+    public void revoke(String accessToken) {
+        DecodedJWT jwt;
+        try {
+            jwt = jwtUtils.validateToken(accessToken);
+        } catch (JWTVerificationException e) {
+            // Un token inválido o caducado ya no autentica: no hay nada que revocar
+            return;
+        }
+        String jti = jwt.getId();
+        Long userId = jwtUtils.extractUserId(jwt);
+        Instant expiresAt = jwt.getExpiresAtAsInstant();
+        if (jti == null || userId == null || expiresAt == null) {
+            return;
+        }
+
+        if (!revokedTokenRepository.existsById(jti)) {
+            RevokedToken revoked = new RevokedToken();
+            revoked.setJti(jti);
+            revoked.setUser(userAuthRepository.getReferenceById(userId));
+            revoked.setRevokedAt(LocalDateTime.now());
+            revoked.setExpiresAt(LocalDateTime.ofInstant(expiresAt, ZoneId.systemDefault()));
+            revokedTokenRepository.save(revoked);
+        }
+
+        // Si la transacción no llega a confirmarse, esto solo deja un falso positivo en el filtro
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(jti);
+        }
+        confirmedRevoked.put(jti, Boolean.TRUE);
+        authenticationCache.invalidate(accessToken);
+    }
+
+    @Override
+    public boolean isRevoked(String jti) {
+        if (jti == null) {
+            return false;
+        }
+        // Primero lo confirmado en esta instancia: una revocación hecha durante rebuildFilter puede haber ido
+        // al filtro que se estaba sustituyendo y no estar en el nuevo
+        if (confirmedRevoked.getIfPresent(jti) != null) {
+            confirmed.increment();
+            return true;
+        }
+        BloomFilter current = filter;
+        if (current != null && !current.mightContain(jti)) {
+            filterNegative.increment();
+            return false;
+        }
+
+        boolean revoked = revokedTokenRepository.existsById(jti);
+        if (revoked) {
+            confirmedRevoked.put(jti, Boolean.TRUE);
+            confirmed.increment();
+        } else if (current != null) {
+            falsePositive.increment();
+        } else {
+            unfiltered.increment();
+        }
+        return revoked;
+    }
+
+    @Override
+    public void revokeIssuedBefore(Long userId, Instant since) {
+        passwordChangedAt.put(userId, Optional.of(since));
+    }
+
+    @Override
+    public boolean isIssuedBeforePasswordChange(Long userId, Instant issuedAt) {
+        if (userId == null) {
+            return false;
+        }
+        Optional<Instant> changedAt = passwordChangedAt.get(userId, id -> userAuthRepository
+                .findPasswordChangedAtById(id)
+                .map(at -> at.atZone(ZoneId.systemDefault()).toInstant()));
+        // Sin iat no se puede demostrar que el token es posterior al cambio
+        return changedAt.isPresent() && (issuedAt == null || issuedAt.isBefore(changedAt.get()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void rebuildFilter() {
+        LocalDateTime start = LocalDateTime.now();
+        List<String> active = revokedTokenRepository.findActiveJtis(start);
+
+        BloomFilter next = new BloomFilter(Math.max(expectedInsertions, active.size() * 2L), falsePositiveRate);
+        active.forEach(next::put);
+        filter = next;
+
+        // Las revocaciones concurrentes pueden haber ido al filtro anterior: se repasan tras el cambio
+        revokedTokenRepository.findJtisRevokedSince(start.minus(REBUILD_OVERLAP)).forEach(next::put);
+        confirmedRevoked.asMap().keySet().forEach(next::put);
+        log.debug("Revocation filter rebuilt with {} active revoked tokens", active.size());
+    }
+
+    @Override
+    @Transactional
+    public int purgeExpired() {
+        return revokedTokenRepository.deleteExpiredBefore(LocalDateTime.now());
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("security.jwt.revocation.lookup")
+                .description("Consultas a la lista de revocación de tokens por resultado")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
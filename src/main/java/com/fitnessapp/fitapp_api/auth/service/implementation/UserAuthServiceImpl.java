@@ -1,14 +1,20 @@
 package com.fitnessapp.fitapp_api.auth.service.implementation;
 
 import com.fitnessapp.fitapp_api.auth.dto.*;
+import com.fitnessapp.fitapp_api.auth.index.RegisteredEmailFilter;
 import com.fitnessapp.fitapp_api.auth.mapper.UserAuthMapper;
 import com.fitnessapp.fitapp_api.auth.model.UserAuth;
 import com.fitnessapp.fitapp_api.auth.repository.UserAuthRepository;
+import com.fitnessapp.fitapp_api.auth.service.RefreshTokenService;
+import com.fitnessapp.fitapp_api.auth.service.TokenRevocationService;
 import com.fitnessapp.fitapp_api.auth.service.UserAuthService;
 import com.fitnessapp.fitapp_api.core.exception.*;
+import com.fitnessapp.fitapp_api.core.security.AuthUserDetails;
+import com.fitnessapp.fitapp_api.core.util.Emails;
 import com.fitnessapp.fitapp_api.core.util.JwtUtils;
 import com.fitnessapp.fitapp_api.profile.repository.UserProfileRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -16,6 +22,11 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
 @RequiredArgsConstructor
 @Service
 public class UserAuthServiceImpl implements UserAuthService {
@@ -25,37 +36,46 @@ public class UserAuthServiceImpl implements UserAuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtUtils jwtUtils;
     private final AuthenticationManager authenticationManager;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationService tokenRevocationService;
+    private final RegisteredEmailFilter registeredEmailFilter;
 
     private final UserProfileRepository userProfileRepository;
 
     @Override
     public UserAuthResponseDTO register(RegisterUserRequestDTO registerUserRequestDTO) {
         // Verificar si el email ya está en uso. Se lanza excepción si es así.
-        if (userAuthRepository.existsByEmail(registerUserRequestDTO.email())) {
+        // Si el filtro asegura que el email no existe se evita la consulta; uk_user_auth_email es la garantía final
+        String email = Emails.normalize(registerUserRequestDTO.email());
+        if (registeredEmailFilter.mightExist(email) && userAuthRepository.existsByEmail(email)) {
             throw new UserAlreadyExistsException("Email is already in use");
         }
 
         // Mapear DTO a entidad, encriptar la contraseña y guardar el usuario
         UserAuth user = mapper.toEntity(registerUserRequestDTO);
         user.setPassword(passwordEncoder.encode(registerUserRequestDTO.password()));
-        UserAuth savedUser = userAuthRepository.save(user);
-
-        // Autenticar al usuario recién registrado y generar el token JWT
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        savedUser.getEmail(),
-                        registerUserRequestDTO.password()
-                )
-        );
-        // Se guarda el usuario autenticado en el contexto de seguridad.
-        SecurityContextHolder.getContext().setAuthentication(authentication);
+        UserAuth savedUser;
+        try {
+            savedUser = userAuthRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            // Registro concurrente del mismo email: lo ha frenado uk_user_auth_email, se responde igual que arriba
+            if (userAuthRepository.existsByEmail(email)) {
+                throw new UserAlreadyExistsException("Email is already in use");
+            }
+            throw e;
+        }
+        registeredEmailFilter.add(savedUser.getEmail());
 
-        String token = jwtUtils.createToken(authentication);
+        // Generar el token JWT directamente: la contraseña se acaba de fijar, volver a verificarla
+        // con el AuthenticationManager sería un segundo BCrypt sin aportar nada
+        String token = jwtUtils.createToken(savedUser.getId(), savedUser.getEmail(), List.of());
+        String refreshToken = refreshTokenService.issue(savedUser.getId());
 
         // Retornar un DTO response con el token
         return new UserAuthResponseDTO(
                 savedUser.getId(),
                 token,
+                refreshToken,
                 false
         );
     }
@@ -73,19 +93,38 @@ public class UserAuthServiceImpl implements UserAuthService {
         SecurityContextHolder.getContext().setAuthentication(authentication);
 
         String token = jwtUtils.createToken(authentication);
+        Long userId = ((AuthUserDetails) authentication.getPrincipal()).getId();
+        // A partir de aquí el cliente renueva con /refresh en lugar de volver a enviar la contraseña
+        String refreshToken = refreshTokenService.issue(userId);
 
-        // Comprobamos si el usuario tiene un perfil asociado o no.
-        Boolean profileExists = userProfileRepository.existsByUser_Email(loginUserRequestDTO.email());
+        // Comprobamos si el usuario tiene un perfil asociado o no (por id, ya viene en el principal autenticado)
+        Boolean profileExists = userProfileRepository.existsByUser_Id(userId);
 
         // Retornar un DTO response con el token
         return new LoginUserResponseDTO(
                 token,
+                refreshToken,
                 profileExists
         );
     }
 
     @Override
-    public UserAuthResponseDTO changePassword(String email, ChangePasswordRequestDTO dto) {
+    public RefreshTokenResponseDTO refresh(RefreshTokenRequestDTO refreshTokenRequestDTO) {
+        return refreshTokenService.refresh(refreshTokenRequestDTO.refreshToken());
+    }
+
+    @Override
+    public void logout(Long userId, String accessToken, LogoutRequestDTO logoutRequestDTO) {
+        // El JWT deja de aceptarse aunque no haya caducado
+        tokenRevocationService.revoke(accessToken);
+        if (logoutRequestDTO != null && logoutRequestDTO.refreshToken() != null
+                && !logoutRequestDTO.refreshToken().isBlank()) {
+            refreshTokenService.revokeSession(userId, logoutRequestDTO.refreshToken());
+        }
+    }
+
+    @Override
+    public UserAuthResponseDTO changePassword(String email, String accessToken, ChangePasswordRequestDTO dto) {
         // Recuperar el usuario por email
         UserAuth user = userAuthRepository.findByEmail(email)
                 .orElseThrow(() -> new UserAuthNotFoundException("User not found"));
@@ -105,19 +144,25 @@ public class UserAuthServiceImpl implements UserAuthService {
             throw new InvalidPasswordFormatException("New password does not meet requirements");
         }
 
-        // Codificar y guardar la nueva contraseña
+        // Codificar y guardar la nueva contraseña. El iat de los JWT va en segundos: se trunca para que
+        // el token nuevo, emitido justo después, no quede por detrás del cambio
+        LocalDateTime changedAt = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
         user.setPassword(passwordEncoder.encode(dto.newPassword()));
+        user.setPasswordChangedAt(changedAt);
         userAuthRepository.save(user);
 
-        // Generar un nuevo token con la contraseña actualizada
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(email, dto.newPassword())
-        );
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-        String token = jwtUtils.createToken(authentication);
+        // Generar un nuevo token: la contraseña actual ya se verificó arriba, no se repite BCrypt
+        String token = jwtUtils.createToken(user.getId(), user.getEmail(), List.of());
+
+        // Las sesiones abiertas con la contraseña anterior dejan de poder refrescarse y todos los access
+        // tokens emitidos antes del cambio (no solo el usado aquí) dejan de ser válidos
+        refreshTokenService.revokeAllForUser(user.getId());
+        tokenRevocationService.revoke(accessToken);
+        tokenRevocationService.revokeIssuedBefore(user.getId(), changedAt.atZone(ZoneId.systemDefault()).toInstant());
+        String refreshToken = refreshTokenService.issue(user.getId());
 
         // Retornar DTO con token actualizado
-        return new UserAuthResponseDTO(user.getId(), token,
+        return new UserAuthResponseDTO(user.getId(), token, refreshToken,
                 userProfileRepository.existsByUser_Email(email));
     }
 }
\ No newline at end of file
@@ -2,9 +2,9 @@ package com.fitnessapp.fitapp_api.auth.service.implementation;
 
 import com.fitnessapp.fitapp_api.auth.model.UserAuth;
 import com.fitnessapp.fitapp_api.auth.repository.UserAuthRepository;
+import com.fitnessapp.fitapp_api.core.security.AuthUserDetails;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -38,8 +38,9 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         //        .forEach(role -> authorityList.add(new SimpleGrantedAuthority("ROLE_".concat(role.getRoleName()))));
 
         // Retornamos el usuario en formato Spring Security con los datos de nuestro userSec.
-        // User es una implementación de UserDetails
-        return new User(userAuth.getEmail(),
+        // AuthUserDetails es un User (implementación de UserDetails) que además lleva el id para el JWT
+        return new AuthUserDetails(userAuth.getId(),
+                userAuth.getEmail(),
                 userAuth.getPassword(),
                 userAuth.isEnabled(),
                 userAuth.isAccountNonExpired(),
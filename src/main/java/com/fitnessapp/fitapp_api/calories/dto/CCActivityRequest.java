@@ -1,7 +1,9 @@
 package com.fitnessapp.fitapp_api.calories.dto;
 
+import com.fitnessapp.fitapp_api.routeexecution.model.RouteExecution.ActivityType;
+
 public record CCActivityRequest(
-    String activityType,
+    ActivityType activityType,
     long duration
 ) {
 }
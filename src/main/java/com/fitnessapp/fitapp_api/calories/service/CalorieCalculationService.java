@@ -1,18 +1,19 @@
 package com.fitnessapp.fitapp_api.calories.service;
 
 import com.fitnessapp.fitapp_api.calories.dto.CCActivityRequest;
-import com.fitnessapp.fitapp_api.profile.model.UserProfile;
+import com.fitnessapp.fitapp_api.profile.cache.ProfileSnapshot;
 
 
 public interface CalorieCalculationService {
-    double calculateCalories(UserProfile profile, CCActivityRequest activity);
+    double calculateCalories(ProfileSnapshot profile, CCActivityRequest activity);
 
     /**
      * Checks if the user has reached their daily calorie goal.
-     * Calculates the calories burned for the current day according to the user's profile timezone.
+     * The calories burned today come from the per-day accumulator, so the check does not query executions.
      *
-     * @param profile the user profile containing the daily goal and timezone information
+     * @param profile       the cached user profile containing the daily goal
+     * @param caloriesToday calories burned on the user's local day, including the session being finished
      * @return true if the calories burned today are greater than or equal to the daily goal, false otherwise
      */
-    boolean hasReachedDailyGoal(UserProfile profile);
+    boolean hasReachedDailyGoal(ProfileSnapshot profile, double caloriesToday);
 }
\ No newline at end of file
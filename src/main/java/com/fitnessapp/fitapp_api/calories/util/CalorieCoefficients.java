@@ -0,0 +1,50 @@
+package com.fitnessapp.fitapp_api.calories.util;
+
+import com.fitnessapp.fitapp_api.profile.util.Gender;
+import com.fitnessapp.fitapp_api.routeexecution.model.RouteExecution.ActivityType;
+
+import java.time.LocalDate;
+import java.time.Period;
+
+/**
+ * Kcal por segundo de cada actividad para un perfil concreto: BMR (Mifflin-St Jeor) / 86400 * MET.
+ * Se calcula una vez al cargar el perfil, así una sesión cuesta una multiplicación
+ * en lugar de recalcular edad y BMR en cada llamada.
+ * La edad se fija en la fecha de cálculo; el TTL de la caché de perfiles limita el desfase en un cumpleaños.
+ */
+public final class CalorieCoefficients {
+
+    private static final double SECONDS_PER_DAY = 24 * 60 * 60;
+
+    private final double[] kcalPerSecond;
+
+    private CalorieCoefficients(double[] kcalPerSecond) {
+        this.kcalPerSecond = kcalPerSecond;
+    }
+
+    public static CalorieCoefficients of(Gender gender, double weightKg, double heightCm, LocalDate birthDate, LocalDate today) {
+        double bmr = bmr(gender, weightKg, heightCm, Period.between(birthDate, today).getYears());
+        ActivityType[] types = ActivityType.values();
+        double[] coefficients = new double[types.length];
+        for (ActivityType type : types) {
+            coefficients[type.ordinal()] = bmr / SECONDS_PER_DAY * MetTable.of(type);
+        }
+        return new CalorieCoefficients(coefficients);
+    }
+
+    public double kcalPerSecond(ActivityType type) {
+        return kcalPerSecond[type.ordinal()];
+    }
+
+    public double calories(ActivityType type, long durationSec) {
+        return kcalPerSecond[type.ordinal()] * durationSec;
+    }
+
+    private static double bmr(Gender gender, double weight, double height, int age) {
+        double base = (10 * weight) + (6.25 * height) - (5 * age);
+        return switch (gender) {
+            case MALE -> base + 5;
+            case FEMALE -> base - 161;
+        };
+    }
+}
@@ -0,0 +1,35 @@
+package com.fitnessapp.fitapp_api.calories.util;
+
+import com.fitnessapp.fitapp_api.routeexecution.model.RouteExecution.ActivityType;
+
+/**
+ * Valores MET por tipo de actividad, indexados por ordinal.
+ * El switch exhaustivo obliga a dar un MET a cada actividad nueva en tiempo de compilación.
+ */
+public final class MetTable {
+
+    private static final double[] MET = new double[ActivityType.values().length];
+
+    static {
+        for (ActivityType type : ActivityType.values()) {
+            MET[type.ordinal()] = switch (type) {
+                case RUNNING_SLOW -> 8.3;
+                case RUNNING_MODERATE -> 9.8;
+                case RUNNING_INTENSE -> 11.8;
+                case CYCLING_SLOW -> 4.3;
+                case CYCLING_MODERATE -> 7.0;
+                case CYCLING_INTENSE -> 9.0;
+                case WALKING_SLOW -> 2.0;
+                case WALKING_MODERATE -> 3.5;
+                case WALKING_INTENSE -> 5.0;
+            };
+        }
+    }
+
+    private MetTable() {
+    }
+
+    public static double of(ActivityType type) {
+        return MET[type.ordinal()];
+    }
+}
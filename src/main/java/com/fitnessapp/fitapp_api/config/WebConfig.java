@@ -19,7 +19,7 @@ public class WebConfig {
         cfg.setAllowedOriginPatterns(Arrays.stream(origins.split(","))
                 .map(String::trim).toList());
         cfg.setAllowedMethods(List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
-        cfg.setAllowedHeaders(List.of("Authorization", "Content-Type"));
+        cfg.setAllowedHeaders(List.of("Authorization", "Content-Type", "Idempotency-Key"));
         cfg.setAllowCredentials(false); // Si JWT en header => mejor false
 
         var source = new UrlBasedCorsConfigurationSource();
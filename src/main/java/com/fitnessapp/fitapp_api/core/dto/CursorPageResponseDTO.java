@@ -0,0 +1,21 @@
+package com.fitnessapp.fitapp_api.core.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(name = "CursorPageResponseDTO", description = "Página de resultados paginada por cursor (keyset).")
+public record CursorPageResponseDTO<T>(
+        @Schema(description = "Elementos de la página actual.")
+        List<T> items,
+
+        @Schema(
+                description = "Cursor opaco para pedir la página siguiente. Null si no hay más resultados.",
+                example = "MjAyNS0xMi0wNFQxODozMDowMHw0Mg"
+        )
+        String nextCursor,
+
+        @Schema(description = "Indica si existen más resultados después de esta página.", example = "true")
+        boolean hasNext
+) {
+}
@@ -0,0 +1,7 @@
+package com.fitnessapp.fitapp_api.core.exception;
+
+public class IdempotencyKeyReusedException extends RuntimeException {
+    public IdempotencyKeyReusedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.fitnessapp.fitapp_api.core.exception;
+
+public class IdempotencyRequestInProgressException extends RuntimeException {
+    public IdempotencyRequestInProgressException(String message) {
+        super(message);
+    }
+}
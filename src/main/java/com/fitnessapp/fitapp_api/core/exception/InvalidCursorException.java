@@ -0,0 +1,7 @@
+package com.fitnessapp.fitapp_api.core.exception;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.fitnessapp.fitapp_api.core.exception;
+
+public class InvalidIdempotencyKeyException extends RuntimeException {
+    public InvalidIdempotencyKeyException(String message) {
+        super(message);
+    }
+}
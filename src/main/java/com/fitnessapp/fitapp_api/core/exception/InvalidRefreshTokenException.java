@@ -0,0 +1,7 @@
+package com.fitnessapp.fitapp_api.core.exception;
+
+public class InvalidRefreshTokenException extends RuntimeException {
+    public InvalidRefreshTokenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.fitnessapp.fitapp_api.core.exception;
+
+public class InvalidStatsQueryException extends RuntimeException {
+    public InvalidStatsQueryException(String message) {
+        super(message);
+    }
+}
@@ -2,6 +2,7 @@ package com.fitnessapp.fitapp_api.core.handler;
 
 import com.fitnessapp.fitapp_api.core.exception.*;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
@@ -43,6 +44,27 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
                 "Invalid username or password", req.getRequestURI(), Map.of());
     }
 
+    /**
+     * 401 — Refresh token inválido, caducado o reutilizado
+     */
+    @ExceptionHandler(InvalidRefreshTokenException.class)
+    public ResponseEntity<Object> handleInvalidRefreshToken(InvalidRefreshTokenException ex, HttpServletRequest req) {
+        return errorFactory.entity(HttpStatus.UNAUTHORIZED, "invalid_refresh_token",
+                ex.getMessage(), req.getRequestURI(), Map.of());
+    }
+
+    /**
+     * 503 — Pool de hashing de contraseñas saturado (login/registro/cambio de contraseña)
+     */
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    public ResponseEntity<Object> handlePasswordHashingBusy(PasswordHashingBusyException ex,
+                                                            HttpServletRequest req,
+                                                            HttpServletResponse res) {
+        res.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        return errorFactory.entity(HttpStatus.SERVICE_UNAVAILABLE, "auth_busy",
+                ex.getMessage(), req.getRequestURI(), Map.of());
+    }
+
     /**
      * 401 — Usuario deshabilitado (no puede autenticarse)
      */
@@ -262,4 +284,52 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return errorFactory.entity(HttpStatus.BAD_REQUEST, "password_format_invalid",
                 ex.getMessage(), req.getRequestURI(), Map.of());
     }
-}
\ No newline at end of file
+
+    /**
+     * 400 - Cursor de paginación inválido o manipulado
+     */
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<Object> handleInvalidCursor(InvalidCursorException ex, HttpServletRequest req) {
+        return errorFactory.entity(HttpStatus.BAD_REQUEST, "invalid_cursor",
+                ex.getMessage(), req.getRequestURI(), Map.of());
+    }
+
+    /**
+     * 400 - Parámetros de estadísticas inválidos (métrica, periodo o granularidad)
+     */
+    @ExceptionHandler(InvalidStatsQueryException.class)
+    public ResponseEntity<Object> handleInvalidStatsQuery(InvalidStatsQueryException ex, HttpServletRequest req) {
+        return errorFactory.entity(HttpStatus.BAD_REQUEST, "invalid_stats_query",
+                ex.getMessage(), req.getRequestURI(), Map.of());
+    }
+
+    /**
+     * 400 - Cabecera Idempotency-Key vacía o demasiado larga
+     */
+    @ExceptionHandler(InvalidIdempotencyKeyException.class)
+    public ResponseEntity<Object> handleInvalidIdempotencyKey(InvalidIdempotencyKeyException ex, HttpServletRequest req) {
+        return errorFactory.entity(HttpStatus.BAD_REQUEST, "invalid_idempotency_key",
+                ex.getMessage(), req.getRequestURI(), Map.of());
+    }
+
+    /**
+     * 409 - La petición original con esta Idempotency-Key todavía se está procesando
+     */
+    @ExceptionHandler(IdempotencyRequestInProgressException.class)
+    public ResponseEntity<Object> handleIdempotencyRequestInProgress(IdempotencyRequestInProgressException ex,
+                                                                     HttpServletRequest req,
+                                                                     HttpServletResponse res) {
+        res.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        return errorFactory.entity(HttpStatus.CONFLICT, "idempotency_request_in_progress",
+                ex.getMessage(), req.getRequestURI(), Map.of());
+    }
+
+    /**
+     * 422 - Idempotency-Key reutilizada con otra petición
+     */
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<Object> handleIdempotencyKeyReused(IdempotencyKeyReusedException ex, HttpServletRequest req) {
+        return errorFactory.entity(HttpStatus.UNPROCESSABLE_ENTITY, "idempotency_key_reused",
+                ex.getMessage(), req.getRequestURI(), Map.of());
+    }
+}
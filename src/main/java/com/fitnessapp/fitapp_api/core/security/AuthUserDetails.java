@@ -0,0 +1,29 @@
+package com.fitnessapp.fitapp_api.core.security;
+
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+/**
+ * UserDetails con el id del usuario, para poder emitirlo en el JWT (claim uid) tras el login
+ * sin volver a consultar user_auth.
+ */
+@Getter
+public class AuthUserDetails extends User {
+
+    private final Long id;
+
+    public AuthUserDetails(Long id,
+                           String username,
+                           String password,
+                           boolean enabled,
+                           boolean accountNonExpired,
+                           boolean credentialsNonExpired,
+                           boolean accountNonLocked,
+                           Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, enabled, accountNonExpired, credentialsNonExpired, accountNonLocked, authorities);
+        this.id = id;
+    }
+}
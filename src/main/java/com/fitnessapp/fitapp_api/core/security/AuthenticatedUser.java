@@ -0,0 +1,16 @@
+package com.fitnessapp.fitapp_api.core.security;
+
+import java.security.Principal;
+
+/**
+ * Principal de las peticiones autenticadas con JWT: id numérico (claim uid) y email (subject).
+ * getName() devuelve el email, así que quien siga usando Principal#getName no nota el cambio;
+ * los endpoints calientes lo reciben con @AuthenticationPrincipal y consultan por user_id.
+ */
+public record AuthenticatedUser(Long id, String email) implements Principal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
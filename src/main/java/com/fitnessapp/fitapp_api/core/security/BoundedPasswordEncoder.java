@@ -0,0 +1,123 @@
+package com.fitnessapp.fitapp_api.core.security;
+
+import com.fitnessapp.fitapp_api.core.exception.PasswordHashingBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * PasswordEncoder que ejecuta BCrypt (encode y matches) en un pool propio de tamaño fijo con cola acotada.
+ * Así una avalancha de logins no puede ocupar más CPU que la que permite el pool: las peticiones que no caben
+ * en la cola, o que esperan más del timeout, se rechazan al momento con PasswordHashingBusyException (503)
+ * en lugar de dejar sin hilos al resto de endpoints.
+ * Lo usa también el DaoAuthenticationProvider, de modo que el login queda cubierto.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejectedCounter;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate,
+                                  int threads,
+                                  int queueCapacity,
+                                  Duration timeout,
+                                  MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.timeout = timeout;
+        this.executor = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new NamedThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.encodeTimer = hashTimer(meterRegistry, "encode");
+        this.matchesTimer = hashTimer(meterRegistry, "matches");
+        this.rejectedCounter = Counter.builder("security.password.hash.rejected")
+                .description("Operaciones de contraseña rechazadas por saturación")
+                .register(meterRegistry);
+        Gauge.builder("security.password.hash.queue", executor, e -> e.getQueue().size())
+                .description("Operaciones de contraseña esperando en cola")
+                .register(meterRegistry);
+        Gauge.builder("security.password.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Operaciones de contraseña en ejecución")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> delegate.encode(rawPassword), encodeTimer);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> delegate.matches(rawPassword, encodedPassword), matchesTimer);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private <T> T run(Callable<T> task, Timer timer) {
+        Future<T> future;
+        try {
+            // El timer mide solo el hash, no la espera en cola
+            future = executor.submit(() -> timer.recordCallable(task));
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new PasswordHashingBusyException("Authentication service is busy, please retry");
+        }
+
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejectedCounter.increment();
+            throw new PasswordHashingBusyException("Authentication service is busy, please retry");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingBusyException("Password hashing was interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private static Timer hashTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("security.password.hash")
+                .description("Tiempo de cálculo de BCrypt")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    private static final class NamedThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "password-hashing-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.fitnessapp.fitapp_api.core.security;
+
+import com.fitnessapp.fitapp_api.core.util.TokenHashes;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Caché de tokens JWT ya verificados (clave: SHA-256 del token, valor: Authentication ya construida).
+ * Evita repetir la verificación HMAC y el parseo de claims en cada petición del mismo token.
+ * Cada entrada caduca en el exp del token (o antes, si el TTL máximo configurado es menor),
+ * así que nunca se acepta un token caducado desde la caché.
+ * Solo se guardan tokens que han pasado la verificación completa.
+ */
+@Component
+public class JwtAuthenticationCache {
+
+    private final Cache<String, CachedAuthentication> cache;
+
+    public JwtAuthenticationCache(@Value("${app.security.jwt-cache.max-ttl:PT30M}") Duration maxTtl,
+                                  @Value("${app.security.jwt-cache.max-size:10000}") long maxSize,
+                                  MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilTokenExpiry(maxTtl))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "security.jwt.verified");
+    }
+
+    /**
+     * Entrada cacheada para el token, o null si no está (o ya ha caducado).
+     * Incluye el jti y el iat para poder comprobar la revocación sin volver a decodificar el token.
+     */
+    public CachedAuthentication get(String token) {
+        CachedAuthentication cached = cache.getIfPresent(keyOf(token));
+        if (cached == null || !cached.expiresAt().isAfter(Instant.now())) {
+            return null;
+        }
+        return cached;
+    }
+
+    /**
+     * Guarda la Authentication de un token ya verificado. Sin exp no se cachea.
+     */
+    public void put(String token, Authentication authentication, String tokenId, Instant issuedAt, Instant expiresAt) {
+        if (expiresAt == null || !expiresAt.isAfter(Instant.now())) {
+            return;
+        }
+        cache.put(keyOf(token), new CachedAuthentication(authentication, tokenId, issuedAt, expiresAt));
+    }
+
+    public void invalidate(String token) {
+        cache.invalidate(keyOf(token));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    // Se guarda el hash y no el token para no retener credenciales en claro en memoria
+    private static String keyOf(String token) {
+        return TokenHashes.sha256Hex(token);
+    }
+
+    public record CachedAuthentication(Authentication authentication, String tokenId, Instant issuedAt,
+                                       Instant expiresAt) {
+    }
+
+    private record UntilTokenExpiry(Duration maxTtl) implements Expiry<String, CachedAuthentication> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedAuthentication value, long currentTime) {
+            Duration untilExp = Duration.between(Instant.now(), value.expiresAt());
+            return Math.max(0L, Math.min(maxTtl.toNanos(), untilExp.toNanos()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedAuthentication value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedAuthentication value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
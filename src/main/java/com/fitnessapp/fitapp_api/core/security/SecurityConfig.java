@@ -1,9 +1,14 @@
 package com.fitnessapp.fitapp_api.core.security;
 
+import com.fitnessapp.fitapp_api.auth.service.TokenRevocationService;
 import com.fitnessapp.fitapp_api.core.handler.ErrorResponseFactory;
 import com.fitnessapp.fitapp_api.core.security.filters.JwtTokenValidator;
+import com.fitnessapp.fitapp_api.core.security.ratelimit.RateLimitFilter;
+import com.fitnessapp.fitapp_api.core.security.ratelimit.RateLimiter;
 import com.fitnessapp.fitapp_api.core.util.JwtUtils;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -25,6 +30,7 @@ import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.access.AccessDeniedHandler;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.time.Duration;
 import java.util.Map;
 
 @Configuration
@@ -36,12 +42,21 @@ public class SecurityConfig {
     private final JwtUtils jwtUtils;
     private final UserDetailsService userDetailsService;
     private final ErrorResponseFactory errorFactory;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.security.password-hashing.threads:4}")
+    private int passwordHashingThreads;
+    @Value("${app.security.password-hashing.queue-capacity:64}")
+    private int passwordHashingQueueCapacity;
+    @Value("${app.security.password-hashing.timeout:PT5S}")
+    private Duration passwordHashingTimeout;
 
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http,
                                            AuthenticationEntryPoint jsonAuthenticationEntryPoint,
                                            AccessDeniedHandler jsonAccessDeniedHandler,
-                                           JwtTokenValidator jwtTokenValidator) throws Exception {
+                                           JwtTokenValidator jwtTokenValidator,
+                                           RateLimitFilter rateLimitFilter) throws Exception {
 
         return http
                 // 1. Aplica la configuración CORS primero
@@ -53,7 +68,7 @@ public class SecurityConfig {
                 .authenticationProvider(authenticationProvider())
                 .authorizeHttpRequests(reg -> reg
                         .requestMatchers("/actuator/health").permitAll()
-                        .requestMatchers(HttpMethod.POST, "/api/v1/auth/register", "/api/v1/auth/login").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/api/v1/auth/register", "/api/v1/auth/login", "/api/v1/auth/refresh").permitAll()
                         .requestMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                         .anyRequest().authenticated()       // o .permitAll() para no exigir auth a nivel URL
@@ -63,12 +78,21 @@ public class SecurityConfig {
                         .accessDeniedHandler(jsonAccessDeniedHandler)
                 )
                 .addFilterBefore(jwtTokenValidator, UsernamePasswordAuthenticationFilter.class)
+                .addFilterAfter(rateLimitFilter, JwtTokenValidator.class)
                 .build();
     }
 
     @Bean
-    public JwtTokenValidator jwtTokenValidator(AuthenticationEntryPoint entryPoint) {
-        return new JwtTokenValidator(jwtUtils, entryPoint);
+    public JwtTokenValidator jwtTokenValidator(AuthenticationEntryPoint entryPoint,
+                                               JwtAuthenticationCache jwtAuthenticationCache,
+                                               TokenRevocationService tokenRevocationService) {
+        return new JwtTokenValidator(jwtUtils, entryPoint, jwtAuthenticationCache, tokenRevocationService,
+                meterRegistry);
+    }
+
+    @Bean
+    public RateLimitFilter rateLimitFilter(RateLimiter rateLimiter) {
+        return new RateLimitFilter(rateLimiter, errorFactory);
     }
 
     @Bean
@@ -101,8 +125,10 @@ public class SecurityConfig {
         return p;
     }
 
+    // BCrypt en un pool acotado: ver BoundedPasswordEncoder
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(),
+                passwordHashingThreads, passwordHashingQueueCapacity, passwordHashingTimeout, meterRegistry);
     }
 }
\ No newline at end of file
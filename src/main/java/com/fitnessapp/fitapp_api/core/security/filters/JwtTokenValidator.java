@@ -2,37 +2,68 @@ package com.fitnessapp.fitapp_api.core.security.filters;
 
 import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.DecodedJWT;
+import com.fitnessapp.fitapp_api.auth.service.TokenRevocationService;
+import com.fitnessapp.fitapp_api.core.security.AuthenticatedUser;
+import com.fitnessapp.fitapp_api.core.security.JwtAuthenticationCache;
 import com.fitnessapp.fitapp_api.core.util.JwtUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpHeaders;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.authentication.InsufficientAuthenticationException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.AuthenticationEntryPoint;
-import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.web.cors.CorsUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 
-// Filtro que se ejecutara una vez por cada request
-@RequiredArgsConstructor
+// Filtro que se ejecutara una vez por cada request.
+// Los tokens ya verificados se resuelven desde JwtAuthenticationCache sin repetir HMAC ni parseo de claims;
+// los tokens revocados (logout) o emitidos antes del último cambio de contraseña se rechazan consultando
+// TokenRevocationService;
+// la Authentication cacheada es inmutable y se comparte entre peticiones, por eso no lleva details
+// (IP/sesión), que la API stateless no usa.
 public class JwtTokenValidator extends OncePerRequestFilter {
 
     private final JwtUtils jwtUtils;
     private final AuthenticationEntryPoint authEntryPoint;
+    private final JwtAuthenticationCache authenticationCache;
+    private final TokenRevocationService tokenRevocationService;
+
+    // Un timer por resultado, registrados una sola vez
+    private final Timer cacheHitTimer;
+    private final Timer verifiedTimer;
+    private final Timer rejectedTimer;
+
+    public JwtTokenValidator(JwtUtils jwtUtils,
+                             AuthenticationEntryPoint authEntryPoint,
+                             JwtAuthenticationCache authenticationCache,
+                             TokenRevocationService tokenRevocationService,
+                             MeterRegistry meterRegistry) {
+        this.jwtUtils = jwtUtils;
+        this.authEntryPoint = authEntryPoint;
+        this.authenticationCache = authenticationCache;
+        this.tokenRevocationService = tokenRevocationService;
+        this.cacheHitTimer = filterTimer(meterRegistry, "cache_hit");
+        this.verifiedTimer = filterTimer(meterRegistry, "verified");
+        this.rejectedTimer = filterTimer(meterRegistry, "rejected");
+    }
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request,
@@ -43,48 +74,37 @@ public class JwtTokenValidator extends OncePerRequestFilter {
         var existing = SecurityContextHolder.getContext().getAuthentication();
         if (existing == null || existing instanceof AnonymousAuthenticationToken) {
 
-            String header = request.getHeader(HttpHeaders.AUTHORIZATION);
-            if (header != null) {
-                String trimmed = header.trim();
-                // soporta "Bearer " case-insensitive
-                if (trimmed.length() >= 7 && trimmed.regionMatches(true, 0, "Bearer ", 0, 7)) {
-                    String jwtToken = trimmed.substring(7).trim(); // "Bearer " + token
-                    if (jwtToken.isEmpty()) {
-                        SecurityContextHolder.clearContext();
-                        authEntryPoint.commence(request, response,
-                                new InsufficientAuthenticationException("Missing bearer token"));
-                        return;
-                    }
-                    try {
+            // Misma lectura de "Authorization: Bearer <token>" que logout y cambio de contraseña
+            String jwtToken = JwtUtils.extractBearerToken(request.getHeader(HttpHeaders.AUTHORIZATION));
+            if (jwtToken != null) {
+                long start = System.nanoTime();
+                try {
+                    Authentication authentication;
+                    Timer timer;
+                    JwtAuthenticationCache.CachedAuthentication cached = authenticationCache.get(jwtToken);
+                    if (cached != null) {
+                        authentication = cached.authentication();
+                        ensureNotRevoked(cached.tokenId(), userIdOf(authentication), cached.issuedAt());
+                        timer = cacheHitTimer;
+                    } else {
                         DecodedJWT decodedJWT = jwtUtils.validateToken(jwtToken);
-
-                        String email = jwtUtils.extractEmail(decodedJWT);
-                        List<String> authoritiesClaim = jwtUtils
-                                .getSpecificClaim(decodedJWT, "authorities")
-                                .asList(String.class);
-
-                        Collection<? extends GrantedAuthority> authoritiesList =
-                                (authoritiesClaim == null ? List.<String>of() : authoritiesClaim).stream()
-                                        // .map(r -> r.startsWith("ROLE_") ? r : "ROLE_" + r) // si algún día guardas sin prefijo
-                                        .map(SimpleGrantedAuthority::new)
-                                        .toList();
-
-                        UsernamePasswordAuthenticationToken authentication =
-                                new UsernamePasswordAuthenticationToken(email, null, authoritiesList);
-                        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-
-                        SecurityContext context = SecurityContextHolder.createEmptyContext();
-                        context.setAuthentication(authentication);
-                        SecurityContextHolder.setContext(context);
-
-                    } catch (JWTVerificationException ex) {
-                        SecurityContextHolder.clearContext();
-                        authEntryPoint.commence(
-                                request, response,
-                                new InsufficientAuthenticationException("Invalid token", ex)
-                        );
-                        return;
+                        authentication = toAuthentication(decodedJWT);
+                        ensureNotRevoked(decodedJWT.getId(), userIdOf(authentication), decodedJWT.getIssuedAtAsInstant());
+                        authenticationCache.put(jwtToken, authentication, decodedJWT.getId(),
+                                decodedJWT.getIssuedAtAsInstant(), decodedJWT.getExpiresAtAsInstant());
+                        timer = verifiedTimer;
                     }
+                    setAuthentication(authentication);
+                    timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+                } catch (JWTVerificationException ex) {
+                    rejectedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    SecurityContextHolder.clearContext();
+                    authEntryPoint.commence(
+                            request, response,
+                            new InsufficientAuthenticationException("Invalid token", ex)
+                    );
+                    return;
                 }
             }
         }
@@ -97,4 +117,52 @@ public class JwtTokenValidator extends OncePerRequestFilter {
         // Si es preflight (OPTIONS con cabeceras CORS), NO ejecutes el filtro JWT
         return CorsUtils.isPreFlightRequest(request);
     }
-}
\ No newline at end of file
+
+    // La revocación se comprueba también en los aciertos de caché: la entrada puede ser anterior al logout
+    // o al cambio de contraseña
+    private void ensureNotRevoked(String tokenId, Long userId, Instant issuedAt) {
+        if (tokenRevocationService.isRevoked(tokenId)) {
+            throw new JWTVerificationException("Token revoked");
+        }
+        if (tokenRevocationService.isIssuedBeforePasswordChange(userId, issuedAt)) {
+            throw new JWTVerificationException("Token issued before password change");
+        }
+    }
+
+    private static Long userIdOf(Authentication authentication) {
+        return ((AuthenticatedUser) authentication.getPrincipal()).id();
+    }
+
+    private Authentication toAuthentication(DecodedJWT decodedJWT) {
+        String email = jwtUtils.extractEmail(decodedJWT);
+        Long userId = jwtUtils.extractUserId(decodedJWT);
+        // Tokens sin uid (emitidos antes de incluirlo) se rechazan: el cliente vuelve a hacer login
+        if (userId == null) {
+            throw new JWTVerificationException("Token without user id claim");
+        }
+        List<String> authoritiesClaim = jwtUtils
+                .getSpecificClaim(decodedJWT, "authorities")
+                .asList(String.class);
+
+        Collection<? extends GrantedAuthority> authoritiesList =
+                (authoritiesClaim == null ? List.<String>of() : authoritiesClaim).stream()
+                        // .map(r -> r.startsWith("ROLE_") ? r : "ROLE_" + r) // si algún día guardas sin prefijo
+                        .map(SimpleGrantedAuthority::new)
+                        .toList();
+
+        return new UsernamePasswordAuthenticationToken(new AuthenticatedUser(userId, email), null, authoritiesList);
+    }
+
+    private static void setAuthentication(Authentication authentication) {
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(authentication);
+        SecurityContextHolder.setContext(context);
+    }
+
+    private static Timer filterTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("security.jwt.filter")
+                .description("Tiempo de autenticación JWT por petición")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,49 @@
+package com.fitnessapp.fitapp_api.core.security.ratelimit;
+
+import com.fitnessapp.fitapp_api.core.handler.ErrorResponseFactory;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.cors.CorsUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Filtro de límite de ritmo. Va justo después de JwtTokenValidator para poder usar el id del usuario como clave.
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+    private final ErrorResponseFactory errorFactory;
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+
+        long waitNanos = rateLimiter.tryAcquire(request, SecurityContextHolder.getContext().getAuthentication());
+        if (waitNanos > 0) {
+            // Retry-After en segundos enteros, redondeando hacia arriba
+            long retryAfter = Math.max(1L, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+            errorFactory.write(response, 429, "rate_limited", "Too many requests",
+                    request.getRequestURI(), Map.of("retryAfterSeconds", retryAfter));
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Los preflight CORS no consumen tokens
+        return CorsUtils.isPreFlightRequest(request);
+    }
+}
@@ -0,0 +1,26 @@
+package com.fitnessapp.fitapp_api.core.security.ratelimit;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Grupo de rutas con un mismo límite: capacity peticiones por period (y ráfaga de hasta capacity).
+ * keyType indica si cada cubo es por usuario autenticado o por IP del cliente.
+ */
+public record RateLimitGroup(String name,
+                             List<String> pathPatterns,
+                             KeyType keyType,
+                             long capacity,
+                             Duration period) {
+
+    public enum KeyType {
+        // Por id de usuario del JWT; sin autenticar se cae a la IP
+        USER,
+        // Por IP del cliente (endpoints públicos: login, registro, refresh)
+        IP
+    }
+
+    public long refillIntervalNanos() {
+        return Math.max(1L, period.toNanos() / capacity);
+    }
+}
@@ -0,0 +1,122 @@
+package com.fitnessapp.fitapp_api.core.security.ratelimit;
+
+import com.fitnessapp.fitapp_api.core.security.AuthenticatedUser;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Limitador de peticiones en memoria por grupo de rutas. Cada (grupo, usuario|IP) tiene su TokenBucket.
+ * Los cubos viven en una caché Caffeine acotada que expulsa los inactivos: un cubo sin uso durante
+ * idle-eviction se habría rellenado igualmente, así que descartarlo no cambia el resultado.
+ * El primer grupo cuyo patrón coincide con la ruta es el que se aplica.
+ */
+@Component
+public class RateLimiter {
+
+    private final List<RateLimitGroup> groups;
+    private final Cache<BucketKey, TokenBucket> buckets;
+    private final Map<String, Counter> rejectedCounters;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public RateLimiter(@Value("${app.rate-limit.auth.capacity:10}") long authCapacity,
+                       @Value("${app.rate-limit.auth.period:PT1M}") Duration authPeriod,
+                       @Value("${app.rate-limit.home.capacity:30}") long homeCapacity,
+                       @Value("${app.rate-limit.home.period:PT1M}") Duration homePeriod,
+                       @Value("${app.rate-limit.executions.capacity:60}") long executionsCapacity,
+                       @Value("${app.rate-limit.executions.period:PT1M}") Duration executionsPeriod,
+                       @Value("${app.rate-limit.default.capacity:120}") long defaultCapacity,
+                       @Value("${app.rate-limit.default.period:PT1M}") Duration defaultPeriod,
+                       @Value("${app.rate-limit.idle-eviction:PT10M}") Duration idleEviction,
+                       @Value("${app.rate-limit.max-buckets:100000}") long maxBuckets,
+                       MeterRegistry meterRegistry) {
+        this(List.of(
+                new RateLimitGroup("auth",
+                        List.of("/api/v1/auth/login", "/api/v1/auth/register", "/api/v1/auth/refresh"),
+                        RateLimitGroup.KeyType.IP, authCapacity, authPeriod),
+                new RateLimitGroup("home", List.of("/api/v1/home/**"),
+                        RateLimitGroup.KeyType.USER, homeCapacity, homePeriod),
+                new RateLimitGroup("executions", List.of("/api/v1/executions/**"),
+                        RateLimitGroup.KeyType.USER, executionsCapacity, executionsPeriod),
+                new RateLimitGroup("default", List.of("/api/**"),
+                        RateLimitGroup.KeyType.USER, defaultCapacity, defaultPeriod)
+        ), idleEviction, maxBuckets, meterRegistry);
+    }
+
+    public RateLimiter(List<RateLimitGroup> groups, Duration idleEviction, long maxBuckets, MeterRegistry meterRegistry) {
+        this.groups = List.copyOf(groups);
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(idleEviction)
+                .maximumSize(maxBuckets)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, buckets, "ratelimit.buckets");
+        this.rejectedCounters = this.groups.stream().collect(Collectors.toUnmodifiableMap(
+                RateLimitGroup::name,
+                g -> Counter.builder("ratelimit.rejected")
+                        .description("Peticiones rechazadas por límite de ritmo")
+                        .tag("group", g.name())
+                        .register(meterRegistry),
+                (a, b) -> a));
+    }
+
+    /**
+     * Consume un token para la petición. Devuelve 0 si se permite o los nanosegundos hasta el siguiente token.
+     */
+    public long tryAcquire(HttpServletRequest request, Authentication authentication) {
+        RateLimitGroup group = groupFor(request.getRequestURI());
+        if (group == null) {
+            return 0L;
+        }
+
+        BucketKey key = new BucketKey(group.name(), subject(group, request, authentication));
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(key, bucketFactory(group, now));
+        long waitNanos = bucket.tryConsume(now);
+        if (waitNanos > 0) {
+            rejectedCounters.get(group.name()).increment();
+        }
+        return waitNanos;
+    }
+
+    private RateLimitGroup groupFor(String path) {
+        for (RateLimitGroup group : groups) {
+            for (String pattern : group.pathPatterns()) {
+                if (pathMatcher.match(pattern, path)) {
+                    return group;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String subject(RateLimitGroup group, HttpServletRequest request, Authentication authentication) {
+        if (group.keyType() == RateLimitGroup.KeyType.USER
+                && authentication != null
+                && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return "u:" + user.id();
+        }
+        // getRemoteAddr ya refleja X-Forwarded-For si server.forward-headers-strategy está configurado
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private static Function<BucketKey, TokenBucket> bucketFactory(RateLimitGroup group, long now) {
+        return key -> new TokenBucket(group.capacity(), group.refillIntervalNanos(), now);
+    }
+
+    private record BucketKey(String group, String subject) {
+    }
+}
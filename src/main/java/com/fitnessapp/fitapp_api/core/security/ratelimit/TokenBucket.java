@@ -0,0 +1,42 @@
+package com.fitnessapp.fitapp_api.core.security.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket sin locks: capacity tokens que se reponen a razón de uno cada refillIntervalNanos.
+ * Se implementa en su forma GCRA: el único estado es el "instante teórico de llegada" (TAT) en un AtomicLong,
+ * y consumir un token es un CAS que lo adelanta un intervalo. El cubo está lleno cuando TAT <= ahora
+ * y vacío cuando TAT - ahora supera la ráfaga permitida.
+ */
+public final class TokenBucket {
+
+    private final long refillIntervalNanos;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(long capacity, long refillIntervalNanos, long nowNanos) {
+        if (capacity <= 0 || refillIntervalNanos <= 0) {
+            throw new IllegalArgumentException("capacity and refill interval must be positive");
+        }
+        this.refillIntervalNanos = refillIntervalNanos;
+        this.burstNanos = refillIntervalNanos * capacity;
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Intenta consumir un token. Devuelve 0 si se concede, o los nanosegundos que faltan para el siguiente token.
+     */
+    public long tryConsume(long nowNanos) {
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long next = Math.max(tat, nowNanos) + refillIntervalNanos;
+            long waitNanos = next - nowNanos - burstNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (theoreticalArrival.compareAndSet(tat, next)) {
+                return 0L;
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.fitnessapp.fitapp_api.core.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom de cadenas, seguro para concurrencia sin locks (bits en un AtomicLongArray).
+ * mightContain == false garantiza que el valor nunca se añadió; true puede ser un falso positivo
+ * con probabilidad aproximada falsePositiveRate mientras no se supere expectedInsertions.
+ * No admite borrados: para "quitar" valores se construye uno nuevo.
+ */
+public final class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashFunctions;
+
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Invalid bloom filter sizing");
+        }
+        // m = -n ln p / (ln 2)^2 ; k = m/n ln 2
+        long m = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, (Math.max(64L, m) + 63) / 64);
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words * 64;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) m / expectedInsertions * Math.log(2)));
+    }
+
+    public void put(String value) {
+        long h1 = hash(value);
+        long h2 = mix(h1);
+        for (int i = 0; i < hashFunctions; i++) {
+            long index = Math.floorMod(h1 + i * h2, bitCount);
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+            long current;
+            do {
+                current = bits.get(word);
+                if ((current & mask) != 0) {
+                    break;
+                }
+            } while (!bits.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    public boolean mightContain(String value) {
+        long h1 = hash(value);
+        long h2 = mix(h1);
+        for (int i = 0; i < hashFunctions; i++) {
+            long index = Math.floorMod(h1 + i * h2, bitCount);
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // FNV-1a de 64 bits sobre los bytes UTF-8
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    // Segundo hash derivado (finalizador de SplitMix64), impar para recorrer todas las posiciones
+    private static long mix(long h) {
+        h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+        h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+        return (h ^ (h >>> 31)) | 1L;
+    }
+}
@@ -0,0 +1,45 @@
+package com.fitnessapp.fitapp_api.core.util;
+
+import com.fitnessapp.fitapp_api.core.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Codificación de cursores opacos para paginación keyset.
+ * El cursor es la última clave devuelta (p. ej. endTime|id) en Base64 URL-safe;
+ * el cliente solo lo reenvía tal cual, nunca lo interpreta.
+ */
+public final class Cursors {
+
+    private static final String SEPARATOR = "|";
+
+    private Cursors() {
+    }
+
+    public static String encode(Object... parts) {
+        StringBuilder raw = new StringBuilder();
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) {
+                raw.append(SEPARATOR);
+            }
+            raw.append(parts[i]);
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Devuelve las partes del cursor, validando que haya exactamente las esperadas
+    public static String[] decode(String cursor, int expectedParts) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, -1);
+            if (parts.length != expectedParts) {
+                throw new InvalidCursorException("Invalid pagination cursor");
+            }
+            return parts;
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid pagination cursor");
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.fitnessapp.fitapp_api.core.util;
+
+import java.util.Locale;
+
+/**
+ * Normalización única de emails: la misma que aplica UserAuth al persistir, para que búsquedas,
+ * filtros en memoria y la restricción uk_user_auth_email vean exactamente el mismo valor.
+ */
+public final class Emails {
+
+    private Emails() {
+    }
+
+    public static String normalize(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+}
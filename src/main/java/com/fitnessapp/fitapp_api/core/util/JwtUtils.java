@@ -6,12 +6,14 @@ import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.Claim;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import com.auth0.jwt.interfaces.JWTVerifier;
+import com.fitnessapp.fitapp_api.core.security.AuthUserDetails;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.Date;
 import java.util.Map;
 import java.util.UUID;
@@ -19,6 +21,9 @@ import java.util.UUID;
 @Component
 public class JwtUtils {
 
+    // Claim con el id numérico del usuario, para no resolver el email contra user_auth en cada petición
+    public static final String USER_ID_CLAIM = "uid";
+
     //Con estas configuraciones aseguramos la autenticidad del token a crear
     @Value("${security.jwt.private.key}")
     private String privateKey;
@@ -28,15 +33,27 @@ public class JwtUtils {
     @Value("${security.jwt.ttl-seconds}")
     private long ttlSeconds;
 
+    // Algoritmo y verifier son inmutables y thread-safe: se construyen una sola vez por clave
+    private volatile Algorithm algorithm;
+    private volatile JWTVerifier verifier;
+
     //Para encriptar, vamos a necesitar esta clave secreta y este algoritmo
     public String createToken(Authentication authentication) {
-        Algorithm algorithm = Algorithm.HMAC256(this.privateKey);
+        // El id viene en el principal que devuelve UserDetailsServiceImpl tras autenticar
+        if (!(authentication.getPrincipal() instanceof AuthUserDetails userDetails)) {
+            throw new IllegalStateException("Authenticated principal does not carry the user id");
+        }
 
         //esto está dentro del security context holder
-        String email = authentication.getName();
+        return createToken(userDetails.getId(), authentication.getName(), authentication.getAuthorities());
+    }
+
+    // Emisión sin Authentication (refresh token): el llamante ya ha comprobado quién es el usuario
+    public String createToken(Long userId, String email, Collection<? extends GrantedAuthority> authorities) {
+        Algorithm algorithm = algorithm();
 
         //también obtenemos los permisos/autorizaciones. Como Strings separados por coma o como Arrays.
-        String[] authArray = authentication.getAuthorities().stream()
+        String[] authArray = authorities.stream()
                 .map(GrantedAuthority::getAuthority)
                 .toArray(String[]::new);
 
@@ -49,6 +66,7 @@ public class JwtUtils {
         String jwtToken = JWT.create()
                 .withIssuer(this.userGenerator) //Generador del Token (Issuer)
                 .withSubject(email) // Propietario del Token (el email unico del usuario)
+                .withClaim(USER_ID_CLAIM, userId) // Id numérico del usuario
                 .withArrayClaim("authorities", authArray)// Claims, datos contraidos en el JWT
                 .withIssuedAt(iat) // Fecha de generación del token
                 .withExpiresAt(exp) // Fecha de expiración, tiempo en milisegundos
@@ -61,19 +79,59 @@ public class JwtUtils {
 
     // Validar y decodificar token
     public DecodedJWT validateToken(String token) {
+        JWTVerifier verifier;
         try {
-            Algorithm algorithm = Algorithm.HMAC256(this.privateKey);
-            // Construimos un verifier con el algoritmo y el Issuer igual que los que generan el token
-            JWTVerifier verifier = JWT.require(algorithm)
-                    .withIssuer(userGenerator)
-                    .build();
-            // Si esta bien no da excepción y devuelve el JWT decodificado
-            DecodedJWT decodedJWT = verifier.verify(token);
-            return decodedJWT;
+            verifier = verifier();
         } catch (IllegalArgumentException e) {
             // clave nula o mal formada -> Algorithm.HMAC256 puede tirar esto
             throw new JWTVerificationException("Invalid token configuration", e);
         }
+        // Si esta bien no da excepción y devuelve el JWT decodificado
+        return verifier.verify(token);
+    }
+
+    private Algorithm algorithm() {
+        Algorithm a = algorithm;
+        if (a == null) {
+            synchronized (this) {
+                a = algorithm;
+                if (a == null) {
+                    a = Algorithm.HMAC256(this.privateKey);
+                    algorithm = a;
+                }
+            }
+        }
+        return a;
+    }
+
+    private JWTVerifier verifier() {
+        JWTVerifier v = verifier;
+        if (v == null) {
+            synchronized (this) {
+                v = verifier;
+                if (v == null) {
+                    // Construimos un verifier con el algoritmo y el Issuer igual que los que generan el token
+                    v = JWT.require(algorithm())
+                            .withIssuer(userGenerator)
+                            .build();
+                    verifier = v;
+                }
+            }
+        }
+        return v;
+    }
+
+    // Token de una cabecera "Authorization: Bearer <token>" (case-insensitive); null si no hay
+    public static String extractBearerToken(String authorizationHeader) {
+        if (authorizationHeader == null) {
+            return null;
+        }
+        String trimmed = authorizationHeader.trim();
+        if (trimmed.length() < 7 || !trimmed.regionMatches(true, 0, "Bearer ", 0, 7)) {
+            return null;
+        }
+        String token = trimmed.substring(7).trim();
+        return token.isEmpty() ? null : token;
     }
 
     // Extraer el email del token decodificado
@@ -82,6 +140,11 @@ public class JwtUtils {
         return decodedJWT.getSubject();
     }
 
+    // Extraer el id del usuario; null en tokens emitidos sin el claim
+    public Long extractUserId(DecodedJWT decodedJWT) {
+        return decodedJWT.getClaim(USER_ID_CLAIM).asLong();
+    }
+
     // Obtener todos los claims
     public Map<String, Claim> returnAllClaims(DecodedJWT decodedJWT) {
         return decodedJWT.getClaims();
@@ -0,0 +1,27 @@
+package com.fitnessapp.fitapp_api.core.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Hash SHA-256 de tokens opacos o JWT, para guardarlos o indexarlos sin retener el valor en claro.
+ */
+public final class TokenHashes {
+
+    private TokenHashes() {
+    }
+
+    // 64 caracteres hexadecimales en minúscula
+    public static String sha256Hex(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 es obligatorio en toda JVM
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.fitnessapp.fitapp_api.core.util;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Conversiones entre la hora del servidor (como se guardan start_time/end_time)
+ * y el día local del usuario según la zona horaria de su perfil.
+ */
+public final class UserTimeZones {
+
+    private UserTimeZones() {
+    }
+
+    // Zona del usuario, o la del sistema si el perfil no tiene ninguna
+    public static ZoneId resolve(ZoneId userZone) {
+        return userZone != null ? userZone : ZoneId.systemDefault();
+    }
+
+    // Día actual en la zona del usuario
+    public static LocalDate today(ZoneId userZone) {
+        return LocalDate.now(resolve(userZone));
+    }
+
+    // Fecha local del usuario a la que corresponde un instante guardado en hora del servidor
+    public static LocalDate toUserDate(LocalDateTime serverTime, ZoneId userZone) {
+        return serverTime.atZone(ZoneId.systemDefault())
+                .withZoneSameInstant(resolve(userZone))
+                .toLocalDate();
+    }
+
+    // Inicio del día local del usuario expresado en hora del servidor
+    public static LocalDateTime startOfDayInServerTime(LocalDate userDate, ZoneId userZone) {
+        return userDate.atStartOfDay(resolve(userZone))
+                .withZoneSameInstant(ZoneId.systemDefault())
+                .toLocalDateTime();
+    }
+}
@@ -0,0 +1,59 @@
+package com.fitnessapp.fitapp_api.gamification.controller;
+
+import com.fitnessapp.fitapp_api.core.dto.CursorPageResponseDTO;
+import com.fitnessapp.fitapp_api.gamification.dto.PointsLedgerEntryResponseDTO;
+import com.fitnessapp.fitapp_api.gamification.service.PointsLedgerService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.security.Principal;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/v1/points")
+@Tag(name = "Points", description = "Endpoints para consultar los puntos del usuario autenticado.")
+public class PointsController {
+
+    private final PointsLedgerService pointsLedgerService;
+
+    // ---------------------------------------
+    // GET /api/v1/points/me/history
+    // ---------------------------------------
+    @Operation(
+            summary = "Obtener historial de puntos",
+            description = "Devuelve los movimientos de puntos del usuario autenticado (ejecuciones, saldo de apertura, ajustes), " +
+                    "del más reciente al más antiguo y paginados por cursor.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Página del historial obtenida correctamente",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = CursorPageResponseDTO.class)
+                            )
+                    ),
+                    @ApiResponse(responseCode = "400", description = "Cursor inválido", content = @Content),
+                    @ApiResponse(responseCode = "401", description = "No autorizado", content = @Content)
+            }
+    )
+    @GetMapping("me/history")
+    public ResponseEntity<CursorPageResponseDTO<PointsLedgerEntryResponseDTO>> getMyPointsHistory(
+            Principal principal,
+            @Parameter(description = "Cursor opaco devuelto en la página anterior")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página (por defecto 20, máximo 100)")
+            @RequestParam(required = false) Integer size
+    ) {
+        return ResponseEntity.ok(pointsLedgerService.getMyHistory(principal.getName(), cursor, size));
+    }
+}
@@ -0,0 +1,57 @@
+package com.fitnessapp.fitapp_api.gamification.counter;
+
+import com.fitnessapp.fitapp_api.stats.repository.DailyTotalsView;
+import com.fitnessapp.fitapp_api.stats.repository.UserDailyActivityRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.function.ToLongFunction;
+
+/**
+ * Acumulados de puntos, sesiones y calorías por usuario y día local, para aplicar los límites diarios
+ * y comprobar el objetivo de kcal en O(1).
+ * La fuente es el resumen diario (user_daily_activity.points / sessions_count / calories), que se actualiza
+ * en la misma transacción que procesa la ejecución. La fila del día se bloquea (upsert y SELECT ... FOR UPDATE)
+ * hasta el commit: dos finalizaciones del mismo usuario y día, en esta u otra instancia, se procesan una
+ * detrás de otra y la segunda ve lo que sumó la primera, así que entre las dos no superan los límites.
+ */
+@Component
+@RequiredArgsConstructor
+public class DailyPointsCounter {
+
+    private final UserDailyActivityRepository dailyActivityRepository;
+
+    /**
+     * Calcula los puntos de una sesión con los acumulados actuales del día, con la fila del día bloqueada.
+     * Debe llamarse dentro de la transacción que después suma la sesión al resumen diario.
+     *
+     * @param calculator      recibe los acumulados previos a la sesión y devuelve los puntos a otorgar
+     * @return puntos otorgados
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long award(Long userId, LocalDate day, ToLongFunction<DayTotals> calculator) {
+        dailyActivityRepository.ensureDay(userId, day);
+        DayTotals totals = dailyActivityRepository.lockDailyTotals(userId, day)
+                .map(DailyPointsCounter::toTotals)
+                .orElse(DayTotals.EMPTY);
+        return calculator.applyAsLong(totals);
+    }
+
+    private static DayTotals toTotals(DailyTotalsView row) {
+        return new DayTotals(
+                row.getPoints() != null ? row.getPoints() : 0L,
+                row.getSessionsCount() != null ? row.getSessionsCount() : 0,
+                row.getCalories() != null ? row.getCalories().doubleValue() : 0.0);
+    }
+
+    /**
+     * Puntos otorgados, sesiones contadas y kcal quemadas en el día.
+     */
+    public record DayTotals(long points, int sessions, double calories) {
+
+        public static final DayTotals EMPTY = new DayTotals(0L, 0, 0.0);
+    }
+}
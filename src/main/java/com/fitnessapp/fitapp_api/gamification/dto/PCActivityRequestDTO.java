@@ -1,8 +1,22 @@
 package com.fitnessapp.fitapp_api.gamification.dto;
 
+import com.fitnessapp.fitapp_api.routeexecution.model.RouteExecution.ActivityType;
+
+/**
+ * Datos de una sesión para calcular sus puntos.
+ * pointsAwardedToday y sessionsToday son los acumulados del día local del usuario antes de esta sesión,
+ * necesarios para aplicar los límites diarios sin consultar el resto de ejecuciones.
+ */
 public record PCActivityRequestDTO(
         double distanceKm,
         long durationSec,
-        String activityType,
-        boolean dailyGoalCompleted
-) {}
+        ActivityType activityType,
+        boolean dailyGoalCompleted,
+        long pointsAwardedToday,
+        int sessionsToday
+) {
+    // Sesión sin acumulados previos en el día
+    public PCActivityRequestDTO(double distanceKm, long durationSec, ActivityType activityType, boolean dailyGoalCompleted) {
+        this(distanceKm, durationSec, activityType, dailyGoalCompleted, 0L, 0);
+    }
+}
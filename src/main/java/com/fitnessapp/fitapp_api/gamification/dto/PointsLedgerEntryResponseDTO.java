@@ -0,0 +1,12 @@
+package com.fitnessapp.fitapp_api.gamification.dto;
+
+import java.time.LocalDateTime;
+
+public record PointsLedgerEntryResponseDTO(
+        Long id,
+        Long delta,
+        String reason,
+        Long executionId,
+        LocalDateTime createdAt
+) {
+}
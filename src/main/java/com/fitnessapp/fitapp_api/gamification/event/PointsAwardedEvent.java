@@ -0,0 +1,12 @@
+package com.fitnessapp.fitapp_api.gamification.event;
+
+/**
+ * Se publica cuando se registra un movimiento de puntos en el ledger.
+ * ledgerEntryId permite a la clasificación saber si el movimiento ya estaba incluido en una recarga desde BD.
+ */
+public record PointsAwardedEvent(
+        Long userId,
+        long delta,
+        Long ledgerEntryId
+) {
+}
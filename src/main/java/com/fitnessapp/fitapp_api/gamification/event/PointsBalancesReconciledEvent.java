@@ -0,0 +1,9 @@
+package com.fitnessapp.fitapp_api.gamification.event;
+
+/**
+ * Se publica tras recalcular los saldos de los perfiles a partir del ledger.
+ */
+public record PointsBalancesReconciledEvent(
+        int fixedProfiles
+) {
+}
@@ -0,0 +1,34 @@
+package com.fitnessapp.fitapp_api.gamification.job;
+
+import com.fitnessapp.fitapp_api.gamification.service.PointsLedgerService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Comprobación periódica de consistencia: el saldo de cada perfil debe ser la suma de su ledger.
+ * Los descuadres se corrigen y se registran en el log para investigarlos.
+ * Con lazy-initialization activada el bean debe crearse al arrancar para que se programe.
+ */
+@Slf4j
+@Component
+@Lazy(false)
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.points.reconcile.enabled", havingValue = "true", matchIfMissing = true)
+public class PointsBalanceReconcileJob {
+
+    private final PointsLedgerService pointsLedgerService;
+
+    @Scheduled(cron = "${app.points.reconcile.cron}")
+    public void reconcile() {
+        int fixed = pointsLedgerService.reconcileBalances();
+        if (fixed > 0) {
+            log.warn("Points reconcile fixed {} profile balances that did not match the ledger", fixed);
+        } else {
+            log.info("Points reconcile finished: all balances match the ledger");
+        }
+    }
+}
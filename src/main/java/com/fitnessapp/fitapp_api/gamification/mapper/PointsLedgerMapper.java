@@ -0,0 +1,14 @@
+package com.fitnessapp.fitapp_api.gamification.mapper;
+
+import com.fitnessapp.fitapp_api.gamification.dto.PointsLedgerEntryResponseDTO;
+import com.fitnessapp.fitapp_api.gamification.model.PointsLedgerEntry;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(componentModel = "spring")
+public interface PointsLedgerMapper {
+
+    // getExecution().getId() no inicializa el proxy LAZY: se lee de la FK
+    @Mapping(target = "executionId", source = "execution.id")
+    PointsLedgerEntryResponseDTO toResponseDto(PointsLedgerEntry entry);
+}
@@ -0,0 +1,54 @@
+package com.fitnessapp.fitapp_api.gamification.model;
+
+import com.fitnessapp.fitapp_api.auth.model.UserAuth;
+import com.fitnessapp.fitapp_api.routeexecution.model.RouteExecution;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Movimiento de puntos de un usuario (solo inserción).
+ * El saldo de user_profile.points es la suma de delta de todos sus movimientos.
+ */
+@Getter
+@Setter
+@Entity
+@Immutable
+@Table(
+        name = "points_ledger",
+        uniqueConstraints = @UniqueConstraint(name = "uk_points_ledger_execution_reason", columnNames = {"execution_id", "reason"}),
+        indexes = @Index(name = "idx_points_ledger_user_id", columnList = "user_id, id")
+)
+@AllArgsConstructor
+@NoArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class PointsLedgerEntry {
+
+    @EqualsAndHashCode.Include
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id", nullable = false, foreignKey = @ForeignKey(name = "fk_points_ledger_user"))
+    private UserAuth user;
+
+    // Null en movimientos que no vienen de una ejecución (saldo de apertura, ajustes)
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "execution_id", foreignKey = @ForeignKey(name = "fk_points_ledger_execution"))
+    private RouteExecution execution;
+
+    @Column(name = "delta", nullable = false)
+    private Long delta;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "reason", length = 30, nullable = false)
+    private PointsReason reason;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,7 @@
+package com.fitnessapp.fitapp_api.gamification.model;
+
+public enum PointsReason {
+    OPENING_BALANCE,
+    ROUTE_EXECUTION,
+    ADJUSTMENT
+}
@@ -0,0 +1,35 @@
+package com.fitnessapp.fitapp_api.gamification.repository;
+
+import com.fitnessapp.fitapp_api.gamification.model.PointsLedgerEntry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PointsLedgerRepository extends JpaRepository<PointsLedgerEntry, Long> {
+
+    // Historial paginado por cursor (id descendente) sobre el índice (user_id, id)
+    @Query("""
+            SELECT l FROM PointsLedgerEntry l
+            WHERE l.user.email = :email
+            ORDER BY l.id DESC
+            """)
+    List<PointsLedgerEntry> findPageByUserEmail(@Param("email") String email, Limit limit);
+
+    @Query("""
+            SELECT l FROM PointsLedgerEntry l
+            WHERE l.user.email = :email AND l.id < :id
+            ORDER BY l.id DESC
+            """)
+    List<PointsLedgerEntry> findPageByUserEmailAfter(@Param("email") String email,
+                                                     @Param("id") Long id,
+                                                     Limit limit);
+
+    // Saldo según el ledger, sobre el índice (user_id, id)
+    @Query("SELECT COALESCE(SUM(l.delta), 0) FROM PointsLedgerEntry l WHERE l.user.id = :userId")
+    long sumDeltaByUserId(@Param("userId") Long userId);
+}
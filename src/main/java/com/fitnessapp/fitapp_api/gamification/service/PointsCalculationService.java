@@ -3,5 +3,9 @@ package com.fitnessapp.fitapp_api.gamification.service;
 import com.fitnessapp.fitapp_api.gamification.dto.PCActivityRequestDTO;
 
 public interface PointsCalculationService {
+    /**
+     * Puntos de una sesión aplicando MAX_PER_SESSION, MAX_PER_DAY y MAX_SESSIONS_PER_DAY
+     * a partir de los acumulados del día que trae la petición (O(1), sin consultas).
+     */
     long calculatePoints(PCActivityRequestDTO pcActivityRequestDTO);
 }
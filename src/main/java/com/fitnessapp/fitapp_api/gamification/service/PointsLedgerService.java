@@ -0,0 +1,31 @@
+package com.fitnessapp.fitapp_api.gamification.service;
+
+import com.fitnessapp.fitapp_api.core.dto.CursorPageResponseDTO;
+import com.fitnessapp.fitapp_api.gamification.dto.PointsLedgerEntryResponseDTO;
+import com.fitnessapp.fitapp_api.gamification.model.PointsReason;
+
+public interface PointsLedgerService {
+
+    /**
+     * Suma el movimiento al saldo del perfil con un UPDATE atómico y lo registra en el ledger.
+     * Debe llamarse dentro de la transacción que origina los puntos.
+     *
+     * @param userId      id del usuario
+     * @param executionId ejecución que origina los puntos (puede ser null)
+     * @param delta       puntos a sumar (negativo para restar); 0 no registra nada
+     * @param reason      motivo del movimiento
+     */
+    void award(Long userId, Long executionId, long delta, PointsReason reason);
+
+    /**
+     * Historial de movimientos de puntos del usuario, del más reciente al más antiguo, paginado por cursor.
+     */
+    CursorPageResponseDTO<PointsLedgerEntryResponseDTO> getMyHistory(String email, String cursor, Integer size);
+
+    /**
+     * Recalcula el saldo de todos los perfiles a partir del ledger, por lotes de usuarios.
+     *
+     * @return número de perfiles cuyo saldo estaba descuadrado
+     */
+    int reconcileBalances();
+}
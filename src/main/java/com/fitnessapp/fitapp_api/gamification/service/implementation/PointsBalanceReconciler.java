@@ -0,0 +1,67 @@
+package com.fitnessapp.fitapp_api.gamification.service.implementation;
+
+import com.fitnessapp.fitapp_api.gamification.repository.PointsLedgerRepository;
+import com.fitnessapp.fitapp_api.profile.repository.UserProfileRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Reconciliación del saldo de puntos por lotes de usuarios, un lote por transacción.
+ * Por usuario: bloquea la fila del perfil (espera a los award en curso, que suman al saldo con un UPDATE
+ * sobre esa fila) y suma su ledger. En READ COMMITTED la suma ve lo confirmado justo antes de obtener el
+ * bloqueo, no una foto anterior de la transacción; un award que empieza después queda esperando el bloqueo
+ * y suma su delta sobre el saldo ya corregido.
+ */
+@Slf4j
+@Component
+public class PointsBalanceReconciler {
+
+    private final UserProfileRepository userProfileRepository;
+    private final PointsLedgerRepository ledgerRepository;
+    private final int batchSize;
+
+    public PointsBalanceReconciler(UserProfileRepository userProfileRepository,
+                                   PointsLedgerRepository ledgerRepository,
+                                   @Value("${app.points.reconcile.batch-size:200}") int batchSize) {
+        this.userProfileRepository = userProfileRepository;
+        this.ledgerRepository = ledgerRepository;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Reconcilia los siguientes usuarios con user_id mayor que {@code lastUserId}.
+     */
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public Batch reconcileBatch(Long lastUserId) {
+        List<Long> userIds = userProfileRepository.findUserIdsAfter(lastUserId, Limit.of(batchSize));
+        int fixed = 0;
+        for (Long userId : userIds) {
+            Long stored = userProfileRepository.lockPointsByUserId(userId).orElse(null);
+            if (stored == null) {
+                continue;
+            }
+            long balance = ledgerRepository.sumDeltaByUserId(userId);
+            if (stored != balance) {
+                log.warn("Points balance of user {} was {} but the ledger sums {}; fixing", userId, stored, balance);
+                userProfileRepository.setPoints(userId, balance);
+                fixed++;
+            }
+        }
+        Long last = userIds.isEmpty() ? null : userIds.get(userIds.size() - 1);
+        return new Batch(last, userIds.size() == batchSize, fixed);
+    }
+
+    /**
+     * @param lastUserId último usuario revisado (cursor del siguiente lote)
+     * @param hasMore    el lote vino lleno y puede haber más usuarios
+     * @param fixed      perfiles corregidos en el lote
+     */
+    public record Batch(Long lastUserId, boolean hasMore, int fixed) {
+    }
+}
@@ -3,12 +3,18 @@ package com.fitnessapp.fitapp_api.gamification.service.implementation;
 import com.fitnessapp.fitapp_api.gamification.dto.PCActivityRequestDTO;
 import com.fitnessapp.fitapp_api.gamification.service.PointsCalculationService;
 import com.fitnessapp.fitapp_api.gamification.util.PointsConfig;
+import com.fitnessapp.fitapp_api.routeexecution.model.RouteExecution.ActivityType;
 import org.springframework.stereotype.Service;
 
 @Service
 public class PointsCalculationServiceImpl implements PointsCalculationService {
     @Override
     public long calculatePoints(PCActivityRequestDTO pcActivityRequestDTO) {
+        // Límite de sesiones con puntos por día
+        if (pcActivityRequestDTO.sessionsToday() >= PointsConfig.MAX_SESSIONS_PER_DAY.getValue()) {
+            return 0;
+        }
+
         double durationMinutes = pcActivityRequestDTO.durationSec() / 60.0;
 
         if (durationMinutes < PointsConfig.MIN_DURATION_MINUTES.getValue()) {
@@ -28,17 +34,19 @@ public class PointsCalculationServiceImpl implements PointsCalculationService {
             totalPoints += PointsConfig.DAILY_GOAL_BONUS.getValue();
         }
 
-        return (long) Math.min(totalPoints, PointsConfig.MAX_PER_DAY.getValue());
+        // Límite por sesión y lo que queda del límite diario
+        long sessionPoints = (long) Math.min(totalPoints, PointsConfig.MAX_PER_SESSION.getValue());
+        long remainingToday = Math.max(0L, PointsConfig.MAX_PER_DAY.getValue() - pcActivityRequestDTO.pointsAwardedToday());
+        return Math.min(sessionPoints, remainingToday);
     }
 
-    private boolean isPlausiblePace(double distanceKm, double durationMinutes, String activityType) {
+    private boolean isPlausiblePace(double distanceKm, double durationMinutes, ActivityType activityType) {
         double speedKmH = (distanceKm / durationMinutes) * 60;
 
-        return switch (activityType.toUpperCase()) {
-            case "RUNNING_SLOW", "RUNNING_MODERATE", "RUNNING_INTENSE" -> speedKmH >= 4 && speedKmH <= 25;
-            case "CYCLING_SLOW", "CYCLING_MODERATE", "CYCLING_INTENSE" -> speedKmH >= 8 && speedKmH <= 50;
-            case "WALKING_SLOW", "WALKING_MODERATE", "WALKING_INTENSE" -> speedKmH >= 2 && speedKmH <= 10;
-            default -> speedKmH >= 1 && speedKmH <= 30;
+        return switch (activityType) {
+            case RUNNING_SLOW, RUNNING_MODERATE, RUNNING_INTENSE -> speedKmH >= 4 && speedKmH <= 25;
+            case CYCLING_SLOW, CYCLING_MODERATE, CYCLING_INTENSE -> speedKmH >= 8 && speedKmH <= 50;
+            case WALKING_SLOW, WALKING_MODERATE, WALKING_INTENSE -> speedKmH >= 2 && speedKmH <= 10;
         };
     }
 }
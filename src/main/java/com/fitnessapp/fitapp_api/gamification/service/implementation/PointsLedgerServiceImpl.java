@@ -0,0 +1,114 @@
+package com.fitnessapp.fitapp_api.gamification.service.implementation;
+
+import com.fitnessapp.fitapp_api.auth.repository.UserAuthRepository;
+import com.fitnessapp.fitapp_api.core.dto.CursorPageResponseDTO;
+import com.fitnessapp.fitapp_api.core.exception.InvalidCursorException;
+import com.fitnessapp.fitapp_api.core.util.Cursors;
+import com.fitnessapp.fitapp_api.gamification.dto.PointsLedgerEntryResponseDTO;
+import com.fitnessapp.fitapp_api.gamification.event.PointsAwardedEvent;
+import com.fitnessapp.fitapp_api.gamification.event.PointsBalancesReconciledEvent;
+import com.fitnessapp.fitapp_api.gamification.mapper.PointsLedgerMapper;
+import com.fitnessapp.fitapp_api.gamification.model.PointsLedgerEntry;
+import com.fitnessapp.fitapp_api.gamification.model.PointsReason;
+import com.fitnessapp.fitapp_api.gamification.repository.PointsLedgerRepository;
+import com.fitnessapp.fitapp_api.gamification.service.PointsLedgerService;
+import com.fitnessapp.fitapp_api.profile.repository.UserProfileRepository;
+import com.fitnessapp.fitapp_api.routeexecution.repository.RouteExecutionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class PointsLedgerServiceImpl implements PointsLedgerService {
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final PointsLedgerRepository ledgerRepository;
+    private final UserProfileRepository userProfileRepository;
+    private final UserAuthRepository userAuthRepository;
+    private final RouteExecutionRepository executionRepository;
+    private final PointsLedgerMapper mapper;
+    private final PointsBalanceReconciler balanceReconciler;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public void award(Long userId, Long executionId, long delta, PointsReason reason) {
+        if (delta == 0) {
+            return;
+        }
+
+        // Primero el saldo: el UPDATE bloquea la fila del perfil hasta el commit, así los movimientos de un mismo
+        // usuario reciben ids del ledger en el orden en que se confirman
+        userProfileRepository.addPoints(userId, delta);
+
+        PointsLedgerEntry entry = new PointsLedgerEntry();
+        entry.setUser(userAuthRepository.getReferenceById(userId));
+        entry.setExecution(executionId != null ? executionRepository.getReferenceById(executionId) : null);
+        entry.setDelta(delta);
+        entry.setReason(reason);
+        ledgerRepository.save(entry);
+
+        eventPublisher.publishEvent(new PointsAwardedEvent(userId, delta, entry.getId()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponseDTO<PointsLedgerEntryResponseDTO> getMyHistory(String email, String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        // Se pide una fila de más para saber si hay página siguiente sin hacer COUNT
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<PointsLedgerEntry> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = ledgerRepository.findPageByUserEmail(email, limit);
+        } else {
+            String[] key = Cursors.decode(cursor, 1);
+            rows = ledgerRepository.findPageByUserEmailAfter(email, parseId(key[0]), limit);
+        }
+
+        boolean hasNext = rows.size() > pageSize;
+        List<PointsLedgerEntry> page = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasNext ? Cursors.encode(page.get(page.size() - 1).getId()) : null;
+
+        return new CursorPageResponseDTO<>(page.stream().map(mapper::toResponseDto).toList(), nextCursor, hasNext);
+    }
+
+    // Sin transacción propia: cada lote confirma por separado y los bloqueos duran lo que un lote
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int reconcileBalances() {
+        int fixed = 0;
+        Long lastUserId = 0L;
+        PointsBalanceReconciler.Batch batch;
+        do {
+            batch = balanceReconciler.reconcileBatch(lastUserId);
+            fixed += batch.fixed();
+            lastUserId = batch.lastUserId();
+        } while (batch.hasMore());
+        eventPublisher.publishEvent(new PointsBalancesReconciledEvent(fixed));
+        return fixed;
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null || size <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+
+    private Long parseId(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new InvalidCursorException("Invalid pagination cursor");
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.fitnessapp.fitapp_api.gamification.util;
 
+import com.fitnessapp.fitapp_api.routeexecution.model.RouteExecution.ActivityType;
+
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
@@ -32,18 +34,26 @@ public enum PointsConfig {
 
     private final int value;
 
-    public static int getPointsPerKm(String activityType) {
-        return switch (activityType.toUpperCase()) {
-            case "RUNNING_SLOW" -> RUNNING_SLOW_PER_KM.value;
-            case "RUNNING_MODERATE" -> RUNNING_MODERATE_PER_KM.value;
-            case "RUNNING_INTENSE" -> RUNNING_INTENSE_PER_KM.value;
-            case "CYCLING_SLOW" -> CYCLING_SLOW_PER_KM.value;
-            case "CYCLING_MODERATE" -> CYCLING_MODERATE_PER_KM.value;
-            case "CYCLING_INTENSE" -> CYCLING_INTENSE_PER_KM.value;
-            case "WALKING_SLOW" -> WALKING_SLOW_PER_KM.value;
-            case "WALKING_MODERATE" -> WALKING_MODERATE_PER_KM.value;
-            case "WALKING_INTENSE" -> WALKING_INTENSE_PER_KM.value;
-            default -> 5;
-        };
+    // Puntos por km indexados por ordinal de ActivityType (se rellena tras crear las constantes)
+    private static final int[] POINTS_PER_KM = new int[ActivityType.values().length];
+
+    static {
+        for (ActivityType type : ActivityType.values()) {
+            POINTS_PER_KM[type.ordinal()] = switch (type) {
+                case RUNNING_SLOW -> RUNNING_SLOW_PER_KM.value;
+                case RUNNING_MODERATE -> RUNNING_MODERATE_PER_KM.value;
+                case RUNNING_INTENSE -> RUNNING_INTENSE_PER_KM.value;
+                case CYCLING_SLOW -> CYCLING_SLOW_PER_KM.value;
+                case CYCLING_MODERATE -> CYCLING_MODERATE_PER_KM.value;
+                case CYCLING_INTENSE -> CYCLING_INTENSE_PER_KM.value;
+                case WALKING_SLOW -> WALKING_SLOW_PER_KM.value;
+                case WALKING_MODERATE -> WALKING_MODERATE_PER_KM.value;
+                case WALKING_INTENSE -> WALKING_INTENSE_PER_KM.value;
+            };
+        }
+    }
+
+    public static int getPointsPerKm(ActivityType activityType) {
+        return POINTS_PER_KM[activityType.ordinal()];
     }
 }
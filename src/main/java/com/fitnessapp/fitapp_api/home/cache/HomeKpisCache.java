@@ -0,0 +1,81 @@
+package com.fitnessapp.fitapp_api.home.cache;
+
+import com.fitnessapp.fitapp_api.core.util.UserTimeZones;
+import com.fitnessapp.fitapp_api.home.dto.HomeKpisTodayResponseDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.function.Supplier;
+
+/**
+ * Caché en memoria de los KPIs de Home por usuario (clave: id de usuario).
+ * Cada entrada caduca con el TTL configurado o, si llega antes, a la medianoche local del usuario,
+ * para que nunca se sirvan los KPIs de "ayer". Las invalidaciones explícitas llegan por eventos
+ * (ver {@link HomeKpisCacheInvalidator}).
+ */
+@Component
+public class HomeKpisCache {
+
+    private final Cache<Long, CachedKpis> cache;
+
+    public HomeKpisCache(@Value("${app.home.kpis-cache.ttl:PT60S}") Duration ttl,
+                         @Value("${app.home.kpis-cache.max-size:10000}") long maxSize,
+                         MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilTtlOrLocalMidnight(ttl))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "home.kpis");
+    }
+
+    /**
+     * Devuelve los KPIs cacheados o los calcula con el loader. Si el loader lanza una excepción
+     * (perfil inexistente o incompleto) no se cachea nada y la excepción se propaga.
+     */
+    public HomeKpisTodayResponseDTO get(Long userId, Supplier<CachedKpis> loader) {
+        return cache.get(userId, key -> loader.get()).kpis();
+    }
+
+    public void invalidate(Long userId) {
+        cache.invalidate(userId);
+    }
+
+    /**
+     * KPIs calculados junto con la zona horaria del perfil, necesaria para saber cuándo es su medianoche.
+     */
+    public record CachedKpis(HomeKpisTodayResponseDTO kpis, ZoneId zone) {
+        public CachedKpis {
+            zone = UserTimeZones.resolve(zone);
+        }
+    }
+
+    private record UntilTtlOrLocalMidnight(Duration ttl) implements Expiry<Long, CachedKpis> {
+
+        @Override
+        public long expireAfterCreate(Long key, CachedKpis value, long currentTime) {
+            ZonedDateTime now = ZonedDateTime.now(value.zone());
+            ZonedDateTime nextMidnight = now.toLocalDate().plusDays(1).atStartOfDay(value.zone());
+            Duration untilMidnight = Duration.between(now, nextMidnight);
+            return Math.min(ttl.toNanos(), untilMidnight.toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(Long key, CachedKpis value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Long key, CachedKpis value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
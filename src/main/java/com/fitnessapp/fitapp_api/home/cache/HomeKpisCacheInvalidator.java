@@ -0,0 +1,35 @@
+package com.fitnessapp.fitapp_api.home.cache;
+
+import com.fitnessapp.fitapp_api.profile.event.UserProfileChangedEvent;
+import com.fitnessapp.fitapp_api.route.event.UserRoutesChangedEvent;
+import com.fitnessapp.fitapp_api.routeexecution.event.RouteExecutionFinishedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Invalida los KPIs de Home cacheados cuando cambia algo que los afecta.
+ * Se escucha tras el commit para que la siguiente lectura ya vea los datos nuevos
+ * (fallbackExecution = true por si el evento se publica fuera de una transacción).
+ */
+@Component
+@RequiredArgsConstructor
+public class HomeKpisCacheInvalidator {
+
+    private final HomeKpisCache homeKpisCache;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onExecutionFinished(RouteExecutionFinishedEvent event) {
+        homeKpisCache.invalidate(event.userId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRoutesChanged(UserRoutesChangedEvent event) {
+        homeKpisCache.invalidate(event.userId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProfileChanged(UserProfileChangedEvent event) {
+        homeKpisCache.invalidate(event.userId());
+    }
+}
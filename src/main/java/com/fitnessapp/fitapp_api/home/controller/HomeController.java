@@ -1,5 +1,6 @@
 package com.fitnessapp.fitapp_api.home.controller;
 
+import com.fitnessapp.fitapp_api.core.security.AuthenticatedUser;
 import com.fitnessapp.fitapp_api.home.dto.HomeKpisTodayResponseDTO;
 import com.fitnessapp.fitapp_api.home.service.HomeService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -9,12 +10,11 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.security.Principal;
-
 
 @RestController
 @RequestMapping("/api/v1/home")
@@ -56,7 +56,7 @@ public class HomeController {
             }
     )
     @GetMapping("/kpis/today")
-    public ResponseEntity<HomeKpisTodayResponseDTO> getHomeKpisToday(Principal principal) {
-        return ResponseEntity.ok(homeService.getHomeKpisToday(principal.getName()));
+    public ResponseEntity<HomeKpisTodayResponseDTO> getHomeKpisToday(@AuthenticationPrincipal AuthenticatedUser principal) {
+        return ResponseEntity.ok(homeService.getHomeKpisToday(principal));
     }
 }
\ No newline at end of file
@@ -25,5 +25,11 @@ public record HomeKpisTodayResponseDTO(
                 example = "true") boolean hasCreatedRoutes,
         @Schema(
                 description = "Objetivo diario de calorías del usuario",
-                example = "2000") int goalKcalDaily
+                example = "2000") int goalKcalDaily,
+        @Schema(
+                description = "Porcentaje del objetivo diario de calorías alcanzado hoy (máximo 100)",
+                example = "17") int goalProgressPercent,
+        @Schema(
+                description = "Indica si hoy ya se ha alcanzado el objetivo diario de calorías",
+                example = "false") boolean dailyGoalReached
 ) {}
@@ -1,7 +1,8 @@
 package com.fitnessapp.fitapp_api.home.service;
 
+import com.fitnessapp.fitapp_api.core.security.AuthenticatedUser;
 import com.fitnessapp.fitapp_api.home.dto.HomeKpisTodayResponseDTO;
 
 public interface HomeService {
-    HomeKpisTodayResponseDTO  getHomeKpisToday(String email);
+    HomeKpisTodayResponseDTO  getHomeKpisToday(AuthenticatedUser user);
 }
@@ -2,79 +2,72 @@ package com.fitnessapp.fitapp_api.home.service.implementation;
 
 import com.fitnessapp.fitapp_api.core.exception.UserProfileNotCompletedException;
 import com.fitnessapp.fitapp_api.core.exception.UserProfileNotFoundException;
+import com.fitnessapp.fitapp_api.core.security.AuthenticatedUser;
+import com.fitnessapp.fitapp_api.core.util.UserTimeZones;
+import com.fitnessapp.fitapp_api.home.cache.HomeKpisCache;
 import com.fitnessapp.fitapp_api.home.dto.HomeKpisTodayResponseDTO;
 import com.fitnessapp.fitapp_api.home.service.HomeService;
-import com.fitnessapp.fitapp_api.profile.model.UserProfile;
-import com.fitnessapp.fitapp_api.profile.repository.UserProfileRepository;
-import com.fitnessapp.fitapp_api.profile.service.UserProfileService;
-import com.fitnessapp.fitapp_api.route.model.Route;
+import com.fitnessapp.fitapp_api.profile.cache.ProfileSnapshot;
+import com.fitnessapp.fitapp_api.profile.cache.ProfileSnapshotCache;
 import com.fitnessapp.fitapp_api.route.repository.RouteRepository;
-import com.fitnessapp.fitapp_api.routeexecution.model.RouteExecution;
-import com.fitnessapp.fitapp_api.routeexecution.repository.RouteExecutionRepository;
+import com.fitnessapp.fitapp_api.stats.repository.TodayActivitySummary;
+import com.fitnessapp.fitapp_api.stats.repository.UserDailyActivityRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
-import java.time.LocalTime;
-import java.util.Comparator;
-import java.util.List;
-import java.util.Objects;
+import java.time.ZoneId;
 
 @Service
 @RequiredArgsConstructor
 public class HomeServiceImpl implements HomeService {
-    private final UserProfileService userProfileService;
-    private final UserProfileRepository userProfileRepository;
-    private final RouteExecutionRepository routeExecutionRepository;
+    private final ProfileSnapshotCache profileSnapshotCache;
+    private final UserDailyActivityRepository dailyActivityRepository;
     private final RouteRepository routeRepository;
+    private final HomeKpisCache homeKpisCache;
 
     @Override
-    public HomeKpisTodayResponseDTO getHomeKpisToday(String email) {
-        UserProfile profile = userProfileRepository.findByUser_Email(email)
-                .orElseThrow(() -> new UserProfileNotFoundException("User profile not found for email: " + email));
+    public HomeKpisTodayResponseDTO getHomeKpisToday(AuthenticatedUser user) {
+        return homeKpisCache.get(user.id(), () -> loadKpisForToday(user));
+    }
+
+    private HomeKpisCache.CachedKpis loadKpisForToday(AuthenticatedUser user) {
+        ProfileSnapshot profile = profileSnapshotCache.get(user.id())
+                .orElseThrow(() -> new UserProfileNotFoundException("User profile not found for email: " + user.email()));
 
-        if (!userProfileService.isProfileComplete(profile)) {
-            throw new UserProfileNotCompletedException("User profile is not complete for email: " + email);
+        if (!profile.complete()) {
+            throw new UserProfileNotCompletedException("User profile is not complete for email: " + user.email());
         }
 
-        List<RouteExecution> userRoutesExecutions = routeExecutionRepository.findAllByUserEmail(email);
-        return calculateKpisForToday(userRoutesExecutions,email, profile);
+        return new HomeKpisCache.CachedKpis(calculateKpisForToday(profile), profile.timeZone());
     }
 
-    private HomeKpisTodayResponseDTO calculateKpisForToday(List<RouteExecution> routesExecutions,String email,UserProfile profile) {
-        LocalDate today = LocalDate.now();
+    private HomeKpisTodayResponseDTO calculateKpisForToday(ProfileSnapshot profile) {
+        ZoneId userZone = profile.timeZone();
+        LocalDate today = UserTimeZones.today(userZone);
 
-        List<RouteExecution> todaysCompletedRoutes = routesExecutions.stream()
-                // 1. Filtrar por estado FINALIZADO primero
-                .filter(routeExecution -> routeExecution.getStatus() == RouteExecution.RouteExecutionStatus.FINISHED)
-                .filter(routeExecution -> routeExecution.getEndTime() != null)
-                // 2. Ahora es seguro llamar a getEndTime(), porque las rutas finalizadas lo tienen
-                .filter(routeExecution -> routeExecution.getEndTime().toLocalDate().equals(today))
-                .toList();
-        int routesCompleted = todaysCompletedRoutes.size();
-        long totalDurationSec = todaysCompletedRoutes.stream()
-                .mapToLong(routeExecution -> routeExecution.getDurationSec() != null ? routeExecution.getDurationSec() : 0L)
-                .sum();
-        double totalDistanceKm = todaysCompletedRoutes.stream()
-                .filter(routeExecution -> routeExecution.getRoute() != null) // <--- Proteger contra rutas borradas
-                .mapToDouble(routeExecution -> routeExecution.getRoute().getDistanceKm().doubleValue())
-                .sum();
+        // Agregados de hoy y racha en una sola consulta sobre el resumen diario
+        TodayActivitySummary summary = dailyActivityRepository.summarizeToday(profile.userId(), today);
 
-        double totalCalories = todaysCompletedRoutes.stream()
-                .filter(routeExecution -> routeExecution.getCalories() != null)
-                .mapToDouble(routeExecution -> routeExecution.getCalories().doubleValue())
-                .sum();
-
-        int activeStreak = calculateActiveStreak(routesExecutions);
+        int routesCompleted = summary.getSessionsCount().intValue();
+        long totalDurationSec = summary.getDurationSec();
+        double totalDistanceKm = summary.getDistanceKm().doubleValue();
+        double totalCalories = summary.getCalories().doubleValue();
+        int activeStreak = summary.getActiveStreak().intValue();
 
         // Consultamos a la BD directamente en lugar de traer toda la lista
-        boolean hasCreatedRoutes = routeRepository.existsByUser_EmailAndCreatedAtBetween(
-                email,
-                today.atStartOfDay(),
-                today.atTime(LocalTime.MAX)
+        boolean hasCreatedRoutes = routeRepository.existsByUser_IdAndCreatedAtBetween(
+                profile.userId(),
+                UserTimeZones.startOfDayInServerTime(today, userZone),
+                UserTimeZones.startOfDayInServerTime(today.plusDays(1), userZone).minusNanos(1)
         );
 
-        int goalKcalDaily = profile.getGoalKcalDaily();
+        int goalKcalDaily = profile.goalKcalDaily();
+        // Progreso del objetivo a partir de las kcal del resumen diario, sin agregar ejecuciones
+        boolean dailyGoalReached = totalCalories >= goalKcalDaily;
+        int goalProgressPercent = goalKcalDaily > 0
+                ? (int) Math.min(100L, (long) (totalCalories * 100 / goalKcalDaily))
+                : 100;
 
         return new HomeKpisTodayResponseDTO(
                 routesCompleted,
@@ -83,29 +76,9 @@ public class HomeServiceImpl implements HomeService {
                 totalCalories,
                 activeStreak,
                 hasCreatedRoutes,
-                goalKcalDaily
+                goalKcalDaily,
+                goalProgressPercent,
+                dailyGoalReached
         );
     }
-
-    private int calculateActiveStreak(List<RouteExecution> completedRoutes) {
-        List<LocalDate> completionDates = completedRoutes.stream()
-                .filter(routeExecution -> routeExecution.getStatus() == RouteExecution.RouteExecutionStatus.FINISHED)
-                .map(RouteExecution::getEndTime)
-                .filter(Objects::nonNull)
-                .map(java.time.LocalDateTime::toLocalDate)
-                .distinct()
-                .sorted(Comparator.reverseOrder())
-                .toList();
-
-        LocalDate today = LocalDate.now();
-        int streak = 0;
-        for (LocalDate date : completionDates) {
-            if (date.equals(today.minusDays(streak))) {
-                streak++;
-            } else {
-                break;
-            }
-        }
-        return streak;
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,27 @@
+package com.fitnessapp.fitapp_api.idempotency.job;
+
+import com.fitnessapp.fitapp_api.idempotency.service.IdempotencyService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Borra periódicamente las claves de idempotencia caducadas para que la tabla no crezca sin límite.
+ * Con lazy-initialization activada el bean debe crearse al arrancar para que se programe.
+ */
+@Slf4j
+@Component
+@Lazy(false)
+@RequiredArgsConstructor
+public class IdempotencyCleanupJob {
+
+    private final IdempotencyService idempotencyService;
+
+    @Scheduled(cron = "${app.idempotency.cleanup.cron:0 50 4 * * *}")
+    public void purgeExpired() {
+        int deleted = idempotencyService.purgeExpired();
+        log.info("Idempotency key cleanup deleted {} expired keys", deleted);
+    }
+}
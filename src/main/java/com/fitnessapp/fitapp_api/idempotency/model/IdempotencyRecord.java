@@ -0,0 +1,77 @@
+package com.fitnessapp.fitapp_api.idempotency.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Petición recibida con cabecera Idempotency-Key. Mientras la original está en curso solo hay reserva
+ * (statusCode null); al terminar se guarda la respuesta para devolverla tal cual a los reintentos.
+ * La fila solo es necesaria hasta expiresAt.
+ */
+@Getter
+@Setter
+@Entity
+@Table(
+        name = "idempotency_keys",
+        uniqueConstraints = @UniqueConstraint(name = "uk_idempotency_keys_user_key", columnNames = {"user_id", "idempotency_key"}),
+        indexes = @Index(name = "idx_idempotency_keys_expires_at", columnList = "expires_at")
+)
+@AllArgsConstructor
+@NoArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class IdempotencyRecord {
+
+    @EqualsAndHashCode.Include
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false, updatable = false)
+    private Long userId;
+
+    @Column(name = "idempotency_key", length = 100, nullable = false, updatable = false)
+    private String idempotencyKey;
+
+    @Column(name = "request_hash", length = 64, nullable = false, columnDefinition = "CHAR(64)")
+    private String requestHash;
+
+    @Column(name = "status_code")
+    private Integer statusCode;
+
+    @Column(name = "location", length = 255)
+    private String location;
+
+    @Column(name = "response_body", columnDefinition = "TEXT")
+    private String responseBody;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    public static IdempotencyRecord reserve(Long userId, String idempotencyKey, String requestHash,
+                                            LocalDateTime now, LocalDateTime expiresAt) {
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setUserId(userId);
+        record.setIdempotencyKey(idempotencyKey);
+        record.reclaim(requestHash, now, expiresAt);
+        return record;
+    }
+
+    // Reutiliza la fila de una reserva caducada o abandonada para una nueva petición
+    public void reclaim(String requestHash, LocalDateTime now, LocalDateTime expiresAt) {
+        this.requestHash = requestHash;
+        this.statusCode = null;
+        this.location = null;
+        this.responseBody = null;
+        this.createdAt = now;
+        this.expiresAt = expiresAt;
+    }
+
+    public boolean isCompleted() {
+        return statusCode != null;
+    }
+}
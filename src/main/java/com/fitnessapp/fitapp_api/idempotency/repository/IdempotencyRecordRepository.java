@@ -0,0 +1,40 @@
+package com.fitnessapp.fitapp_api.idempotency.repository;
+
+import com.fitnessapp.fitapp_api.idempotency.model.IdempotencyRecord;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    // SELECT ... FOR UPDATE sobre uk_idempotency_keys_user_key: dos reintentos simultáneos no reservan a la vez
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM IdempotencyRecord r WHERE r.userId = :userId AND r.idempotencyKey = :key")
+    Optional<IdempotencyRecord> findForUpdate(@Param("userId") Long userId, @Param("key") String key);
+
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.statusCode = :statusCode, r.location = :location, r.responseBody = :body " +
+            "WHERE r.userId = :userId AND r.idempotencyKey = :key AND r.requestHash = :requestHash")
+    int complete(@Param("userId") Long userId,
+                 @Param("key") String key,
+                 @Param("requestHash") String requestHash,
+                 @Param("statusCode") int statusCode,
+                 @Param("location") String location,
+                 @Param("body") String body);
+
+    // Solo borra la reserva en curso: una respuesta ya guardada se mantiene
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r " +
+            "WHERE r.userId = :userId AND r.idempotencyKey = :key AND r.requestHash = :requestHash AND r.statusCode IS NULL")
+    int release(@Param("userId") Long userId, @Param("key") String key, @Param("requestHash") String requestHash);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :before")
+    int deleteExpiredBefore(@Param("before") LocalDateTime before);
+}
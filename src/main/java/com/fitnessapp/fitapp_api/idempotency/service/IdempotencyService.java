@@ -0,0 +1,28 @@
+package com.fitnessapp.fitapp_api.idempotency.service;
+
+import com.fitnessapp.fitapp_api.core.security.AuthenticatedUser;
+import org.springframework.http.ResponseEntity;
+
+import java.util.function.Supplier;
+
+public interface IdempotencyService {
+
+    String HEADER = "Idempotency-Key";
+    String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    /**
+     * Ejecuta la operación una sola vez por usuario y clave de idempotencia. Los reintentos con la misma clave
+     * y la misma petición reciben la respuesta guardada sin volver a ejecutarla; sin clave se ejecuta siempre.
+     *
+     * @param operation identifica el endpoint y sus parámetros de ruta (la misma clave no sirve para otro)
+     * @param request   cuerpo de la petición, forma parte de la huella junto a operation
+     */
+    <T> ResponseEntity<T> execute(AuthenticatedUser principal,
+                                  String idempotencyKey,
+                                  String operation,
+                                  Object request,
+                                  Class<T> bodyType,
+                                  Supplier<ResponseEntity<T>> action);
+
+    int purgeExpired();
+}
@@ -0,0 +1,61 @@
+package com.fitnessapp.fitapp_api.idempotency.service.implementation;
+
+import com.fitnessapp.fitapp_api.idempotency.model.IdempotencyRecord;
+import com.fitnessapp.fitapp_api.idempotency.repository.IdempotencyRecordRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Accesos a idempotency_keys, cada uno en su propia transacción: la reserva se confirma antes de ejecutar
+ * la operación y la respuesta se guarda después, así un reintento concurrente ve la reserva y no la repite.
+ */
+@Component
+@Transactional
+@RequiredArgsConstructor
+public class IdempotencyRecordStore {
+
+    private final IdempotencyRecordRepository repository;
+
+    /**
+     * Reserva la clave para esta petición. Devuelve vacío si la reserva es nuestra, o la fila vigente
+     * (respuesta guardada o petición aún en curso) si ya existía. Las caducadas y las reservas
+     * abandonadas (en curso desde hace más de inProgressTimeout) se reutilizan.
+     */
+    public Optional<IdempotencyRecord> reserve(Long userId, String key, String requestHash,
+                                               LocalDateTime now, Duration ttl, Duration inProgressTimeout) {
+        Optional<IdempotencyRecord> existing = repository.findForUpdate(userId, key);
+        if (existing.isPresent()) {
+            IdempotencyRecord record = existing.get();
+            boolean expired = !record.getExpiresAt().isAfter(now);
+            boolean abandoned = !record.isCompleted() && record.getCreatedAt().isBefore(now.minus(inProgressTimeout));
+            if (!expired && !abandoned) {
+                return existing;
+            }
+            record.reclaim(requestHash, now, now.plus(ttl));
+            return Optional.empty();
+        }
+        // Si otro reintento inserta a la vez, la clave única lo rechaza con DataIntegrityViolationException; si los dos
+        // pasaron por el FOR UPDATE sin fila, sus gap locks bloquean ambas inserciones e InnoDB aborta una de ellas
+        // (PessimisticLockingFailureException). El servicio responde a las dos como petición en curso
+        repository.saveAndFlush(IdempotencyRecord.reserve(userId, key, requestHash, now, now.plus(ttl)));
+        return Optional.empty();
+    }
+
+    public void complete(Long userId, String key, String requestHash, int statusCode, String location, String body) {
+        repository.complete(userId, key, requestHash, statusCode, location, body);
+    }
+
+    // La operación falló: se libera la clave para que el cliente pueda reintentar
+    public void release(Long userId, String key, String requestHash) {
+        repository.release(userId, key, requestHash);
+    }
+
+    public int purgeExpired(LocalDateTime now) {
+        return repository.deleteExpiredBefore(now);
+    }
+}
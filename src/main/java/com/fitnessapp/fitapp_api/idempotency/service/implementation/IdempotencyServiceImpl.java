@@ -0,0 +1,189 @@
+package com.fitnessapp.fitapp_api.idempotency.service.implementation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fitnessapp.fitapp_api.core.exception.IdempotencyKeyReusedException;
+import com.fitnessapp.fitapp_api.core.exception.IdempotencyRequestInProgressException;
+import com.fitnessapp.fitapp_api.core.exception.InvalidIdempotencyKeyException;
+import com.fitnessapp.fitapp_api.core.security.AuthenticatedUser;
+import com.fitnessapp.fitapp_api.core.util.TokenHashes;
+import com.fitnessapp.fitapp_api.idempotency.model.IdempotencyRecord;
+import com.fitnessapp.fitapp_api.idempotency.service.IdempotencyService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Idempotencia de los POST que crean recursos o cierran ejecuciones. La tabla idempotency_keys es la fuente
+ * de verdad (compartida entre instancias); delante hay una caché en memoria con las respuestas ya guardadas,
+ * así que un reintento de una petición reciente se responde sin ir a BD ni ejecutar la lógica de negocio.
+ * Solo se guardan respuestas correctas: si la operación lanza una excepción la clave se libera.
+ */
+@Slf4j
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private final IdempotencyRecordStore store;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration inProgressTimeout;
+    private final Cache<String, StoredResponse> responses;
+
+    private final Counter executed;
+    private final Counter replayed;
+
+    public IdempotencyServiceImpl(IdempotencyRecordStore store,
+                                  ObjectMapper objectMapper,
+                                  @Value("${app.idempotency.ttl:PT24H}") Duration ttl,
+                                  @Value("${app.idempotency.in-progress-timeout:PT1M}") Duration inProgressTimeout,
+                                  @Value("${app.idempotency.cache.max-size:10000}") long cacheMaxSize,
+                                  MeterRegistry meterRegistry) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.inProgressTimeout = inProgressTimeout;
+        this.responses = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(cacheMaxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, "idempotency.responses");
+        this.executed = requestCounter(meterRegistry, "executed");
+        this.replayed = requestCounter(meterRegistry, "replayed");
+    }
+
+    @Override
+    public <T> ResponseEntity<T> execute(AuthenticatedUser principal,
+                                         String idempotencyKey,
+                                         String operation,
+                                         Object request,
+                                         Class<T> bodyType,
+                                         Supplier<ResponseEntity<T>> action) {
+        if (idempotencyKey == null) {
+            return action.get();
+        }
+        String key = idempotencyKey.trim();
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidIdempotencyKeyException(
+                    "Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+        Long userId = principal.id();
+        String requestHash = fingerprint(operation, request);
+        String cacheKey = userId + ":" + key;
+
+        StoredResponse cached = responses.getIfPresent(cacheKey);
+        if (cached != null) {
+            return replay(cached, requestHash, bodyType);
+        }
+
+        Optional<IdempotencyRecord> existing;
+        try {
+            existing = store.reserve(userId, key, requestHash, LocalDateTime.now(), ttl, inProgressTimeout);
+        } catch (DataIntegrityViolationException | PessimisticLockingFailureException e) {
+            // Otro reintento con la misma clave acaba de reservarla: o gana la inserción (clave única) o InnoDB
+            // elige esta transacción como víctima del interbloqueo entre los dos SELECT ... FOR UPDATE + INSERT
+            throw new IdempotencyRequestInProgressException("A request with this Idempotency-Key is already in progress");
+        }
+        if (existing.isPresent()) {
+            IdempotencyRecord record = existing.get();
+            if (!record.isCompleted()) {
+                if (!record.getRequestHash().equals(requestHash)) {
+                    throw new IdempotencyKeyReusedException("Idempotency-Key was already used for a different request");
+                }
+                throw new IdempotencyRequestInProgressException("A request with this Idempotency-Key is already in progress");
+            }
+            StoredResponse stored = new StoredResponse(record.getRequestHash(), record.getStatusCode(),
+                    record.getLocation(), deserialize(record.getResponseBody(), bodyType));
+            responses.put(cacheKey, stored);
+            return replay(stored, requestHash, bodyType);
+        }
+
+        ResponseEntity<T> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            store.release(userId, key, requestHash);
+            throw e;
+        }
+        executed.increment();
+
+        URI location = response.getHeaders().getLocation();
+        StoredResponse stored = new StoredResponse(requestHash, response.getStatusCode().value(),
+                location != null ? location.toString() : null, response.getBody());
+        store.complete(userId, key, requestHash, stored.statusCode(), stored.location(), serialize(response.getBody()));
+        responses.put(cacheKey, stored);
+        return response;
+    }
+
+    @Override
+    public int purgeExpired() {
+        return store.purgeExpired(LocalDateTime.now());
+    }
+
+    private <T> ResponseEntity<T> replay(StoredResponse stored, String requestHash, Class<T> bodyType) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new IdempotencyKeyReusedException("Idempotency-Key was already used for a different request");
+        }
+        replayed.increment();
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(stored.statusCode())
+                .header(REPLAYED_HEADER, "true");
+        if (stored.location() != null) {
+            builder.location(URI.create(stored.location()));
+        }
+        return builder.body(bodyType.cast(stored.body()));
+    }
+
+    // Huella de la petición: la misma clave solo vale para el mismo endpoint con el mismo cuerpo
+    private String fingerprint(String operation, Object request) {
+        return TokenHashes.sha256Hex(operation + "\n" + serialize(request));
+    }
+
+    private String serialize(Object value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize idempotent request/response", e);
+        }
+    }
+
+    private <T> T deserialize(String json, Class<T> bodyType) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, bodyType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read stored idempotent response", e);
+        }
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("idempotency.requests")
+                .description("Peticiones con Idempotency-Key por resultado")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    // Respuesta guardada; body es el DTO ya deserializado (inmutable) para no repetir el parseo en cada reintento
+    private record StoredResponse(String requestHash, int statusCode, String location, Object body) {
+    }
+}
@@ -0,0 +1,100 @@
+package com.fitnessapp.fitapp_api.leaderboard.controller;
+
+import com.fitnessapp.fitapp_api.leaderboard.dto.LeaderboardResponseDTO;
+import com.fitnessapp.fitapp_api.leaderboard.dto.MyLeaderboardPositionDTO;
+import com.fitnessapp.fitapp_api.leaderboard.service.LeaderboardService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.security.Principal;
+
+@RestController
+@RequestMapping("/api/v1/leaderboard")
+@RequiredArgsConstructor
+@Tag(name = "Leaderboard", description = "Endpoints para la clasificación global de puntos")
+public class LeaderboardController {
+
+    private final LeaderboardService leaderboardService;
+
+    /**
+     * GET /top
+     */
+    @Operation(
+            summary = "Obtener el top de la clasificación",
+            description = "Devuelve los primeros usuarios de la clasificación global por puntos. Los empates comparten puesto.",
+            parameters = {
+                    @Parameter(
+                            name = "limit",
+                            description = "Número de usuarios a devolver (por defecto 10, máximo 100).",
+                            example = "10"
+                    ),
+                    @Parameter(
+                            name = "principal",
+                            hidden = true,
+                            description = "Inyectado por Spring Security, representa el usuario autenticado."
+                    )
+            },
+            responses = {
+                    @ApiResponse(
+                            responseCode = "401",
+                            description = "No autenticado - Token JWT inválido o faltante",
+                            content = @Content(mediaType = "application/json")
+                    )
+            }
+    )
+    @GetMapping("/top")
+    public ResponseEntity<LeaderboardResponseDTO> getTop(
+            Principal principal,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        return ResponseEntity.ok(leaderboardService.getTop(principal.getName(), limit));
+    }
+
+    /**
+     * GET /me
+     */
+    @Operation(
+            summary = "Obtener mi puesto en la clasificación",
+            description = "Devuelve el puesto y los puntos del usuario autenticado junto con los usuarios inmediatamente por encima y por debajo.",
+            parameters = {
+                    @Parameter(
+                            name = "neighbors",
+                            description = "Usuarios a devolver por encima y por debajo (por defecto 5, máximo 25).",
+                            example = "5"
+                    ),
+                    @Parameter(
+                            name = "principal",
+                            hidden = true,
+                            description = "Inyectado por Spring Security, representa el usuario autenticado."
+                    )
+            },
+            responses = {
+                    @ApiResponse(
+                            responseCode = "401",
+                            description = "No autenticado - Token JWT inválido o faltante",
+                            content = @Content(mediaType = "application/json")
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Perfil de usuario no encontrado",
+                            content = @Content(mediaType = "application/json")
+                    )
+            }
+    )
+    @GetMapping("/me")
+    public ResponseEntity<MyLeaderboardPositionDTO> getMyPosition(
+            Principal principal,
+            @RequestParam(defaultValue = "5") int neighbors
+    ) {
+        return ResponseEntity.ok(leaderboardService.getMyPosition(principal.getName(), neighbors));
+    }
+}
@@ -0,0 +1,9 @@
+package com.fitnessapp.fitapp_api.leaderboard.dto;
+
+public record LeaderboardEntryDTO(
+        int rank,
+        String displayName,
+        long points,
+        boolean me
+) {
+}
@@ -0,0 +1,9 @@
+package com.fitnessapp.fitapp_api.leaderboard.dto;
+
+import java.util.List;
+
+public record LeaderboardResponseDTO(
+        int totalUsers,
+        List<LeaderboardEntryDTO> entries
+) {
+}
@@ -0,0 +1,11 @@
+package com.fitnessapp.fitapp_api.leaderboard.dto;
+
+import java.util.List;
+
+public record MyLeaderboardPositionDTO(
+        int rank,
+        long points,
+        int totalUsers,
+        List<LeaderboardEntryDTO> neighbors
+) {
+}
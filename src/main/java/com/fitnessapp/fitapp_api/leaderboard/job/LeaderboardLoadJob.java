@@ -0,0 +1,28 @@
+package com.fitnessapp.fitapp_api.leaderboard.job;
+
+import com.fitnessapp.fitapp_api.leaderboard.service.LeaderboardService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Carga la clasificación en memoria desde user_profile.points al arrancar,
+ * después de los backfills opcionales de estadísticas.
+ */
+@Slf4j
+@Component
+@Order(10)
+@RequiredArgsConstructor
+public class LeaderboardLoadJob implements ApplicationRunner {
+
+    private final LeaderboardService leaderboardService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int users = leaderboardService.rebuild();
+        log.info("Leaderboard loaded: {} users", users);
+    }
+}
@@ -0,0 +1,38 @@
+package com.fitnessapp.fitapp_api.leaderboard.job;
+
+import com.fitnessapp.fitapp_api.leaderboard.service.LeaderboardService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Recarga periódica de la clasificación desde user_profile.points: los eventos de puntos solo llegan a la
+ * instancia que confirmó el movimiento, así que las demás convergen con esta recarga. Los movimientos que llegan
+ * durante la carga se conservan con el último id del ledger (ver {@link LeaderboardService#rebuild()}).
+ * Con lazy-initialization activada el bean debe crearse al arrancar para que se programe.
+ */
+@Slf4j
+@Component
+@Lazy(false)
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.leaderboard.refresh.enabled", havingValue = "true", matchIfMissing = true)
+public class LeaderboardRefreshJob {
+
+    private final LeaderboardService leaderboardService;
+
+    // La carga inicial la hace LeaderboardLoadJob al arrancar
+    @Scheduled(initialDelayString = "${app.leaderboard.refresh.interval:PT1M}",
+            fixedDelayString = "${app.leaderboard.refresh.interval:PT1M}")
+    public void refresh() {
+        try {
+            int users = leaderboardService.rebuild();
+            log.debug("Leaderboard refreshed: {} users", users);
+        } catch (RuntimeException e) {
+            // Se conserva la clasificación anterior hasta la siguiente pasada
+            log.warn("Leaderboard refresh failed", e);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.fitnessapp.fitapp_api.leaderboard.ranking;
+
+import com.fitnessapp.fitapp_api.gamification.event.PointsAwardedEvent;
+import com.fitnessapp.fitapp_api.gamification.event.PointsBalancesReconciledEvent;
+import com.fitnessapp.fitapp_api.leaderboard.service.LeaderboardService;
+import com.fitnessapp.fitapp_api.profile.event.UserProfileChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Mantiene la clasificación en memoria al día con los cambios de puntos ya confirmados en la BD.
+ * Los eventos solo llegan a esta instancia: los movimientos confirmados en otras los recoge
+ * {@link com.fitnessapp.fitapp_api.leaderboard.job.LeaderboardRefreshJob}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LeaderboardUpdater {
+
+    private final PointsLeaderboard leaderboard;
+    private final LeaderboardService leaderboardService;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPointsAwarded(PointsAwardedEvent event) {
+        leaderboard.applyAward(event.userId(), event.delta(), event.ledgerEntryId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProfileChanged(UserProfileChangedEvent event) {
+        leaderboard.ensureUser(event.userId());
+    }
+
+    // Tras reconciliar, el saldo de referencia es el de la BD: se recarga entera
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBalancesReconciled(PointsBalancesReconciledEvent event) {
+        int users = leaderboardService.rebuild();
+        log.info("Leaderboard reloaded after points reconcile: {} users", users);
+    }
+}
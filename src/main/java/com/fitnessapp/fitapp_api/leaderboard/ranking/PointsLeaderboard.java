@@ -0,0 +1,326 @@
+package com.fitnessapp.fitapp_api.leaderboard.ranking;
+
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Clasificación global de puntos en memoria.
+ * - Un árbol de Fenwick sobre la puntuación cuenta cuántos usuarios hay con cada saldo,
+ *   así el puesto de un usuario (1 + usuarios con más puntos) sale en O(log S).
+ * - Un conjunto ordenado (puntos desc, userId asc) da el top-N y los vecinos en O(log n + k).
+ * Los empates comparten puesto (1, 2, 2, 4...). Los saldos negativos cuentan como 0.
+ * Cada usuario guarda el último movimiento del ledger aplicado: durante una recarga desde BD los movimientos
+ * que llegan se guardan y, tras sustituir la clasificación, se vuelven a aplicar los que la carga no incluía.
+ */
+@Component
+public class PointsLeaderboard {
+
+    private static final int INITIAL_CAPACITY = 1 << 14;
+    // Por encima de este saldo los usuarios comparten el último bucket del árbol (y se desempatan recorriendo
+    // el conjunto ordenado). Acota el árbol a ~8 MB aunque haya saldos enormes (saldo inicial, puntos heredados)
+    private static final int MAX_CAPACITY = 1 << 20;
+
+    private static final Comparator<RankedScore> ORDER = Comparator
+            .comparingLong(RankedScore::score).reversed()
+            .thenComparingLong(RankedScore::userId);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Long> scores = new HashMap<>();
+    private final Map<Long, Long> lastLedgerIds = new HashMap<>();
+    // Movimientos recibidos durante una recarga en curso (null si no hay ninguna)
+    private List<Award> pendingAwards;
+    private final NavigableSet<RankedScore> ordered = new TreeSet<>(ORDER);
+    private long[] tree = new long[INITIAL_CAPACITY + 1];
+
+    /**
+     * Empieza una recarga: desde aquí hasta {@link #replaceAll(Map, Map)} o {@link #cancelRebuild()} se guardan
+     * los movimientos recibidos para no perder los confirmados después de leer el saldo del usuario.
+     */
+    public void beginRebuild() {
+        lock.writeLock().lock();
+        try {
+            pendingAwards = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void cancelRebuild() {
+        lock.writeLock().lock();
+        try {
+            pendingAwards = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Sustituye la clasificación completa (carga al arrancar o tras reconciliar saldos).
+     */
+    public void replaceAll(Map<Long, Long> pointsByUser) {
+        replaceAll(pointsByUser, Map.of());
+    }
+
+    /**
+     * Sustituye la clasificación completa con el último movimiento del ledger incluido en cada saldo, y aplica
+     * los movimientos recibidos durante la recarga que son posteriores a él.
+     */
+    public void replaceAll(Map<Long, Long> pointsByUser, Map<Long, Long> lastLedgerIdByUser) {
+        lock.writeLock().lock();
+        try {
+            scores.clear();
+            ordered.clear();
+            lastLedgerIds.clear();
+            lastLedgerIds.putAll(lastLedgerIdByUser);
+            long max = 0;
+            for (Map.Entry<Long, Long> e : pointsByUser.entrySet()) {
+                long score = Math.max(0L, e.getValue() != null ? e.getValue() : 0L);
+                scores.put(e.getKey(), score);
+                ordered.add(key(e.getKey(), score));
+                max = Math.max(max, score);
+            }
+            rebuildTree(capacityFor(max));
+
+            List<Award> pending = pendingAwards;
+            pendingAwards = null;
+            if (pending != null) {
+                pending.forEach(this::applyIfNew);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Aplica un movimiento del ledger ya confirmado. Se ignora si el saldo cargado de BD ya lo incluía.
+     */
+    public void applyAward(long userId, long delta, Long ledgerEntryId) {
+        lock.writeLock().lock();
+        try {
+            Award award = new Award(userId, delta, ledgerEntryId);
+            if (pendingAwards != null) {
+                pendingAwards.add(award);
+            }
+            applyIfNew(award);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Suma puntos al saldo de un usuario (lo da de alta si no estaba).
+     */
+    public void addPoints(long userId, long delta) {
+        lock.writeLock().lock();
+        try {
+            add(userId, delta);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Fija el saldo leído de BD de un usuario junto con el último movimiento del ledger que incluye.
+     * Si la clasificación ya aplicó un movimiento posterior a ese, su saldo es más reciente y se conserva.
+     */
+    public void seed(long userId, long points, Long lastLedgerId) {
+        lock.writeLock().lock();
+        try {
+            Long applied = lastLedgerIds.get(userId);
+            if (applied != null && (lastLedgerId == null || applied > lastLedgerId)) {
+                return;
+            }
+            add(userId, Math.max(0L, points) - scores.getOrDefault(userId, 0L));
+            if (lastLedgerId != null) {
+                lastLedgerIds.put(userId, lastLedgerId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Da de alta a un usuario con 0 puntos si todavía no aparece.
+     */
+    public void ensureUser(long userId) {
+        lock.writeLock().lock();
+        try {
+            if (scores.putIfAbsent(userId, 0L) == null) {
+                ordered.add(key(userId, 0L));
+                update(0L, 1);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<RankedScore> top(int limit) {
+        lock.readLock().lock();
+        try {
+            List<RankedScore> result = new ArrayList<>(Math.min(limit, ordered.size()));
+            int position = 0;
+            int rank = 0;
+            long previousScore = -1;
+            for (RankedScore entry : ordered) {
+                if (position == limit) {
+                    break;
+                }
+                position++;
+                if (entry.score() != previousScore) {
+                    rank = position;
+                    previousScore = entry.score();
+                }
+                result.add(new RankedScore(rank, entry.userId(), entry.score()));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Optional<RankedScore> rankOf(long userId) {
+        lock.readLock().lock();
+        try {
+            Long score = scores.get(userId);
+            return score == null ? Optional.empty() : Optional.of(ranked(userId, score));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Hasta {@code neighbors} usuarios inmediatamente por encima y por debajo, incluido el propio usuario.
+     * Lista vacía si el usuario no está en la clasificación.
+     */
+    public List<RankedScore> around(long userId, int neighbors) {
+        lock.readLock().lock();
+        try {
+            Long score = scores.get(userId);
+            if (score == null) {
+                return List.of();
+            }
+            RankedScore me = key(userId, score);
+
+            Deque<RankedScore> result = new ArrayDeque<>(2 * neighbors + 1);
+            Iterator<RankedScore> above = ordered.headSet(me, false).descendingIterator();
+            for (int i = 0; i < neighbors && above.hasNext(); i++) {
+                RankedScore e = above.next();
+                result.addFirst(ranked(e.userId(), e.score()));
+            }
+            result.addLast(ranked(userId, score));
+            Iterator<RankedScore> below = ordered.tailSet(me, false).iterator();
+            for (int i = 0; i < neighbors && below.hasNext(); i++) {
+                RankedScore e = below.next();
+                result.addLast(ranked(e.userId(), e.score()));
+            }
+            return new ArrayList<>(result);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return scores.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Con el write lock tomado
+    private void applyIfNew(Award award) {
+        if (award.ledgerEntryId() != null) {
+            Long applied = lastLedgerIds.get(award.userId());
+            if (applied != null && award.ledgerEntryId() <= applied) {
+                return;
+            }
+            lastLedgerIds.put(award.userId(), award.ledgerEntryId());
+        }
+        add(award.userId(), award.delta());
+    }
+
+    // Con el write lock tomado
+    private void add(long userId, long delta) {
+        Long previous = scores.get(userId);
+        long current = previous != null ? previous : 0L;
+        long updated = Math.max(0L, current + delta);
+        if (previous != null) {
+            if (updated == current) {
+                return;
+            }
+            ordered.remove(key(userId, current));
+            update(current, -1);
+        }
+        scores.put(userId, updated);
+        ordered.add(key(userId, updated));
+        if (updated >= tree.length - 1 && tree.length - 1 < MAX_CAPACITY) {
+            rebuildTree(capacityFor(updated));
+        } else {
+            update(updated, 1);
+        }
+    }
+
+    // --- Árbol de Fenwick: tree[i] cuenta usuarios por bucket de puntuación (índice 1-based) ---
+
+    private RankedScore ranked(long userId, long score) {
+        return new RankedScore(1 + countAbove(score), userId, score);
+    }
+
+    private int countAbove(long score) {
+        int bucket = bucket(score);
+        long atOrBelow = 0;
+        for (int i = bucket + 1; i > 0; i -= i & -i) {
+            atOrBelow += tree[i];
+        }
+        long above = scores.size() - atOrBelow;
+        // Saldos por encima de la capacidad máxima comparten bucket: se desempatan recorriendo el conjunto
+        if (bucket == tree.length - 2 && score > bucket) {
+            above += ordered.headSet(key(Long.MIN_VALUE, score), false).stream()
+                    .filter(e -> e.score() > score && bucket(e.score()) == bucket)
+                    .count();
+        }
+        return (int) above;
+    }
+
+    private void update(long score, int delta) {
+        for (int i = bucket(score) + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    private int bucket(long score) {
+        return (int) Math.min(score, tree.length - 2);
+    }
+
+    private void rebuildTree(int capacity) {
+        tree = new long[capacity + 1];
+        for (long score : scores.values()) {
+            update(score, 1);
+        }
+    }
+
+    private static int capacityFor(long maxScore) {
+        int capacity = INITIAL_CAPACITY;
+        while (capacity <= maxScore && capacity < MAX_CAPACITY) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static RankedScore key(long userId, long score) {
+        return new RankedScore(0, userId, score);
+    }
+
+    private record Award(long userId, long delta, Long ledgerEntryId) {
+    }
+
+    /**
+     * Posición de un usuario en la clasificación.
+     */
+    public record RankedScore(int rank, long userId, long score) {
+    }
+}
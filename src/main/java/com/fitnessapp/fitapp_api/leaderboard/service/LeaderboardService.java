@@ -0,0 +1,24 @@
+package com.fitnessapp.fitapp_api.leaderboard.service;
+
+import com.fitnessapp.fitapp_api.leaderboard.dto.LeaderboardResponseDTO;
+import com.fitnessapp.fitapp_api.leaderboard.dto.MyLeaderboardPositionDTO;
+
+public interface LeaderboardService {
+
+    /**
+     * Los {@code limit} primeros de la clasificación global de puntos.
+     */
+    LeaderboardResponseDTO getTop(String email, int limit);
+
+    /**
+     * Puesto del usuario autenticado y los {@code neighbors} usuarios por encima y por debajo.
+     */
+    MyLeaderboardPositionDTO getMyPosition(String email, int neighbors);
+
+    /**
+     * Recarga la clasificación completa desde user_profile.points.
+     *
+     * @return número de usuarios cargados
+     */
+    int rebuild();
+}
@@ -0,0 +1,137 @@
+package com.fitnessapp.fitapp_api.leaderboard.service.implementation;
+
+import com.fitnessapp.fitapp_api.auth.model.UserAuth;
+import com.fitnessapp.fitapp_api.auth.repository.UserAuthRepository;
+import com.fitnessapp.fitapp_api.core.exception.UserAuthNotFoundException;
+import com.fitnessapp.fitapp_api.core.exception.UserProfileNotFoundException;
+import com.fitnessapp.fitapp_api.leaderboard.dto.LeaderboardEntryDTO;
+import com.fitnessapp.fitapp_api.leaderboard.dto.LeaderboardResponseDTO;
+import com.fitnessapp.fitapp_api.leaderboard.dto.MyLeaderboardPositionDTO;
+import com.fitnessapp.fitapp_api.leaderboard.ranking.PointsLeaderboard;
+import com.fitnessapp.fitapp_api.leaderboard.ranking.PointsLeaderboard.RankedScore;
+import com.fitnessapp.fitapp_api.leaderboard.service.LeaderboardService;
+import com.fitnessapp.fitapp_api.profile.model.UserProfile;
+import com.fitnessapp.fitapp_api.profile.repository.UserPointsView;
+import com.fitnessapp.fitapp_api.profile.repository.UserProfileRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class LeaderboardServiceImpl implements LeaderboardService {
+
+    private static final int MAX_LIMIT = 100;
+    private static final int MAX_NEIGHBORS = 25;
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private final PointsLeaderboard leaderboard;
+    private final UserAuthRepository userAuthRepository;
+    private final UserProfileRepository userProfileRepository;
+
+    @Override
+    public LeaderboardResponseDTO getTop(String email, int limit) {
+        Long myId = userIdOf(email);
+        List<RankedScore> top = leaderboard.top(clamp(limit, 1, MAX_LIMIT));
+        return new LeaderboardResponseDTO(leaderboard.size(), toEntries(top, myId));
+    }
+
+    @Override
+    public MyLeaderboardPositionDTO getMyPosition(String email, int neighbors) {
+        Long myId = userIdOf(email);
+
+        RankedScore me = leaderboard.rankOf(myId).orElse(null);
+        if (me == null) {
+            // Usuario dado de alta después de la carga: se incorpora con su saldo actual y el último movimiento
+            // del ledger que incluye, para no sumar dos veces un award que llegue mientras tanto
+            UserPointsView points = userProfileRepository.findPointsByUserId(myId)
+                    .orElseThrow(() -> new UserProfileNotFoundException("User profile not found for email: " + email));
+            leaderboard.seed(myId, points.getPoints() != null ? points.getPoints() : 0L, points.getLastLedgerId());
+            me = leaderboard.rankOf(myId).orElseThrow();
+        }
+
+        List<RankedScore> around = leaderboard.around(myId, clamp(neighbors, 0, MAX_NEIGHBORS));
+        return new MyLeaderboardPositionDTO(me.rank(), me.score(), leaderboard.size(), toEntries(around, myId));
+    }
+
+    /*
+     * Los saldos se leen fuera del lock de la clasificación; los movimientos que llegan mientras tanto quedan
+     * guardados en ella y se aplican tras la sustitución si el saldo leído no los incluía (último id del ledger).
+     * synchronized: dos recargas a la vez compartirían esos movimientos guardados.
+     */
+    @Override
+    public synchronized int rebuild() {
+        Map<Long, Long> pointsByUser = new HashMap<>();
+        Map<Long, Long> lastLedgerIdByUser = new HashMap<>();
+        leaderboard.beginRebuild();
+        try {
+            long lastUserId = 0L;
+            List<UserPointsView> page;
+            do {
+                page = userProfileRepository.findPointsPageAfter(lastUserId, Limit.of(LOAD_BATCH_SIZE));
+                for (UserPointsView row : page) {
+                    pointsByUser.put(row.getUserId(), row.getPoints());
+                    if (row.getLastLedgerId() != null) {
+                        lastLedgerIdByUser.put(row.getUserId(), row.getLastLedgerId());
+                    }
+                    lastUserId = row.getUserId();
+                }
+            } while (page.size() == LOAD_BATCH_SIZE);
+        } catch (RuntimeException e) {
+            leaderboard.cancelRebuild();
+            throw e;
+        }
+
+        leaderboard.replaceAll(pointsByUser, lastLedgerIdByUser);
+        return pointsByUser.size();
+    }
+
+    private Long userIdOf(String email) {
+        return userAuthRepository.findByEmail(email)
+                .map(UserAuth::getId)
+                .orElseThrow(() -> new UserAuthNotFoundException("User not found for email: " + email));
+    }
+
+    // Nombres de los usuarios de la página en una sola consulta
+    private List<LeaderboardEntryDTO> toEntries(List<RankedScore> scores, Long myId) {
+        if (scores.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, UserProfile> profiles = userProfileRepository
+                .findAllByUser_IdIn(scores.stream().map(RankedScore::userId).toList())
+                .stream()
+                .collect(Collectors.toMap(p -> p.getUser().getId(), Function.identity()));
+
+        return scores.stream()
+                .map(s -> new LeaderboardEntryDTO(
+                        s.rank(),
+                        displayName(profiles.get(s.userId())),
+                        s.score(),
+                        s.userId() == myId
+                ))
+                .toList();
+    }
+
+    // Nombre e inicial del apellido, para no exponer el nombre completo
+    private String displayName(UserProfile profile) {
+        if (profile == null || profile.getFirstName() == null || profile.getFirstName().isBlank()) {
+            return "Usuario";
+        }
+        String lastName = profile.getLastName();
+        return lastName == null || lastName.isBlank()
+                ? profile.getFirstName()
+                : profile.getFirstName() + " " + lastName.charAt(0) + ".";
+    }
+
+    private int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(value, max));
+    }
+}
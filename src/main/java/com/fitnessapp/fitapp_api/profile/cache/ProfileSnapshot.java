@@ -0,0 +1,57 @@
+package com.fitnessapp.fitapp_api.profile.cache;
+
+import com.fitnessapp.fitapp_api.calories.util.CalorieCoefficients;
+import com.fitnessapp.fitapp_api.profile.model.UserProfile;
+import com.fitnessapp.fitapp_api.profile.util.Gender;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * Copia inmutable de los datos del perfil que usan calorías, puntos, Home y estadísticas.
+ * No incluye el saldo de puntos, que cambia con cada ejecución y se lee siempre de BD.
+ * complete refleja UserProfileService#isProfileComplete en el momento de la carga.
+ * calorieCoefficients se precalcula al construir el snapshot (null si el perfil no está completo).
+ */
+public record ProfileSnapshot(
+        Long userId,
+        String email,
+        Gender gender,
+        LocalDate birthDate,
+        BigDecimal heightCm,
+        BigDecimal weightKg,
+        ZoneId timeZone,
+        Integer goalKcalDaily,
+        boolean complete,
+        CalorieCoefficients calorieCoefficients
+) {
+
+    public ProfileSnapshot(Long userId, String email, Gender gender, LocalDate birthDate, BigDecimal heightCm,
+                           BigDecimal weightKg, ZoneId timeZone, Integer goalKcalDaily, boolean complete) {
+        this(userId, email, gender, birthDate, heightCm, weightKg, timeZone, goalKcalDaily, complete,
+                complete ? coefficientsOf(gender, birthDate, heightCm, weightKg) : null);
+    }
+
+    public static ProfileSnapshot of(UserProfile profile, boolean complete) {
+        return new ProfileSnapshot(
+                profile.getUser().getId(),
+                profile.getUser().getEmail(),
+                profile.getGender(),
+                profile.getBirthDate(),
+                profile.getHeightCm(),
+                profile.getWeightKg(),
+                profile.getTimeZone(),
+                profile.getGoalKcalDaily(),
+                complete
+        );
+    }
+
+    private static CalorieCoefficients coefficientsOf(Gender gender, LocalDate birthDate,
+                                                      BigDecimal heightCm, BigDecimal weightKg) {
+        if (gender == null || birthDate == null || heightCm == null || weightKg == null) {
+            return null;
+        }
+        return CalorieCoefficients.of(gender, weightKg.doubleValue(), heightCm.doubleValue(), birthDate, LocalDate.now());
+    }
+}
@@ -0,0 +1,58 @@
+package com.fitnessapp.fitapp_api.profile.cache;
+
+import com.fitnessapp.fitapp_api.profile.repository.UserProfileRepository;
+import com.fitnessapp.fitapp_api.profile.service.UserProfileService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Caché read-through de {@link ProfileSnapshot} por usuario (clave: id de usuario, como HomeKpisCache).
+ * También se cachea la ausencia de perfil, para que finalizar ejecuciones sin perfil no consulte la BD cada vez.
+ * Crear o actualizar el perfil invalida la entrada (ver {@link ProfileSnapshotCacheInvalidator});
+ * el TTL acota lo que puede tardar en verse un cambio hecho desde otra instancia.
+ */
+@Component
+public class ProfileSnapshotCache {
+
+    private final Cache<Long, Optional<ProfileSnapshot>> cache;
+    private final UserProfileRepository userProfileRepository;
+    private final UserProfileService userProfileService;
+
+    public ProfileSnapshotCache(UserProfileRepository userProfileRepository,
+                                UserProfileService userProfileService,
+                                @Value("${app.profile.snapshot-cache.ttl:PT10M}") Duration ttl,
+                                @Value("${app.profile.snapshot-cache.max-size:10000}") long maxSize,
+                                MeterRegistry meterRegistry) {
+        this.userProfileRepository = userProfileRepository;
+        this.userProfileService = userProfileService;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "profile.snapshot");
+    }
+
+    /**
+     * Perfil del usuario, o vacío si todavía no lo ha creado.
+     */
+    public Optional<ProfileSnapshot> get(Long userId) {
+        return cache.get(userId, this::load);
+    }
+
+    public void invalidate(Long userId) {
+        cache.invalidate(userId);
+    }
+
+    private Optional<ProfileSnapshot> load(Long userId) {
+        return userProfileRepository.findByUser_Id(userId)
+                .map(profile -> ProfileSnapshot.of(profile, userProfileService.isProfileComplete(profile)));
+    }
+}
@@ -0,0 +1,26 @@
+package com.fitnessapp.fitapp_api.profile.cache;
+
+import com.fitnessapp.fitapp_api.profile.event.UserProfileChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Invalida el snapshot del perfil cuando el usuario lo crea o actualiza.
+ * Tras el commit, para que la siguiente carga ya lea los datos nuevos, y antes que el resto de
+ * invalidadores (Home) para que no recalculen con el snapshot anterior.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProfileSnapshotCacheInvalidator {
+
+    private final ProfileSnapshotCache profileSnapshotCache;
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProfileChanged(UserProfileChangedEvent event) {
+        profileSnapshotCache.invalidate(event.userId());
+    }
+}
@@ -1,5 +1,6 @@
 package com.fitnessapp.fitapp_api.profile.controller;
 
+import com.fitnessapp.fitapp_api.core.security.AuthenticatedUser;
 import com.fitnessapp.fitapp_api.profile.dto.UserProfileRequestDTO;
 import com.fitnessapp.fitapp_api.profile.dto.UserProfileResponseDTO;
 import com.fitnessapp.fitapp_api.profile.service.UserProfileService;
@@ -12,11 +13,11 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
-import java.security.Principal;
 
 @RestController
 @RequiredArgsConstructor
@@ -61,8 +62,8 @@ public class UserProfileController {
             }
     )
     @GetMapping("/me")
-    public ResponseEntity<UserProfileResponseDTO> getMyProfile(Principal principal) {
-        return ResponseEntity.ok(service.getMyProfile(principal.getName()));
+    public ResponseEntity<UserProfileResponseDTO> getMyProfile(@AuthenticationPrincipal AuthenticatedUser principal) {
+        return ResponseEntity.ok(service.getMyProfile(principal));
     }
 
     /**
@@ -106,8 +107,8 @@ public class UserProfileController {
             }
     )
     @PostMapping("/me")
-    public ResponseEntity<UserProfileResponseDTO> createMyProfile(Principal principal, @Valid @RequestBody UserProfileRequestDTO body) {
-        UserProfileResponseDTO created = service.createMyProfile(principal.getName(), body);
+    public ResponseEntity<UserProfileResponseDTO> createMyProfile(@AuthenticationPrincipal AuthenticatedUser principal, @Valid @RequestBody UserProfileRequestDTO body) {
+        UserProfileResponseDTO created = service.createMyProfile(principal, body);
         URI location = ServletUriComponentsBuilder
                 .fromCurrentRequest()
                 .build()
@@ -156,8 +157,8 @@ public class UserProfileController {
             }
     )
     @PutMapping("/me")
-    public ResponseEntity<UserProfileResponseDTO> updateMyProfile(Principal principal, @Valid @RequestBody UserProfileRequestDTO body) {
-        UserProfileResponseDTO updated = service.updateMyProfile(principal.getName(), body);
+    public ResponseEntity<UserProfileResponseDTO> updateMyProfile(@AuthenticationPrincipal AuthenticatedUser principal, @Valid @RequestBody UserProfileRequestDTO body) {
+        UserProfileResponseDTO updated = service.updateMyProfile(principal, body);
         return ResponseEntity.ok(updated);
     }
 }
\ No newline at end of file
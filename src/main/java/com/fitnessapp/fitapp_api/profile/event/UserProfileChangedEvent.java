@@ -0,0 +1,10 @@
+package com.fitnessapp.fitapp_api.profile.event;
+
+/**
+ * Se publica cuando el usuario crea o actualiza su perfil.
+ */
+public record UserProfileChangedEvent(
+        Long userId,
+        String email
+) {
+}
@@ -52,7 +52,8 @@ public class UserProfile {
     @Column(name = "time_zone", length = 50)
     private ZoneId timeZone;
 
-    @Column(name = "points", nullable = false)
+    // Solo lectura para JPA: el saldo se modifica con UserProfileRepository#addPoints (ver points_ledger)
+    @Column(name = "points", nullable = false, updatable = false)
     private Long points = 0L;
 
     @Column(name = "goal_kcal_daily")
@@ -0,0 +1,15 @@
+package com.fitnessapp.fitapp_api.profile.repository;
+
+/**
+ * Proyección con el saldo de puntos de un usuario, devuelta por {@link UserProfileRepository#findPointsPageAfter}
+ * y {@link UserProfileRepository#findPointsByUserId}.
+ */
+public interface UserPointsView {
+
+    Long getUserId();
+
+    Long getPoints();
+
+    // Último movimiento del ledger incluido en el saldo (null si no tiene movimientos)
+    Long getLastLedgerId();
+}
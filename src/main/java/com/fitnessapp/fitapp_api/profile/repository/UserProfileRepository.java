@@ -1,9 +1,16 @@
 package com.fitnessapp.fitapp_api.profile.repository;
 
 import com.fitnessapp.fitapp_api.profile.model.UserProfile;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,5 +18,48 @@ public interface UserProfileRepository extends JpaRepository<UserProfile, Long>
 
     Boolean existsByUser_Email(String email);
 
-    Optional<UserProfile> findByUser_Email(String email);
+    boolean existsByUser_Id(Long userId);
+
+    // Con el usuario cargado: la caché de snapshots lo lee fuera de transacción
+    @EntityGraph(attributePaths = "user")
+    Optional<UserProfile> findByUser_Id(Long userId);
+
+    List<UserProfile> findAllByUser_IdIn(Collection<Long> userIds);
+
+    // Saldos de puntos recorridos por user_id ascendente (carga de la clasificación por lotes), con el último
+    // movimiento del ledger que incluyen: se leen en la misma consulta, así que son coherentes entre sí
+    @Query("""
+            SELECT p.user.id AS userId, p.points AS points,
+                   (SELECT MAX(l.id) FROM PointsLedgerEntry l WHERE l.user.id = p.user.id) AS lastLedgerId
+            FROM UserProfile p
+            WHERE p.user.id > :lastUserId
+            ORDER BY p.user.id ASC
+            """)
+    List<UserPointsView> findPointsPageAfter(@Param("lastUserId") Long lastUserId, Limit limit);
+
+    // Saldo de un usuario con el último movimiento del ledger que incluye (alta en la clasificación en memoria)
+    @Query("""
+            SELECT p.user.id AS userId, p.points AS points,
+                   (SELECT MAX(l.id) FROM PointsLedgerEntry l WHERE l.user.id = p.user.id) AS lastLedgerId
+            FROM UserProfile p
+            WHERE p.user.id = :userId
+            """)
+    Optional<UserPointsView> findPointsByUserId(@Param("userId") Long userId);
+
+    // Ids de perfil por user_id ascendente, para recorrer los usuarios por lotes (keyset)
+    @Query("SELECT p.user.id FROM UserProfile p WHERE p.user.id > :lastUserId ORDER BY p.user.id ASC")
+    List<Long> findUserIdsAfter(@Param("lastUserId") Long lastUserId, Limit limit);
+
+    // SELECT ... FOR UPDATE del saldo: espera a los award en curso del usuario y bloquea los siguientes hasta el commit
+    @Query(value = "SELECT points FROM user_profile WHERE user_id = :userId FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockPointsByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = "UPDATE user_profile SET points = :points WHERE user_id = :userId", nativeQuery = true)
+    int setPoints(@Param("userId") Long userId, @Param("points") long points);
+
+    // Suma atómica sobre el saldo: sin leer el perfil ni reescribir la fila completa
+    @Modifying
+    @Query(value = "UPDATE user_profile SET points = points + :delta WHERE user_id = :userId", nativeQuery = true)
+    int addPoints(@Param("userId") Long userId, @Param("delta") long delta);
 }
\ No newline at end of file
@@ -1,18 +1,19 @@
 package com.fitnessapp.fitapp_api.profile.service;
 
+import com.fitnessapp.fitapp_api.core.security.AuthenticatedUser;
 import com.fitnessapp.fitapp_api.profile.dto.UserProfileRequestDTO;
 import com.fitnessapp.fitapp_api.profile.dto.UserProfileResponseDTO;
 import com.fitnessapp.fitapp_api.profile.model.UserProfile;
 
 public interface UserProfileService {
 
-    UserProfileResponseDTO getMyProfile(String email);
+    UserProfileResponseDTO getMyProfile(AuthenticatedUser user);
 
-    UserProfileResponseDTO createMyProfile(String email, UserProfileRequestDTO toCreate);
+    UserProfileResponseDTO createMyProfile(AuthenticatedUser user, UserProfileRequestDTO toCreate);
 
-    UserProfileResponseDTO updateMyProfile(String email, UserProfileRequestDTO toUpdate);
+    UserProfileResponseDTO updateMyProfile(AuthenticatedUser user, UserProfileRequestDTO toUpdate);
 
-    boolean isProfileComplete(String email);
+    boolean isProfileComplete(AuthenticatedUser user);
 
     boolean isProfileComplete(UserProfile profile);
 }
\ No newline at end of file
@@ -4,14 +4,17 @@ import com.fitnessapp.fitapp_api.auth.repository.UserAuthRepository;
 import com.fitnessapp.fitapp_api.core.exception.UserAuthNotFoundException;
 import com.fitnessapp.fitapp_api.core.exception.UserProfileAlreadyExistsException;
 import com.fitnessapp.fitapp_api.core.exception.UserProfileNotFoundException;
+import com.fitnessapp.fitapp_api.core.security.AuthenticatedUser;
 import com.fitnessapp.fitapp_api.profile.dto.UserProfileRequestDTO;
 import com.fitnessapp.fitapp_api.profile.dto.UserProfileResponseDTO;
+import com.fitnessapp.fitapp_api.profile.event.UserProfileChangedEvent;
 import com.fitnessapp.fitapp_api.profile.mapper.UserProfileMapper;
 import com.fitnessapp.fitapp_api.profile.model.UserProfile;
 import com.fitnessapp.fitapp_api.profile.repository.UserProfileRepository;
 import com.fitnessapp.fitapp_api.profile.service.UserProfileService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,43 +27,45 @@ public class UserProfileServiceImpl implements UserProfileService {
     private final UserAuthRepository userAuthRepository;
     @Qualifier("userProfileMapperImpl")
     private final UserProfileMapper mapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
-    public UserProfileResponseDTO getMyProfile(String email) {
+    public UserProfileResponseDTO getMyProfile(AuthenticatedUser user) {
 
-        var profile = repository.findByUser_Email(email)
+        var profile = repository.findByUser_Id(user.id())
                 .orElseThrow(() -> new UserProfileNotFoundException(
-                        "Profile not found for: " + email
+                        "Profile not found for: " + user.email()
                 ));
 
-        return mapper.toResponseDto(profile, email);
+        return mapper.toResponseDto(profile, user.email());
     }
 
     @Override
-    public UserProfileResponseDTO createMyProfile(String email, UserProfileRequestDTO toCreate) {
+    public UserProfileResponseDTO createMyProfile(AuthenticatedUser user, UserProfileRequestDTO toCreate) {
 
-        if (repository.existsByUser_Email(email)) {
+        if (repository.existsByUser_Id(user.id())) {
             throw new UserProfileAlreadyExistsException(
-                    "Profile already exists for email: " + email
+                    "Profile already exists for email: " + user.email()
             );
         } else {
-            var userAuth = userAuthRepository.findByEmail(email)
+            var userAuth = userAuthRepository.findById(user.id())
                     //Nunca debería entrar a esta excepción
                     .orElseThrow(() -> new UserAuthNotFoundException(
-                            "User not found for email: " + email
+                            "User not found for email: " + user.email()
                     ));
             UserProfile existingProfile = mapper.toEntity(toCreate, userAuth);
             UserProfile savedProfile = repository.save(existingProfile);
-            return mapper.toResponseDto(savedProfile, email);
+            eventPublisher.publishEvent(new UserProfileChangedEvent(user.id(), user.email()));
+            return mapper.toResponseDto(savedProfile, user.email());
         }
     }
 
     @Override
-    public UserProfileResponseDTO updateMyProfile(String email, UserProfileRequestDTO toUpdate) {
+    public UserProfileResponseDTO updateMyProfile(AuthenticatedUser user, UserProfileRequestDTO toUpdate) {
 
-        var existingProfile = repository.findByUser_Email(email)
+        var existingProfile = repository.findByUser_Id(user.id())
                 .orElseThrow(() -> new UserProfileNotFoundException(
-                        "Profile not found for: " + email
+                        "Profile not found for: " + user.email()
                 ));
 
         // Update fields
@@ -74,14 +79,15 @@ public class UserProfileServiceImpl implements UserProfileService {
         existingProfile.setGoalKcalDaily(toUpdate.goalKcalDaily());
 
         UserProfile updatedProfile = repository.save(existingProfile);
-        return mapper.toResponseDto(updatedProfile, email);
+        eventPublisher.publishEvent(new UserProfileChangedEvent(user.id(), user.email()));
+        return mapper.toResponseDto(updatedProfile, user.email());
     }
 
     @Override
-    public boolean isProfileComplete(String email) {
-        var profile = repository.findByUser_Email(email)
+    public boolean isProfileComplete(AuthenticatedUser user) {
+        var profile = repository.findByUser_Id(user.id())
                 .orElseThrow(() -> new UserProfileNotFoundException(
-                        "Profile not found for: " + email
+                        "Profile not found for: " + user.email()
                 ));
 
         return profile.getFirstName() != null &&
@@ -1,5 +1,7 @@
 package com.fitnessapp.fitapp_api.route.controller;
 
+import com.fitnessapp.fitapp_api.core.security.AuthenticatedUser;
+import com.fitnessapp.fitapp_api.idempotency.service.IdempotencyService;
 import com.fitnessapp.fitapp_api.route.dto.RouteRequestDTO;
 import com.fitnessapp.fitapp_api.route.dto.RouteResponseDTO;
 import com.fitnessapp.fitapp_api.route.service.RouteService;
@@ -12,11 +14,11 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
-import java.security.Principal;
 import java.util.List;
 
 @RestController
@@ -26,6 +28,7 @@ import java.util.List;
 public class RouteController {
 
     private final RouteService service;
+    private final IdempotencyService idempotencyService;
 
     // ---------------------------------------
     // GET /api/v1/routes/me
@@ -49,8 +52,8 @@ public class RouteController {
             }
     )
     @GetMapping("/me")
-    public ResponseEntity<List<RouteResponseDTO>> getMyRoutes(Principal principal) {
-        List<RouteResponseDTO> routes = service.getMyRoutes(principal.getName());
+    public ResponseEntity<List<RouteResponseDTO>> getMyRoutes(@AuthenticationPrincipal AuthenticatedUser principal) {
+        List<RouteResponseDTO> routes = service.getMyRoutes(principal);
         return ResponseEntity.ok(routes);
     }
 
@@ -78,8 +81,8 @@ public class RouteController {
     )
     @GetMapping("/me/{id}")
     public ResponseEntity<RouteResponseDTO> getRouteById(@PathVariable Long id
-                                                                ,Principal principal) {
-        RouteResponseDTO route = service.getRouteById(id,principal.getName());
+                                                                ,@AuthenticationPrincipal AuthenticatedUser principal) {
+        RouteResponseDTO route = service.getRouteById(id,principal);
         return ResponseEntity.ok(route);
     }
 
@@ -119,14 +122,21 @@ public class RouteController {
             }
     )
     @PostMapping("/me")
-    public ResponseEntity<RouteResponseDTO> createRoute(Principal principal, @Valid @RequestBody RouteRequestDTO body) {
-        RouteResponseDTO created = service.createRoute(principal.getName(), body);
-        URI location = ServletUriComponentsBuilder
-                .fromCurrentRequest()
-                .path("/{id}")
-                .buildAndExpand(created.id())
-                .toUri();
-        return ResponseEntity.created(location).body(created);
+    public ResponseEntity<RouteResponseDTO> createRoute(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @Parameter(description = "Clave única por intento lógico: los reintentos con la misma clave devuelven la respuesta original")
+            @RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody RouteRequestDTO body
+    ) {
+        return idempotencyService.execute(principal, idempotencyKey, "routes.create", body, RouteResponseDTO.class, () -> {
+            RouteResponseDTO created = service.createRoute(principal, body);
+            URI location = ServletUriComponentsBuilder
+                    .fromCurrentRequest()
+                    .path("/{id}")
+                    .buildAndExpand(created.id())
+                    .toUri();
+            return ResponseEntity.created(location).body(created);
+        });
     }
 
     // ---------------------------------------
@@ -159,11 +169,11 @@ public class RouteController {
     )
     @PutMapping("/me/{id}")
     public ResponseEntity<RouteResponseDTO> updateRoute(
-            Principal principal,
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @PathVariable Long id,
             @Valid @RequestBody RouteRequestDTO body
     ) {
-        RouteResponseDTO updated = service.updateRoute(principal.getName(), id, body);
+        RouteResponseDTO updated = service.updateRoute(principal, id, body);
         return ResponseEntity.ok(updated);
     }
 
@@ -180,8 +190,8 @@ public class RouteController {
             }
     )
     @DeleteMapping("/me/{id}")
-    public ResponseEntity<Void> deleteRoute(Principal principal, @PathVariable Long id) {
-        service.deleteRoute(principal.getName(), id);
+    public ResponseEntity<Void> deleteRoute(@AuthenticationPrincipal AuthenticatedUser principal, @PathVariable Long id) {
+        service.deleteRoute(principal, id);
         return ResponseEntity.noContent().build();
     }
 }
\ No newline at end of file
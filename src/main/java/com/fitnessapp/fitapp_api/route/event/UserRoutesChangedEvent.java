@@ -0,0 +1,10 @@
+package com.fitnessapp.fitapp_api.route.event;
+
+/**
+ * Se publica cuando el usuario crea o elimina una ruta.
+ */
+public record UserRoutesChangedEvent(
+        Long userId,
+        String email
+) {
+}
@@ -14,12 +14,13 @@ import java.util.Optional;
 @Repository
 public interface RouteRepository extends JpaRepository<Route, Long> {
 
-    List<Route> findAllByUserEmail(String email);
+    // Por user_id: filtran sobre la FK de routes, sin join con user_auth
+    List<Route> findAllByUserId(Long userId);
 
-    Optional<Route> findByIdAndUserEmail(Long id, String email);
+    Optional<Route> findByIdAndUserId(Long id, Long userId);
 
     // Optimización para Home KPI
-    boolean existsByUser_EmailAndCreatedAtBetween(String email, LocalDateTime start, LocalDateTime end);
+    boolean existsByUser_IdAndCreatedAtBetween(Long userId, LocalDateTime start, LocalDateTime end);
 
     // Hard delete
     @Modifying
@@ -1,5 +1,6 @@
 package com.fitnessapp.fitapp_api.route.service;
 
+import com.fitnessapp.fitapp_api.core.security.AuthenticatedUser;
 import com.fitnessapp.fitapp_api.route.dto.RouteRequestDTO;
 import com.fitnessapp.fitapp_api.route.dto.RouteResponseDTO;
 
@@ -8,17 +9,17 @@ import java.util.List;
 public interface RouteService {
 
     // para obtener todas las rutas activas (no eliminadas) del usuario autenticado
-    List<RouteResponseDTO> getMyRoutes(String email);
+    List<RouteResponseDTO> getMyRoutes(AuthenticatedUser user);
 
     // Para obtener una ruta por su identificador.
-    RouteResponseDTO getRouteById(Long id, String email);
+    RouteResponseDTO getRouteById(Long id, AuthenticatedUser user);
 
     // para crear una nueva ruta
-    RouteResponseDTO createRoute(String email, RouteRequestDTO toCreate);
+    RouteResponseDTO createRoute(AuthenticatedUser user, RouteRequestDTO toCreate);
 
     // para actualizar una ruta existente
-    RouteResponseDTO updateRoute(String email, Long id, RouteRequestDTO toUpdate);
+    RouteResponseDTO updateRoute(AuthenticatedUser user, Long id, RouteRequestDTO toUpdate);
 
     // para eliminar una ruta (soft o hard delete)
-    void deleteRoute(String email, Long id);
+    void deleteRoute(AuthenticatedUser user, Long id);
 }
\ No newline at end of file
@@ -3,8 +3,10 @@ package com.fitnessapp.fitapp_api.route.service.implementation;
 import com.fitnessapp.fitapp_api.auth.repository.UserAuthRepository;
 import com.fitnessapp.fitapp_api.core.exception.RouteNotFoundException;
 import com.fitnessapp.fitapp_api.core.exception.UserAuthNotFoundException;
+import com.fitnessapp.fitapp_api.core.security.AuthenticatedUser;
 import com.fitnessapp.fitapp_api.route.dto.RouteRequestDTO;
 import com.fitnessapp.fitapp_api.route.dto.RouteResponseDTO;
+import com.fitnessapp.fitapp_api.route.event.UserRoutesChangedEvent;
 import com.fitnessapp.fitapp_api.route.mapper.RouteMapper;
 import com.fitnessapp.fitapp_api.route.model.Route;
 import com.fitnessapp.fitapp_api.route.repository.RouteRepository;
@@ -12,6 +14,7 @@ import com.fitnessapp.fitapp_api.route.service.RouteService;
 import com.fitnessapp.fitapp_api.routeexecution.repository.RouteExecutionRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,37 +30,39 @@ public class RouteServiceImpl implements RouteService {
     private final RouteExecutionRepository routeExecutionRepository;
     @Qualifier("routeMapper")
     private final RouteMapper mapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
-    public List<RouteResponseDTO> getMyRoutes(String email) {
-        return routeRepository.findAllByUserEmail(email)
+    public List<RouteResponseDTO> getMyRoutes(AuthenticatedUser user) {
+        return routeRepository.findAllByUserId(user.id())
                 .stream()
                 .map(mapper::toResponseDto)
                 .toList();
     }
 
     @Override
-    public RouteResponseDTO getRouteById(Long id, String email){
-        var route = routeRepository.findByIdAndUserEmail(id, email)
+    public RouteResponseDTO getRouteById(Long id, AuthenticatedUser user){
+        var route = routeRepository.findByIdAndUserId(id, user.id())
                 .orElseThrow(() -> new RouteNotFoundException("Route not found for id: " + id));
 
         return mapper.toResponseDto(route);
     }
 
     @Override
-    public RouteResponseDTO createRoute(String email, RouteRequestDTO toCreate) {
-        var userAuth = userAuthRepository.findByEmail(email)
-                .orElseThrow(() -> new UserAuthNotFoundException("User not found for email: " + email));
+    public RouteResponseDTO createRoute(AuthenticatedUser user, RouteRequestDTO toCreate) {
+        var userAuth = userAuthRepository.findById(user.id())
+                .orElseThrow(() -> new UserAuthNotFoundException("User not found for email: " + user.email()));
 
         Route newRoute = mapper.toEntity(toCreate, userAuth);
         Route savedRoute = routeRepository.save(newRoute);
+        eventPublisher.publishEvent(new UserRoutesChangedEvent(user.id(), user.email()));
 
         return mapper.toResponseDto(savedRoute);
     }
 
     @Override
-    public RouteResponseDTO updateRoute(String email, Long id, RouteRequestDTO toUpdate) {
-        var route = routeRepository.findByIdAndUserEmail(id, email)
+    public RouteResponseDTO updateRoute(AuthenticatedUser user, Long id, RouteRequestDTO toUpdate) {
+        var route = routeRepository.findByIdAndUserId(id, user.id())
                 .orElseThrow(() -> new RouteNotFoundException("Route not found for id: " + id));
 
         mapper.updateEntityFromDto(toUpdate, route);
@@ -67,8 +72,8 @@ public class RouteServiceImpl implements RouteService {
     }
 
     @Override
-    public void deleteRoute(String email, Long id) {
-        var route = routeRepository.findByIdAndUserEmail(id, email)
+    public void deleteRoute(AuthenticatedUser user, Long id) {
+        var route = routeRepository.findByIdAndUserId(id, user.id())
                 .orElseThrow(() -> new RouteNotFoundException("Route not found for id: " + id));
 
         boolean hasExecutions = routeExecutionRepository.existsByRouteId(route.getId());
@@ -76,9 +81,11 @@ public class RouteServiceImpl implements RouteService {
         if (hasExecutions) {
             // Soft delete
             routeRepository.delete(route);
+            routeExecutionRepository.clearRouteNameByRouteId(route.getId());
         } else {
             // Hard delete
             routeRepository.hardDelete(route.getId());
         }
+        eventPublisher.publishEvent(new UserRoutesChangedEvent(user.id(), user.email()));
     }
 }
\ No newline at end of file
@@ -1,10 +1,14 @@
 package com.fitnessapp.fitapp_api.routeexecution.controller;
 
+import com.fitnessapp.fitapp_api.core.dto.CursorPageResponseDTO;
+import com.fitnessapp.fitapp_api.core.security.AuthenticatedUser;
+import com.fitnessapp.fitapp_api.idempotency.service.IdempotencyService;
 import com.fitnessapp.fitapp_api.routeexecution.dto.RouteExecutionHistoryResponseDTO;
 import com.fitnessapp.fitapp_api.routeexecution.dto.RouteExecutionRequestDTO;
 import com.fitnessapp.fitapp_api.routeexecution.dto.RouteExecutionResponseDTO;
 import com.fitnessapp.fitapp_api.routeexecution.service.RouteExecutionService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -12,10 +16,9 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
-import java.security.Principal;
-import java.util.List;
 
 @RestController
 @RequiredArgsConstructor
@@ -24,6 +27,7 @@ import java.util.List;
 public class RouteExecutionController {
 
     private final RouteExecutionService service;
+    private final IdempotencyService idempotencyService;
 
     // ---------------------------------------
     // POST /api/v1/executions/me/start/{routeId}
@@ -54,12 +58,15 @@ public class RouteExecutionController {
     )
     @PostMapping("/me/start/{routeId}")
     public ResponseEntity<RouteExecutionResponseDTO> startExecution(
-            Principal principal,
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @PathVariable Long routeId,
+            @Parameter(description = "Clave única por intento lógico: los reintentos con la misma clave devuelven la respuesta original")
+            @RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody RouteExecutionRequestDTO body
     ) {
-        RouteExecutionResponseDTO started = service.startExecution(principal.getName(), routeId, body);
-        return ResponseEntity.status(201).body(started);
+        return idempotencyService.execute(principal, idempotencyKey, "executions.start:" + routeId, body,
+                RouteExecutionResponseDTO.class,
+                () -> ResponseEntity.status(201).body(service.startExecution(principal, routeId, body)));
     }
 
     // ---------------------------------------
@@ -83,10 +90,10 @@ public class RouteExecutionController {
     )
     @PostMapping("/me/pause/{executionId}")
     public ResponseEntity<RouteExecutionResponseDTO> pauseExecution(
-            Principal principal,
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @PathVariable Long executionId
     ) {
-        return ResponseEntity.ok(service.pauseExecution(principal.getName(), executionId));
+        return ResponseEntity.ok(service.pauseExecution(principal, executionId));
     }
 
     // ---------------------------------------
@@ -110,10 +117,10 @@ public class RouteExecutionController {
     )
     @PostMapping("/me/resume/{executionId}")
     public ResponseEntity<RouteExecutionResponseDTO> resumeExecution(
-            Principal principal,
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @PathVariable Long executionId
     ) {
-        return ResponseEntity.ok(service.resumeExecution(principal.getName(), executionId));
+        return ResponseEntity.ok(service.resumeExecution(principal, executionId));
     }
 
     // ---------------------------------------
@@ -145,11 +152,15 @@ public class RouteExecutionController {
     )
     @PostMapping("/me/finish/{executionId}")
     public ResponseEntity<RouteExecutionResponseDTO> finishExecution(
-            Principal principal,
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @PathVariable Long executionId,
+            @Parameter(description = "Clave única por intento lógico: los reintentos con la misma clave devuelven la respuesta original")
+            @RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody RouteExecutionRequestDTO body
     ) {
-        return ResponseEntity.ok(service.finishExecution(principal.getName(), executionId, body));
+        return idempotencyService.execute(principal, idempotencyKey, "executions.finish:" + executionId, body,
+                RouteExecutionResponseDTO.class,
+                () -> ResponseEntity.ok(service.finishExecution(principal, executionId, body)));
     }
 
     // ---------------------------------------
@@ -157,23 +168,30 @@ public class RouteExecutionController {
     // ---------------------------------------
     @Operation(
             summary = "Obtener mis ejecuciones",
-            description = "Devuelve todas las ejecuciones realizadas por el usuario autenticado.",
+            description = "Devuelve las ejecuciones del usuario autenticado, de la más reciente a la más antigua, " +
+                    "paginadas por cursor. Para la página siguiente se envía el nextCursor de la respuesta anterior.",
             responses = {
                     @ApiResponse(
                             responseCode = "200",
-                            description = "Listado de ejecuciones obtenido correctamente",
+                            description = "Página de ejecuciones obtenida correctamente",
                             content = @Content(
                                     mediaType = "application/json",
-                                    schema = @Schema(implementation = RouteExecutionResponseDTO.class)
+                                    schema = @Schema(implementation = CursorPageResponseDTO.class)
                             )
                     ),
+                    @ApiResponse(responseCode = "400", description = "Cursor inválido", content = @Content),
                     @ApiResponse(responseCode = "401", description = "No autorizado", content = @Content)
             }
     )
     @GetMapping("me")
-    public ResponseEntity<List<RouteExecutionResponseDTO>> getMyExecutions(Principal principal) {
-        List<RouteExecutionResponseDTO> executions = service.getMyExecutions(principal.getName());
-        return ResponseEntity.ok(executions);
+    public ResponseEntity<CursorPageResponseDTO<RouteExecutionResponseDTO>> getMyExecutions(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @Parameter(description = "Cursor opaco devuelto en la página anterior")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página (por defecto 20, máximo 100)")
+            @RequestParam(required = false) Integer size
+    ) {
+        return ResponseEntity.ok(service.getMyExecutions(principal, cursor, size));
     }
 
     // ---------------------------------------
@@ -181,22 +199,29 @@ public class RouteExecutionController {
     // ---------------------------------------
     @Operation(
             summary = "Obtener historial de ejecuciones finalizadas",
-            description = "Devuelve el historial de ejecuciones finalizadas por el usuario autenticado.",
+            description = "Devuelve el historial de ejecuciones finalizadas del usuario autenticado, ordenado por fecha " +
+                    "de finalización descendente y paginado por cursor.",
             responses = {
                     @ApiResponse(
                             responseCode = "200",
-                            description = "Historial de ejecuciones obtenido correctamente",
+                            description = "Página del historial obtenida correctamente",
                             content = @Content(
                                     mediaType = "application/json",
-                                    schema = @Schema(implementation = RouteExecutionHistoryResponseDTO.class)
+                                    schema = @Schema(implementation = CursorPageResponseDTO.class)
                             )
                     ),
+                    @ApiResponse(responseCode = "400", description = "Cursor inválido", content = @Content),
                     @ApiResponse(responseCode = "401", description = "No autorizado", content = @Content)
             }
     )
     @GetMapping("me/history")
-    public ResponseEntity<List<RouteExecutionHistoryResponseDTO>> getMyCompletedExecutionsHistory(Principal principal) {
-        List<RouteExecutionHistoryResponseDTO> history = service.getMyCompletedExecutionsHistory(principal.getName());
-        return ResponseEntity.ok(history);
+    public ResponseEntity<CursorPageResponseDTO<RouteExecutionHistoryResponseDTO>> getMyCompletedExecutionsHistory(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @Parameter(description = "Cursor opaco devuelto en la página anterior")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página (por defecto 20, máximo 100)")
+            @RequestParam(required = false) Integer size
+    ) {
+        return ResponseEntity.ok(service.getMyCompletedExecutionsHistory(principal, cursor, size));
     }
 }
@@ -90,6 +90,12 @@ public record RouteExecutionResponseDTO(
                 description = "Notas opcionales del usuario",
                 example = "Ruta dura con viento"
         )
-        String notes
+        String notes,
+
+        @Schema(
+                description = "true mientras calorías y puntos se están calculando en segundo plano tras finalizar",
+                example = "false"
+        )
+        boolean pending
 ) {
 }
@@ -0,0 +1,11 @@
+package com.fitnessapp.fitapp_api.routeexecution.event;
+
+/**
+ * Se publica cuando una ejecución pasa a FINISHED (dentro de la transacción que la finaliza).
+ */
+public record RouteExecutionFinishedEvent(
+        Long executionId,
+        Long userId,
+        String email
+) {
+}
@@ -0,0 +1,32 @@
+package com.fitnessapp.fitapp_api.routeexecution.job;
+
+import com.fitnessapp.fitapp_api.routeexecution.session.ActiveSessionRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Precarga al arrancar la caché del registro con las ejecuciones abiertas.
+ * Si falla, cada sesión se carga de BD en su primera pausa o reanudación.
+ */
+@Slf4j
+@Component
+@Order(20)
+@RequiredArgsConstructor
+public class ActiveSessionLoadJob implements ApplicationRunner {
+
+    private final ActiveSessionRegistry activeSessions;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            int sessions = activeSessions.load();
+            log.info("Active session registry loaded: {} open executions", sessions);
+        } catch (RuntimeException e) {
+            log.warn("Active session registry load failed; sessions will be loaded on first access", e);
+        }
+    }
+}
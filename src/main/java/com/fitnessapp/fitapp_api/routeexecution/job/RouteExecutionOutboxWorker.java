@@ -0,0 +1,146 @@
+package com.fitnessapp.fitapp_api.routeexecution.job;
+
+import com.fitnessapp.fitapp_api.routeexecution.service.RouteExecutionFinishProcessor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Vacía el outbox de ejecuciones finalizadas: lee lotes de registros pendientes y los reparte en un pool
+ * de hilos propio, un registro por transacción. Mientras el lote venga lleno se sigue drenando sin esperar
+ * al siguiente ciclo, hasta un máximo de lotes por pasada. Un fallo deja el registro pendiente con espera exponencial (entrega al menos una vez);
+ * el procesador es idempotente, así que repetir un registro no duplica puntos ni resumen diario.
+ * Con lazy-initialization activada el bean debe crearse al arrancar para que se programe.
+ */
+@Slf4j
+@Component
+@Lazy(false)
+@ConditionalOnProperty(name = "app.executions.outbox.worker.enabled", havingValue = "true", matchIfMissing = true)
+public class RouteExecutionOutboxWorker {
+
+    private final RouteExecutionFinishProcessor processor;
+    private final ExecutorService executor;
+    private final int batchSize;
+    private final int maxBatchesPerPoll;
+    private final int maxAttempts;
+    private final Duration backoff;
+    private final Duration retention;
+
+    private final Counter processedCounter;
+    private final Counter skippedCounter;
+    private final Counter failedCounter;
+
+    public RouteExecutionOutboxWorker(RouteExecutionFinishProcessor processor,
+                                      @Value("${app.executions.outbox.worker.threads:4}") int threads,
+                                      @Value("${app.executions.outbox.batch-size:100}") int batchSize,
+                                      @Value("${app.executions.outbox.max-batches-per-poll:10}") int maxBatchesPerPoll,
+                                      @Value("${app.executions.outbox.max-attempts:10}") int maxAttempts,
+                                      @Value("${app.executions.outbox.backoff:PT5S}") Duration backoff,
+                                      @Value("${app.executions.outbox.retention:P7D}") Duration retention,
+                                      MeterRegistry meterRegistry) {
+        this.processor = processor;
+        this.batchSize = batchSize;
+        this.maxBatchesPerPoll = maxBatchesPerPoll;
+        this.maxAttempts = maxAttempts;
+        this.backoff = backoff;
+        this.retention = retention;
+        this.executor = Executors.newFixedThreadPool(threads, new NamedThreadFactory());
+        this.processedCounter = outcomeCounter(meterRegistry, "processed");
+        this.skippedCounter = outcomeCounter(meterRegistry, "skipped");
+        this.failedCounter = outcomeCounter(meterRegistry, "failed");
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${app.executions.outbox.poll-interval:PT1S}")
+    public void drain() {
+        // Acotado por pasada para no acaparar el planificador; lo que quede sigue en la siguiente
+        for (int batch = 0; batch < maxBatchesPerPoll; batch++) {
+            List<Long> due = processor.findDue(batchSize);
+            if (!due.isEmpty()) {
+                processBatch(due);
+            }
+            if (due.size() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    @Scheduled(cron = "${app.executions.outbox.cleanup.cron:0 40 4 * * *}")
+    public void purgeProcessed() {
+        int deleted = processor.purgeProcessedBefore(LocalDateTime.now().minus(retention));
+        log.info("Route execution outbox cleanup deleted {} processed entries", deleted);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    // Espera a que termine el lote completo antes de pedir el siguiente, así un registro no se reparte dos veces
+    void processBatch(List<Long> outboxIds) {
+        List<Callable<Void>> tasks = new ArrayList<>(outboxIds.size());
+        for (Long outboxId : outboxIds) {
+            tasks.add(() -> {
+                processOne(outboxId);
+                return null;
+            });
+        }
+        try {
+            executor.invokeAll(tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void processOne(Long outboxId) {
+        try {
+            if (processor.process(outboxId)) {
+                processedCounter.increment();
+            } else {
+                skippedCounter.increment();
+            }
+        } catch (RuntimeException e) {
+            failedCounter.increment();
+            log.warn("Outbox entry {} failed, it will be retried: {}", outboxId, e.toString());
+            try {
+                processor.recordFailure(outboxId, e.toString(), maxAttempts, backoff);
+            } catch (RuntimeException recordError) {
+                // Sin registrar el fallo el registro sigue pendiente y se reintenta en el siguiente ciclo
+                log.error("Could not record failure of outbox entry {}", outboxId, recordError);
+            }
+        }
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("executions.outbox.entries")
+                .description("Registros del outbox de ejecuciones por resultado")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static final class NamedThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "execution-outbox-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    }
+}
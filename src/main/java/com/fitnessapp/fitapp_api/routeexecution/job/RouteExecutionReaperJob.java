@@ -0,0 +1,89 @@
+package com.fitnessapp.fitapp_api.routeexecution.job;
+
+import com.fitnessapp.fitapp_api.routeexecution.model.RouteExecution.RouteExecutionStatus;
+import com.fitnessapp.fitapp_api.routeexecution.service.RouteExecutionReaper;
+import com.fitnessapp.fitapp_api.routeexecution.session.ActiveSessionRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Expira las ejecuciones que se quedaron abiertas (el usuario nunca pulsó finalizar) tras un tiempo sin actividad.
+ * Recorre cada estado abierto por (status, updated_at) en lotes de tamaño fijo, una transacción por lote, de modo
+ * que los bloqueos de fila duran lo que un lote y no toda la pasada. Cada pasada tiene un máximo de lotes;
+ * lo que quede lo recoge la siguiente.
+ * Con lazy-initialization activada el bean debe crearse al arrancar para que se programe.
+ */
+@Slf4j
+@Component
+@Lazy(false)
+@ConditionalOnProperty(name = "app.executions.reaper.enabled", havingValue = "true", matchIfMissing = true)
+public class RouteExecutionReaperJob {
+
+    private final RouteExecutionReaper reaper;
+    private final ActiveSessionRegistry activeSessions;
+    private final Duration idleThreshold;
+    private final int batchSize;
+    private final int maxBatches;
+
+    private final Map<RouteExecutionStatus, Counter> expiredCounters = new EnumMap<>(RouteExecutionStatus.class);
+
+    public RouteExecutionReaperJob(RouteExecutionReaper reaper,
+                                   ActiveSessionRegistry activeSessions,
+                                   @Value("${app.executions.reaper.idle-threshold:PT12H}") Duration idleThreshold,
+                                   @Value("${app.executions.reaper.batch-size:500}") int batchSize,
+                                   @Value("${app.executions.reaper.max-batches:20}") int maxBatches,
+                                   MeterRegistry meterRegistry) {
+        this.reaper = reaper;
+        this.activeSessions = activeSessions;
+        this.idleThreshold = idleThreshold;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        for (RouteExecutionStatus status : ActiveSessionRegistry.OPEN_STATUSES) {
+            expiredCounters.put(status, Counter.builder("executions.reaper.expired")
+                    .description("Ejecuciones abandonadas expiradas por el reaper, por estado previo")
+                    .tag("status", status.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Scheduled(cron = "${app.executions.reaper.cron:0 */15 * * * *}")
+    public void reap() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(idleThreshold);
+        int total = 0;
+        for (RouteExecutionStatus status : ActiveSessionRegistry.OPEN_STATUSES) {
+            total += reap(status, cutoff);
+        }
+        if (total > 0) {
+            log.info("Route execution reaper expired {} executions idle since before {}", total, cutoff);
+        }
+    }
+
+    private int reap(RouteExecutionStatus status, LocalDateTime cutoff) {
+        int total = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            List<Long> expired = reaper.expireIdleBatch(status, cutoff, batchSize);
+            if (!expired.isEmpty()) {
+                // Ya confirmado: fuera de la caché del registro, el siguiente acceso las encuentra cerradas en BD
+                activeSessions.evict(expired);
+                expiredCounters.get(status).increment(expired.size());
+                total += expired.size();
+            }
+            if (expired.size() < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+}
@@ -25,22 +25,29 @@ public interface RouteExecutionMapper {
     @Mapping(target = "durationSec", ignore = true)
     @Mapping(target = "calories", ignore = true)
     @Mapping(target = "points" , ignore = true)
+    @Mapping(target = "route", ignore = true)
+    @Mapping(target = "routeName", ignore = true) // snapshot tomado de la ruta en el servicio
+    @Mapping(target = "distanceKm", ignore = true)
+    @Mapping(target = "postFinishPending", ignore = true)
+    @Mapping(target = "version", ignore = true) // lo gestiona Hibernate (@Version)
     RouteExecution toEntity(RouteExecutionRequestDTO dto, UserAuth userAuth);
 
     // --- ACTUALIZAR ---
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "user", ignore = true)
+    @Mapping(target = "version", ignore = true)
     void updateEntityFromDto(RouteExecutionRequestDTO dto, @MappingTarget RouteExecution routeExecution);
 
     // --- RESPUESTA ---
     @Mapping(target = "userEmail", source = "user.email")
-    @Mapping(target = "routeId", expression = "java(execution.getRoute() != null ? execution.getRoute().getId() : null)")
-    @Mapping(target = "routeName", expression = "java(execution.getRoute() != null ? execution.getRoute().getName() : \"Ruta Eliminada\")")
+    // getRoute().getId() no inicializa el proxy LAZY: se lee de la FK
+    @Mapping(target = "routeId", expression = "java(execution.getRouteName() != null && execution.getRoute() != null ? execution.getRoute().getId() : null)")
+    @Mapping(target = "routeName", expression = "java(execution.getRouteName() != null ? execution.getRouteName() : \"Ruta Eliminada\")")
+    @Mapping(target = "pending", source = "postFinishPending")
     RouteExecutionResponseDTO toResponseDto(RouteExecution execution);
 
     // --- HISTORIAL ---
-    @Mapping(target = "routeName", expression = "java(execution.getRoute() != null ? execution.getRoute().getName() : \"Ruta Eliminada\")")
-    @Mapping(target = "distanceKm", expression = "java(execution.getRoute() != null ? execution.getRoute().getDistanceKm() : null)")
+    @Mapping(target = "routeName", expression = "java(execution.getRouteName() != null ? execution.getRouteName() : \"Ruta Eliminada\")")
     RouteExecutionHistoryResponseDTO toHistoryResponseDto(RouteExecution execution);
 
 }
@@ -5,8 +5,6 @@ import com.fitnessapp.fitapp_api.route.model.Route;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
-import org.hibernate.annotations.NotFound;
-import org.hibernate.annotations.NotFoundAction;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
@@ -16,7 +14,11 @@ import java.time.LocalDateTime;
 @Setter
 @Entity
 @Table(
-        name = "route_executions"
+        name = "route_executions",
+        indexes = {
+                @Index(name = "idx_route_executions_user_status_end", columnList = "user_id, status, end_time, id"),
+                @Index(name = "idx_route_executions_status_updated", columnList = "status, updated_at, id")
+        }
 )
 @AllArgsConstructor
 @NoArgsConstructor
@@ -28,11 +30,20 @@ public class RouteExecution {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Sin @NotFound: la asociación queda realmente LAZY. Los datos de la ruta que se
+    // muestran (nombre y distancia) se leen de las columnas snapshot de abajo.
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "route_id", nullable = false, foreignKey = @ForeignKey(name = "fk_route_execution_route"))
-    @NotFound(action = NotFoundAction.IGNORE)
     private Route route;
 
+    // Snapshot del nombre de la ruta al iniciar; null si la ruta se eliminó
+    @Column(name = "route_name", length = 100)
+    private String routeName;
+
+    // Snapshot de la distancia de la ruta al iniciar
+    @Column(name = "distance_km", precision = 10, scale = 2)
+    private BigDecimal distanceKm;
+
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "user_id", nullable = false, foreignKey = @ForeignKey(name = "fk_route_execution_user"))
     private UserAuth user;
@@ -69,6 +80,15 @@ public class RouteExecution {
     @Column(name = "notes", length = 500)
     private String notes;
 
+    // true desde que se finaliza hasta que el worker del outbox calcula calorías, puntos y resumen diario
+    @Column(name = "post_finish_pending", nullable = false)
+    private boolean postFinishPending = false;
+
+    // Las transiciones de estado (UPDATE en bloque) la incrementan a mano; el resto de guardados pasa por @Version
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
@@ -83,7 +103,9 @@ public class RouteExecution {
     public enum RouteExecutionStatus {
         IN_PROGRESS,
         PAUSED,
-        FINISHED
+        FINISHED,
+        // Abandonada sin finalizar: la cierra el reaper, sin calorías ni puntos
+        EXPIRED
     }
 
     public enum ActivityType {
@@ -0,0 +1,79 @@
+package com.fitnessapp.fitapp_api.routeexecution.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Registro del outbox de post-procesado: una ejecución finalizada pendiente de calcular calorías,
+ * puntos y resumen diario. Se inserta en la misma transacción que la finalización.
+ * Guarda ids y email en columnas planas para que el worker no tenga que cargar asociaciones.
+ */
+@Getter
+@Setter
+@Entity
+@Table(
+        name = "route_execution_outbox",
+        uniqueConstraints = @UniqueConstraint(name = "uk_route_execution_outbox_execution", columnNames = "execution_id"),
+        indexes = {
+                @Index(name = "idx_route_execution_outbox_status_available", columnList = "status, available_at, id"),
+                @Index(name = "idx_route_execution_outbox_processed_at", columnList = "processed_at")
+        }
+)
+@AllArgsConstructor
+@NoArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class RouteExecutionOutbox {
+
+    @EqualsAndHashCode.Include
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "execution_id", nullable = false, updatable = false)
+    private Long executionId;
+
+    @Column(name = "user_id", nullable = false, updatable = false)
+    private Long userId;
+
+    @Column(name = "user_email", nullable = false, updatable = false)
+    private String userEmail;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 20, nullable = false)
+    private OutboxStatus status;
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+
+    public static RouteExecutionOutbox pendingFor(Long executionId, Long userId, String userEmail, LocalDateTime now) {
+        RouteExecutionOutbox outbox = new RouteExecutionOutbox();
+        outbox.setExecutionId(executionId);
+        outbox.setUserId(userId);
+        outbox.setUserEmail(userEmail);
+        outbox.setStatus(OutboxStatus.PENDING);
+        outbox.setAvailableAt(now);
+        outbox.setCreatedAt(now);
+        return outbox;
+    }
+
+    public enum OutboxStatus {
+        PENDING,
+        DONE,
+        // Agotó los reintentos: queda para revisión manual
+        FAILED
+    }
+}
@@ -0,0 +1,35 @@
+package com.fitnessapp.fitapp_api.routeexecution.repository;
+
+import com.fitnessapp.fitapp_api.routeexecution.model.RouteExecutionOutbox;
+import com.fitnessapp.fitapp_api.routeexecution.model.RouteExecutionOutbox.OutboxStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface RouteExecutionOutboxRepository extends JpaRepository<RouteExecutionOutbox, Long> {
+
+    // Lote de registros listos para procesar, en orden de llegada (rango sobre idx_route_execution_outbox_status_available)
+    @Query("SELECT o.id FROM RouteExecutionOutbox o " +
+            "WHERE o.status = :status AND o.availableAt <= :now ORDER BY o.id")
+    List<Long> findDueIds(@Param("status") OutboxStatus status, @Param("now") LocalDateTime now, Limit limit);
+
+    /*
+     * SELECT ... FOR UPDATE del registro si sigue en el estado indicado. El bloqueo dura hasta el commit,
+     * así que otro worker (u otra instancia) que llegue a la vez espera y después ya no lo encuentra.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM RouteExecutionOutbox o WHERE o.id = :id AND o.status = :status")
+    Optional<RouteExecutionOutbox> findByIdAndStatusForUpdate(@Param("id") Long id, @Param("status") OutboxStatus status);
+
+    @Modifying
+    @Query("DELETE FROM RouteExecutionOutbox o WHERE o.status = :status AND o.processedAt < :cutoff")
+    int deleteByStatusAndProcessedAtBefore(@Param("status") OutboxStatus status, @Param("cutoff") LocalDateTime cutoff);
+}
@@ -1,21 +1,171 @@
 package com.fitnessapp.fitapp_api.routeexecution.repository;
 
 import com.fitnessapp.fitapp_api.routeexecution.model.RouteExecution;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface RouteExecutionRepository extends JpaRepository<RouteExecution, Long> {
 
-    Optional<RouteExecution> findByIdAndUserEmail(Long id, String email);
-
-    List<RouteExecution> findAllByUserEmail(String email);
+    // Por user_id: filtran sobre la FK de route_executions, sin join con user_auth
+    Optional<RouteExecution> findByIdAndUserId(Long id, Long userId);
 
     boolean existsByRouteId(Long routeId);
 
-    List<RouteExecution> findAllByUserEmailAndEndTimeBetweenAndStatus(String userEmail, LocalDateTime startTime, LocalDateTime endTime, RouteExecution.RouteExecutionStatus status);
+    // Al eliminar (soft delete) una ruta, sus ejecuciones pasan a mostrarse como "Ruta Eliminada"
+    @Modifying
+    @Query("UPDATE RouteExecution e SET e.routeName = NULL WHERE e.route.id = :routeId")
+    int clearRouteNameByRouteId(@Param("routeId") Long routeId);
+
+
+    // --- Sesiones abiertas (pausa y reanudación) ---
+
+    // Ejecución abierta con su usuario ya cargado, para construir la respuesta fuera de la transacción
+    @Query("SELECT e FROM RouteExecution e JOIN FETCH e.user " +
+            "WHERE e.id = :id AND e.user.id = :userId AND e.status IN :statuses")
+    Optional<RouteExecution> findOpenWithUser(@Param("id") Long id,
+                                              @Param("userId") Long userId,
+                                              @Param("statuses") Collection<RouteExecution.RouteExecutionStatus> statuses);
+
+    @Query("SELECT e FROM RouteExecution e JOIN FETCH e.user WHERE e.status IN :statuses")
+    List<RouteExecution> findAllOpenWithUser(@Param("statuses") Collection<RouteExecution.RouteExecutionStatus> statuses);
+
+    /*
+     * Pausa condicionada al estado en el propio UPDATE: entre peticiones concurrentes, de la misma o de otra
+     * instancia, solo una pasa la fila a PAUSED. version se incrementa a mano porque los UPDATE en bloque
+     * no pasan por @Version.
+     */
+    @Modifying
+    @Query("UPDATE RouteExecution e SET e.status = :paused, e.pauseTime = :now, e.updatedAt = :now, " +
+            "e.version = e.version + 1 " +
+            "WHERE e.id = :id AND e.user.id = :userId AND e.status = :inProgress")
+    int pause(@Param("id") Long id,
+              @Param("userId") Long userId,
+              @Param("now") LocalDateTime now,
+              @Param("inProgress") RouteExecution.RouteExecutionStatus inProgress,
+              @Param("paused") RouteExecution.RouteExecutionStatus paused);
+
+    /*
+     * Reanuda desde PAUSED sumando el tramo en pausa (totalPausedTimeSec va antes que pauseTime, del que depende).
+     * Solo una de varias reanudaciones concurrentes suma ese tramo.
+     */
+    @Modifying
+    @Query("UPDATE RouteExecution e SET " +
+            "e.totalPausedTimeSec = e.totalPausedTimeSec + " +
+            "  CASE WHEN e.pauseTime IS NOT NULL AND e.pauseTime < :now " +
+            "  THEN ((:now - e.pauseTime) by second) ELSE 0 END, " +
+            "e.pauseTime = NULL, e.status = :inProgress, e.updatedAt = :now, e.version = e.version + 1 " +
+            "WHERE e.id = :id AND e.user.id = :userId AND e.status = :paused")
+    int resume(@Param("id") Long id,
+               @Param("userId") Long userId,
+               @Param("now") LocalDateTime now,
+               @Param("paused") RouteExecution.RouteExecutionStatus paused,
+               @Param("inProgress") RouteExecution.RouteExecutionStatus inProgress);
+
+    // Estado de pausa tras una transición; en la misma transacción ve el UPDATE recién hecho
+    @Query("SELECT e.status AS status, e.pauseTime AS pauseTime, e.totalPausedTimeSec AS totalPausedTimeSec " +
+            "FROM RouteExecution e WHERE e.id = :id")
+    Optional<SessionStateView> findSessionState(@Param("id") Long id);
+
+    /*
+     * Finaliza desde IN_PROGRESS o PAUSED (si estaba pausada suma el tramo en pausa) y deja calorías y puntos
+     * pendientes del outbox. MySQL evalúa el SET de izquierda a derecha con los valores ya asignados, así que
+     * durationSec y totalPausedTimeSec van antes de tocar status y pauseTime, de los que dependen.
+     * Un único UPDATE condicionado al estado: de dos finish concurrentes solo uno cambia la fila.
+     * Solo se finalizan ejecuciones abiertas (sin endTime): una expirada por el reaper ya no se puede finalizar.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE RouteExecution e SET " +
+            "e.durationSec = greatest(0, ((:now - e.startTime) by second) - e.totalPausedTimeSec - " +
+            "  CASE WHEN e.status = :paused AND e.pauseTime IS NOT NULL AND e.pauseTime < :now " +
+            "  THEN ((:now - e.pauseTime) by second) ELSE 0 END), " +
+            "e.totalPausedTimeSec = e.totalPausedTimeSec + " +
+            "  CASE WHEN e.status = :paused AND e.pauseTime IS NOT NULL AND e.pauseTime < :now " +
+            "  THEN ((:now - e.pauseTime) by second) ELSE 0 END, " +
+            "e.pauseTime = NULL, e.endTime = :now, e.status = :finished, " +
+            "e.activityType = coalesce(:activityType, e.activityType), e.notes = :notes, " +
+            "e.calories = NULL, e.points = 0, e.postFinishPending = true, " +
+            "e.updatedAt = :now, e.version = e.version + 1 " +
+            "WHERE e.id = :id AND e.user.id = :userId AND e.status <> :finished AND e.endTime IS NULL")
+    int finish(@Param("id") Long id,
+               @Param("userId") Long userId,
+               @Param("now") LocalDateTime now,
+               @Param("activityType") RouteExecution.ActivityType activityType,
+               @Param("notes") String notes,
+               @Param("paused") RouteExecution.RouteExecutionStatus paused,
+               @Param("finished") RouteExecution.RouteExecutionStatus finished);
+
+    // --- Reaper de ejecuciones abandonadas ---
+
+    // Las más antiguas sin actividad en un estado, rango sobre idx_route_executions_status_updated
+    @Query("SELECT e.id FROM RouteExecution e " +
+            "WHERE e.status = :status AND e.updatedAt < :cutoff ORDER BY e.updatedAt, e.id")
+    List<Long> findIdleIds(@Param("status") RouteExecution.RouteExecutionStatus status,
+                           @Param("cutoff") LocalDateTime cutoff,
+                           Limit limit);
+
+    /*
+     * Cierra como expiradas las del lote que siguen inactivas (si alguna ha tenido actividad desde la
+     * selección ya no cumple el WHERE). Termina en la última actividad conocida: la pausa si estaba pausada
+     * o la última modificación. Igual que en finish, durationSec y endTime van antes de poner pauseTime a NULL.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE RouteExecution e SET " +
+            "e.durationSec = greatest(0, ((coalesce(e.pauseTime, e.updatedAt) - e.startTime) by second) - e.totalPausedTimeSec), " +
+            "e.endTime = coalesce(e.pauseTime, e.updatedAt), " +
+            "e.pauseTime = NULL, e.status = :expired, e.updatedAt = :now, e.version = e.version + 1 " +
+            "WHERE e.id IN :ids AND e.status = :status AND e.updatedAt < :cutoff")
+    int expireIdle(@Param("ids") Collection<Long> ids,
+                   @Param("status") RouteExecution.RouteExecutionStatus status,
+                   @Param("cutoff") LocalDateTime cutoff,
+                   @Param("expired") RouteExecution.RouteExecutionStatus expired,
+                   @Param("now") LocalDateTime now);
+
+    @Query("SELECT e.id FROM RouteExecution e WHERE e.id IN :ids AND e.status = :status")
+    List<Long> findIdsByIdInAndStatus(@Param("ids") Collection<Long> ids,
+                                      @Param("status") RouteExecution.RouteExecutionStatus status);
 
     List<RouteExecution> findAllByUserEmailAndStatusOrderByEndTimeDesc(String email, RouteExecution.RouteExecutionStatus status);
+
+    List<RouteExecution> findAllByUserIdAndStatus(Long userId, RouteExecution.RouteExecutionStatus status);
+
+    // --- Paginación keyset (sin OFFSET): cada página es un rango sobre el índice ---
+
+    // Historial de finalizadas, primera página
+    @Query("SELECT e FROM RouteExecution e " +
+            "WHERE e.user.id = :userId AND e.status = :status " +
+            "ORDER BY e.endTime DESC, e.id DESC")
+    List<RouteExecution> findHistoryFirstPage(@Param("userId") Long userId,
+                                              @Param("status") RouteExecution.RouteExecutionStatus status,
+                                              Limit limit);
+
+    // Historial de finalizadas, páginas siguientes a partir de la última clave (endTime, id)
+    @Query("SELECT e FROM RouteExecution e " +
+            "WHERE e.user.id = :userId AND e.status = :status " +
+            "AND (e.endTime < :endTime OR (e.endTime = :endTime AND e.id < :id)) " +
+            "ORDER BY e.endTime DESC, e.id DESC")
+    List<RouteExecution> findHistoryPageAfter(@Param("userId") Long userId,
+                                              @Param("status") RouteExecution.RouteExecutionStatus status,
+                                              @Param("endTime") LocalDateTime endTime,
+                                              @Param("id") Long id,
+                                              Limit limit);
+
+    // Todas las ejecuciones del usuario (más recientes primero por id), primera página
+    @Query("SELECT e FROM RouteExecution e " +
+            "WHERE e.user.id = :userId " +
+            "ORDER BY e.id DESC")
+    List<RouteExecution> findPageByUserId(@Param("userId") Long userId, Limit limit);
+
+    // Todas las ejecuciones del usuario, páginas siguientes a partir del último id
+    @Query("SELECT e FROM RouteExecution e " +
+            "WHERE e.user.id = :userId AND e.id < :id " +
+            "ORDER BY e.id DESC")
+    List<RouteExecution> findPageByUserIdAfter(@Param("userId") Long userId, @Param("id") Long id, Limit limit);
 }
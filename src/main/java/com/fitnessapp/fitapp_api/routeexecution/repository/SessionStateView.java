@@ -0,0 +1,18 @@
+package com.fitnessapp.fitapp_api.routeexecution.repository;
+
+import com.fitnessapp.fitapp_api.routeexecution.model.RouteExecution.RouteExecutionStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Campos de una ejecución que cambian al pausar y reanudar,
+ * devueltos por {@link RouteExecutionRepository#findSessionState} tras la transición.
+ */
+public interface SessionStateView {
+
+    RouteExecutionStatus getStatus();
+
+    LocalDateTime getPauseTime();
+
+    Long getTotalPausedTimeSec();
+}
@@ -0,0 +1,35 @@
+package com.fitnessapp.fitapp_api.routeexecution.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Post-procesado de ejecuciones finalizadas a partir del outbox: calorías, puntos (ledger y límites diarios),
+ * resumen diario y evento de finalización. Cada registro se procesa en su propia transacción.
+ */
+public interface RouteExecutionFinishProcessor {
+
+    /**
+     * Ids de registros pendientes cuya espera ya ha vencido, del más antiguo al más reciente.
+     */
+    List<Long> findDue(int limit);
+
+    /**
+     * Procesa un registro del outbox. Es idempotente: si otro worker ya lo procesó, o la ejecución
+     * ya no está pendiente, no vuelve a aplicar nada.
+     *
+     * @return true si este worker marcó el registro como procesado
+     */
+    boolean process(Long outboxId);
+
+    /**
+     * Registra un intento fallido: se reprograma con espera exponencial o, agotados los intentos, queda FAILED.
+     */
+    void recordFailure(Long outboxId, String error, int maxAttempts, Duration backoff);
+
+    /**
+     * Borra los registros ya procesados antes de la fecha indicada.
+     */
+    int purgeProcessedBefore(LocalDateTime cutoff);
+}
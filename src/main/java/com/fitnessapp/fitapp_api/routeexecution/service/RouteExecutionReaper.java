@@ -0,0 +1,21 @@
+package com.fitnessapp.fitapp_api.routeexecution.service;
+
+import com.fitnessapp.fitapp_api.routeexecution.model.RouteExecution.RouteExecutionStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Cierre de ejecuciones abandonadas: abiertas (IN_PROGRESS o PAUSED) sin actividad desde hace demasiado tiempo.
+ * Se marcan EXPIRED en lotes acotados, cada lote en su propia transacción.
+ */
+public interface RouteExecutionReaper {
+
+    /**
+     * Expira un lote de como mucho {@code limit} ejecuciones en el estado indicado sin actividad desde
+     * {@code cutoff}, de la más antigua a la más reciente.
+     *
+     * @return ids de las ejecuciones que este lote ha dejado EXPIRED
+     */
+    List<Long> expireIdleBatch(RouteExecutionStatus status, LocalDateTime cutoff, int limit);
+}
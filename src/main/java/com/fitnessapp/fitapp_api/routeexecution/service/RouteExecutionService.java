@@ -1,17 +1,17 @@
 package com.fitnessapp.fitapp_api.routeexecution.service;
 
+import com.fitnessapp.fitapp_api.core.dto.CursorPageResponseDTO;
+import com.fitnessapp.fitapp_api.core.security.AuthenticatedUser;
 import com.fitnessapp.fitapp_api.routeexecution.dto.RouteExecutionHistoryResponseDTO;
 import com.fitnessapp.fitapp_api.routeexecution.dto.RouteExecutionRequestDTO;
 import com.fitnessapp.fitapp_api.routeexecution.dto.RouteExecutionResponseDTO;
 
-import java.util.List;
-
 public interface RouteExecutionService {
 
-    List<RouteExecutionResponseDTO> getMyExecutions(String email);
-    RouteExecutionResponseDTO startExecution(String email, Long routeId, RouteExecutionRequestDTO request);
-    RouteExecutionResponseDTO pauseExecution(String email, Long executionId);
-    RouteExecutionResponseDTO resumeExecution(String email, Long executionId);
-    RouteExecutionResponseDTO finishExecution(String email, Long executionId, RouteExecutionRequestDTO request);
-    List<RouteExecutionHistoryResponseDTO> getMyCompletedExecutionsHistory(String email);
+    CursorPageResponseDTO<RouteExecutionResponseDTO> getMyExecutions(AuthenticatedUser user, String cursor, Integer size);
+    RouteExecutionResponseDTO startExecution(AuthenticatedUser user, Long routeId, RouteExecutionRequestDTO request);
+    RouteExecutionResponseDTO pauseExecution(AuthenticatedUser user, Long executionId);
+    RouteExecutionResponseDTO resumeExecution(AuthenticatedUser user, Long executionId);
+    RouteExecutionResponseDTO finishExecution(AuthenticatedUser user, Long executionId, RouteExecutionRequestDTO request);
+    CursorPageResponseDTO<RouteExecutionHistoryResponseDTO> getMyCompletedExecutionsHistory(AuthenticatedUser user, String cursor, Integer size);
 }
@@ -0,0 +1,204 @@
+package com.fitnessapp.fitapp_api.routeexecution.service.implementation;
+
+import com.fitnessapp.fitapp_api.calories.dto.CCActivityRequest;
+import com.fitnessapp.fitapp_api.calories.service.CalorieCalculationService;
+import com.fitnessapp.fitapp_api.core.exception.UserProfileNotCompletedException;
+import com.fitnessapp.fitapp_api.core.util.UserTimeZones;
+import com.fitnessapp.fitapp_api.gamification.counter.DailyPointsCounter;
+import com.fitnessapp.fitapp_api.gamification.dto.PCActivityRequestDTO;
+import com.fitnessapp.fitapp_api.gamification.model.PointsReason;
+import com.fitnessapp.fitapp_api.gamification.service.PointsCalculationService;
+import com.fitnessapp.fitapp_api.gamification.service.PointsLedgerService;
+import com.fitnessapp.fitapp_api.profile.cache.ProfileSnapshot;
+import com.fitnessapp.fitapp_api.profile.cache.ProfileSnapshotCache;
+import com.fitnessapp.fitapp_api.routeexecution.event.RouteExecutionFinishedEvent;
+import com.fitnessapp.fitapp_api.routeexecution.model.RouteExecution;
+import com.fitnessapp.fitapp_api.routeexecution.model.RouteExecutionOutbox;
+import com.fitnessapp.fitapp_api.routeexecution.model.RouteExecutionOutbox.OutboxStatus;
+import com.fitnessapp.fitapp_api.routeexecution.repository.RouteExecutionOutboxRepository;
+import com.fitnessapp.fitapp_api.routeexecution.repository.RouteExecutionRepository;
+import com.fitnessapp.fitapp_api.routeexecution.service.RouteExecutionFinishProcessor;
+import com.fitnessapp.fitapp_api.stats.service.DailyActivityService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Slf4j
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class RouteExecutionFinishProcessorImpl implements RouteExecutionFinishProcessor {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+    private static final Duration MAX_BACKOFF = Duration.ofHours(1);
+
+    private final RouteExecutionOutboxRepository outboxRepository;
+    private final RouteExecutionRepository executionRepository;
+    private final ProfileSnapshotCache profileSnapshotCache;
+    private final CalorieCalculationService calorieCalculationService;
+    private final PointsCalculationService pointsCalculationService;
+    private final PointsLedgerService pointsLedgerService;
+    private final DailyPointsCounter dailyPointsCounter;
+    private final DailyActivityService dailyActivityService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> findDue(int limit) {
+        return outboxRepository.findDueIds(OutboxStatus.PENDING, LocalDateTime.now(), Limit.of(limit));
+    }
+
+    @Override
+    public boolean process(Long outboxId) {
+        LocalDateTime now = LocalDateTime.now();
+        RouteExecutionOutbox outbox = outboxRepository.findByIdAndStatusForUpdate(outboxId, OutboxStatus.PENDING)
+                .orElse(null);
+        if (outbox == null || outbox.getAvailableAt().isAfter(now)) {
+            // Otro worker lo procesó o lo reprogramó mientras esperábamos el bloqueo
+            return false;
+        }
+
+        RouteExecution exec = executionRepository.findById(outbox.getExecutionId()).orElse(null);
+        if (exec != null && exec.isPostFinishPending()) {
+            applyPostFinish(outbox, exec);
+        } else {
+            // Entrega repetida: la ejecución ya se procesó (o se eliminó), no se vuelve a puntuar
+            log.debug("Outbox entry {} skipped: execution {} is not pending", outboxId, outbox.getExecutionId());
+        }
+
+        outbox.setStatus(OutboxStatus.DONE);
+        outbox.setProcessedAt(now);
+        outbox.setLastError(null);
+        return true;
+    }
+
+    @Override
+    public void recordFailure(Long outboxId, String error, int maxAttempts, Duration backoff) {
+        outboxRepository.findByIdAndStatusForUpdate(outboxId, OutboxStatus.PENDING).ifPresent(outbox -> {
+            int attempts = outbox.getAttempts() + 1;
+            outbox.setAttempts(attempts);
+            outbox.setLastError(error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+            if (attempts >= maxAttempts) {
+                outbox.setStatus(OutboxStatus.FAILED);
+                log.error("Outbox entry {} for execution {} failed {} times and was given up",
+                        outboxId, outbox.getExecutionId(), attempts);
+            } else {
+                outbox.setAvailableAt(LocalDateTime.now().plus(backoffFor(backoff, attempts)));
+            }
+        });
+    }
+
+    @Override
+    public int purgeProcessedBefore(LocalDateTime cutoff) {
+        return outboxRepository.deleteByStatusAndProcessedAtBefore(OutboxStatus.DONE, cutoff);
+    }
+
+    private void applyPostFinish(RouteExecutionOutbox outbox, RouteExecution exec) {
+        String email = outbox.getUserEmail();
+        // Perfil desde la caché de snapshots: calorías, puntos y resumen diario sin consultar user_profile
+        ProfileSnapshot profile = profileSnapshotCache.get(outbox.getUserId()).orElse(null);
+
+        calculateAndSetCalories(email, profile, exec);
+        calculateAndSetPoints(email, profile, exec);
+        exec.setPostFinishPending(false);
+
+        RouteExecution saved = executionRepository.save(exec);
+
+        // Saldo de puntos: movimiento en el ledger + UPDATE atómico, sin reescribir el perfil
+        if (profile != null) {
+            pointsLedgerService.award(outbox.getUserId(), saved.getId(), saved.getPoints(), PointsReason.ROUTE_EXECUTION);
+        }
+
+        // Resumen diario actualizado en la misma transacción que marca el registro como procesado
+        dailyActivityService.recordFinishedExecution(saved, profile != null ? profile.timeZone() : null);
+        eventPublisher.publishEvent(new RouteExecutionFinishedEvent(saved.getId(), outbox.getUserId(), email));
+    }
+
+    /**
+     * Calorías de la sesión. Los errores de negocio (perfil incompleto o sin actividad) dejan 0 kcal;
+     * cualquier otro error se propaga para que el registro se reintente.
+     */
+    private void calculateAndSetCalories(String email, ProfileSnapshot profile, RouteExecution exec) {
+        if (exec.getDurationSec() == null || exec.getDurationSec() <= 0) {
+            exec.setCalories(BigDecimal.ZERO);
+            return;
+        }
+
+        if (profile == null) {
+            log.warn("No calorie calculation: User profile not found for email {}", email);
+            exec.setCalories(BigDecimal.ZERO);
+            return;
+        }
+
+        try {
+            // Fallback a WALKING_MODERATE si no hay actividad definida
+            RouteExecution.ActivityType activityType = exec.getActivityType() != null
+                    ? exec.getActivityType()
+                    : RouteExecution.ActivityType.WALKING_MODERATE;
+
+            CCActivityRequest ccRequest = new CCActivityRequest(activityType, exec.getDurationSec());
+
+            double calories = calorieCalculationService.calculateCalories(profile, ccRequest);
+            exec.setCalories(BigDecimal.valueOf(calories));
+        } catch (UserProfileNotCompletedException | IllegalArgumentException e) {
+            log.warn("Cannot calculate calories for execution {}: {}", exec.getId(), e.getMessage());
+            exec.setCalories(BigDecimal.ZERO);
+        }
+    }
+
+    /**
+     * Puntos de la sesión. Solo fija los puntos de la ejecución; el saldo del perfil se actualiza vía ledger tras guardarla.
+     */
+    private void calculateAndSetPoints(String email, ProfileSnapshot profile, RouteExecution exec) {
+        if (exec.getDurationSec() == null || exec.getDurationSec() <= 0) {
+            exec.setPoints(0L);
+            return;
+        }
+
+        if (profile == null) {
+            log.warn("No points calculation: User profile not found for email {}", email);
+            exec.setPoints(0L);
+            return;
+        }
+
+        if (exec.getActivityType() == null) {
+            log.warn("Cannot calculate points for execution {}: Activity type is required for points calculation", exec.getId());
+            exec.setPoints(0L);
+            return;
+        }
+
+        LocalDate day = UserTimeZones.toUserDate(exec.getEndTime(), profile.timeZone());
+        double sessionCalories = exec.getCalories() != null ? exec.getCalories().doubleValue() : 0.0;
+
+        // Límites diarios y objetivo de kcal con los acumulados del día, con su fila bloqueada hasta el commit
+        long points = dailyPointsCounter.award(exec.getUser().getId(), day, today -> {
+            boolean dailyGoalCompleted = calorieCalculationService.hasReachedDailyGoal(
+                    profile, today.calories() + sessionCalories);
+            PCActivityRequestDTO pcRequest = new PCActivityRequestDTO(
+                    exec.getDistanceKm() != null ? exec.getDistanceKm().doubleValue() : 0.0,
+                    exec.getDurationSec(),
+                    exec.getActivityType(),
+                    dailyGoalCompleted,
+                    today.points(),
+                    today.sessions()
+            );
+            return pointsCalculationService.calculatePoints(pcRequest);
+        });
+        exec.setPoints(points);
+    }
+
+    // backoff * 2^(intentos-1), con tope
+    private static Duration backoffFor(Duration backoff, int attempts) {
+        Duration delay = backoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : delay;
+    }
+}
@@ -0,0 +1,42 @@
+package com.fitnessapp.fitapp_api.routeexecution.service.implementation;
+
+import com.fitnessapp.fitapp_api.routeexecution.model.RouteExecution.RouteExecutionStatus;
+import com.fitnessapp.fitapp_api.routeexecution.repository.RouteExecutionRepository;
+import com.fitnessapp.fitapp_api.routeexecution.service.RouteExecutionReaper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Una ejecución abandonada se expira en lugar de finalizarse: no pasa por el outbox, así que no suma calorías,
+ * puntos ni resumen diario por un tiempo en el que el usuario no estaba haciendo la actividad.
+ * La selección es una lectura sin bloqueos; el UPDATE vuelve a comprobar estado y updated_at, así que una
+ * ejecución que ha tenido actividad entre medias se queda como está.
+ */
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class RouteExecutionReaperImpl implements RouteExecutionReaper {
+
+    private final RouteExecutionRepository executionRepository;
+
+    @Override
+    public List<Long> expireIdleBatch(RouteExecutionStatus status, LocalDateTime cutoff, int limit) {
+        List<Long> candidates = executionRepository.findIdleIds(status, cutoff, Limit.of(limit));
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+        int updated = executionRepository.expireIdle(candidates, status, cutoff, RouteExecutionStatus.EXPIRED,
+                LocalDateTime.now());
+        if (updated == 0) {
+            return List.of();
+        }
+        return updated == candidates.size()
+                ? candidates
+                : executionRepository.findIdsByIdInAndStatus(candidates, RouteExecutionStatus.EXPIRED);
+    }
+}
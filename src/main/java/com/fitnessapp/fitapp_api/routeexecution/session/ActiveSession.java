@@ -0,0 +1,22 @@
+package com.fitnessapp.fitapp_api.routeexecution.session;
+
+import com.fitnessapp.fitapp_api.routeexecution.dto.RouteExecutionResponseDTO;
+import com.fitnessapp.fitapp_api.routeexecution.repository.SessionStateView;
+
+/**
+ * Parte fija de una ejecución abierta (propietario, ruta, inicio...), tomada al registrarla. Los campos de pausa
+ * no se guardan aquí: la fila es la única fuente de verdad y se leen de BD tras cada transición.
+ */
+record ActiveSession(Long userId, RouteExecutionResponseDTO base) {
+
+    boolean ownedBy(Long userId) {
+        return this.userId.equals(userId);
+    }
+
+    RouteExecutionResponseDTO toResponseDto(SessionStateView state) {
+        return new RouteExecutionResponseDTO(base.id(), base.routeId(), base.routeName(), base.userEmail(),
+                state.getStatus().name(), base.startTime(), state.getPauseTime(), base.endTime(),
+                state.getTotalPausedTimeSec(), base.durationSec(), base.activityType(), base.calories(),
+                base.points(), base.notes(), base.pending());
+    }
+}
@@ -0,0 +1,177 @@
+package com.fitnessapp.fitapp_api.routeexecution.session;
+
+import com.fitnessapp.fitapp_api.core.exception.RouteExecutionNotFoundException;
+import com.fitnessapp.fitapp_api.routeexecution.dto.RouteExecutionResponseDTO;
+import com.fitnessapp.fitapp_api.routeexecution.mapper.RouteExecutionMapper;
+import com.fitnessapp.fitapp_api.routeexecution.model.RouteExecution;
+import com.fitnessapp.fitapp_api.routeexecution.model.RouteExecution.RouteExecutionStatus;
+import com.fitnessapp.fitapp_api.routeexecution.repository.RouteExecutionRepository;
+import com.fitnessapp.fitapp_api.routeexecution.repository.SessionStateView;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Pausa y reanudación de ejecuciones abiertas (IN_PROGRESS y PAUSED). Cada transición se escribe en BD al
+ * momento con un UPDATE condicionado al estado, así que es correcta aunque las peticiones de una misma ejecución
+ * las atiendan instancias distintas. La respuesta sale del estado de la fila tras el UPDATE, leído en la misma
+ * transacción.
+ * En memoria solo se cachea la parte fija de cada ejecución abierta (propietario, ruta, inicio), lo que ahorra
+ * cargar la ejecución con su usuario en cada transición. Una entrada de una ejecución cerrada desde otra
+ * instancia no hace daño: el UPDATE no encuentra la fila abierta y la entrada se descarta.
+ */
+@Component
+public class ActiveSessionRegistry {
+
+    public static final List<RouteExecutionStatus> OPEN_STATUSES =
+            List.of(RouteExecutionStatus.IN_PROGRESS, RouteExecutionStatus.PAUSED);
+
+    private final RouteExecutionRepository executionRepository;
+    private final RouteExecutionMapper mapper;
+    private final Cache<Long, ActiveSession> sessions;
+
+    private final Counter loadedOnMiss;
+
+    public ActiveSessionRegistry(RouteExecutionRepository executionRepository,
+                                 RouteExecutionMapper mapper,
+                                 @Value("${app.executions.active-sessions.cache-ttl:PT12H}") Duration cacheTtl,
+                                 @Value("${app.executions.active-sessions.cache-max-size:100000}") long cacheMaxSize,
+                                 MeterRegistry meterRegistry) {
+        this.executionRepository = executionRepository;
+        this.mapper = mapper;
+        // Las ejecuciones finalizadas en otra instancia no pasan por aquí: el TTL acaba retirándolas
+        this.sessions = Caffeine.newBuilder()
+                .expireAfterAccess(cacheTtl)
+                .maximumSize(cacheMaxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, sessions, "executions.active_sessions");
+        this.loadedOnMiss = Counter.builder("executions.active_sessions.loaded")
+                .description("Sesiones cargadas de BD al no estar en el registro")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registra una ejecución recién iniciada. Dentro de una transacción se registra al confirmarse, para no
+     * dejar en memoria una sesión de una fila que no llegó a existir. Si entre el commit y el registro ya se
+     * cargó de BD por una petición, se mantiene la cargada.
+     */
+    public void track(Long userId, RouteExecutionResponseDTO execution) {
+        ActiveSession session = new ActiveSession(userId, execution);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            sessions.asMap().putIfAbsent(execution.id(), session);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                sessions.asMap().putIfAbsent(execution.id(), session);
+            }
+        });
+    }
+
+    /**
+     * Pausa la ejecución si está IN_PROGRESS; si ya estaba pausada se devuelve tal cual.
+     * Debe llamarse dentro de una transacción para leer el estado que dejó el propio UPDATE.
+     */
+    public RouteExecutionResponseDTO pause(Long executionId, Long userId, LocalDateTime now) {
+        ActiveSession session = acquire(executionId, userId);
+        if (session == null) {
+            throw new IllegalStateException("Execution is not in progress and cannot be paused");
+        }
+        executionRepository.pause(executionId, userId, now, RouteExecutionStatus.IN_PROGRESS,
+                RouteExecutionStatus.PAUSED);
+        // Sin filas actualizadas: ya estaba pausada, o la reanudó o cerró otra petición
+        SessionStateView state = currentState(session);
+        if (state.getStatus() != RouteExecutionStatus.PAUSED) {
+            throw new IllegalStateException("Execution is not in progress and cannot be paused");
+        }
+        return session.toResponseDto(state);
+    }
+
+    /**
+     * Reanuda la ejecución si está PAUSED, sumando el tramo en pausa. Como pause, dentro de una transacción.
+     */
+    public RouteExecutionResponseDTO resume(Long executionId, Long userId, LocalDateTime now) {
+        ActiveSession session = acquire(executionId, userId);
+        if (session == null) {
+            throw new IllegalStateException("Execution is not paused and cannot be resumed");
+        }
+        int updated = executionRepository.resume(executionId, userId, now, RouteExecutionStatus.PAUSED,
+                RouteExecutionStatus.IN_PROGRESS);
+        SessionStateView state = currentState(session);
+        if (updated == 0) {
+            throw new IllegalStateException("Execution is not paused and cannot be resumed");
+        }
+        return session.toResponseDto(state);
+    }
+
+    /**
+     * Carga las ejecuciones abiertas de BD (arranque). Las ya registradas por peticiones previas se mantienen.
+     */
+    public int load() {
+        List<RouteExecution> open = executionRepository.findAllOpenWithUser(OPEN_STATUSES);
+        open.forEach(exec -> sessions.asMap().putIfAbsent(exec.getId(),
+                new ActiveSession(exec.getUser().getId(), mapper.toResponseDto(exec))));
+        return open.size();
+    }
+
+    /**
+     * Saca del registro ejecuciones cerradas (finish, reaper). Un acceso posterior va a BD y ya no las
+     * encuentra abiertas.
+     */
+    public void evict(Collection<Long> executionIds) {
+        sessions.invalidateAll(executionIds);
+    }
+
+    public long size() {
+        sessions.cleanUp();
+        return sessions.estimatedSize();
+    }
+
+    // Parte fija de la ejecución abierta del usuario; si no está en el registro se carga de BD una vez
+    private ActiveSession acquire(Long executionId, Long userId) {
+        ActiveSession session = sessions.getIfPresent(executionId);
+        if (session != null) {
+            if (!session.ownedBy(userId)) {
+                throw new RouteExecutionNotFoundException("Execution not found for id: " + executionId);
+            }
+            return session;
+        }
+
+        RouteExecution exec = executionRepository.findOpenWithUser(executionId, userId, OPEN_STATUSES).orElse(null);
+        if (exec == null) {
+            // No está abierta: distinguir entre inexistente y ya finalizada
+            if (executionRepository.findByIdAndUserId(executionId, userId).isEmpty()) {
+                throw new RouteExecutionNotFoundException("Execution not found for id: " + executionId);
+            }
+            return null;
+        }
+        loadedOnMiss.increment();
+        ActiveSession loaded = new ActiveSession(userId, mapper.toResponseDto(exec));
+        ActiveSession existing = sessions.asMap().putIfAbsent(executionId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    // Estado de la fila tras la transición; si ya no está abierta la entrada deja de servir
+    private SessionStateView currentState(ActiveSession session) {
+        Long executionId = session.base().id();
+        SessionStateView state = executionRepository.findSessionState(executionId)
+                .orElseThrow(() -> new RouteExecutionNotFoundException("Execution not found for id: " + executionId));
+        if (!OPEN_STATUSES.contains(state.getStatus())) {
+            sessions.invalidate(executionId);
+        }
+        return state;
+    }
+}
@@ -1,7 +1,12 @@
 package com.fitnessapp.fitapp_api.stats.Controller;
 
+import com.fitnessapp.fitapp_api.core.security.AuthenticatedUser;
 import com.fitnessapp.fitapp_api.stats.dto.EvolutionKcalResponseDTO;
+import com.fitnessapp.fitapp_api.stats.dto.StatsSeriesResponseDTO;
+import com.fitnessapp.fitapp_api.stats.dto.StreakResponseDTO;
 import com.fitnessapp.fitapp_api.stats.service.EvolutionKcalService;
+import com.fitnessapp.fitapp_api.stats.service.StatsSeriesService;
+import com.fitnessapp.fitapp_api.stats.service.UserStreakService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -9,12 +14,12 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.security.Principal;
 
 @RestController
 @RequestMapping("/api/v1/stats")
@@ -23,6 +28,8 @@ import java.security.Principal;
 public class StatsController {
 
     private final EvolutionKcalService evolutionKcalService;
+    private final UserStreakService userStreakService;
+    private final StatsSeriesService statsSeriesService;
 
     /**
      * GET /evolution
@@ -72,7 +79,7 @@ public class StatsController {
     )
     @GetMapping("/evolution")
     public ResponseEntity<EvolutionKcalResponseDTO> getKcalEvolution(
-            Principal principal,
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @RequestParam(defaultValue = "kcal") String metric,
             @RequestParam(defaultValue = "30d") String period
     ) {
@@ -96,8 +103,97 @@ public class StatsController {
         }
 
         EvolutionKcalResponseDTO evolution =
-                evolutionKcalService.getEvolutionKcal(principal.getName(), days);
+                evolutionKcalService.getEvolutionKcal(principal, days);
 
         return ResponseEntity.ok(evolution);
     }
+
+    /**
+     * GET /series
+     */
+    @Operation(
+            summary = "Obtener serie temporal de una métrica",
+            description = "Devuelve un punto por día, semana o mes del periodo indicado (los buckets sin actividad valen 0), "
+                    + "calculado sobre el resumen diario en la zona horaria del perfil.",
+            parameters = {
+                    @Parameter(
+                            name = "metric",
+                            description = "Métrica: kcal, distance, duration, points o sessions.",
+                            example = "distance"
+                    ),
+                    @Parameter(
+                            name = "period",
+                            description = "Periodo hacia atrás desde hoy: número + d, w, m o y (máximo 5 años).",
+                            example = "1y"
+                    ),
+                    @Parameter(
+                            name = "granularity",
+                            description = "Tamaño de cada punto: day, week o month (máximo 400 puntos).",
+                            example = "month"
+                    ),
+                    @Parameter(
+                            name = "principal",
+                            hidden = true,
+                            description = "Inyectado por Spring Security, representa el usuario autenticado."
+                    )
+            },
+            responses = {
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Parámetros inválidos",
+                            content = @Content(mediaType = "application/json")
+                    ),
+                    @ApiResponse(
+                            responseCode = "401",
+                            description = "No autenticado - Token JWT inválido o faltante",
+                            content = @Content(mediaType = "application/json")
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Perfil de usuario no encontrado",
+                            content = @Content(mediaType = "application/json")
+                    ),
+                    @ApiResponse(
+                            responseCode = "422",
+                            description = "Perfil de usuario incompleto",
+                            content = @Content(mediaType = "application/json")
+                    )
+            }
+    )
+    @GetMapping("/series")
+    public ResponseEntity<StatsSeriesResponseDTO> getSeries(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @RequestParam(defaultValue = "kcal") String metric,
+            @RequestParam(defaultValue = "30d") String period,
+            @RequestParam(defaultValue = "day") String granularity
+    ) {
+        return ResponseEntity.ok(statsSeriesService.getSeries(principal, metric, period, granularity));
+    }
+
+    /**
+     * GET /streak
+     */
+    @Operation(
+            summary = "Obtener racha del usuario",
+            description = "Devuelve la racha actual de días consecutivos con actividad (0 si ni hoy ni ayer hubo actividad), "
+                    + "la racha más larga histórica y el último día activo, según la zona horaria del perfil.",
+            parameters = {
+                    @Parameter(
+                            name = "principal",
+                            hidden = true,
+                            description = "Inyectado por Spring Security, representa el usuario autenticado."
+                    )
+            },
+            responses = {
+                    @ApiResponse(
+                            responseCode = "401",
+                            description = "No autenticado - Token JWT inválido o faltante",
+                            content = @Content(mediaType = "application/json")
+                    )
+            }
+    )
+    @GetMapping("/streak")
+    public ResponseEntity<StreakResponseDTO> getStreak(@AuthenticationPrincipal AuthenticatedUser principal) {
+        return ResponseEntity.ok(userStreakService.getMyStreak(principal));
+    }
 }
@@ -0,0 +1,7 @@
+package com.fitnessapp.fitapp_api.stats.dto;
+
+public record StatsSeriesPointDTO(
+        String date,
+        double value
+) {
+}
@@ -0,0 +1,12 @@
+package com.fitnessapp.fitapp_api.stats.dto;
+
+import java.util.List;
+
+public record StatsSeriesResponseDTO(
+        String metric,
+        String granularity,
+        String from,
+        String to,
+        List<StatsSeriesPointDTO> points
+) {
+}
@@ -0,0 +1,10 @@
+package com.fitnessapp.fitapp_api.stats.dto;
+
+import java.time.LocalDate;
+
+public record StreakResponseDTO(
+        int currentStreak,
+        int longestStreak,
+        LocalDate lastActiveDate
+) {
+}
@@ -0,0 +1,56 @@
+package com.fitnessapp.fitapp_api.stats.job;
+
+import com.fitnessapp.fitapp_api.auth.repository.UserAuthRepository;
+import com.fitnessapp.fitapp_api.stats.service.DailyActivityService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Rellena user_daily_activity a partir de route_executions ya existentes.
+ * Se ejecuta una sola vez al arrancar si app.stats.daily-activity.backfill-on-startup=true
+ * (pensado para el primer despliegue tras V9). Cada usuario se reconstruye en su propia transacción.
+ */
+@Slf4j
+@Component
+@Order(1)
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.stats.daily-activity.backfill-on-startup", havingValue = "true")
+public class DailyActivityBackfillJob implements ApplicationRunner {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final UserAuthRepository userAuthRepository;
+    private final DailyActivityService dailyActivityService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        log.info("Daily activity backfill started");
+        long lastId = 0L;
+        int users = 0;
+        int days = 0;
+
+        List<Long> userIds;
+        do {
+            userIds = userAuthRepository.findIdsAfter(lastId, Limit.of(BATCH_SIZE));
+            for (Long userId : userIds) {
+                try {
+                    days += dailyActivityService.rebuildForUser(userId);
+                    users++;
+                } catch (Exception e) {
+                    log.error("Daily activity backfill failed for user {}", userId, e);
+                }
+                lastId = userId;
+            }
+        } while (userIds.size() == BATCH_SIZE);
+
+        log.info("Daily activity backfill finished: {} users, {} active days", users, days);
+    }
+}
@@ -0,0 +1,56 @@
+package com.fitnessapp.fitapp_api.stats.job;
+
+import com.fitnessapp.fitapp_api.auth.repository.UserAuthRepository;
+import com.fitnessapp.fitapp_api.stats.service.UserStreakService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Recalcula user_streaks a partir de user_daily_activity.
+ * Se ejecuta una sola vez al arrancar si app.stats.streak.recompute-on-startup=true
+ * (pensado para el primer despliegue tras V12). Va después del backfill del resumen diario
+ * para que, si ambos están activos, parta de días ya reconstruidos.
+ */
+@Slf4j
+@Component
+@Order(2)
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.stats.streak.recompute-on-startup", havingValue = "true")
+public class UserStreakRecomputeJob implements ApplicationRunner {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final UserAuthRepository userAuthRepository;
+    private final UserStreakService userStreakService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        log.info("User streak recompute started");
+        long lastId = 0L;
+        int users = 0;
+
+        List<Long> userIds;
+        do {
+            userIds = userAuthRepository.findIdsAfter(lastId, Limit.of(BATCH_SIZE));
+            for (Long userId : userIds) {
+                try {
+                    userStreakService.rebuildForUser(userId);
+                    users++;
+                } catch (Exception e) {
+                    log.error("User streak recompute failed for user {}", userId, e);
+                }
+                lastId = userId;
+            }
+        } while (userIds.size() == BATCH_SIZE);
+
+        log.info("User streak recompute finished: {} users", users);
+    }
+}
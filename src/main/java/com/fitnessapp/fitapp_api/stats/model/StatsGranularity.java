@@ -0,0 +1,43 @@
+package com.fitnessapp.fitapp_api.stats.model;
+
+import com.fitnessapp.fitapp_api.core.exception.InvalidStatsQueryException;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Locale;
+
+/**
+ * Tamaño de cada punto de la serie. Las semanas empiezan en lunes (ISO),
+ * igual que el agrupado en SQL de {@code UserDailyActivityRepository#sumByBucket}.
+ */
+public enum StatsGranularity {
+    DAY,
+    WEEK,
+    MONTH;
+
+    // Primer día del bucket que contiene a la fecha
+    public LocalDate bucketStart(LocalDate date) {
+        return switch (this) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+        };
+    }
+
+    public LocalDate next(LocalDate bucketStart) {
+        return switch (this) {
+            case DAY -> bucketStart.plusDays(1);
+            case WEEK -> bucketStart.plusWeeks(1);
+            case MONTH -> bucketStart.plusMonths(1);
+        };
+    }
+
+    public static StatsGranularity parse(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new InvalidStatsQueryException("Unsupported granularity: " + value);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.fitnessapp.fitapp_api.stats.model;
+
+import com.fitnessapp.fitapp_api.core.exception.InvalidStatsQueryException;
+import com.fitnessapp.fitapp_api.stats.repository.ActivityBucket;
+
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Métricas disponibles para las series temporales, leídas de los agregados de cada bucket.
+ */
+public enum StatsMetric {
+    KCAL(b -> b.getCalories().doubleValue()),
+    DISTANCE(b -> b.getDistanceKm().doubleValue()),
+    DURATION(b -> b.getDurationSec().doubleValue()),
+    POINTS(b -> b.getPoints().doubleValue()),
+    SESSIONS(b -> b.getSessionsCount().doubleValue());
+
+    private final Function<ActivityBucket, Double> extractor;
+
+    StatsMetric(Function<ActivityBucket, Double> extractor) {
+        this.extractor = extractor;
+    }
+
+    public double extract(ActivityBucket bucket) {
+        return extractor.apply(bucket);
+    }
+
+    public static StatsMetric parse(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new InvalidStatsQueryException("Unsupported metric: " + value);
+        }
+    }
+}
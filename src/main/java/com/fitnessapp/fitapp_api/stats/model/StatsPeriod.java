@@ -0,0 +1,51 @@
+package com.fitnessapp.fitapp_api.stats.model;
+
+import com.fitnessapp.fitapp_api.core.exception.InvalidStatsQueryException;
+
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Periodo hacia atrás desde hoy con formato número + unidad: '30d', '12w', '6m', '1y'.
+ */
+public record StatsPeriod(int amount, char unit) {
+
+    private static final Pattern FORMAT = Pattern.compile("(\\d{1,4})([dwmy])");
+
+    // Periodo máximo consultable: 5 años
+    private static final int MAX_DAYS = 5 * 366;
+
+    public static StatsPeriod parse(String value) {
+        Matcher m = value == null ? null : FORMAT.matcher(value.trim().toLowerCase(Locale.ROOT));
+        if (m == null || !m.matches()) {
+            throw new InvalidStatsQueryException("Invalid period: " + value + " (expected e.g. 30d, 12w, 6m, 1y)");
+        }
+        StatsPeriod period = new StatsPeriod(Integer.parseInt(m.group(1)), m.group(2).charAt(0));
+        if (period.amount() < 1 || period.maxDays() > MAX_DAYS) {
+            throw new InvalidStatsQueryException("Period out of range: " + value);
+        }
+        return period;
+    }
+
+    // Cota superior de días que abarca el periodo
+    private long maxDays() {
+        return switch (unit) {
+            case 'd' -> amount;
+            case 'w' -> amount * 7L;
+            case 'm' -> amount * 31L;
+            default -> amount * 366L;
+        };
+    }
+
+    // Primer día del periodo (incluido) que termina en 'today'
+    public LocalDate startDate(LocalDate today) {
+        return switch (unit) {
+            case 'd' -> today.minusDays(amount - 1L);
+            case 'w' -> today.minusWeeks(amount).plusDays(1);
+            case 'm' -> today.minusMonths(amount).plusDays(1);
+            default -> today.minusYears(amount).plusDays(1);
+        };
+    }
+}
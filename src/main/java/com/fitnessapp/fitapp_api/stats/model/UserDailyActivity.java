@@ -0,0 +1,63 @@
+package com.fitnessapp.fitapp_api.stats.model;
+
+import com.fitnessapp.fitapp_api.auth.model.UserAuth;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Resumen diario de la actividad de un usuario (rollup).
+ * Una fila por usuario y día local del usuario, mantenida de forma incremental al finalizar ejecuciones.
+ */
+@Getter
+@Setter
+@Entity
+@Table(
+        name = "user_daily_activity",
+        uniqueConstraints = @UniqueConstraint(name = "uk_user_daily_activity_user_date", columnNames = {"user_id", "activity_date"})
+)
+@AllArgsConstructor
+@NoArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class UserDailyActivity {
+
+    @EqualsAndHashCode.Include
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id", nullable = false, foreignKey = @ForeignKey(name = "fk_user_daily_activity_user"))
+    private UserAuth user;
+
+    @Column(name = "activity_date", nullable = false)
+    private LocalDate activityDate;
+
+    @Column(name = "sessions_count", nullable = false)
+    private Integer sessionsCount = 0;
+
+    @Column(name = "duration_sec", nullable = false)
+    private Long durationSec = 0L;
+
+    @Column(name = "distance_km", precision = 12, scale = 2, nullable = false)
+    private BigDecimal distanceKm = BigDecimal.ZERO;
+
+    @Column(name = "calories", precision = 12, scale = 2, nullable = false)
+    private BigDecimal calories = BigDecimal.ZERO;
+
+    @Column(name = "points", nullable = false)
+    private Long points = 0L;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,74 @@
+package com.fitnessapp.fitapp_api.stats.model;
+
+import com.fitnessapp.fitapp_api.auth.model.UserAuth;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Contadores de racha de un usuario, mantenidos en O(1) al finalizar cada ejecución.
+ * last_active_date es el último día local (zona del perfil) con actividad.
+ */
+@Getter
+@Setter
+@Entity
+@Table(
+        name = "user_streaks",
+        uniqueConstraints = @UniqueConstraint(name = "uk_user_streaks_user", columnNames = "user_id")
+)
+@AllArgsConstructor
+@NoArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class UserStreak {
+
+    @EqualsAndHashCode.Include
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @OneToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id", nullable = false, foreignKey = @ForeignKey(name = "fk_user_streaks_user"))
+    private UserAuth user;
+
+    @Column(name = "current_streak", nullable = false)
+    private Integer currentStreak = 0;
+
+    @Column(name = "longest_streak", nullable = false)
+    private Integer longestStreak = 0;
+
+    @Column(name = "last_active_date")
+    private LocalDate lastActiveDate;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    /**
+     * Aplica un día activo a partir del último registrado:
+     * - mismo día que el último activo -> sin cambios
+     * - día siguiente                  -> la racha suma 1
+     * - hueco de más de un día         -> la racha vuelve a 1
+     * Devuelve false si el día es anterior al último activo (llega tarde o desordenado): puede unir dos tramos,
+     * así que los contadores no bastan y hay que recalcular desde el resumen diario.
+     */
+    public boolean markActive(LocalDate day) {
+        if (lastActiveDate != null && day.isBefore(lastActiveDate)) {
+            return false;
+        }
+        if (day.equals(lastActiveDate)) {
+            return true;
+        }
+        currentStreak = lastActiveDate != null && day.equals(lastActiveDate.plusDays(1)) ? currentStreak + 1 : 1;
+        longestStreak = Math.max(longestStreak, currentStreak);
+        lastActiveDate = day;
+        return true;
+    }
+}
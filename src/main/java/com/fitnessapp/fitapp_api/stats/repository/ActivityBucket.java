@@ -0,0 +1,23 @@
+package com.fitnessapp.fitapp_api.stats.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Proyección con los agregados de un bucket (día, semana o mes) del resumen diario,
+ * devuelta por {@link UserDailyActivityRepository#sumByBucket}.
+ * bucketStart es la fecha de inicio del bucket en formato ISO (yyyy-MM-dd).
+ */
+public interface ActivityBucket {
+
+    String getBucketStart();
+
+    Long getSessionsCount();
+
+    Long getDurationSec();
+
+    BigDecimal getDistanceKm();
+
+    BigDecimal getCalories();
+
+    Long getPoints();
+}
@@ -0,0 +1,16 @@
+package com.fitnessapp.fitapp_api.stats.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Acumulados del día que cuentan para los límites diarios de puntos,
+ * devueltos por {@link UserDailyActivityRepository#lockDailyTotals} con la fila bloqueada.
+ */
+public interface DailyTotalsView {
+
+    Long getPoints();
+
+    Integer getSessionsCount();
+
+    BigDecimal getCalories();
+}
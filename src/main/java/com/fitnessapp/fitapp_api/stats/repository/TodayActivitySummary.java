@@ -0,0 +1,20 @@
+package com.fitnessapp.fitapp_api.stats.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Proyección con los agregados del día local del usuario y la racha activa,
+ * devuelta por {@link UserDailyActivityRepository#summarizeToday} en una sola consulta.
+ */
+public interface TodayActivitySummary {
+
+    Long getSessionsCount();
+
+    Long getDurationSec();
+
+    BigDecimal getDistanceKm();
+
+    BigDecimal getCalories();
+
+    Long getActiveStreak();
+}
@@ -0,0 +1,120 @@
+package com.fitnessapp.fitapp_api.stats.repository;
+
+import com.fitnessapp.fitapp_api.stats.model.UserDailyActivity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UserDailyActivityRepository extends JpaRepository<UserDailyActivity, Long> {
+
+    Optional<UserDailyActivity> findByUserEmailAndActivityDate(String email, LocalDate activityDate);
+
+    Optional<UserDailyActivity> findByUserIdAndActivityDate(Long userId, LocalDate activityDate);
+
+    List<UserDailyActivity> findAllByUserEmailAndActivityDateBetweenOrderByActivityDateAsc(String email, LocalDate from, LocalDate to);
+
+    /*
+     * KPIs de hoy y racha activa en una sola ida a la BD.
+     * Los agregados salen de la fila de hoy del resumen diario y la racha de user_streaks,
+     * que se mantiene al finalizar cada ejecución: ambas son lecturas por clave única.
+     * La racha activa solo cuenta si hoy ya hubo actividad (si no, vale 0).
+     */
+    @Query(value = """
+            SELECT
+                CAST(COALESCE(d.sessions_count, 0) AS SIGNED) AS sessionsCount,
+                CAST(COALESCE(d.duration_sec, 0) AS SIGNED) AS durationSec,
+                COALESCE(d.distance_km, 0) AS distanceKm,
+                COALESCE(d.calories, 0) AS calories,
+                CAST(CASE WHEN s.last_active_date = :today THEN s.current_streak ELSE 0 END AS SIGNED) AS activeStreak
+            FROM (SELECT :userId AS user_id) u
+            LEFT JOIN user_daily_activity d ON d.user_id = u.user_id AND d.activity_date = :today
+            LEFT JOIN user_streaks s ON s.user_id = u.user_id
+            """, nativeQuery = true)
+    TodayActivitySummary summarizeToday(@Param("userId") Long userId, @Param("today") LocalDate today);
+
+    /*
+     * Series temporales: agrupa el resumen diario por bucket en SQL sobre el rango
+     * (user_id, activity_date) del índice único. Como mucho lee una fila por día activo
+     * del periodo y devuelve una por bucket (p. ej. 12 filas para un año mensual).
+     * :granularity es DAY, WEEK (inicio en lunes) o MONTH.
+     */
+    @Query(value = """
+            SELECT
+                DATE_FORMAT(b.bucket_start, '%Y-%m-%d') AS bucketStart,
+                CAST(SUM(b.sessions_count) AS SIGNED) AS sessionsCount,
+                CAST(SUM(b.duration_sec) AS SIGNED) AS durationSec,
+                SUM(b.distance_km) AS distanceKm,
+                SUM(b.calories) AS calories,
+                CAST(SUM(b.points) AS SIGNED) AS points
+            FROM (
+                SELECT
+                    CASE :granularity
+                        WHEN 'WEEK' THEN DATE_SUB(a.activity_date, INTERVAL WEEKDAY(a.activity_date) DAY)
+                        WHEN 'MONTH' THEN DATE_SUB(a.activity_date, INTERVAL DAYOFMONTH(a.activity_date) - 1 DAY)
+                        ELSE a.activity_date
+                    END AS bucket_start,
+                    a.sessions_count, a.duration_sec, a.distance_km, a.calories, a.points
+                FROM user_daily_activity a
+                WHERE a.user_id = :userId AND a.activity_date BETWEEN :from AND :to
+            ) b
+            GROUP BY b.bucket_start
+            ORDER BY b.bucket_start
+            """, nativeQuery = true)
+    List<ActivityBucket> sumByBucket(@Param("userId") Long userId,
+                                     @Param("from") LocalDate from,
+                                     @Param("to") LocalDate to,
+                                     @Param("granularity") String granularity);
+
+    // Upsert atómico: crea la fila del día o acumula sobre ella en una sola sentencia
+    @Modifying
+    @Query(value = """
+            INSERT INTO user_daily_activity (user_id, activity_date, sessions_count, duration_sec, distance_km, calories, points)
+            VALUES (:userId, :activityDate, 1, :durationSec, :distanceKm, :calories, :points) AS new
+            ON DUPLICATE KEY UPDATE
+                sessions_count = user_daily_activity.sessions_count + 1,
+                duration_sec = user_daily_activity.duration_sec + new.duration_sec,
+                distance_km = user_daily_activity.distance_km + new.distance_km,
+                calories = user_daily_activity.calories + new.calories,
+                points = user_daily_activity.points + new.points
+            """, nativeQuery = true)
+    void addSession(@Param("userId") Long userId,
+                    @Param("activityDate") LocalDate activityDate,
+                    @Param("durationSec") long durationSec,
+                    @Param("distanceKm") BigDecimal distanceKm,
+                    @Param("calories") BigDecimal calories,
+                    @Param("points") long points);
+
+    // Crea la fila del día a cero si no existe; si existe no la cambia, pero la deja bloqueada hasta el commit
+    @Modifying
+    @Query(value = """
+            INSERT INTO user_daily_activity (user_id, activity_date, sessions_count, duration_sec, distance_km, calories, points)
+            VALUES (:userId, :activityDate, 0, 0, 0, 0, 0)
+            ON DUPLICATE KEY UPDATE user_id = user_id
+            """, nativeQuery = true)
+    void ensureDay(@Param("userId") Long userId, @Param("activityDate") LocalDate activityDate);
+
+    // Lectura con bloqueo (SELECT ... FOR UPDATE): ve lo último confirmado, no la foto de la transacción
+    @Query(value = """
+            SELECT points AS points, sessions_count AS sessionsCount, calories AS calories
+            FROM user_daily_activity
+            WHERE user_id = :userId AND activity_date = :activityDate
+            FOR UPDATE
+            """, nativeQuery = true)
+    Optional<DailyTotalsView> lockDailyTotals(@Param("userId") Long userId, @Param("activityDate") LocalDate activityDate);
+
+    // Días activos del usuario en orden ascendente (uno por fila del resumen)
+    @Query("SELECT d.activityDate FROM UserDailyActivity d WHERE d.user.id = :userId ORDER BY d.activityDate ASC")
+    List<LocalDate> findActivityDatesByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM UserDailyActivity d WHERE d.user.id = :userId")
+    void deleteAllByUserId(@Param("userId") Long userId);
+}
@@ -0,0 +1,24 @@
+package com.fitnessapp.fitapp_api.stats.repository;
+
+import com.fitnessapp.fitapp_api.stats.model.UserStreak;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface UserStreakRepository extends JpaRepository<UserStreak, Long> {
+
+    Optional<UserStreak> findByUserId(Long userId);
+
+    Optional<UserStreak> findByUserEmail(String email);
+
+    // SELECT ... FOR UPDATE de la fila del usuario: las finalizaciones concurrentes aplican su día de una en una
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM UserStreak s WHERE s.user.id = :userId")
+    Optional<UserStreak> findByUserIdForUpdate(@Param("userId") Long userId);
+}
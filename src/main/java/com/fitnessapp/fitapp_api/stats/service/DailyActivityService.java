@@ -0,0 +1,25 @@
+package com.fitnessapp.fitapp_api.stats.service;
+
+import com.fitnessapp.fitapp_api.routeexecution.model.RouteExecution;
+
+import java.time.ZoneId;
+
+public interface DailyActivityService {
+
+    /**
+     * Suma una ejecución finalizada al resumen diario del usuario (día local según su zona horaria).
+     * Debe llamarse dentro de la transacción que finaliza la ejecución para que ambos cambios sean atómicos.
+     *
+     * @param execution ejecución ya finalizada, con duración, calorías y puntos calculados
+     * @param userZone  zona horaria del perfil del usuario (puede ser null)
+     */
+    void recordFinishedExecution(RouteExecution execution, ZoneId userZone);
+
+    /**
+     * Reconstruye desde cero el resumen diario de un usuario a partir de sus ejecuciones finalizadas.
+     *
+     * @param userId id del usuario
+     * @return número de días con actividad generados
+     */
+    int rebuildForUser(Long userId);
+}
@@ -1,7 +1,8 @@
 package com.fitnessapp.fitapp_api.stats.service;
 
+import com.fitnessapp.fitapp_api.core.security.AuthenticatedUser;
 import com.fitnessapp.fitapp_api.stats.dto.EvolutionKcalResponseDTO;
 
 public interface EvolutionKcalService {
-    EvolutionKcalResponseDTO getEvolutionKcal(String email, int days);
+    EvolutionKcalResponseDTO getEvolutionKcal(AuthenticatedUser user, int days);
 }
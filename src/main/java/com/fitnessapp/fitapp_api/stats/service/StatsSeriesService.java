@@ -0,0 +1,18 @@
+package com.fitnessapp.fitapp_api.stats.service;
+
+import com.fitnessapp.fitapp_api.core.security.AuthenticatedUser;
+import com.fitnessapp.fitapp_api.stats.dto.StatsSeriesResponseDTO;
+
+public interface StatsSeriesService {
+
+    /**
+     * Serie temporal de una métrica del usuario, con un punto por bucket (los buckets sin actividad valen 0).
+     * El periodo termina hoy en la zona horaria del perfil y su inicio se alinea al comienzo del primer bucket.
+     *
+     * @param user        usuario autenticado
+     * @param metric      kcal, distance, duration, points o sessions
+     * @param period      número + unidad: '30d', '12w', '6m', '1y'
+     * @param granularity day, week o month
+     */
+    StatsSeriesResponseDTO getSeries(AuthenticatedUser user, String metric, String period, String granularity);
+}
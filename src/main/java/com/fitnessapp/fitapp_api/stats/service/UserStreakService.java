@@ -0,0 +1,36 @@
+package com.fitnessapp.fitapp_api.stats.service;
+
+import com.fitnessapp.fitapp_api.core.security.AuthenticatedUser;
+import com.fitnessapp.fitapp_api.stats.dto.StreakResponseDTO;
+
+import java.time.LocalDate;
+
+public interface UserStreakService {
+
+    /**
+     * Marca un día local del usuario como activo y actualiza sus contadores de racha en O(1), con la fila
+     * de la racha bloqueada. Un día anterior al último activo recalcula la racha con {@link #rebuildForUser}.
+     * Debe llamarse dentro de la transacción que finaliza la ejecución, después de sumar el día al resumen diario.
+     *
+     * @param userId id del usuario
+     * @param day    día local del usuario (según la zona horaria de su perfil)
+     */
+    void recordActiveDay(Long userId, LocalDate day);
+
+    /**
+     * Recalcula desde cero la racha actual, la más larga y el último día activo
+     * a partir del resumen diario del usuario.
+     *
+     * @param userId id del usuario
+     * @return racha más larga resultante
+     */
+    int rebuildForUser(Long userId);
+
+    /**
+     * Devuelve la racha del usuario evaluada en su día actual: la racha actual sigue viva
+     * si el último día activo es hoy o ayer, y vale 0 en otro caso.
+     *
+     * @param user usuario autenticado
+     */
+    StreakResponseDTO getMyStreak(AuthenticatedUser user);
+}
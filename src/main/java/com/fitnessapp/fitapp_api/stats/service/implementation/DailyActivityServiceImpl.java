@@ -0,0 +1,104 @@
+package com.fitnessapp.fitapp_api.stats.service.implementation;
+
+import com.fitnessapp.fitapp_api.core.util.UserTimeZones;
+import com.fitnessapp.fitapp_api.profile.model.UserProfile;
+import com.fitnessapp.fitapp_api.profile.repository.UserProfileRepository;
+import com.fitnessapp.fitapp_api.routeexecution.model.RouteExecution;
+import com.fitnessapp.fitapp_api.routeexecution.repository.RouteExecutionRepository;
+import com.fitnessapp.fitapp_api.stats.model.UserDailyActivity;
+import com.fitnessapp.fitapp_api.stats.repository.UserDailyActivityRepository;
+import com.fitnessapp.fitapp_api.stats.service.DailyActivityService;
+import com.fitnessapp.fitapp_api.stats.service.UserStreakService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class DailyActivityServiceImpl implements DailyActivityService {
+
+    private final UserDailyActivityRepository dailyActivityRepository;
+    private final RouteExecutionRepository routeExecutionRepository;
+    private final UserProfileRepository userProfileRepository;
+    private final UserStreakService userStreakService;
+
+    @Override
+    public void recordFinishedExecution(RouteExecution execution, ZoneId userZone) {
+        if (execution.getEndTime() == null) {
+            return;
+        }
+
+        Long userId = execution.getUser().getId();
+        LocalDate day = UserTimeZones.toUserDate(execution.getEndTime(), userZone);
+
+        dailyActivityRepository.addSession(
+                userId,
+                day,
+                durationOf(execution),
+                distanceOf(execution),
+                caloriesOf(execution),
+                pointsOf(execution)
+        );
+        userStreakService.recordActiveDay(userId, day);
+    }
+
+    @Override
+    public int rebuildForUser(Long userId) {
+        ZoneId userZone = userProfileRepository.findByUser_Id(userId)
+                .map(UserProfile::getTimeZone)
+                .orElse(null);
+
+        List<RouteExecution> finished = routeExecutionRepository.findAllByUserIdAndStatus(
+                userId, RouteExecution.RouteExecutionStatus.FINISHED);
+
+        // Agrupamos por día local del usuario
+        Map<LocalDate, UserDailyActivity> byDay = new TreeMap<>();
+        for (RouteExecution execution : finished) {
+            // Las pendientes de post-procesado las sumará el worker del outbox al procesarlas
+            if (execution.getEndTime() == null || execution.isPostFinishPending()) {
+                continue;
+            }
+            LocalDate day = UserTimeZones.toUserDate(execution.getEndTime(), userZone);
+            UserDailyActivity activity = byDay.computeIfAbsent(day, d -> {
+                UserDailyActivity row = new UserDailyActivity();
+                row.setUser(execution.getUser());
+                row.setActivityDate(d);
+                return row;
+            });
+            activity.setSessionsCount(activity.getSessionsCount() + 1);
+            activity.setDurationSec(activity.getDurationSec() + durationOf(execution));
+            activity.setDistanceKm(activity.getDistanceKm().add(distanceOf(execution)));
+            activity.setCalories(activity.getCalories().add(caloriesOf(execution)));
+            activity.setPoints(activity.getPoints() + pointsOf(execution));
+        }
+
+        dailyActivityRepository.deleteAllByUserId(userId);
+        dailyActivityRepository.saveAll(byDay.values());
+        return byDay.size();
+    }
+
+    private long durationOf(RouteExecution execution) {
+        return execution.getDurationSec() != null ? execution.getDurationSec() : 0L;
+    }
+
+    // Snapshot de la distancia tomado al iniciar (no carga la ruta)
+    private BigDecimal distanceOf(RouteExecution execution) {
+        return execution.getDistanceKm() != null ? execution.getDistanceKm() : BigDecimal.ZERO;
+    }
+
+    private BigDecimal caloriesOf(RouteExecution execution) {
+        return execution.getCalories() != null ? execution.getCalories() : BigDecimal.ZERO;
+    }
+
+    private long pointsOf(RouteExecution execution) {
+        return execution.getPoints() != null ? execution.getPoints() : 0L;
+    }
+}
@@ -2,13 +2,14 @@ package com.fitnessapp.fitapp_api.stats.service.implementation;
 
 import com.fitnessapp.fitapp_api.core.exception.UserProfileNotCompletedException;
 import com.fitnessapp.fitapp_api.core.exception.UserProfileNotFoundException;
-import com.fitnessapp.fitapp_api.profile.model.UserProfile;
-import com.fitnessapp.fitapp_api.profile.repository.UserProfileRepository;
-import com.fitnessapp.fitapp_api.profile.service.UserProfileService;
-import com.fitnessapp.fitapp_api.routeexecution.model.RouteExecution;
-import com.fitnessapp.fitapp_api.routeexecution.repository.RouteExecutionRepository;
+import com.fitnessapp.fitapp_api.core.security.AuthenticatedUser;
+import com.fitnessapp.fitapp_api.core.util.UserTimeZones;
+import com.fitnessapp.fitapp_api.profile.cache.ProfileSnapshot;
+import com.fitnessapp.fitapp_api.profile.cache.ProfileSnapshotCache;
 import com.fitnessapp.fitapp_api.stats.dto.DailyKcalResponseDTO;
 import com.fitnessapp.fitapp_api.stats.dto.EvolutionKcalResponseDTO;
+import com.fitnessapp.fitapp_api.stats.model.UserDailyActivity;
+import com.fitnessapp.fitapp_api.stats.repository.UserDailyActivityRepository;
 import com.fitnessapp.fitapp_api.stats.service.EvolutionKcalService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -21,46 +22,34 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class EvolutionKcalServiceImpl implements EvolutionKcalService {
 
-    private final UserProfileRepository userProfileRepository;
-    private final UserProfileService userProfileService;
-    private final RouteExecutionRepository routeExecutionRepository;
+    private final ProfileSnapshotCache profileSnapshotCache;
+    private final UserDailyActivityRepository dailyActivityRepository;
 
     @Override
-    public EvolutionKcalResponseDTO getEvolutionKcal(String email, int days) {
+    public EvolutionKcalResponseDTO getEvolutionKcal(AuthenticatedUser user, int days) {
 
         // --- 1. Validar perfil ---
-        UserProfile profile = userProfileRepository.findByUser_Email(email)
-                .orElseThrow(() -> new UserProfileNotFoundException("User profile not found for email: " + email));
+        ProfileSnapshot profile = profileSnapshotCache.get(user.id())
+                .orElseThrow(() -> new UserProfileNotFoundException("User profile not found for email: " + user.email()));
 
-        if (!userProfileService.isProfileComplete(profile)) {
-            throw new UserProfileNotCompletedException("User profile is not complete for email: " + email);
+        if (!profile.complete()) {
+            throw new UserProfileNotCompletedException("User profile is not complete for email: " + user.email());
         }
 
-        // --- 2. Obtener TODAS las ejecuciones del usuario ---
-        List<RouteExecution> allExecutions = routeExecutionRepository.findAllByUserEmail(email);
-
-        // --- 3. Filtrar solo las finalizadas y dentro del rango ---
-        LocalDate today = LocalDate.now();
+        // --- 2. Rango de días en la zona horaria del usuario ---
+        LocalDate today = UserTimeZones.today(profile.timeZone());
         LocalDate startDate = today.minusDays(days - 1);
 
-        List<RouteExecution> executionsInRange = allExecutions.stream()
-                .filter(re -> re.getStatus() == RouteExecution.RouteExecutionStatus.FINISHED)
-                .filter(re -> re.getEndTime() != null)
-                .filter(re -> {
-                    LocalDate execDate = re.getEndTime().toLocalDate();
-                    return !execDate.isBefore(startDate) && !execDate.isAfter(today);
-                })
-                .toList();
-
-        // --- 4. Agrupamos por día y sumamos calorías ---
-        Map<LocalDate, Double> kcalByDay = executionsInRange.stream()
-                .filter(re -> re.getCalories() != null)
-                .collect(Collectors.groupingBy(
-                        re -> re.getEndTime().toLocalDate(),
-                        Collectors.summingDouble(re -> re.getCalories().doubleValue())
+        // --- 3. Leemos solo las filas del resumen diario dentro del rango ---
+        Map<LocalDate, Double> kcalByDay = dailyActivityRepository
+                .findAllByUserEmailAndActivityDateBetweenOrderByActivityDateAsc(user.email(), startDate, today)
+                .stream()
+                .collect(Collectors.toMap(
+                        UserDailyActivity::getActivityDate,
+                        d -> d.getCalories().doubleValue()
                 ));
 
-        // --- 5. Generamos 30 puntos consecutivos ---
+        // --- 4. Generamos un punto por día (los días sin actividad valen 0) ---
         List<DailyKcalResponseDTO> checkpoints = new ArrayList<>();
 
         for (int i = 0; i < days; i++) {
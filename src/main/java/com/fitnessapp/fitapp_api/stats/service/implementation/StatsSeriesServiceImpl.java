@@ -0,0 +1,91 @@
+package com.fitnessapp.fitapp_api.stats.service.implementation;
+
+import com.fitnessapp.fitapp_api.core.exception.InvalidStatsQueryException;
+import com.fitnessapp.fitapp_api.core.exception.UserProfileNotCompletedException;
+import com.fitnessapp.fitapp_api.core.exception.UserProfileNotFoundException;
+import com.fitnessapp.fitapp_api.core.security.AuthenticatedUser;
+import com.fitnessapp.fitapp_api.core.util.UserTimeZones;
+import com.fitnessapp.fitapp_api.profile.cache.ProfileSnapshot;
+import com.fitnessapp.fitapp_api.profile.cache.ProfileSnapshotCache;
+import com.fitnessapp.fitapp_api.stats.dto.StatsSeriesPointDTO;
+import com.fitnessapp.fitapp_api.stats.dto.StatsSeriesResponseDTO;
+import com.fitnessapp.fitapp_api.stats.model.StatsGranularity;
+import com.fitnessapp.fitapp_api.stats.model.StatsMetric;
+import com.fitnessapp.fitapp_api.stats.model.StatsPeriod;
+import com.fitnessapp.fitapp_api.stats.repository.ActivityBucket;
+import com.fitnessapp.fitapp_api.stats.repository.UserDailyActivityRepository;
+import com.fitnessapp.fitapp_api.stats.service.StatsSeriesService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class StatsSeriesServiceImpl implements StatsSeriesService {
+
+    // Máximo de puntos por serie (un año diario cabe; cinco años diarios no)
+    private static final int MAX_POINTS = 400;
+
+    private final ProfileSnapshotCache profileSnapshotCache;
+    private final UserDailyActivityRepository dailyActivityRepository;
+
+    @Override
+    public StatsSeriesResponseDTO getSeries(AuthenticatedUser user, String metric, String period, String granularity) {
+
+        // --- 1. Validar parámetros antes de tocar la BD ---
+        StatsMetric statsMetric = StatsMetric.parse(metric);
+        StatsPeriod statsPeriod = StatsPeriod.parse(period);
+        StatsGranularity statsGranularity = StatsGranularity.parse(granularity);
+
+        // --- 2. Validar perfil ---
+        ProfileSnapshot profile = profileSnapshotCache.get(user.id())
+                .orElseThrow(() -> new UserProfileNotFoundException("User profile not found for email: " + user.email()));
+
+        if (!profile.complete()) {
+            throw new UserProfileNotCompletedException("User profile is not complete for email: " + user.email());
+        }
+
+        // --- 3. Rango en la zona horaria del usuario, alineado al inicio del primer bucket ---
+        LocalDate today = UserTimeZones.today(profile.timeZone());
+        LocalDate from = statsGranularity.bucketStart(statsPeriod.startDate(today));
+
+        long points = statsGranularity == StatsGranularity.DAY
+                ? ChronoUnit.DAYS.between(from, today) + 1
+                : statsGranularity == StatsGranularity.WEEK
+                ? ChronoUnit.WEEKS.between(from, today) + 1
+                : ChronoUnit.MONTHS.between(from, today) + 1;
+        if (points > MAX_POINTS) {
+            throw new InvalidStatsQueryException("Too many points (" + points + "), use a coarser granularity");
+        }
+
+        // --- 4. Agregados por bucket calculados en SQL (solo buckets con actividad) ---
+        Map<String, ActivityBucket> byBucket = dailyActivityRepository
+                .sumByBucket(profile.userId(), from, today, statsGranularity.name())
+                .stream()
+                .collect(Collectors.toMap(ActivityBucket::getBucketStart, Function.identity()));
+
+        // --- 5. Un punto por bucket; los que no tienen actividad valen 0 ---
+        List<StatsSeriesPointDTO> series = new ArrayList<>((int) points);
+        for (LocalDate bucket = from; !bucket.isAfter(today); bucket = statsGranularity.next(bucket)) {
+            String date = bucket.toString();
+            ActivityBucket row = byBucket.get(date);
+            series.add(new StatsSeriesPointDTO(date, row != null ? statsMetric.extract(row) : 0.0));
+        }
+
+        return new StatsSeriesResponseDTO(
+                statsMetric.name().toLowerCase(Locale.ROOT),
+                statsGranularity.name().toLowerCase(Locale.ROOT),
+                from.toString(),
+                today.toString(),
+                series
+        );
+    }
+}
@@ -0,0 +1,96 @@
+package com.fitnessapp.fitapp_api.stats.service.implementation;
+
+import com.fitnessapp.fitapp_api.auth.repository.UserAuthRepository;
+import com.fitnessapp.fitapp_api.core.security.AuthenticatedUser;
+import com.fitnessapp.fitapp_api.core.util.UserTimeZones;
+import com.fitnessapp.fitapp_api.profile.cache.ProfileSnapshot;
+import com.fitnessapp.fitapp_api.profile.cache.ProfileSnapshotCache;
+import com.fitnessapp.fitapp_api.stats.dto.StreakResponseDTO;
+import com.fitnessapp.fitapp_api.stats.model.UserStreak;
+import com.fitnessapp.fitapp_api.stats.repository.UserDailyActivityRepository;
+import com.fitnessapp.fitapp_api.stats.repository.UserStreakRepository;
+import com.fitnessapp.fitapp_api.stats.service.UserStreakService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class UserStreakServiceImpl implements UserStreakService {
+
+    private final UserStreakRepository userStreakRepository;
+    private final UserDailyActivityRepository dailyActivityRepository;
+    private final UserAuthRepository userAuthRepository;
+    private final ProfileSnapshotCache profileSnapshotCache;
+
+    @Override
+    public void recordActiveDay(Long userId, LocalDate day) {
+        // Si dos primeras finalizaciones del usuario crean la fila a la vez, una falla por uk_user_streaks_user
+        // y el outbox reintenta su registro, que ya encuentra la fila
+        UserStreak streak = userStreakRepository.findByUserIdForUpdate(userId)
+                .orElseGet(() -> newStreak(userId));
+
+        if (!streak.markActive(day)) {
+            rebuildForUser(userId);
+            return;
+        }
+        userStreakRepository.save(streak);
+    }
+
+    @Override
+    public int rebuildForUser(Long userId) {
+        List<LocalDate> activeDays = dailyActivityRepository.findActivityDatesByUserId(userId);
+
+        // Recorremos los días (únicos y ascendentes) contando tramos consecutivos
+        int current = 0;
+        int longest = 0;
+        LocalDate previous = null;
+        for (LocalDate day : activeDays) {
+            current = previous != null && day.equals(previous.plusDays(1)) ? current + 1 : 1;
+            longest = Math.max(longest, current);
+            previous = day;
+        }
+
+        UserStreak streak = userStreakRepository.findByUserId(userId)
+                .orElseGet(() -> newStreak(userId));
+        streak.setCurrentStreak(current);
+        streak.setLongestStreak(longest);
+        streak.setLastActiveDate(previous);
+        userStreakRepository.save(streak);
+        return longest;
+    }
+
+    private UserStreak newStreak(Long userId) {
+        UserStreak row = new UserStreak();
+        row.setUser(userAuthRepository.getReferenceById(userId));
+        return row;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public StreakResponseDTO getMyStreak(AuthenticatedUser user) {
+        UserStreak streak = userStreakRepository.findByUserEmail(user.email()).orElse(null);
+        if (streak == null || streak.getLastActiveDate() == null) {
+            return new StreakResponseDTO(0, 0, null);
+        }
+
+        ZoneId userZone = profileSnapshotCache.get(user.id())
+                .map(ProfileSnapshot::timeZone)
+                .orElse(null);
+        LocalDate today = UserTimeZones.today(userZone);
+
+        // La racha se rompe si ni hoy ni ayer hubo actividad
+        boolean alive = !streak.getLastActiveDate().isBefore(today.minusDays(1));
+
+        return new StreakResponseDTO(
+                alive ? streak.getCurrentStreak() : 0,
+                streak.getLongestStreak(),
+                streak.getLastActiveDate()
+        );
+    }
+}
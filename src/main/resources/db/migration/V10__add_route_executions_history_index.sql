@@ -0,0 +1,6 @@
+set NAMES utf8mb4;
+
+-- Índice para la paginación keyset del historial: (user_id, status) fija el rango y
+-- (end_time, id) da el orden, de modo que cada página es un range scan sin OFFSET ni filesort.
+CREATE INDEX idx_route_executions_user_status_end
+    ON route_executions (user_id, status, end_time, id);
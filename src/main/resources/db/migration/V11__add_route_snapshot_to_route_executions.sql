@@ -0,0 +1,14 @@
+set NAMES utf8mb4;
+
+-- Snapshot del nombre y la distancia de la ruta en cada ejecución, para no tener que
+-- cargar la ruta al listar historial, home o estadísticas.
+ALTER TABLE route_executions
+    ADD COLUMN route_name VARCHAR(100) NULL AFTER route_id,
+    ADD COLUMN distance_km DECIMAL(10,2) NULL AFTER route_name;
+
+-- Backfill desde routes. Las rutas eliminadas (soft delete) dejan route_name a NULL,
+-- que se muestra como "Ruta Eliminada".
+UPDATE route_executions e
+    JOIN routes r ON r.id = e.route_id
+SET e.route_name  = CASE WHEN r.deleted THEN NULL ELSE r.name END,
+    e.distance_km = r.distance_km;
@@ -0,0 +1,18 @@
+set NAMES utf8mb4;
+
+CREATE TABLE user_streaks (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    user_id BIGINT NOT NULL,
+    current_streak INT NOT NULL DEFAULT 0,
+    longest_streak INT NOT NULL DEFAULT 0,
+    last_active_date DATE NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+
+    CONSTRAINT uk_user_streaks_user UNIQUE (user_id),
+    CONSTRAINT fk_user_streaks_user FOREIGN KEY (user_id)
+        REFERENCES user_auth(id)
+        ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Las rachas existentes se calculan con UserStreakRecomputeJob (STREAK_RECOMPUTE=true)
@@ -0,0 +1,26 @@
+set NAMES utf8mb4;
+
+CREATE TABLE points_ledger (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    user_id BIGINT NOT NULL,
+    execution_id BIGINT NULL,
+    delta BIGINT NOT NULL,
+    reason VARCHAR(30) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    -- Una ejecución solo puede puntuar una vez por motivo
+    CONSTRAINT uk_points_ledger_execution_reason UNIQUE (execution_id, reason),
+    CONSTRAINT fk_points_ledger_user FOREIGN KEY (user_id)
+        REFERENCES user_auth(id)
+        ON DELETE CASCADE,
+    CONSTRAINT fk_points_ledger_execution FOREIGN KEY (execution_id)
+        REFERENCES route_executions(id)
+        ON DELETE SET NULL,
+    INDEX idx_points_ledger_user_id (user_id, id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Saldo de apertura: el ledger parte del saldo actual de cada perfil
+INSERT INTO points_ledger (user_id, execution_id, delta, reason)
+SELECT user_id, NULL, points, 'OPENING_BALANCE'
+FROM user_profile
+WHERE points <> 0;
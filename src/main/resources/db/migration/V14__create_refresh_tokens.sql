@@ -0,0 +1,21 @@
+set NAMES utf8mb4;
+
+CREATE TABLE refresh_tokens (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    user_id BIGINT NOT NULL,
+    -- SHA-256 (hex) del token; el valor en claro solo lo conoce el cliente
+    token_hash CHAR(64) NOT NULL,
+    -- Todos los tokens obtenidos por rotación desde un mismo login comparten familia
+    family_id CHAR(36) NOT NULL,
+    created_at DATETIME NOT NULL,
+    expires_at DATETIME NOT NULL,
+    revoked_at DATETIME NULL,
+
+    CONSTRAINT uk_refresh_tokens_token_hash UNIQUE (token_hash),
+    CONSTRAINT fk_refresh_tokens_user FOREIGN KEY (user_id)
+        REFERENCES user_auth(id)
+        ON DELETE CASCADE,
+    INDEX idx_refresh_tokens_family_id (family_id),
+    INDEX idx_refresh_tokens_user_id (user_id),
+    INDEX idx_refresh_tokens_expires_at (expires_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,17 @@
+set NAMES utf8mb4;
+
+-- Access tokens (JWT) revocados antes de su exp: logout y cambio de contraseña
+CREATE TABLE revoked_tokens (
+    -- Claim jti del JWT
+    jti CHAR(36) PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    revoked_at DATETIME NOT NULL,
+    -- exp del JWT: pasada esta fecha el token ya no es válido y la fila sobra
+    expires_at DATETIME NOT NULL,
+
+    CONSTRAINT fk_revoked_tokens_user FOREIGN KEY (user_id)
+        REFERENCES user_auth(id)
+        ON DELETE CASCADE,
+    INDEX idx_revoked_tokens_expires_at (expires_at),
+    INDEX idx_revoked_tokens_revoked_at (revoked_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,28 @@
+set NAMES utf8mb4;
+
+-- Ejecuciones finalizadas cuyo cálculo posterior (calorías, puntos, resumen diario) aún no se ha hecho
+ALTER TABLE route_executions ADD COLUMN post_finish_pending BOOLEAN NOT NULL DEFAULT FALSE;
+
+-- Outbox del post-procesado de ejecuciones: se inserta en la misma transacción que la finalización
+-- y lo consume un worker en segundo plano (entrega al menos una vez)
+CREATE TABLE route_execution_outbox (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    execution_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    user_email VARCHAR(255) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    -- No se procesa antes de esta fecha (reintentos con espera)
+    available_at DATETIME NOT NULL,
+    last_error VARCHAR(500) NULL,
+    created_at DATETIME NOT NULL,
+    processed_at DATETIME NULL,
+
+    -- Un único registro por ejecución
+    CONSTRAINT uk_route_execution_outbox_execution UNIQUE (execution_id),
+    CONSTRAINT fk_route_execution_outbox_execution FOREIGN KEY (execution_id)
+        REFERENCES route_executions(id)
+        ON DELETE CASCADE,
+    INDEX idx_route_execution_outbox_status_available (status, available_at, id),
+    INDEX idx_route_execution_outbox_processed_at (processed_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
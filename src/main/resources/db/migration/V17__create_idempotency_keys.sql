@@ -0,0 +1,22 @@
+set NAMES utf8mb4;
+
+-- Respuestas ya enviadas a peticiones con cabecera Idempotency-Key, para devolverlas sin repetir la operación
+CREATE TABLE idempotency_keys (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    user_id BIGINT NOT NULL,
+    idempotency_key VARCHAR(100) NOT NULL,
+    -- SHA-256 (hex) de operación + cuerpo: la misma clave con otra petición se rechaza
+    request_hash CHAR(64) NOT NULL,
+    -- NULL mientras la petición original sigue en curso
+    status_code INT NULL,
+    location VARCHAR(255) NULL,
+    response_body TEXT NULL,
+    created_at DATETIME NOT NULL,
+    expires_at DATETIME NOT NULL,
+
+    CONSTRAINT uk_idempotency_keys_user_key UNIQUE (user_id, idempotency_key),
+    CONSTRAINT fk_idempotency_keys_user FOREIGN KEY (user_id)
+        REFERENCES user_auth(id)
+        ON DELETE CASCADE,
+    INDEX idx_idempotency_keys_expires_at (expires_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,5 @@
+set NAMES utf8mb4;
+
+-- Control de concurrencia optimista: cada cambio de estado incrementa la versión
+ALTER TABLE route_executions
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
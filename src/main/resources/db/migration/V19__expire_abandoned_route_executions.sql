@@ -0,0 +1,9 @@
+set NAMES utf8mb4;
+
+-- Ejecuciones abiertas abandonadas (sin actividad durante demasiado tiempo) que cierra el reaper
+ALTER TABLE route_executions
+    MODIFY COLUMN status ENUM('IN_PROGRESS', 'PAUSED', 'FINISHED', 'EXPIRED') NOT NULL;
+
+-- Índice para el reaper: (status) fija el rango y updated_at lo recorre por antigüedad
+CREATE INDEX idx_route_executions_status_updated
+    ON route_executions (status, updated_at, id);
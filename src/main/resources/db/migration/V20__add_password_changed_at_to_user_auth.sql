@@ -0,0 +1,5 @@
+set NAMES utf8mb4;
+
+-- Último cambio de contraseña: los access tokens con iat anterior dejan de ser válidos
+ALTER TABLE user_auth
+    ADD COLUMN password_changed_at DATETIME NULL;
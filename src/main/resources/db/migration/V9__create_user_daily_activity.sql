@@ -0,0 +1,19 @@
+set NAMES utf8mb4;
+
+CREATE TABLE user_daily_activity (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    user_id BIGINT NOT NULL,
+    activity_date DATE NOT NULL,
+    sessions_count INT NOT NULL DEFAULT 0,
+    duration_sec BIGINT NOT NULL DEFAULT 0,
+    distance_km DECIMAL(12,2) NOT NULL DEFAULT 0,
+    calories DECIMAL(12,2) NOT NULL DEFAULT 0,
+    points BIGINT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+
+    CONSTRAINT uk_user_daily_activity_user_date UNIQUE (user_id, activity_date),
+    CONSTRAINT fk_user_daily_activity_user FOREIGN KEY (user_id)
+        REFERENCES user_auth(id)
+        ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,108 @@
+package com.fitnessapp.fitapp_api.auth;
+
+import com.fitnessapp.fitapp_api.core.exception.PasswordHashingBusyException;
+import com.fitnessapp.fitapp_api.core.security.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderUnitTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        if (encoder != null) {
+            encoder.close();
+        }
+    }
+
+    @Test
+    @DisplayName("encode/matches delegan en BCrypt y registran la latencia")
+    void encodeAndMatches_ShouldDelegate() {
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 2, 4, Duration.ofSeconds(5), meterRegistry);
+
+        String hash = encoder.encode("Secret123!");
+
+        assertTrue(encoder.matches("Secret123!", hash));
+        assertFalse(encoder.matches("Wrong123!", hash));
+        assertEquals(1, meterRegistry.get("security.password.hash").tag("operation", "encode").timer().count());
+        assertEquals(2, meterRegistry.get("security.password.hash").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    @DisplayName("Con el pool y la cola llenos se rechaza al momento con PasswordHashingBusyException")
+    void saturated_ShouldRejectFast() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        encoder = new BoundedPasswordEncoder(blockingEncoder(started, release), 1, 1, Duration.ofSeconds(5), meterRegistry);
+
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            callers.submit(() -> encoder.encode("a"));   // ocupa el único hilo
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            callers.submit(() -> encoder.encode("b"));   // ocupa el único hueco de la cola
+            waitUntil(() -> meterRegistry.get("security.password.hash.queue").gauge().value() == 1.0);
+
+            assertThrows(PasswordHashingBusyException.class, () -> encoder.encode("c"));
+            assertEquals(1.0, meterRegistry.get("security.password.hash.rejected").counter().count());
+        } finally {
+            release.countDown();
+            callers.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Si la espera supera el timeout se rechaza con PasswordHashingBusyException")
+    void slowHash_ShouldTimeOut() {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        encoder = new BoundedPasswordEncoder(blockingEncoder(started, release), 1, 1, Duration.ofMillis(50), meterRegistry);
+        try {
+            assertThrows(PasswordHashingBusyException.class, () -> encoder.encode("a"));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private PasswordEncoder blockingEncoder(CountDownLatch started, CountDownLatch release) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hash";
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return true;
+            }
+        };
+    }
+
+    private void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+}
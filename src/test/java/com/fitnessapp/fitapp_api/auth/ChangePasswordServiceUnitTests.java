@@ -4,6 +4,8 @@ import com.fitnessapp.fitapp_api.auth.dto.ChangePasswordRequestDTO;
 import com.fitnessapp.fitapp_api.auth.dto.UserAuthResponseDTO;
 import com.fitnessapp.fitapp_api.auth.model.UserAuth;
 import com.fitnessapp.fitapp_api.auth.repository.UserAuthRepository;
+import com.fitnessapp.fitapp_api.auth.service.RefreshTokenService;
+import com.fitnessapp.fitapp_api.auth.service.TokenRevocationService;
 import com.fitnessapp.fitapp_api.auth.service.implementation.UserAuthServiceImpl;
 import com.fitnessapp.fitapp_api.core.exception.InvalidPasswordException;
 import com.fitnessapp.fitapp_api.core.exception.InvalidPasswordFormatException;
@@ -19,10 +21,10 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.ZoneId;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -36,6 +38,8 @@ class ChangePasswordServiceUnitTests {
     @Mock private PasswordEncoder passwordEncoder;
     @Mock private AuthenticationManager authenticationManager;
     @Mock private JwtUtils jwtUtils;
+    @Mock private RefreshTokenService refreshTokenService;
+    @Mock private TokenRevocationService tokenRevocationService;
 
     @InjectMocks
     private UserAuthServiceImpl service;
@@ -68,20 +72,26 @@ class ChangePasswordServiceUnitTests {
         when(passwordEncoder.matches("OldPass123!", "encodedOldPassword")).thenReturn(true);
         when(passwordEncoder.encode("NewPass123!")).thenReturn("encodedNewPassword");
 
-        Authentication authMock = mock(Authentication.class);
+        when(jwtUtils.createToken(1L, "tester@example.com", List.of())).thenReturn("NEW_JWT_TOKEN");
+        when(refreshTokenService.issue(1L)).thenReturn("NEW_REFRESH_TOKEN");
 
-        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
-                .thenReturn(authMock);
-
-        when(jwtUtils.createToken(authMock)).thenReturn("NEW_JWT_TOKEN");
-
-        UserAuthResponseDTO result = service.changePassword(user.getEmail(), req);
+        UserAuthResponseDTO result = service.changePassword(user.getEmail(), "OLD_JWT_TOKEN", req);
 
         assertEquals(1L, result.id());
         assertEquals("NEW_JWT_TOKEN", result.token());
+        assertEquals("NEW_REFRESH_TOKEN", result.refreshToken());
         assertFalse(result.profileExists());
 
         verify(userAuthRepository).save(user);
+        verify(refreshTokenService).revokeAllForUser(1L);
+        verify(tokenRevocationService).revoke("OLD_JWT_TOKEN");
+        // El resto de access tokens anteriores al cambio también quedan invalidados
+        assertNotNull(user.getPasswordChangedAt());
+        verify(tokenRevocationService).revokeIssuedBefore(1L,
+                user.getPasswordChangedAt().atZone(ZoneId.systemDefault()).toInstant());
+        // El token se emite sin volver a verificar la contraseña nueva con BCrypt
+        verifyNoInteractions(authenticationManager);
+        verify(passwordEncoder, times(1)).matches(any(), any());
         assertEquals("encodedNewPassword", user.getPassword());
     }
 
@@ -102,7 +112,7 @@ class ChangePasswordServiceUnitTests {
         when(userAuthRepository.findByEmail(user.getEmail())).thenReturn(Optional.empty());
 
         assertThrows(UserAuthNotFoundException.class,
-                () -> service.changePassword(user.getEmail(), req));
+                () -> service.changePassword(user.getEmail(), "OLD_JWT_TOKEN", req));
     }
 
     // ============================================
@@ -123,7 +133,7 @@ class ChangePasswordServiceUnitTests {
         when(passwordEncoder.matches("WrongPassword!", user.getPassword())).thenReturn(false);
 
         assertThrows(InvalidPasswordException.class,
-                () -> service.changePassword(user.getEmail(), req));
+                () -> service.changePassword(user.getEmail(), "OLD_JWT_TOKEN", req));
     }
 
     // ============================================
@@ -144,7 +154,7 @@ class ChangePasswordServiceUnitTests {
         when(passwordEncoder.matches("OldPass123!", user.getPassword())).thenReturn(true);
 
         assertThrows(PasswordConfirmationException.class,
-                () -> service.changePassword(user.getEmail(), req));
+                () -> service.changePassword(user.getEmail(), "OLD_JWT_TOKEN", req));
     }
 
     // ============================================
@@ -165,6 +175,6 @@ class ChangePasswordServiceUnitTests {
         when(passwordEncoder.matches("OldPass123!", user.getPassword())).thenReturn(true);
 
         assertThrows(InvalidPasswordFormatException.class,
-                () -> service.changePassword(user.getEmail(), req));
+                () -> service.changePassword(user.getEmail(), "OLD_JWT_TOKEN", req));
     }
 }
@@ -0,0 +1,149 @@
+package com.fitnessapp.fitapp_api.auth;
+
+import com.fitnessapp.fitapp_api.auth.dto.RefreshTokenResponseDTO;
+import com.fitnessapp.fitapp_api.auth.model.RefreshToken;
+import com.fitnessapp.fitapp_api.auth.model.UserAuth;
+import com.fitnessapp.fitapp_api.auth.repository.RefreshTokenRepository;
+import com.fitnessapp.fitapp_api.auth.repository.UserAuthRepository;
+import com.fitnessapp.fitapp_api.auth.service.implementation.RefreshTokenServiceImpl;
+import com.fitnessapp.fitapp_api.core.exception.InvalidRefreshTokenException;
+import com.fitnessapp.fitapp_api.core.util.JwtUtils;
+import com.fitnessapp.fitapp_api.core.util.TokenHashes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceUnitTests {
+
+    @Mock private RefreshTokenRepository refreshTokenRepository;
+    @Mock private UserAuthRepository userAuthRepository;
+    @Mock private JwtUtils jwtUtils;
+
+    private RefreshTokenServiceImpl service;
+    private UserAuth user;
+
+    @BeforeEach
+    void setUp() {
+        service = new RefreshTokenServiceImpl(refreshTokenRepository, userAuthRepository, jwtUtils, Duration.ofDays(30));
+        user = new UserAuth();
+        user.setId(1L);
+        user.setEmail("tester@example.com");
+    }
+
+    @Test
+    @DisplayName("issue — guarda solo el hash del token, con familia nueva y caducidad según el TTL")
+    void issue_ShouldPersistHashOnly() {
+        when(userAuthRepository.getReferenceById(1L)).thenReturn(user);
+
+        String token = service.issue(1L);
+
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(captor.capture());
+        RefreshToken saved = captor.getValue();
+        assertEquals(TokenHashes.sha256Hex(token), saved.getTokenHash());
+        assertNotEquals(token, saved.getTokenHash());
+        assertNotNull(saved.getFamilyId());
+        assertEquals(Duration.ofDays(30), Duration.between(saved.getCreatedAt(), saved.getExpiresAt()));
+        assertNull(saved.getRevokedAt());
+    }
+
+    @Test
+    @DisplayName("refresh — rota el token dentro de la misma familia y emite un JWT nuevo")
+    void refresh_ShouldRotateAndMintAccessToken() {
+        RefreshToken current = stored("old-token", null, LocalDateTime.now().plusDays(1));
+        when(refreshTokenRepository.findByTokenHashWithUser(TokenHashes.sha256Hex("old-token")))
+                .thenReturn(Optional.of(current));
+        when(refreshTokenRepository.revokeIfActive(eq(5L), any())).thenReturn(1);
+        when(jwtUtils.createToken(1L, "tester@example.com", List.of())).thenReturn("NEW_JWT");
+
+        RefreshTokenResponseDTO result = service.refresh("old-token");
+
+        assertEquals("NEW_JWT", result.token());
+        assertNotEquals("old-token", result.refreshToken());
+        verify(refreshTokenRepository).save(argThat(t ->
+                t.getFamilyId().equals("family-1") && t.getTokenHash().equals(TokenHashes.sha256Hex(result.refreshToken()))));
+        verify(refreshTokenRepository, never()).revokeFamily(any(), any());
+    }
+
+    @Test
+    @DisplayName("refresh — token ya usado revoca toda la familia")
+    void refresh_Reused_ShouldRevokeFamily() {
+        RefreshToken current = stored("old-token", LocalDateTime.now().minusMinutes(1), LocalDateTime.now().plusDays(1));
+        when(refreshTokenRepository.findByTokenHashWithUser(TokenHashes.sha256Hex("old-token")))
+                .thenReturn(Optional.of(current));
+
+        assertThrows(InvalidRefreshTokenException.class, () -> service.refresh("old-token"));
+
+        verify(refreshTokenRepository).revokeFamily(eq("family-1"), any());
+        verify(refreshTokenRepository, never()).save(any());
+        verifyNoInteractions(jwtUtils);
+    }
+
+    @Test
+    @DisplayName("refresh — si otra petición lo rotó a la vez se trata como reutilización")
+    void refresh_ConcurrentRotation_ShouldRevokeFamily() {
+        RefreshToken current = stored("old-token", null, LocalDateTime.now().plusDays(1));
+        when(refreshTokenRepository.findByTokenHashWithUser(TokenHashes.sha256Hex("old-token")))
+                .thenReturn(Optional.of(current));
+        when(refreshTokenRepository.revokeIfActive(eq(5L), any())).thenReturn(0);
+
+        assertThrows(InvalidRefreshTokenException.class, () -> service.refresh("old-token"));
+
+        verify(refreshTokenRepository).revokeFamily(eq("family-1"), any());
+        verifyNoInteractions(jwtUtils);
+    }
+
+    @Test
+    @DisplayName("refresh — token caducado o desconocido → InvalidRefreshTokenException")
+    void refresh_ExpiredOrUnknown_ShouldThrow() {
+        RefreshToken expired = stored("old-token", null, LocalDateTime.now().minusSeconds(1));
+        when(refreshTokenRepository.findByTokenHashWithUser(TokenHashes.sha256Hex("old-token")))
+                .thenReturn(Optional.of(expired));
+        when(refreshTokenRepository.revokeIfActive(eq(5L), any())).thenReturn(1);
+        when(refreshTokenRepository.findByTokenHashWithUser(TokenHashes.sha256Hex("unknown")))
+                .thenReturn(Optional.empty());
+
+        assertThrows(InvalidRefreshTokenException.class, () -> service.refresh("old-token"));
+        assertThrows(InvalidRefreshTokenException.class, () -> service.refresh("unknown"));
+        verifyNoInteractions(jwtUtils);
+    }
+
+    @Test
+    @DisplayName("refresh — usuario deshabilitado no obtiene tokens")
+    void refresh_DisabledUser_ShouldThrow() {
+        user.setEnabled(false);
+        RefreshToken current = stored("old-token", null, LocalDateTime.now().plusDays(1));
+        when(refreshTokenRepository.findByTokenHashWithUser(TokenHashes.sha256Hex("old-token")))
+                .thenReturn(Optional.of(current));
+        when(refreshTokenRepository.revokeIfActive(eq(5L), any())).thenReturn(1);
+
+        assertThrows(InvalidRefreshTokenException.class, () -> service.refresh("old-token"));
+        verify(refreshTokenRepository).revokeFamily(eq("family-1"), any());
+        verifyNoInteractions(jwtUtils);
+    }
+
+    private RefreshToken stored(String token, LocalDateTime revokedAt, LocalDateTime expiresAt) {
+        RefreshToken t = new RefreshToken();
+        t.setId(5L);
+        t.setUser(user);
+        t.setTokenHash(TokenHashes.sha256Hex(token));
+        t.setFamilyId("family-1");
+        t.setCreatedAt(LocalDateTime.now().minusDays(1));
+        t.setExpiresAt(expiresAt);
+        t.setRevokedAt(revokedAt);
+        return t;
+    }
+}
@@ -0,0 +1,142 @@
+package com.fitnessapp.fitapp_api.auth;
+
+import com.fitnessapp.fitapp_api.auth.dto.RegisterUserRequestDTO;
+import com.fitnessapp.fitapp_api.auth.dto.UserAuthResponseDTO;
+import com.fitnessapp.fitapp_api.auth.index.RegisteredEmailFilter;
+import com.fitnessapp.fitapp_api.auth.mapper.UserAuthMapper;
+import com.fitnessapp.fitapp_api.auth.model.UserAuth;
+import com.fitnessapp.fitapp_api.auth.repository.UserAuthRepository;
+import com.fitnessapp.fitapp_api.auth.repository.UserEmailView;
+import com.fitnessapp.fitapp_api.auth.service.RefreshTokenService;
+import com.fitnessapp.fitapp_api.auth.service.TokenRevocationService;
+import com.fitnessapp.fitapp_api.auth.service.implementation.UserAuthServiceImpl;
+import com.fitnessapp.fitapp_api.core.exception.UserAlreadyExistsException;
+import com.fitnessapp.fitapp_api.core.util.JwtUtils;
+import com.fitnessapp.fitapp_api.profile.repository.UserProfileRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RegisterServiceUnitTests {
+
+    @Mock private UserAuthRepository userAuthRepository;
+    @Mock private UserAuthMapper mapper;
+    @Mock private UserProfileRepository userProfileRepository;
+    @Mock private PasswordEncoder passwordEncoder;
+    @Mock private AuthenticationManager authenticationManager;
+    @Mock private JwtUtils jwtUtils;
+    @Mock private RefreshTokenService refreshTokenService;
+    @Mock private TokenRevocationService tokenRevocationService;
+    @Mock private RegisteredEmailFilter registeredEmailFilter;
+
+    @InjectMocks
+    private UserAuthServiceImpl service;
+
+    @Test
+    @DisplayName("register — el filtro descarta el email → no consulta existsByEmail y lo añade al filtro")
+    void register_FilterNegative_ShouldSkipExistsQuery() {
+        RegisterUserRequestDTO req = new RegisterUserRequestDTO(" New@Example.com ", "Passw0rd!");
+        when(registeredEmailFilter.mightExist("new@example.com")).thenReturn(false);
+        stubSuccessfulInsert(req);
+
+        UserAuthResponseDTO result = service.register(req);
+
+        assertEquals(1L, result.id());
+        assertEquals("JWT", result.token());
+        verify(userAuthRepository, never()).existsByEmail(any());
+        verify(registeredEmailFilter).add("new@example.com");
+    }
+
+    @Test
+    @DisplayName("register — el filtro no descarta y el email existe → UserAlreadyExistsException sin BCrypt")
+    void register_FilterPositiveAndExists_ShouldThrow() {
+        RegisterUserRequestDTO req = new RegisterUserRequestDTO("Taken@Example.com", "Passw0rd!");
+        when(registeredEmailFilter.mightExist("taken@example.com")).thenReturn(true);
+        when(userAuthRepository.existsByEmail("taken@example.com")).thenReturn(true);
+
+        assertThrows(UserAlreadyExistsException.class, () -> service.register(req));
+
+        verifyNoInteractions(passwordEncoder);
+        verify(userAuthRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("register — violación de uk_user_auth_email en el insert → UserAlreadyExistsException")
+    void register_DuplicateKeyOnInsert_ShouldMapToUserAlreadyExists() {
+        RegisterUserRequestDTO req = new RegisterUserRequestDTO("race@example.com", "Passw0rd!");
+        when(registeredEmailFilter.mightExist("race@example.com")).thenReturn(false);
+        when(mapper.toEntity(req)).thenReturn(new UserAuth());
+        when(passwordEncoder.encode("Passw0rd!")).thenReturn("encoded");
+        when(userAuthRepository.save(any())).thenThrow(new DataIntegrityViolationException("uk_user_auth_email"));
+        when(userAuthRepository.existsByEmail("race@example.com")).thenReturn(true);
+
+        assertThrows(UserAlreadyExistsException.class, () -> service.register(req));
+
+        verify(registeredEmailFilter, never()).add(any());
+    }
+
+    @Test
+    @DisplayName("RegisteredEmailFilter — antes de cargar no descarta nada; tras cargar distingue emails nuevos")
+    void registeredEmailFilter_ShouldOnlySkipAfterLoad() {
+        UserAuthRepository repository = mock(UserAuthRepository.class);
+        RegisteredEmailFilter filter = new RegisteredEmailFilter(repository, 1000, 0.01, new SimpleMeterRegistry());
+        assertTrue(filter.mightExist("someone@example.com"));
+
+        when(repository.count()).thenReturn(1L);
+        when(repository.findEmailsPageAfter(anyLong(), any(Limit.class)))
+                .thenReturn(List.of(emailView(5L, "Existing@Example.com")));
+        assertEquals(1, filter.load());
+
+        assertTrue(filter.mightExist("existing@example.com"));
+        assertTrue(filter.mightExist("  EXISTING@example.com"));
+        assertFalse(filter.mightExist("someone@example.com"));
+
+        filter.add("someone@example.com");
+        assertTrue(filter.mightExist("someone@example.com"));
+    }
+
+    private void stubSuccessfulInsert(RegisterUserRequestDTO req) {
+        UserAuth entity = new UserAuth();
+        entity.setEmail(req.email());
+        when(mapper.toEntity(req)).thenReturn(entity);
+        when(passwordEncoder.encode(req.password())).thenReturn("encoded");
+        when(userAuthRepository.save(entity)).thenAnswer(inv -> {
+            UserAuth saved = inv.getArgument(0);
+            saved.setId(1L);
+            saved.setEmail(saved.getEmail().trim().toLowerCase());
+            return saved;
+        });
+        when(jwtUtils.createToken(1L, "new@example.com", List.of())).thenReturn("JWT");
+        when(refreshTokenService.issue(1L)).thenReturn("REFRESH");
+    }
+
+    private static UserEmailView emailView(Long id, String email) {
+        return new UserEmailView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getEmail() {
+                return email;
+            }
+        };
+    }
+}
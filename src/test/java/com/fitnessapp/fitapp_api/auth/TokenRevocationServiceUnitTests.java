@@ -0,0 +1,191 @@
+package com.fitnessapp.fitapp_api.auth;
+
+import com.auth0.jwt.JWT;
+import com.fitnessapp.fitapp_api.auth.model.RevokedToken;
+import com.fitnessapp.fitapp_api.auth.model.UserAuth;
+import com.fitnessapp.fitapp_api.auth.repository.RevokedTokenRepository;
+import com.fitnessapp.fitapp_api.auth.repository.UserAuthRepository;
+import com.fitnessapp.fitapp_api.auth.service.implementation.TokenRevocationServiceImpl;
+import com.fitnessapp.fitapp_api.core.security.JwtAuthenticationCache;
+import com.fitnessapp.fitapp_api.core.util.BloomFilter;
+import com.fitnessapp.fitapp_api.core.util.JwtUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationServiceUnitTests {
+
+    @Mock private RevokedTokenRepository revokedTokenRepository;
+    @Mock private UserAuthRepository userAuthRepository;
+    @Mock private JwtAuthenticationCache authenticationCache;
+
+    private JwtUtils jwtUtils;
+    private SimpleMeterRegistry meterRegistry;
+    private TokenRevocationServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "privateKey", "test-secret");
+        ReflectionTestUtils.setField(jwtUtils, "userGenerator", "fitapp_api");
+        ReflectionTestUtils.setField(jwtUtils, "ttlSeconds", 1800L);
+        meterRegistry = new SimpleMeterRegistry();
+        service = new TokenRevocationServiceImpl(revokedTokenRepository, userAuthRepository, jwtUtils,
+                authenticationCache, 1000, 0.01, 1800, Duration.ofMinutes(1), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Tokens emitidos antes del último cambio de contraseña se rechazan; el instante se lee de BD una vez")
+    void isIssuedBeforePasswordChange_ShouldCompareIatWithStoredChange() {
+        LocalDateTime changedAt = LocalDateTime.of(2026, 10, 18, 12, 0, 0);
+        Instant changedInstant = changedAt.atZone(ZoneId.systemDefault()).toInstant();
+        when(userAuthRepository.findPasswordChangedAtById(7L)).thenReturn(Optional.of(changedAt));
+
+        assertTrue(service.isIssuedBeforePasswordChange(7L, changedInstant.minusSeconds(1)));
+        assertFalse(service.isIssuedBeforePasswordChange(7L, changedInstant));
+        assertFalse(service.isIssuedBeforePasswordChange(7L, changedInstant.plusSeconds(60)));
+
+        verify(userAuthRepository, times(1)).findPasswordChangedAtById(7L);
+    }
+
+    @Test
+    @DisplayName("Sin cambio de contraseña ningún token se rechaza por iat; revokeIssuedBefore aplica sin esperar al TTL")
+    void revokeIssuedBefore_ShouldOverrideCachedAbsence() {
+        when(userAuthRepository.findPasswordChangedAtById(7L)).thenReturn(Optional.empty());
+        Instant issuedAt = Instant.now().minusSeconds(60);
+
+        assertFalse(service.isIssuedBeforePasswordChange(7L, issuedAt));
+
+        service.revokeIssuedBefore(7L, Instant.now());
+
+        assertTrue(service.isIssuedBeforePasswordChange(7L, issuedAt));
+        verify(userAuthRepository, times(1)).findPasswordChangedAtById(7L);
+    }
+
+    @Test
+    @DisplayName("Con el filtro cargado, un jti no revocado se resuelve sin ir a BD")
+    void isRevoked_FilterNegative_ShouldNotHitDatabase() {
+        when(revokedTokenRepository.findActiveJtis(any())).thenReturn(List.of("revoked-1", "revoked-2"));
+        when(revokedTokenRepository.findJtisRevokedSince(any())).thenReturn(List.of());
+        service.rebuildFilter();
+
+        for (int i = 0; i < 100; i++) {
+            assertFalse(service.isRevoked(UUID.randomUUID().toString()));
+        }
+
+        verify(revokedTokenRepository, never()).existsById(any());
+        assertTrue(meterRegistry.counter("security.jwt.revocation.lookup", "result", "filter_negative").count() > 95);
+    }
+
+    @Test
+    @DisplayName("Un jti del filtro se confirma en BD una sola vez")
+    void isRevoked_FilterPositive_ShouldConfirmOnce() {
+        when(revokedTokenRepository.findActiveJtis(any())).thenReturn(List.of("revoked-1"));
+        when(revokedTokenRepository.findJtisRevokedSince(any())).thenReturn(List.of());
+        when(revokedTokenRepository.existsById("revoked-1")).thenReturn(true);
+        service.rebuildFilter();
+
+        assertTrue(service.isRevoked("revoked-1"));
+        assertTrue(service.isRevoked("revoked-1"));
+
+        verify(revokedTokenRepository, times(1)).existsById("revoked-1");
+    }
+
+    @Test
+    @DisplayName("Sin filtro cargado se consulta la BD (nunca se acepta un revocado por falta de filtro)")
+    void isRevoked_NoFilterYet_ShouldFallBackToDatabase() {
+        when(revokedTokenRepository.existsById("jti")).thenReturn(false);
+
+        assertFalse(service.isRevoked("jti"));
+
+        verify(revokedTokenRepository).existsById("jti");
+    }
+
+    @Test
+    @DisplayName("revoke persiste el jti hasta el exp del token, lo añade al filtro e invalida la caché")
+    void revoke_ShouldPersistAndUpdateFilter() {
+        when(revokedTokenRepository.findActiveJtis(any())).thenReturn(List.of());
+        when(revokedTokenRepository.findJtisRevokedSince(any())).thenReturn(List.of());
+        service.rebuildFilter();
+
+        String token = jwtUtils.createToken(7L, "user@example.com", List.of());
+        String jti = JWT.decode(token).getId();
+        UserAuth user = new UserAuth();
+        user.setId(7L);
+        when(revokedTokenRepository.existsById(jti)).thenReturn(false);
+        when(userAuthRepository.getReferenceById(7L)).thenReturn(user);
+
+        service.revoke(token);
+
+        ArgumentCaptor<RevokedToken> captor = ArgumentCaptor.forClass(RevokedToken.class);
+        verify(revokedTokenRepository).save(captor.capture());
+        assertEquals(jti, captor.getValue().getJti());
+        assertSame(user, captor.getValue().getUser());
+        assertTrue(captor.getValue().getExpiresAt().isAfter(captor.getValue().getRevokedAt()));
+        verify(authenticationCache).invalidate(token);
+
+        // Ya no pasa por la BD: está en el filtro y confirmado
+        assertTrue(service.isRevoked(jti));
+        verify(revokedTokenRepository, times(1)).existsById(jti);
+    }
+
+    @Test
+    @DisplayName("Un jti revocado en esta instancia sigue revocado aunque el filtro reconstruido no lo incluya")
+    void isRevoked_RevokedDuringRebuild_ShouldStayRevoked() {
+        String token = jwtUtils.createToken(7L, "user@example.com", List.of());
+        String jti = JWT.decode(token).getId();
+        when(revokedTokenRepository.existsById(jti)).thenReturn(false);
+        when(userAuthRepository.getReferenceById(7L)).thenReturn(new UserAuth());
+        service.revoke(token);
+
+        // La reconstrucción leyó la BD antes de que se confirmara la revocación
+        when(revokedTokenRepository.findActiveJtis(any())).thenReturn(List.of());
+        when(revokedTokenRepository.findJtisRevokedSince(any())).thenReturn(List.of());
+        service.rebuildFilter();
+
+        assertTrue(service.isRevoked(jti));
+        verify(revokedTokenRepository, times(1)).existsById(jti);
+    }
+
+    @Test
+    @DisplayName("revoke ignora tokens inválidos")
+    void revoke_InvalidToken_ShouldDoNothing() {
+        service.revoke("not-a-jwt");
+
+        verifyNoInteractions(revokedTokenRepository, authenticationCache);
+    }
+
+    @Test
+    @DisplayName("BloomFilter no da falsos negativos y mantiene la tasa de falsos positivos")
+    void bloomFilter_NoFalseNegatives() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        List<String> added = java.util.stream.IntStream.range(0, 10_000)
+                .mapToObj(i -> UUID.randomUUID().toString()).toList();
+        added.forEach(filter::put);
+
+        assertTrue(added.stream().allMatch(filter::mightContain));
+        long falsePositives = java.util.stream.IntStream.range(0, 10_000)
+                .filter(i -> filter.mightContain(UUID.randomUUID().toString()))
+                .count();
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+}
@@ -1,57 +1,33 @@
 package com.fitnessapp.fitapp_api.calorie_calculation;
 
 
-import com.fitnessapp.fitapp_api.auth.model.UserAuth;
 import com.fitnessapp.fitapp_api.calories.dto.CCActivityRequest;
 import com.fitnessapp.fitapp_api.calories.service.implementation.CalorieCalculationServiceImpl;
+import com.fitnessapp.fitapp_api.calories.util.MetTable;
 import com.fitnessapp.fitapp_api.core.exception.UserProfileNotCompletedException;
-import com.fitnessapp.fitapp_api.profile.model.UserProfile;
-import com.fitnessapp.fitapp_api.profile.service.UserProfileService;
+import com.fitnessapp.fitapp_api.profile.cache.ProfileSnapshot;
 import com.fitnessapp.fitapp_api.profile.util.Gender;
-import com.fitnessapp.fitapp_api.routeexecution.model.RouteExecution;
-import com.fitnessapp.fitapp_api.routeexecution.repository.RouteExecutionRepository;
+import com.fitnessapp.fitapp_api.routeexecution.model.RouteExecution.ActivityType;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
-import org.mockito.Mock;
-import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.time.ZoneId;
-import java.time.ZonedDateTime;
-import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.*;
 
-@ExtendWith(MockitoExtension.class)
 class CalorieCalculationServiceUnitTest {
 
     private static final double DELTA = 1e-4;
-    @Mock
-    UserProfileService userProfileService;
-    @Mock
-    UserProfile userProfile;
-    @Mock
-    RouteExecutionRepository routeExecutionRepository;
-    @InjectMocks
-    CalorieCalculationServiceImpl service;
+    private final CalorieCalculationServiceImpl service = new CalorieCalculationServiceImpl();
 
     @Test
     @DisplayName("Calcula calorias para hombre con RUNNING_MODERATE 1 hora")
     void calculateCaloriesMaleRunningModerate() {
-        when(userProfileService.isProfileComplete(userProfile)).thenReturn(true);
-        when(userProfile.getGender()).thenReturn(Gender.MALE);
-        when(userProfile.getWeightKg()).thenReturn(BigDecimal.valueOf(80));
-        when(userProfile.getHeightCm()).thenReturn(BigDecimal.valueOf(180));
-        when(userProfile.getBirthDate()).thenReturn(LocalDate.now().minusYears(30));
+        ProfileSnapshot userProfile = completeProfile(Gender.MALE, 80, 180, 30);
 
-        CCActivityRequest activity = new CCActivityRequest("RUNNING_MODERATE", 3600L);
+        CCActivityRequest activity = new CCActivityRequest(ActivityType.RUNNING_MODERATE, 3600L);
 
         double result = service.calculateCalories(userProfile, activity);
 
@@ -70,13 +46,9 @@ class CalorieCalculationServiceUnitTest {
     @Test
     @DisplayName("Calcula calorias para mujer con CYCLING_SLOW 30 min")
     void calculateCaloriesFemaleCyclingSlow() {
-        when(userProfileService.isProfileComplete(userProfile)).thenReturn(true);
-        when(userProfile.getGender()).thenReturn(Gender.FEMALE);
-        when(userProfile.getWeightKg()).thenReturn(BigDecimal.valueOf(60.0));
-        when(userProfile.getHeightCm()).thenReturn(BigDecimal.valueOf(165.0));
-        when(userProfile.getBirthDate()).thenReturn(LocalDate.now().minusYears(25));
+        ProfileSnapshot userProfile = completeProfile(Gender.FEMALE, 60.0, 165.0, 25);
 
-        CCActivityRequest activity = new CCActivityRequest("CYCLING_SLOW", 1800L);
+        CCActivityRequest activity = new CCActivityRequest(ActivityType.CYCLING_SLOW, 1800L);
         double result = service.calculateCalories(userProfile, activity);
 
         double bmr = (10 * 60.0) + (6.25 * 165.0) - (5 * 25) - 161;
@@ -87,94 +59,71 @@ class CalorieCalculationServiceUnitTest {
     }
 
     @Test
-    @DisplayName("Lanza IllegalArgumentException por actividad desconocida")
-    void unknownActivityThrows() {
-        when(userProfileService.isProfileComplete(userProfile)).thenReturn(true);
-        when(userProfile.getGender()).thenReturn(Gender.MALE);
-        when(userProfile.getWeightKg()).thenReturn(BigDecimal.valueOf(80.0));
-        when(userProfile.getHeightCm()).thenReturn(BigDecimal.valueOf(180.0));
-        when(userProfile.getBirthDate()).thenReturn(LocalDate.now().minusYears(30));
+    @DisplayName("Lanza IllegalArgumentException si no hay tipo de actividad")
+    void missingActivityThrows() {
+        ProfileSnapshot userProfile = completeProfile(Gender.MALE, 80.0, 180.0, 30);
 
-        CCActivityRequest activity = new CCActivityRequest("UNKNOWN_ACTIVITY", 600L);
+        CCActivityRequest activity = new CCActivityRequest(null, 600L);
 
         assertThrows(IllegalArgumentException.class,
                 () -> service.calculateCalories(userProfile, activity));
     }
 
+    @Test
+    @DisplayName("Los coeficientes precalculados del perfil equivalen a la fórmula por minuto en todas las actividades")
+    void precomputedCoefficientsMatchFormulaForEveryActivity() {
+        ProfileSnapshot userProfile = completeProfile(Gender.FEMALE, 72.5, 168.0, 41);
+        double bmr = (10 * 72.5) + (6.25 * 168.0) - (5 * 41) - 161;
+
+        for (ActivityType type : ActivityType.values()) {
+            double expected = (bmr / 24.0) / 60.0 * MetTable.of(type) * (2700.0 / 60.0);
+            assertEquals(expected, service.calculateCalories(userProfile, new CCActivityRequest(type, 2700L)), DELTA);
+        }
+    }
+
     @Test
     @DisplayName("Lanza UserProfileNotCompletedException si el perfil no esta completo")
     void incompleteProfileThrows() {
-        when(userProfileService.isProfileComplete(userProfile)).thenReturn(false);
+        ProfileSnapshot userProfile = new ProfileSnapshot(1L, "incomplete@example.com", Gender.MALE,
+                null, null, null, null, null, false);
         assertThrows(UserProfileNotCompletedException.class,
-                () -> service.calculateCalories(userProfile, new CCActivityRequest("WALKING_SLOW", 600L)));
-        verify(userProfileService).isProfileComplete(userProfile);
+                () -> service.calculateCalories(userProfile, new CCActivityRequest(ActivityType.WALKING_SLOW, 600L)));
     }
 
     @Test
-    @DisplayName("hasReachedDailyGoal suma calorías usando la zona horaria adelantada del perfil")
-    void hasReachedDailyGoal_UsesAheadTimezone() {
-        ZoneId userZone = ZoneId.of("Asia/Tokyo");
-        ZoneId systemZone = ZoneId.systemDefault();
-        UserProfile profile = buildProfile(userZone, 150, "tz-ahead@example.com");
-
-        ZonedDateTime userStart = LocalDate.now(userZone).atStartOfDay(userZone);
-        ZonedDateTime userMidday = userStart.plusHours(12);
-        ZonedDateTime previousNight = userStart.minusHours(2);
-
-        RouteExecution todayExec = buildExecution(userMidday.withZoneSameInstant(systemZone).toLocalDateTime(), 200.0);
-        RouteExecution previousExec = buildExecution(previousNight.withZoneSameInstant(systemZone).toLocalDateTime(), 500.0);
-
-        when(routeExecutionRepository.findAllByUserEmailAndEndTimeBetweenAndStatus(
-                eq(profile.getUser().getEmail()),
-                any(LocalDateTime.class),
-                any(LocalDateTime.class),
-                eq(RouteExecution.RouteExecutionStatus.FINISHED)
-        )).thenReturn(List.of(todayExec, previousExec));
-
-        assertTrue(service.hasReachedDailyGoal(profile));
+    @DisplayName("hasReachedDailyGoal se cumple cuando las kcal acumuladas del día alcanzan el objetivo")
+    void hasReachedDailyGoal_WhenAccumulatedReachesGoal() {
+        ProfileSnapshot profile = buildProfile(ZoneId.of("Asia/Tokyo"), 150, "goal@example.com");
+
+        assertTrue(service.hasReachedDailyGoal(profile, 150.0));
+        assertTrue(service.hasReachedDailyGoal(profile, 200.0));
     }
 
     @Test
-    @DisplayName("hasReachedDailyGoal ignora ejecuciones fuera del día local en zona atrasada")
-    void hasReachedDailyGoal_IgnoresOutsideWindowForBehindTimezone() {
-        ZoneId userZone = ZoneId.of("America/Los_Angeles");
-        ZoneId systemZone = ZoneId.systemDefault();
-        UserProfile profile = buildProfile(userZone, 200, "tz-behind@example.com");
-
-        ZonedDateTime userStart = LocalDate.now(userZone).atStartOfDay(userZone);
-        ZonedDateTime evening = userStart.plusHours(20);
-        ZonedDateTime nextDay = userStart.plusDays(1).plusHours(3);
-
-        RouteExecution validExec = buildExecution(evening.withZoneSameInstant(systemZone).toLocalDateTime(), 180.0);
-        RouteExecution nextDayExec = buildExecution(nextDay.withZoneSameInstant(systemZone).toLocalDateTime(), 400.0);
-
-        when(routeExecutionRepository.findAllByUserEmailAndEndTimeBetweenAndStatus(
-                eq(profile.getUser().getEmail()),
-                any(LocalDateTime.class),
-                any(LocalDateTime.class),
-                eq(RouteExecution.RouteExecutionStatus.FINISHED)
-        )).thenReturn(List.of(validExec, nextDayExec));
-
-        assertFalse(service.hasReachedDailyGoal(profile));
+    @DisplayName("hasReachedDailyGoal no se cumple por debajo del objetivo")
+    void hasReachedDailyGoal_WhenBelowGoal() {
+        ProfileSnapshot profile = buildProfile(ZoneId.of("America/Los_Angeles"), 200, "below@example.com");
+
+        assertFalse(service.hasReachedDailyGoal(profile, 180.0));
     }
 
-    private UserProfile buildProfile(ZoneId zoneId, int goal, String email) {
-        UserAuth user = new UserAuth();
-        user.setEmail(email);
+    @Test
+    @DisplayName("hasReachedDailyGoal es false sin perfil o sin objetivo definido")
+    void hasReachedDailyGoal_WithoutProfileOrGoal() {
+        ProfileSnapshot profile = buildProfile(null, 0, "nogoal@example.com");
+        ProfileSnapshot withoutGoal = new ProfileSnapshot(1L, "nogoal@example.com", null, null, null, null, null, null, false);
+
+        assertFalse(service.hasReachedDailyGoal(null, 1000.0));
+        assertFalse(service.hasReachedDailyGoal(withoutGoal, 1000.0));
+        assertTrue(service.hasReachedDailyGoal(profile, 0.0));
+    }
 
-        UserProfile profile = new UserProfile();
-        profile.setUser(user);
-        profile.setTimeZone(zoneId);
-        profile.setGoalKcalDaily(goal);
-        profile.setPoints(0L);
-        return profile;
+    private ProfileSnapshot buildProfile(ZoneId zoneId, int goal, String email) {
+        return new ProfileSnapshot(1L, email, null, null, null, null, zoneId, goal, false);
     }
 
-    private RouteExecution buildExecution(LocalDateTime endTime, double calories) {
-        RouteExecution exec = new RouteExecution();
-        exec.setStatus(RouteExecution.RouteExecutionStatus.FINISHED);
-        exec.setEndTime(endTime);
-        exec.setCalories(BigDecimal.valueOf(calories));
-        return exec;
+    private ProfileSnapshot completeProfile(Gender gender, double weightKg, double heightCm, int age) {
+        return new ProfileSnapshot(1L, "calories@example.com", gender, LocalDate.now().minusYears(age),
+                BigDecimal.valueOf(heightCm), BigDecimal.valueOf(weightKg), null, null, true);
     }
 }
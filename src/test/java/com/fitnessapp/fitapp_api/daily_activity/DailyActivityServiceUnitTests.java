@@ -0,0 +1,194 @@
+package com.fitnessapp.fitapp_api.daily_activity;
+
+import com.fitnessapp.fitapp_api.auth.model.UserAuth;
+import com.fitnessapp.fitapp_api.profile.model.UserProfile;
+import com.fitnessapp.fitapp_api.profile.repository.UserProfileRepository;
+import com.fitnessapp.fitapp_api.route.model.Route;
+import com.fitnessapp.fitapp_api.routeexecution.model.RouteExecution;
+import com.fitnessapp.fitapp_api.routeexecution.repository.RouteExecutionRepository;
+import com.fitnessapp.fitapp_api.stats.model.UserDailyActivity;
+import com.fitnessapp.fitapp_api.stats.repository.UserDailyActivityRepository;
+import com.fitnessapp.fitapp_api.stats.service.UserStreakService;
+import com.fitnessapp.fitapp_api.stats.service.implementation.DailyActivityServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DailyActivityServiceUnitTests {
+
+    @Mock
+    private UserDailyActivityRepository dailyActivityRepository;
+
+    @Mock
+    private RouteExecutionRepository routeExecutionRepository;
+
+    @Mock
+    private UserProfileRepository userProfileRepository;
+
+    @Mock
+    private UserStreakService userStreakService;
+
+    @InjectMocks
+    private DailyActivityServiceImpl dailyActivityService;
+
+    private UserAuth user;
+
+    @BeforeEach
+    void setUp() {
+        user = new UserAuth();
+        user.setId(1L);
+        user.setEmail("test@example.com");
+    }
+
+    // ============================================
+    // recordFinishedExecution
+    // ============================================
+    @Test
+    @DisplayName("recordFinishedExecution — suma la ejecución al día local del usuario")
+    void recordFinishedExecution_ShouldAddSessionToUserDay() {
+        LocalDateTime end = LocalDateTime.now().minusMinutes(5);
+        RouteExecution exec = createExecution(end, 1800L, 5.0, 250.0, 40L);
+
+        dailyActivityService.recordFinishedExecution(exec, null);
+
+        verify(dailyActivityRepository).addSession(
+                1L,
+                end.toLocalDate(),
+                1800L,
+                BigDecimal.valueOf(5.0),
+                BigDecimal.valueOf(250.0),
+                40L
+        );
+        verify(userStreakService).recordActiveDay(1L, end.toLocalDate());
+    }
+
+    @Test
+    @DisplayName("recordFinishedExecution — usa la zona horaria del perfil para decidir el día")
+    void recordFinishedExecution_ShouldUseUserTimeZone() {
+        LocalDateTime end = LocalDateTime.now().minusMinutes(5);
+        ZoneId userZone = ZoneId.of("Pacific/Kiritimati");
+        RouteExecution exec = createExecution(end, 600L, 1.0, 50.0, 10L);
+
+        dailyActivityService.recordFinishedExecution(exec, userZone);
+
+        LocalDate expected = end.atZone(ZoneId.systemDefault()).withZoneSameInstant(userZone).toLocalDate();
+        verify(dailyActivityRepository).addSession(eq(1L), eq(expected), eq(600L), any(), any(), eq(10L));
+        verify(userStreakService).recordActiveDay(1L, expected);
+    }
+
+    @Test
+    @DisplayName("recordFinishedExecution — valores nulos cuentan como 0")
+    void recordFinishedExecution_NullValues_ShouldCountAsZero() {
+        LocalDateTime end = LocalDateTime.now();
+        RouteExecution exec = createExecution(end, null, 0.0, 0.0, null);
+        exec.setDistanceKm(null);
+        exec.setCalories(null);
+
+        dailyActivityService.recordFinishedExecution(exec, null);
+
+        verify(dailyActivityRepository).addSession(1L, end.toLocalDate(), 0L, BigDecimal.ZERO, BigDecimal.ZERO, 0L);
+    }
+
+    @Test
+    @DisplayName("recordFinishedExecution — sin endTime no toca el resumen")
+    void recordFinishedExecution_WithoutEndTime_ShouldSkip() {
+        RouteExecution exec = createExecution(null, 600L, 1.0, 50.0, 10L);
+
+        dailyActivityService.recordFinishedExecution(exec, null);
+
+        verifyNoInteractions(dailyActivityRepository, userStreakService);
+    }
+
+    // ============================================
+    // rebuildForUser
+    // ============================================
+    @Test
+    @DisplayName("rebuildForUser — agrupa por día y reemplaza las filas existentes")
+    @SuppressWarnings("unchecked")
+    void rebuildForUser_ShouldGroupByDayAndReplaceRows() {
+        LocalDateTime now = LocalDateTime.now();
+        List<RouteExecution> finished = new ArrayList<>();
+        finished.add(createExecution(now.minusMinutes(30), 1800L, 5.0, 250.0, 40L));
+        finished.add(createExecution(now.minusMinutes(10), 1200L, 3.5, 180.0, 30L));
+        finished.add(createExecution(now.minusDays(2), 900L, 2.5, 120.0, 20L));
+
+        UserProfile profile = new UserProfile();
+        profile.setUser(user);
+
+        when(userProfileRepository.findByUser_Id(1L)).thenReturn(Optional.of(profile));
+        when(routeExecutionRepository.findAllByUserIdAndStatus(1L, RouteExecution.RouteExecutionStatus.FINISHED))
+                .thenReturn(finished);
+
+        int days = dailyActivityService.rebuildForUser(1L);
+
+        assertEquals(2, days);
+
+        ArgumentCaptor<Iterable<UserDailyActivity>> captor = ArgumentCaptor.forClass(Iterable.class);
+        var inOrder = inOrder(dailyActivityRepository);
+        inOrder.verify(dailyActivityRepository).deleteAllByUserId(1L);
+        inOrder.verify(dailyActivityRepository).saveAll(captor.capture());
+
+        List<UserDailyActivity> rows = new ArrayList<>();
+        captor.getValue().forEach(rows::add);
+
+        // Ordenadas por fecha ascendente
+        UserDailyActivity older = rows.get(0);
+        assertEquals(now.minusDays(2).toLocalDate(), older.getActivityDate());
+        assertEquals(1, older.getSessionsCount());
+
+        UserDailyActivity latest = rows.get(1);
+        assertEquals(now.minusMinutes(10).toLocalDate(), latest.getActivityDate());
+        assertEquals(2, latest.getSessionsCount());
+        assertEquals(3000L, latest.getDurationSec());
+        assertEquals(0, BigDecimal.valueOf(8.5).compareTo(latest.getDistanceKm()));
+        assertEquals(0, BigDecimal.valueOf(430.0).compareTo(latest.getCalories()));
+        assertEquals(70L, latest.getPoints());
+    }
+
+    @Test
+    @DisplayName("rebuildForUser — sin ejecuciones deja el resumen vacío")
+    void rebuildForUser_NoExecutions_ShouldClearRows() {
+        when(userProfileRepository.findByUser_Id(1L)).thenReturn(Optional.empty());
+        when(routeExecutionRepository.findAllByUserIdAndStatus(1L, RouteExecution.RouteExecutionStatus.FINISHED))
+                .thenReturn(List.of());
+
+        int days = dailyActivityService.rebuildForUser(1L);
+
+        assertEquals(0, days);
+        verify(dailyActivityRepository).deleteAllByUserId(1L);
+        verify(dailyActivityRepository).saveAll(argThat(rows -> !rows.iterator().hasNext()));
+    }
+
+    private RouteExecution createExecution(LocalDateTime endTime, Long durationSec, double distanceKm, double calories, Long points) {
+        Route route = new Route();
+        route.setDistanceKm(BigDecimal.valueOf(distanceKm));
+
+        RouteExecution execution = new RouteExecution();
+        execution.setUser(user);
+        execution.setRoute(route);
+        execution.setDistanceKm(route.getDistanceKm());
+        execution.setStatus(RouteExecution.RouteExecutionStatus.FINISHED);
+        execution.setEndTime(endTime);
+        execution.setDurationSec(durationSec);
+        execution.setCalories(BigDecimal.valueOf(calories));
+        execution.setPoints(points);
+        return execution;
+    }
+}
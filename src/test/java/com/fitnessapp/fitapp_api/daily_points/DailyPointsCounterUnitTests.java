@@ -0,0 +1,104 @@
+package com.fitnessapp.fitapp_api.daily_points;
+
+import com.fitnessapp.fitapp_api.gamification.counter.DailyPointsCounter;
+import com.fitnessapp.fitapp_api.gamification.counter.DailyPointsCounter.DayTotals;
+import com.fitnessapp.fitapp_api.stats.repository.DailyTotalsView;
+import com.fitnessapp.fitapp_api.stats.repository.UserDailyActivityRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DailyPointsCounterUnitTests {
+
+    @Mock
+    private UserDailyActivityRepository dailyActivityRepository;
+
+    private DailyPointsCounter counter;
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        counter = new DailyPointsCounter(dailyActivityRepository);
+        today = LocalDate.now();
+    }
+
+    @Test
+    @DisplayName("award — asegura y bloquea la fila del día antes de calcular con sus acumulados")
+    void award_ShouldLockDayRowAndUseItsTotals() {
+        when(dailyActivityRepository.lockDailyTotals(1L, today)).thenReturn(Optional.of(totals(300L, 2, 420.5)));
+
+        List<DayTotals> seen = new ArrayList<>();
+        long points = counter.award(1L, today, totals -> {
+            seen.add(totals);
+            return 50L;
+        });
+
+        assertEquals(50L, points);
+        assertEquals(List.of(new DayTotals(300L, 2, 420.5)), seen);
+        InOrder order = inOrder(dailyActivityRepository);
+        order.verify(dailyActivityRepository).ensureDay(1L, today);
+        order.verify(dailyActivityRepository).lockDailyTotals(1L, today);
+    }
+
+    @Test
+    @DisplayName("award — cada llamada vuelve a leer la fila: lo sumado por otra instancia cuenta para el límite")
+    void award_ShouldReadDurableTotalsEveryTime() {
+        when(dailyActivityRepository.lockDailyTotals(1L, today))
+                .thenReturn(Optional.of(totals(0L, 0, 0.0)), Optional.of(totals(700L, 3, 900.0)));
+        long cap = 800L;
+
+        long first = counter.award(1L, today, totals -> Math.min(500L, cap - totals.points()));
+        long second = counter.award(1L, today, totals -> Math.min(500L, cap - totals.points()));
+
+        assertEquals(500L, first);
+        assertEquals(100L, second);
+        verify(dailyActivityRepository, times(2)).ensureDay(1L, today);
+    }
+
+    @Test
+    @DisplayName("award — sin fila legible parte de cero")
+    void award_NoRow_ShouldStartFromZero() {
+        when(dailyActivityRepository.lockDailyTotals(2L, today)).thenReturn(Optional.empty());
+
+        List<DayTotals> seen = new ArrayList<>();
+        counter.award(2L, today, totals -> {
+            seen.add(totals);
+            return 0L;
+        });
+
+        assertEquals(List.of(DayTotals.EMPTY), seen);
+    }
+
+    private static DailyTotalsView totals(long points, int sessions, double calories) {
+        return new DailyTotalsView() {
+            @Override
+            public Long getPoints() {
+                return points;
+            }
+
+            @Override
+            public Integer getSessionsCount() {
+                return sessions;
+            }
+
+            @Override
+            public BigDecimal getCalories() {
+                return BigDecimal.valueOf(calories);
+            }
+        };
+    }
+}
@@ -3,25 +3,27 @@ package com.fitnessapp.fitapp_api.evolution_kcal;
 import com.fitnessapp.fitapp_api.auth.model.UserAuth;
 import com.fitnessapp.fitapp_api.core.exception.UserProfileNotCompletedException;
 import com.fitnessapp.fitapp_api.core.exception.UserProfileNotFoundException;
+import com.fitnessapp.fitapp_api.core.security.AuthenticatedUser;
+import com.fitnessapp.fitapp_api.profile.cache.ProfileSnapshotCache;
 import com.fitnessapp.fitapp_api.profile.model.UserProfile;
 import com.fitnessapp.fitapp_api.profile.repository.UserProfileRepository;
 import com.fitnessapp.fitapp_api.profile.service.UserProfileService;
-import com.fitnessapp.fitapp_api.route.model.Route;
-import com.fitnessapp.fitapp_api.routeexecution.model.RouteExecution;
-import com.fitnessapp.fitapp_api.routeexecution.repository.RouteExecutionRepository;
 import com.fitnessapp.fitapp_api.stats.dto.DailyKcalResponseDTO;
 import com.fitnessapp.fitapp_api.stats.dto.EvolutionKcalResponseDTO;
+import com.fitnessapp.fitapp_api.stats.model.UserDailyActivity;
+import com.fitnessapp.fitapp_api.stats.repository.UserDailyActivityRepository;
 import com.fitnessapp.fitapp_api.stats.service.implementation.EvolutionKcalServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -37,40 +39,41 @@ class EvolutionKcalServiceUnitTests {
     private UserProfileService userProfileService;
 
     @Mock
-    private RouteExecutionRepository routeExecutionRepository;
+    private UserDailyActivityRepository dailyActivityRepository;
 
-    @InjectMocks
     private EvolutionKcalServiceImpl evolutionKcalService;
 
     private UserAuth user;
     private UserProfile profile;
     private String email;
+    private AuthenticatedUser principal;
 
     @BeforeEach
     void setUp() {
+        ProfileSnapshotCache profileSnapshotCache = new ProfileSnapshotCache(userProfileRepository, userProfileService,
+                Duration.ofMinutes(10), 100, new SimpleMeterRegistry());
+        evolutionKcalService = new EvolutionKcalServiceImpl(profileSnapshotCache, dailyActivityRepository);
+
         email = "test@example.com";
 
         user = new UserAuth();
         user.setId(1L);
         user.setEmail(email);
+        principal = new AuthenticatedUser(1L, email);
 
         profile = new UserProfile();
         profile.setId(1L);
         profile.setUser(user);
     }
 
-    // Helper para crear ejecuciones de ruta
-    private RouteExecution exec(LocalDateTime end, double kcal, RouteExecution.RouteExecutionStatus st) {
-        RouteExecution r = new RouteExecution();
-        r.setUser(user);
-        r.setEndTime(end);
-        r.setStatus(st);
-        r.setCalories(BigDecimal.valueOf(kcal));
-
-        Route route = new Route();
-        r.setRoute(route);
-
-        return r;
+    // Helper para crear filas del resumen diario
+    private UserDailyActivity day(LocalDate date, double kcal) {
+        UserDailyActivity d = new UserDailyActivity();
+        d.setUser(user);
+        d.setActivityDate(date);
+        d.setSessionsCount(1);
+        d.setCalories(BigDecimal.valueOf(kcal));
+        return d;
     }
 
     // ============================================================
@@ -80,25 +83,25 @@ class EvolutionKcalServiceUnitTests {
     @Test
     @DisplayName("Debe lanzar UserProfileNotFoundException si el perfil no existe")
     void getEvolutionKcal_ProfileNotFound_ShouldThrow() {
-        when(userProfileRepository.findByUser_Email(email))
+        when(userProfileRepository.findByUser_Id(1L))
                 .thenReturn(Optional.empty());
 
         assertThrows(UserProfileNotFoundException.class,
-                () -> evolutionKcalService.getEvolutionKcal(email, 30));
+                () -> evolutionKcalService.getEvolutionKcal(principal, 30));
 
-        verify(userProfileRepository).findByUser_Email(email);
+        verify(userProfileRepository).findByUser_Id(1L);
     }
 
     @Test
     @DisplayName("Debe lanzar UserProfileNotCompletedException si el perfil está incompleto")
     void getEvolutionKcal_ProfileNotComplete_ShouldThrow() {
-        when(userProfileRepository.findByUser_Email(email))
+        when(userProfileRepository.findByUser_Id(1L))
                 .thenReturn(Optional.of(profile));
         when(userProfileService.isProfileComplete(profile))
                 .thenReturn(false);
 
         assertThrows(UserProfileNotCompletedException.class,
-                () -> evolutionKcalService.getEvolutionKcal(email, 30));
+                () -> evolutionKcalService.getEvolutionKcal(principal, 30));
     }
 
     // ============================================================
@@ -106,17 +109,17 @@ class EvolutionKcalServiceUnitTests {
     // ============================================================
 
     @Test
-    @DisplayName("Debe retornar 30 días con todo a 0 cuando no hay rutas")
+    @DisplayName("Debe retornar 30 días con todo a 0 cuando no hay actividad")
     void getEvolutionKcal_NoRoutes_ShouldReturnZeroes() {
-        when(userProfileRepository.findByUser_Email(email))
+        when(userProfileRepository.findByUser_Id(1L))
                 .thenReturn(Optional.of(profile));
         when(userProfileService.isProfileComplete(profile))
                 .thenReturn(true);
 
-        when(routeExecutionRepository.findAllByUserEmail(email))
+        when(dailyActivityRepository.findAllByUserEmailAndActivityDateBetweenOrderByActivityDateAsc(eq(email), any(), any()))
                 .thenReturn(new ArrayList<>());
 
-        EvolutionKcalResponseDTO result = evolutionKcalService.getEvolutionKcal(email, 30);
+        EvolutionKcalResponseDTO result = evolutionKcalService.getEvolutionKcal(principal, 30);
 
         assertEquals(30, result.points().size());
 
@@ -126,103 +129,68 @@ class EvolutionKcalServiceUnitTests {
     }
 
     @Test
-    @DisplayName("Debe sumar correctamente las kcal de un día con múltiples rutas FINISHED")
-    void getEvolutionKcal_MultipleRoutesSameDay_ShouldSum() {
-        LocalDateTime today = LocalDateTime.now();
-
-        List<RouteExecution> execs = List.of(
-                exec(today.minusHours(1), 100, RouteExecution.RouteExecutionStatus.FINISHED),
-                exec(today.minusHours(3), 250, RouteExecution.RouteExecutionStatus.FINISHED)
-        );
+    @DisplayName("Debe usar las kcal acumuladas del día en el resumen diario")
+    void getEvolutionKcal_TodayRow_ShouldUseAggregatedKcal() {
+        LocalDate today = LocalDate.now();
 
-        when(userProfileRepository.findByUser_Email(email))
+        when(userProfileRepository.findByUser_Id(1L))
                 .thenReturn(Optional.of(profile));
         when(userProfileService.isProfileComplete(profile))
                 .thenReturn(true);
 
-        when(routeExecutionRepository.findAllByUserEmail(email))
-                .thenReturn(execs);
+        when(dailyActivityRepository.findAllByUserEmailAndActivityDateBetweenOrderByActivityDateAsc(eq(email), any(), any()))
+                .thenReturn(List.of(day(today, 350)));
 
-        EvolutionKcalResponseDTO result = evolutionKcalService.getEvolutionKcal(email, 30);
+        EvolutionKcalResponseDTO result = evolutionKcalService.getEvolutionKcal(principal, 30);
 
         // El último índice corresponde a "hoy"
         DailyKcalResponseDTO todayDto = result.points().get(29);
+        assertEquals(today.toString(), todayDto.date());
         assertEquals(350.0, todayDto.caloriesKcal(), 0.01);
     }
 
     @Test
-    @DisplayName("Debe ignorar rutas que no están FINISHED")
-    void getEvolutionKcal_ShouldIgnoreNonFinishedRoutes() {
-        LocalDateTime today = LocalDateTime.now();
+    @DisplayName("Debe consultar el resumen diario solo dentro del periodo solicitado")
+    void getEvolutionKcal_ShouldQueryOnlyRequestedRange() {
+        LocalDate today = LocalDate.now();
 
-        List<RouteExecution> execs = List.of(
-                exec(today.minusHours(1), 200, RouteExecution.RouteExecutionStatus.FINISHED),
-                exec(today.minusHours(2), 999, RouteExecution.RouteExecutionStatus.IN_PROGRESS),
-                exec(today.minusHours(3), 999, RouteExecution.RouteExecutionStatus.PAUSED)
-        );
-
-        when(userProfileRepository.findByUser_Email(email))
+        when(userProfileRepository.findByUser_Id(1L))
                 .thenReturn(Optional.of(profile));
         when(userProfileService.isProfileComplete(profile))
                 .thenReturn(true);
 
-        when(routeExecutionRepository.findAllByUserEmail(email))
-                .thenReturn(execs);
+        when(dailyActivityRepository.findAllByUserEmailAndActivityDateBetweenOrderByActivityDateAsc(eq(email), any(), any()))
+                .thenReturn(List.of(day(today.minusDays(5), 300)));
 
-        EvolutionKcalResponseDTO result = evolutionKcalService.getEvolutionKcal(email, 30);
+        EvolutionKcalResponseDTO result = evolutionKcalService.getEvolutionKcal(principal, 30);
 
-        DailyKcalResponseDTO todayDto = result.points().get(29);
-        assertEquals(200.0, todayDto.caloriesKcal(), 0.01);
+        verify(dailyActivityRepository).findAllByUserEmailAndActivityDateBetweenOrderByActivityDateAsc(
+                email, today.minusDays(29), today);
+
+        // hoy = índice 29
+        assertEquals(0.0, result.points().get(29).caloriesKcal(), 0.01);
+        // hace 5 días => índice 29 - 5 = 24
+        assertEquals(300.0, result.points().get(24).caloriesKcal(), 0.01);
     }
 
     @Test
     @DisplayName("Debe dejar días sin actividad en 0")
     void getEvolutionKcal_DaysWithoutActivity_ShouldBeZero() {
-        LocalDateTime today = LocalDateTime.now();
+        LocalDate today = LocalDate.now();
 
-        List<RouteExecution> execs = List.of(
-                exec(today.minusDays(2), 100, RouteExecution.RouteExecutionStatus.FINISHED)
-        );
-
-        when(userProfileRepository.findByUser_Email(email))
+        when(userProfileRepository.findByUser_Id(1L))
                 .thenReturn(Optional.of(profile));
         when(userProfileService.isProfileComplete(profile))
                 .thenReturn(true);
 
-        when(routeExecutionRepository.findAllByUserEmail(email))
-                .thenReturn(execs);
+        when(dailyActivityRepository.findAllByUserEmailAndActivityDateBetweenOrderByActivityDateAsc(eq(email), any(), any()))
+                .thenReturn(List.of(day(today.minusDays(2), 100)));
 
-        EvolutionKcalResponseDTO result = evolutionKcalService.getEvolutionKcal(email, 30);
+        EvolutionKcalResponseDTO result = evolutionKcalService.getEvolutionKcal(principal, 30);
 
         // índices: 29 = hoy, 28 = ayer, 27 = anteayer
         assertEquals(0.0, result.points().get(29).caloriesKcal(), 0.01); // hoy
         assertEquals(0.0, result.points().get(28).caloriesKcal(), 0.01); // ayer
         assertEquals(100.0, result.points().get(27).caloriesKcal(), 0.01); // anteayer
     }
-
-    @Test
-    @DisplayName("Debe filtrar rutas fuera del periodo solicitado")
-    void getEvolutionKcal_ShouldFilterOutOlderData() {
-        LocalDateTime today = LocalDateTime.now();
-
-        List<RouteExecution> execs = List.of(
-                exec(today.minusDays(31), 999, RouteExecution.RouteExecutionStatus.FINISHED),
-                exec(today.minusDays(5), 300, RouteExecution.RouteExecutionStatus.FINISHED)
-        );
-
-        when(userProfileRepository.findByUser_Email(email))
-                .thenReturn(Optional.of(profile));
-        when(userProfileService.isProfileComplete(profile))
-                .thenReturn(true);
-
-        when(routeExecutionRepository.findAllByUserEmail(email))
-                .thenReturn(execs);
-
-        EvolutionKcalResponseDTO result = evolutionKcalService.getEvolutionKcal(email, 30);
-
-        // hoy = índice 29
-        assertEquals(0.0, result.points().get(29).caloriesKcal(), 0.01);
-        // hace 5 días => índice 29 - 5 = 24
-        assertEquals(300.0, result.points().get(24).caloriesKcal(), 0.01);
-    }
 }
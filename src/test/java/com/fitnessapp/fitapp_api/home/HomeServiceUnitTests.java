@@ -3,27 +3,30 @@ package com.fitnessapp.fitapp_api.home;
 import com.fitnessapp.fitapp_api.auth.model.UserAuth;
 import com.fitnessapp.fitapp_api.core.exception.UserProfileNotCompletedException;
 import com.fitnessapp.fitapp_api.core.exception.UserProfileNotFoundException;
+import com.fitnessapp.fitapp_api.core.security.AuthenticatedUser;
+import com.fitnessapp.fitapp_api.home.cache.HomeKpisCache;
 import com.fitnessapp.fitapp_api.home.dto.HomeKpisTodayResponseDTO;
 import com.fitnessapp.fitapp_api.home.service.implementation.HomeServiceImpl;
+import com.fitnessapp.fitapp_api.profile.cache.ProfileSnapshotCache;
 import com.fitnessapp.fitapp_api.profile.model.UserProfile;
 import com.fitnessapp.fitapp_api.profile.repository.UserProfileRepository;
 import com.fitnessapp.fitapp_api.profile.service.UserProfileService;
-import com.fitnessapp.fitapp_api.route.model.Route;
 import com.fitnessapp.fitapp_api.route.repository.RouteRepository;
-import com.fitnessapp.fitapp_api.routeexecution.model.RouteExecution;
-import com.fitnessapp.fitapp_api.routeexecution.repository.RouteExecutionRepository;
+import com.fitnessapp.fitapp_api.stats.repository.TodayActivitySummary;
+import com.fitnessapp.fitapp_api.stats.repository.UserDailyActivityRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -39,24 +42,35 @@ class HomeServiceUnitTests {
     private UserProfileRepository userProfileRepository;
 
     @Mock
-    private RouteExecutionRepository routeExecutionRepository;
+    private UserDailyActivityRepository dailyActivityRepository;
 
     @Mock
     private RouteRepository routeRepository;
 
-    @InjectMocks
+    @Spy
+    private HomeKpisCache homeKpisCache = new HomeKpisCache(Duration.ofMinutes(1), 100, new SimpleMeterRegistry());
+
+    private ProfileSnapshotCache profileSnapshotCache;
+
     private HomeServiceImpl homeService;
 
     private String testEmail;
+    private AuthenticatedUser principal;
     private UserProfile testProfile;
     private UserAuth testUser;
 
     @BeforeEach
     void setUp() {
+        // Caché de snapshots real sobre los mocks, como en producción
+        profileSnapshotCache = new ProfileSnapshotCache(userProfileRepository, userProfileService,
+                Duration.ofMinutes(10), 100, new SimpleMeterRegistry());
+        homeService = new HomeServiceImpl(profileSnapshotCache, dailyActivityRepository, routeRepository, homeKpisCache);
+
         testEmail = "test@example.com";
         testUser = new UserAuth();
         testUser.setEmail(testEmail);
         testUser.setId(1L);
+        principal = new AuthenticatedUser(1L, testEmail);
 
         testProfile = new UserProfile();
         testProfile.setUser(testUser);
@@ -72,14 +86,14 @@ class HomeServiceUnitTests {
     @DisplayName("Debe lanzar UserProfileNotFoundException cuando el perfil no existe")
     void getHomeKpisToday_WhenUserProfileNotFound_ShouldThrowException() {
         // Arrange
-        when(userProfileRepository.findByUser_Email(testEmail))
+        when(userProfileRepository.findByUser_Id(1L))
                 .thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(UserProfileNotFoundException.class,
-                () -> homeService.getHomeKpisToday(testEmail));
+                () -> homeService.getHomeKpisToday(principal));
 
-        verify(userProfileRepository).findByUser_Email(testEmail);
+        verify(userProfileRepository).findByUser_Id(1L);
         verify(userProfileService, never()).isProfileComplete(testProfile);
     }
 
@@ -87,36 +101,32 @@ class HomeServiceUnitTests {
     @DisplayName("Debe lanzar UserProfileNotCompletedException cuando el perfil está incompleto")
     void getHomeKpisToday_WhenProfileIncomplete_ShouldThrowException() {
         // Arrange
-        when(userProfileRepository.findByUser_Email(testEmail))
+        when(userProfileRepository.findByUser_Id(1L))
                 .thenReturn(Optional.of(testProfile));
         when(userProfileService.isProfileComplete(testProfile))
                 .thenReturn(false);
 
         // Act & Assert
         assertThrows(UserProfileNotCompletedException.class,
-                () -> homeService.getHomeKpisToday(testEmail));
+                () -> homeService.getHomeKpisToday(principal));
 
-        verify(userProfileRepository).findByUser_Email(testEmail);
+        verify(userProfileRepository).findByUser_Id(1L);
         verify(userProfileService).isProfileComplete(testProfile);
     }
 
     // ========================================
-    // Tests de KPIs del Día - Casos Base
+    // Tests de KPIs del Día
     // ========================================
 
     @Test
-    @DisplayName("Debe retornar KPIs con valores en cero cuando no hay rutas")
+    @DisplayName("Debe retornar KPIs con valores en cero cuando no hay actividad hoy")
     void getHomeKpisToday_WhenNoRoutes_ShouldReturnZeroKpis() {
         // Arrange
-        when(userProfileRepository.findByUser_Email(testEmail))
-                .thenReturn(Optional.of(testProfile));
-        when(userProfileService.isProfileComplete(testProfile))
-                .thenReturn(true);
-        when(routeExecutionRepository.findAllByUserEmail(testEmail))
-                .thenReturn(new ArrayList<>());
+        stubCompleteProfile();
+        stubSummary(LocalDate.now(), summary(0, 0L, 0.0, 0.0, 0));
 
         // Act
-        HomeKpisTodayResponseDTO result = homeService.getHomeKpisToday(testEmail);
+        HomeKpisTodayResponseDTO result = homeService.getHomeKpisToday(principal);
 
         // Assert
         assertNotNull(result);
@@ -127,40 +137,25 @@ class HomeServiceUnitTests {
         assertEquals(0, result.activeStreakDays());
         assertFalse(result.hasCreatedRoutes());
 
-        verify(userProfileRepository).findByUser_Email(testEmail);
+        verify(userProfileRepository).findByUser_Id(1L);
         verify(userProfileService).isProfileComplete(testProfile);
-        verify(routeExecutionRepository).findAllByUserEmail(testEmail);
+        verify(dailyActivityRepository).summarizeToday(1L, LocalDate.now());
     }
 
     @Test
     @DisplayName("Debe calcular correctamente los KPIs con una ruta completada hoy")
     void getHomeKpisToday_WithOneCompletedRouteToday_ShouldCalculateCorrectly() {
         // Arrange
-        LocalDateTime now = LocalDateTime.now();
-        List<RouteExecution> routeExecutions = new ArrayList<>();
-
-        routeExecutions.add(createRouteExecution(
-                now.minusHours(2),
-                1800L, // 30 min
-                5.0,
-                250.0,
-                RouteExecution.RouteExecutionStatus.FINISHED
-        ));
-
-        when(userProfileRepository.findByUser_Email(testEmail))
-                .thenReturn(Optional.of(testProfile));
-        when(userProfileService.isProfileComplete(testProfile))
-                .thenReturn(true);
-        when(routeExecutionRepository.findAllByUserEmail(testEmail))
-                .thenReturn(routeExecutions);
-        when(routeRepository.existsByUser_EmailAndCreatedAtBetween(
-                eq(testEmail),
+        stubCompleteProfile();
+        stubSummary(LocalDate.now(), summary(1, 1800L, 5.0, 250.0, 1)); // 30 min
+        when(routeRepository.existsByUser_IdAndCreatedAtBetween(
+                eq(1L),
                 any(),
                 any()
         )).thenReturn(true);
 
         // Act
-        HomeKpisTodayResponseDTO result = homeService.getHomeKpisToday(testEmail);
+        HomeKpisTodayResponseDTO result = homeService.getHomeKpisToday(principal);
 
         // Assert
         assertNotNull(result);
@@ -173,419 +168,229 @@ class HomeServiceUnitTests {
     }
 
     @Test
-    @DisplayName("Debe calcular correctamente los KPIs con múltiples rutas completadas hoy")
+    @DisplayName("Debe usar los totales acumulados y la racha devueltos por la consulta")
     void getHomeKpisToday_WithMultipleCompletedRoutesToday_ShouldCalculateCorrectly() {
         // Arrange
-        LocalDateTime now = LocalDateTime.now();
-        List<RouteExecution> routeExecutions = new ArrayList<>();
-
-        routeExecutions.add(createRouteExecution(now.minusHours(3), 1800L, 5.0, 250.0, RouteExecution.RouteExecutionStatus.FINISHED));
-        routeExecutions.add(createRouteExecution(now.minusHours(2), 1200L, 3.5, 180.0, RouteExecution.RouteExecutionStatus.FINISHED));
-        routeExecutions.add(createRouteExecution(now.minusHours(1), 900L, 2.5, 120.0, RouteExecution.RouteExecutionStatus.FINISHED));
-
-        when(userProfileRepository.findByUser_Email(testEmail))
-                .thenReturn(Optional.of(testProfile));
-        when(userProfileService.isProfileComplete(testProfile))
-                .thenReturn(true);
-        when(routeExecutionRepository.findAllByUserEmail(testEmail))
-                .thenReturn(routeExecutions);
-        when(routeRepository.existsByUser_EmailAndCreatedAtBetween(
-                eq(testEmail),
-                any(),
-                any()
-        )).thenReturn(true);
+        stubCompleteProfile();
+        stubSummary(LocalDate.now(), summary(3, 3900L, 11.0, 550.0, 7));
 
         // Act
-        HomeKpisTodayResponseDTO result = homeService.getHomeKpisToday(testEmail);
+        HomeKpisTodayResponseDTO result = homeService.getHomeKpisToday(principal);
 
         // Assert
-        assertNotNull(result);
         assertEquals(3, result.routesCompletedToday());
         assertEquals(3900L, result.totalDurationSecToday()); // 65 min
         assertEquals(11.0, result.totalDistanceKmToday(), 0.01);
         assertEquals(550.0, result.caloriesKcalToday(), 0.01);
-        assertEquals(1, result.activeStreakDays());
-        assertTrue(result.hasCreatedRoutes());
-    }
-
-    // ========================================
-    // Tests de Filtrado de Rutas
-    // ========================================
-
-    @Test
-    @DisplayName("No debe contar rutas que no estén finalizadas")
-    void getHomeKpisToday_ShouldNotCountNonFinishedRoutes() {
-        // Arrange
-        LocalDateTime now = LocalDateTime.now();
-        List<RouteExecution> routeExecutions = new ArrayList<>();
-
-        routeExecutions.add(createRouteExecution(now.minusHours(2), 1800L, 5.0, 250.0, RouteExecution.RouteExecutionStatus.FINISHED));
-        routeExecutions.add(createRouteExecution(now.minusMinutes(30), 900L, 2.5, 100.0, RouteExecution.RouteExecutionStatus.IN_PROGRESS));
-        routeExecutions.add(createRouteExecution(now.minusMinutes(15), 600L, 1.5, 50.0, RouteExecution.RouteExecutionStatus.PAUSED));
-
-        when(userProfileRepository.findByUser_Email(testEmail))
-                .thenReturn(Optional.of(testProfile));
-        when(userProfileService.isProfileComplete(testProfile))
-                .thenReturn(true);
-        when(routeExecutionRepository.findAllByUserEmail(testEmail))
-                .thenReturn(routeExecutions);
-
-        // Act
-        HomeKpisTodayResponseDTO result = homeService.getHomeKpisToday(testEmail);
-
-        // Assert
-        assertEquals(1, result.routesCompletedToday());
-        assertEquals(1800L, result.totalDurationSecToday());
-        assertEquals(5.0, result.totalDistanceKmToday());
-        assertEquals(250.0, result.caloriesKcalToday());
+        assertEquals(7, result.activeStreakDays());
     }
 
     @Test
-    @DisplayName("No debe contar rutas de días anteriores en los KPIs de hoy")
-    void getHomeKpisToday_ShouldNotCountPreviousDaysRoutes() {
+    @DisplayName("Debe calcular \"hoy\" en la zona horaria del perfil")
+    void getHomeKpisToday_ShouldUseProfileTimeZoneForToday() {
         // Arrange
-        LocalDateTime now = LocalDateTime.now();
-        List<RouteExecution> routeExecutions = new ArrayList<>();
-
-        routeExecutions.add(createRouteExecution(now.minusHours(2), 1800L, 5.0, 250.0, RouteExecution.RouteExecutionStatus.FINISHED));
-        routeExecutions.add(createRouteExecution(now.minusDays(1).minusHours(2), 2400L, 7.0, 350.0, RouteExecution.RouteExecutionStatus.FINISHED));
-        routeExecutions.add(createRouteExecution(now.minusDays(3).minusHours(1), 1200L, 4.0, 200.0, RouteExecution.RouteExecutionStatus.FINISHED));
+        ZoneId userZone = ZoneId.of("Pacific/Kiritimati");
+        testProfile.setTimeZone(userZone);
+        LocalDate userToday = LocalDate.now(userZone);
 
-        when(userProfileRepository.findByUser_Email(testEmail))
-                .thenReturn(Optional.of(testProfile));
-        when(userProfileService.isProfileComplete(testProfile))
-                .thenReturn(true);
-        when(routeExecutionRepository.findAllByUserEmail(testEmail))
-                .thenReturn(routeExecutions);
-        when(routeRepository.existsByUser_EmailAndCreatedAtBetween(
-                eq(testEmail),
-                any(),
-                any()
-        )).thenReturn(true);
+        stubCompleteProfile();
+        stubSummary(userToday, summary(2, 1200L, 4.0, 200.0, 2));
 
         // Act
-        HomeKpisTodayResponseDTO result = homeService.getHomeKpisToday(testEmail);
+        HomeKpisTodayResponseDTO result = homeService.getHomeKpisToday(principal);
 
         // Assert
-        assertEquals(1, result.routesCompletedToday());
-        assertEquals(1800L, result.totalDurationSecToday());
-        assertEquals(5.0, result.totalDistanceKmToday());
-        assertEquals(250.0, result.caloriesKcalToday());
-        assertTrue(result.hasCreatedRoutes());
+        assertEquals(2, result.routesCompletedToday());
+        verify(dailyActivityRepository).summarizeToday(1L, userToday);
     }
 
-    // ========================================
-    // Tests de Racha Activa (Active Streak)
-    // ========================================
-
     @Test
-    @DisplayName("Debe calcular correctamente la racha activa de 3 días consecutivos")
-    void getHomeKpisToday_ShouldCalculateActiveStreak_ThreeConsecutiveDays() {
+    @DisplayName("Debe informar del progreso del objetivo diario a partir de las kcal del resumen")
+    void getHomeKpisToday_ShouldReportGoalProgressFromSummary() {
         // Arrange
-        LocalDateTime now = LocalDateTime.now();
-        List<RouteExecution> routeExecutions = new ArrayList<>();
-
-        routeExecutions.add(createRouteExecution(now.minusHours(1), 1800L, 5.0, 250.0, RouteExecution.RouteExecutionStatus.FINISHED));
-        routeExecutions.add(createRouteExecution(now.minusDays(1).minusHours(2), 2400L, 7.0, 350.0, RouteExecution.RouteExecutionStatus.FINISHED));
-        routeExecutions.add(createRouteExecution(now.minusDays(2).minusHours(3), 1200L, 4.0, 200.0, RouteExecution.RouteExecutionStatus.FINISHED));
-        routeExecutions.add(createRouteExecution(now.minusDays(4).minusHours(1), 1800L, 5.5, 280.0, RouteExecution.RouteExecutionStatus.FINISHED));
-
-        when(userProfileRepository.findByUser_Email(testEmail))
-                .thenReturn(Optional.of(testProfile));
-        when(userProfileService.isProfileComplete(testProfile))
-                .thenReturn(true);
-        when(routeExecutionRepository.findAllByUserEmail(testEmail))
-                .thenReturn(routeExecutions);
+        testProfile.setGoalKcalDaily(2000);
+        stubCompleteProfile();
+        stubSummary(LocalDate.now(), summary(3, 3900L, 11.0, 550.0, 7));
 
         // Act
-        HomeKpisTodayResponseDTO result = homeService.getHomeKpisToday(testEmail);
+        HomeKpisTodayResponseDTO result = homeService.getHomeKpisToday(principal);
 
         // Assert
-        assertEquals(3, result.activeStreakDays());
+        assertEquals(2000, result.goalKcalDaily());
+        assertEquals(27, result.goalProgressPercent());
+        assertFalse(result.dailyGoalReached());
     }
 
     @Test
-    @DisplayName("Debe calcular correctamente la racha activa de 5 días consecutivos")
-    void getHomeKpisToday_ShouldCalculateActiveStreak_FiveConsecutiveDays() {
+    @DisplayName("El progreso del objetivo se limita al 100% una vez alcanzado")
+    void getHomeKpisToday_GoalExceeded_ShouldCapProgress() {
         // Arrange
-        LocalDateTime now = LocalDateTime.now();
-        List<RouteExecution> routeExecutions = new ArrayList<>();
-
-        for (int i = 0; i < 5; i++) {
-            routeExecutions.add(createRouteExecution(
-                    now.minusDays(i).minusHours(2),
-                    1800L,
-                    5.0,
-                    250.0,
-                    RouteExecution.RouteExecutionStatus.FINISHED
-            ));
-        }
-
-        when(userProfileRepository.findByUser_Email(testEmail))
-                .thenReturn(Optional.of(testProfile));
-        when(userProfileService.isProfileComplete(testProfile))
-                .thenReturn(true);
-        when(routeExecutionRepository.findAllByUserEmail(testEmail))
-                .thenReturn(routeExecutions);
+        testProfile.setGoalKcalDaily(500);
+        stubCompleteProfile();
+        stubSummary(LocalDate.now(), summary(2, 3600L, 9.0, 640.0, 2));
 
         // Act
-        HomeKpisTodayResponseDTO result = homeService.getHomeKpisToday(testEmail);
+        HomeKpisTodayResponseDTO result = homeService.getHomeKpisToday(principal);
 
         // Assert
-        assertEquals(5, result.activeStreakDays());
+        assertEquals(100, result.goalProgressPercent());
+        assertTrue(result.dailyGoalReached());
     }
 
-    @Test
-    @DisplayName("Debe calcular correctamente la racha activa de 7 días consecutivos")
-    void getHomeKpisToday_ShouldCalculateActiveStreak_SevenConsecutiveDays() {
-        // Arrange
-        LocalDateTime now = LocalDateTime.now();
-        List<RouteExecution> routeExecutions = new ArrayList<>();
-
-        for (int i = 0; i < 7; i++) {
-            routeExecutions.add(createRouteExecution(
-                    now.minusDays(i).minusHours(2),
-                    1800L,
-                    5.0,
-                    250.0,
-                    RouteExecution.RouteExecutionStatus.FINISHED
-            ));
-        }
-
-        when(userProfileRepository.findByUser_Email(testEmail))
-                .thenReturn(Optional.of(testProfile));
-        when(userProfileService.isProfileComplete(testProfile))
-                .thenReturn(true);
-        when(routeExecutionRepository.findAllByUserEmail(testEmail))
-                .thenReturn(routeExecutions);
-
-        // Act
-        HomeKpisTodayResponseDTO result = homeService.getHomeKpisToday(testEmail);
-
-        // Assert
-        assertEquals(7, result.activeStreakDays());
-    }
+    // ========================================
+    // Tests de hasCreatedRoutes
+    // ========================================
 
     @Test
-    @DisplayName("La racha debe ser 0 cuando no hay actividad hoy")
-    void getHomeKpisToday_WhenNoActivityToday_ShouldHaveZeroStreak() {
+    @DisplayName("hasCreatedRoutes debe ser true aunque no haya actividad hoy")
+    void getHomeKpisToday_HasCreatedRoutes_ShouldBeTrueWhenRoutesExist() {
         // Arrange
-        LocalDateTime now = LocalDateTime.now();
-        List<RouteExecution> routeExecutions = new ArrayList<>();
-
-        routeExecutions.add(createRouteExecution(now.minusDays(1).minusHours(2), 2400L, 7.0, 350.0, RouteExecution.RouteExecutionStatus.FINISHED));
-        routeExecutions.add(createRouteExecution(now.minusDays(2).minusHours(2), 2400L, 7.0, 350.0, RouteExecution.RouteExecutionStatus.FINISHED));
-
-        when(userProfileRepository.findByUser_Email(testEmail))
-                .thenReturn(Optional.of(testProfile));
-        when(userProfileService.isProfileComplete(testProfile))
-                .thenReturn(true);
-        when(routeExecutionRepository.findAllByUserEmail(testEmail))
-                .thenReturn(routeExecutions);
+        stubCompleteProfile();
+        stubSummary(LocalDate.now(), summary(0, 0L, 0.0, 0.0, 0));
+        when(routeRepository.existsByUser_IdAndCreatedAtBetween(
+                eq(1L),
+                any(),
+                any()
+        )).thenReturn(true);
 
         // Act
-        HomeKpisTodayResponseDTO result = homeService.getHomeKpisToday(testEmail);
+        HomeKpisTodayResponseDTO result = homeService.getHomeKpisToday(principal);
 
         // Assert
-        assertEquals(0, result.activeStreakDays());
+        assertTrue(result.hasCreatedRoutes());
         assertEquals(0, result.routesCompletedToday());
+        assertEquals(0L, result.totalDurationSecToday());
+        assertEquals(0, result.activeStreakDays());
     }
 
+    // ========================================
+    // Tests de caché
+    // ========================================
+
     @Test
-    @DisplayName("La racha debe romperse si hay un día sin actividad")
-    void getHomeKpisToday_StreakShouldBreak_WhenDayWithoutActivity() {
+    @DisplayName("La segunda consulta se sirve desde caché sin volver a la BD")
+    void getHomeKpisToday_SecondCall_ShouldBeServedFromCache() {
         // Arrange
-        LocalDateTime now = LocalDateTime.now();
-        List<RouteExecution> routeExecutions = new ArrayList<>();
-
-        routeExecutions.add(createRouteExecution(now.minusHours(1), 1800L, 5.0, 250.0, RouteExecution.RouteExecutionStatus.FINISHED));
-        routeExecutions.add(createRouteExecution(now.minusDays(1).minusHours(2), 2400L, 7.0, 350.0, RouteExecution.RouteExecutionStatus.FINISHED));
-        // Día 2 sin actividad
-        routeExecutions.add(createRouteExecution(now.minusDays(3).minusHours(1), 1200L, 4.0, 200.0, RouteExecution.RouteExecutionStatus.FINISHED));
-
-        when(userProfileRepository.findByUser_Email(testEmail))
-                .thenReturn(Optional.of(testProfile));
-        when(userProfileService.isProfileComplete(testProfile))
-                .thenReturn(true);
-        when(routeExecutionRepository.findAllByUserEmail(testEmail))
-                .thenReturn(routeExecutions);
+        stubCompleteProfile();
+        stubSummary(LocalDate.now(), summary(1, 1800L, 5.0, 250.0, 1));
 
         // Act
-        HomeKpisTodayResponseDTO result = homeService.getHomeKpisToday(testEmail);
+        HomeKpisTodayResponseDTO first = homeService.getHomeKpisToday(principal);
+        HomeKpisTodayResponseDTO second = homeService.getHomeKpisToday(principal);
 
         // Assert
-        assertEquals(2, result.activeStreakDays()); // Solo hoy y ayer
+        assertSame(first, second);
+        verify(userProfileRepository, times(1)).findByUser_Id(1L);
+        verify(dailyActivityRepository, times(1)).summarizeToday(any(), any());
     }
 
     @Test
-    @DisplayName("Debe contar múltiples rutas en el mismo día como un solo día para la racha")
-    void getHomeKpisToday_MultipleRoutesInSameDay_ShouldCountAsOneDayInStreak() {
+    @DisplayName("Tras invalidar la entrada se recalculan los KPIs")
+    void getHomeKpisToday_AfterInvalidate_ShouldRecalculate() {
         // Arrange
-        LocalDateTime now = LocalDateTime.now();
-        List<RouteExecution> routeExecutions = new ArrayList<>();
-
-        // 3 rutas hoy
-        routeExecutions.add(createRouteExecution(now.minusHours(6), 1800L, 5.0, 250.0, RouteExecution.RouteExecutionStatus.FINISHED));
-        routeExecutions.add(createRouteExecution(now.minusHours(4), 1200L, 3.5, 180.0, RouteExecution.RouteExecutionStatus.FINISHED));
-        routeExecutions.add(createRouteExecution(now.minusHours(1), 900L, 2.5, 120.0, RouteExecution.RouteExecutionStatus.FINISHED));
-
-        // 2 rutas ayer
-        routeExecutions.add(createRouteExecution(now.minusDays(1).minusHours(3), 1800L, 5.0, 250.0, RouteExecution.RouteExecutionStatus.FINISHED));
-        routeExecutions.add(createRouteExecution(now.minusDays(1).minusHours(1), 1200L, 3.5, 180.0, RouteExecution.RouteExecutionStatus.FINISHED));
-
-        when(userProfileRepository.findByUser_Email(testEmail))
-                .thenReturn(Optional.of(testProfile));
-        when(userProfileService.isProfileComplete(testProfile))
-                .thenReturn(true);
-        when(routeExecutionRepository.findAllByUserEmail(testEmail))
-                .thenReturn(routeExecutions);
+        stubCompleteProfile();
+        when(dailyActivityRepository.summarizeToday(1L, LocalDate.now()))
+                .thenReturn(summary(1, 1800L, 5.0, 250.0, 1), summary(2, 2400L, 7.0, 330.0, 1));
 
         // Act
-        HomeKpisTodayResponseDTO result = homeService.getHomeKpisToday(testEmail);
+        homeService.getHomeKpisToday(principal);
+        homeKpisCache.invalidate(1L);
+        HomeKpisTodayResponseDTO result = homeService.getHomeKpisToday(principal);
 
         // Assert
-        assertEquals(3, result.routesCompletedToday()); // 3 rutas hoy
-        assertEquals(2, result.activeStreakDays()); // 2 días consecutivos
-        assertEquals(3900L, result.totalDurationSecToday());
-        assertEquals(11.0, result.totalDistanceKmToday(), 0.01);
-        assertEquals(550.0, result.caloriesKcalToday(), 0.01);
+        assertEquals(2, result.routesCompletedToday());
+        verify(dailyActivityRepository, times(2)).summarizeToday(1L, LocalDate.now());
     }
 
     @Test
-    @DisplayName("Debe manejar correctamente fechas desordenadas en la racha")
-    void getHomeKpisToday_WithUnorderedDates_ShouldCalculateCorrectly() {
+    @DisplayName("Un perfil incompleto no cachea KPIs: la excepción se repite en cada llamada (el perfil sale del snapshot)")
+    void getHomeKpisToday_WhenProfileIncomplete_ShouldNotCacheFailure() {
         // Arrange
-        LocalDateTime now = LocalDateTime.now();
-        List<RouteExecution> routeExecutions = new ArrayList<>();
-
-        routeExecutions.add(createRouteExecution(now.minusDays(2).minusHours(2), 1200L, 4.0, 200.0, RouteExecution.RouteExecutionStatus.FINISHED));
-        routeExecutions.add(createRouteExecution(now.minusHours(1), 1800L, 5.0, 250.0, RouteExecution.RouteExecutionStatus.FINISHED));
-        routeExecutions.add(createRouteExecution(now.minusDays(1).minusHours(2), 2400L, 7.0, 350.0, RouteExecution.RouteExecutionStatus.FINISHED));
-
-        when(userProfileRepository.findByUser_Email(testEmail))
+        when(userProfileRepository.findByUser_Id(1L))
                 .thenReturn(Optional.of(testProfile));
         when(userProfileService.isProfileComplete(testProfile))
-                .thenReturn(true);
-        when(routeExecutionRepository.findAllByUserEmail(testEmail))
-                .thenReturn(routeExecutions);
-
-        // Act
-        HomeKpisTodayResponseDTO result = homeService.getHomeKpisToday(testEmail);
+                .thenReturn(false);
 
-        // Assert
-        assertEquals(3, result.activeStreakDays());
+        // Act & Assert
+        assertThrows(UserProfileNotCompletedException.class, () -> homeService.getHomeKpisToday(principal));
+        assertThrows(UserProfileNotCompletedException.class, () -> homeService.getHomeKpisToday(principal));
+        verify(userProfileRepository, times(1)).findByUser_Id(1L);
+        verifyNoInteractions(dailyActivityRepository);
     }
 
     @Test
-    @DisplayName("La racha no debe contar rutas que no estén FINISHED")
-    void getHomeKpisToday_StreakShouldIgnoreNonFinishedRoutes() {
+    @DisplayName("Tras invalidar el snapshot (perfil completado) se vuelve a leer el perfil")
+    void getHomeKpisToday_AfterProfileSnapshotInvalidated_ShouldReloadProfile() {
         // Arrange
-        LocalDateTime now = LocalDateTime.now();
-        List<RouteExecution> routeExecutions = new ArrayList<>();
-
-        routeExecutions.add(createRouteExecution(now.minusHours(3), 1800L, 5.0, 250.0, RouteExecution.RouteExecutionStatus.FINISHED));
-        routeExecutions.add(createRouteExecution(now.minusHours(2), 1200L, 3.5, 180.0, RouteExecution.RouteExecutionStatus.IN_PROGRESS));
-        routeExecutions.add(createRouteExecution(now.minusDays(1).minusHours(2), 2400L, 7.0, 350.0, RouteExecution.RouteExecutionStatus.FINISHED));
-        routeExecutions.add(createRouteExecution(now.minusDays(2).minusHours(2), 1200L, 4.0, 200.0, RouteExecution.RouteExecutionStatus.PAUSED));
-
-        when(userProfileRepository.findByUser_Email(testEmail))
+        when(userProfileRepository.findByUser_Id(1L))
                 .thenReturn(Optional.of(testProfile));
         when(userProfileService.isProfileComplete(testProfile))
-                .thenReturn(true);
-        when(routeExecutionRepository.findAllByUserEmail(testEmail))
-                .thenReturn(routeExecutions);
-
-        // Act
-        HomeKpisTodayResponseDTO result = homeService.getHomeKpisToday(testEmail);
+                .thenReturn(false, true);
+        stubSummary(LocalDate.now(), summary(0, 0L, 0.0, 0.0, 0));
 
-        // Assert
-        assertEquals(2, result.activeStreakDays()); // Solo hoy y ayer (las FINISHED)
+        // Act & Assert
+        assertThrows(UserProfileNotCompletedException.class, () -> homeService.getHomeKpisToday(principal));
+        profileSnapshotCache.invalidate(1L);
+        assertNotNull(homeService.getHomeKpisToday(principal));
+        verify(userProfileRepository, times(2)).findByUser_Id(1L);
     }
 
-    // ========================================
-    // Tests de hasCreatedRoutes
-    // ========================================
-
     @Test
-    @DisplayName("hasCreatedRoutes debe ser true cuando hay rutas aunque no sean de hoy")
-    void getHomeKpisToday_HasCreatedRoutes_ShouldBeTrueWhenRoutesExist() {
+    @DisplayName("La caché se indexa por id de usuario: otro email con el mismo id reutiliza la entrada")
+    void getHomeKpisToday_ShouldKeyCachesByUserId() {
         // Arrange
-        LocalDateTime now = LocalDateTime.now();
-        List<RouteExecution> routeExecutions = new ArrayList<>();
-
-        routeExecutions.add(createRouteExecution(now.minusDays(5), 1800L, 5.0, 250.0, RouteExecution.RouteExecutionStatus.FINISHED));
-
-        when(userProfileRepository.findByUser_Email(testEmail))
-                .thenReturn(Optional.of(testProfile));
-        when(userProfileService.isProfileComplete(testProfile))
-                .thenReturn(true);
-        when(routeExecutionRepository.findAllByUserEmail(testEmail))
-                .thenReturn(routeExecutions);
-        when(routeRepository.existsByUser_EmailAndCreatedAtBetween(
-                eq(testEmail),
-                any(),
-                any()
-        )).thenReturn(true);
+        stubCompleteProfile();
+        stubSummary(LocalDate.now(), summary(1, 1800L, 5.0, 250.0, 1));
 
         // Act
-        HomeKpisTodayResponseDTO result = homeService.getHomeKpisToday(testEmail);
+        HomeKpisTodayResponseDTO first = homeService.getHomeKpisToday(principal);
+        HomeKpisTodayResponseDTO second = homeService.getHomeKpisToday(new AuthenticatedUser(1L, "renamed@example.com"));
 
         // Assert
-        assertTrue(result.hasCreatedRoutes());
-        assertEquals(0, result.routesCompletedToday());
-        assertEquals(0, result.activeStreakDays());
+        assertSame(first, second);
+        verify(userProfileRepository, times(1)).findByUser_Id(1L);
+        verify(routeRepository).existsByUser_IdAndCreatedAtBetween(eq(1L), any(), any());
     }
 
-    @Test
-    @DisplayName("hasCreatedRoutes debe ser true si hay rutas antiguas pero no de hoy")
-    void getHomeKpisToday_HasCreatedRoutes_TrueWithOldRoutes() {
-        // Arrange
-        LocalDateTime now = LocalDateTime.now();
-        List<RouteExecution> routeExecutions = new ArrayList<>();
-
-        routeExecutions.add(createRouteExecution(now.minusDays(5), 1800L, 5.0, 250.0, RouteExecution.RouteExecutionStatus.FINISHED));
-        routeExecutions.add(createRouteExecution(now.minusDays(10), 2400L, 7.0, 350.0, RouteExecution.RouteExecutionStatus.FINISHED));
-
-        when(userProfileRepository.findByUser_Email(testEmail))
+    private void stubCompleteProfile() {
+        when(userProfileRepository.findByUser_Id(1L))
                 .thenReturn(Optional.of(testProfile));
         when(userProfileService.isProfileComplete(testProfile))
                 .thenReturn(true);
-        when(routeExecutionRepository.findAllByUserEmail(testEmail))
-                .thenReturn(routeExecutions);
-        when(routeRepository.existsByUser_EmailAndCreatedAtBetween(
-                eq(testEmail),
-                any(),
-                any()
-        )).thenReturn(true);
-
-        // Act
-        HomeKpisTodayResponseDTO result = homeService.getHomeKpisToday(testEmail);
+    }
 
-        // Assert
-        assertEquals(0, result.routesCompletedToday());
-        assertEquals(0L, result.totalDurationSecToday());
-        assertTrue(result.hasCreatedRoutes());
+    private void stubSummary(LocalDate today, TodayActivitySummary summary) {
+        when(dailyActivityRepository.summarizeToday(1L, today))
+                .thenReturn(summary);
     }
 
-    // Método auxiliar para crear RouteExecution
-    private RouteExecution createRouteExecution(
-            LocalDateTime endTime,
-            Long durationSec,
-            Double distanceKm,
-            Double calories,
-            RouteExecution.RouteExecutionStatus status) {
-
-        Route route = new Route();
-        route.setDistanceKm(BigDecimal.valueOf(distanceKm));
-
-        RouteExecution execution = new RouteExecution();
-        execution.setRoute(route);
-        execution.setUser(testUser);
-        execution.setEndTime(endTime);
-        execution.setDurationSec(durationSec);
-        execution.setCalories(BigDecimal.valueOf(calories));
-        execution.setStatus(status);
-
-        return execution;
+    // Método auxiliar para crear la proyección devuelta por la consulta agregada
+    private TodayActivitySummary summary(long sessions, long durationSec, double distanceKm, double calories, long streak) {
+        return new TodayActivitySummary() {
+            @Override
+            public Long getSessionsCount() {
+                return sessions;
+            }
+
+            @Override
+            public Long getDurationSec() {
+                return durationSec;
+            }
+
+            @Override
+            public BigDecimal getDistanceKm() {
+                return BigDecimal.valueOf(distanceKm);
+            }
+
+            @Override
+            public BigDecimal getCalories() {
+                return BigDecimal.valueOf(calories);
+            }
+
+            @Override
+            public Long getActiveStreak() {
+                return streak;
+            }
+        };
     }
 }
@@ -0,0 +1,196 @@
+package com.fitnessapp.fitapp_api.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fitnessapp.fitapp_api.core.exception.IdempotencyKeyReusedException;
+import com.fitnessapp.fitapp_api.core.exception.IdempotencyRequestInProgressException;
+import com.fitnessapp.fitapp_api.core.exception.InvalidIdempotencyKeyException;
+import com.fitnessapp.fitapp_api.core.security.AuthenticatedUser;
+import com.fitnessapp.fitapp_api.idempotency.model.IdempotencyRecord;
+import com.fitnessapp.fitapp_api.idempotency.service.IdempotencyService;
+import com.fitnessapp.fitapp_api.idempotency.service.implementation.IdempotencyRecordStore;
+import com.fitnessapp.fitapp_api.idempotency.service.implementation.IdempotencyServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.http.ResponseEntity;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceUnitTests {
+
+    private static final String KEY = "c0ffee-1";
+
+    @Mock
+    private IdempotencyRecordStore store;
+
+    private IdempotencyServiceImpl service;
+    private final AuthenticatedUser principal = new AuthenticatedUser(1L, "tester@example.com");
+    private final AtomicInteger executions = new AtomicInteger();
+
+    record Body(Long id, String name) {
+    }
+
+    @BeforeEach
+    void setUp() {
+        service = new IdempotencyServiceImpl(store, new ObjectMapper().findAndRegisterModules(),
+                Duration.ofHours(24), Duration.ofMinutes(1), 100, new SimpleMeterRegistry());
+    }
+
+    private Supplier<ResponseEntity<Body>> createAction() {
+        return () -> ResponseEntity.created(URI.create("/api/v1/routes/me/" + (10 + executions.get())))
+                .body(new Body(10L + executions.incrementAndGet(), "Ruta"));
+    }
+
+    @Test
+    @DisplayName("execute — sin cabecera ejecuta siempre y no toca la tabla")
+    void execute_WithoutKey_ShouldAlwaysRun() {
+        service.execute(principal, null, "routes.create", new Body(null, "Ruta"), Body.class, createAction());
+        service.execute(principal, null, "routes.create", new Body(null, "Ruta"), Body.class, createAction());
+
+        assertEquals(2, executions.get());
+        verifyNoInteractions(store);
+    }
+
+    @Test
+    @DisplayName("execute — el reintento con la misma clave devuelve la respuesta original desde memoria")
+    void execute_Retry_ShouldReplayFromCache() {
+        when(store.reserve(eq(1L), eq(KEY), anyString(), any(LocalDateTime.class), any(Duration.class), any(Duration.class)))
+                .thenReturn(Optional.empty());
+
+        ResponseEntity<Body> first = service.execute(principal, KEY, "routes.create", new Body(null, "Ruta"), Body.class, createAction());
+        ResponseEntity<Body> retry = service.execute(principal, KEY, "routes.create", new Body(null, "Ruta"), Body.class, createAction());
+
+        assertEquals(1, executions.get());
+        assertEquals(201, retry.getStatusCode().value());
+        assertEquals(first.getBody(), retry.getBody());
+        assertEquals(first.getHeaders().getLocation(), retry.getHeaders().getLocation());
+        assertEquals("true", retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        verify(store, times(1)).reserve(any(), any(), any(), any(), any(), any());
+        verify(store).complete(eq(1L), eq(KEY), anyString(), eq(201), eq("/api/v1/routes/me/10"), eq("{\"id\":11,\"name\":\"Ruta\"}"));
+    }
+
+    @Test
+    @DisplayName("execute — con la respuesta en BD (otra instancia) la devuelve sin ejecutar")
+    void execute_StoredResponse_ShouldReplayFromDatabase() {
+        ArgumentCaptor<String> hash = ArgumentCaptor.forClass(String.class);
+        when(store.reserve(eq(1L), eq(KEY), hash.capture(), any(), any(), any())).thenAnswer(inv -> {
+            IdempotencyRecord record = IdempotencyRecord.reserve(1L, KEY, inv.getArgument(2),
+                    LocalDateTime.now(), LocalDateTime.now().plusHours(24));
+            record.setStatusCode(201);
+            record.setLocation("/api/v1/routes/me/7");
+            record.setResponseBody("{\"id\":7,\"name\":\"Ruta\"}");
+            return Optional.of(record);
+        });
+
+        ResponseEntity<Body> replay = service.execute(principal, KEY, "routes.create", new Body(null, "Ruta"), Body.class, createAction());
+
+        assertEquals(0, executions.get());
+        assertEquals(new Body(7L, "Ruta"), replay.getBody());
+        assertEquals(URI.create("/api/v1/routes/me/7"), replay.getHeaders().getLocation());
+        verify(store, never()).complete(any(), any(), any(), anyInt(), any(), any());
+    }
+
+    @Test
+    @DisplayName("execute — la misma clave con otro cuerpo se rechaza")
+    void execute_SameKeyDifferentRequest_ShouldFail() {
+        when(store.reserve(any(), any(), any(), any(), any(), any())).thenReturn(Optional.empty());
+        service.execute(principal, KEY, "routes.create", new Body(null, "Ruta"), Body.class, createAction());
+
+        assertThrows(IdempotencyKeyReusedException.class, () ->
+                service.execute(principal, KEY, "routes.create", new Body(null, "Otra"), Body.class, createAction()));
+        assertThrows(IdempotencyKeyReusedException.class, () ->
+                service.execute(principal, KEY, "executions.finish:3", new Body(null, "Ruta"), Body.class, createAction()));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    @DisplayName("execute — si la petición original sigue en curso responde conflicto")
+    void execute_OriginalInProgress_ShouldFail() {
+        when(store.reserve(any(), any(), any(), any(), any(), any())).thenAnswer(inv -> Optional.of(
+                IdempotencyRecord.reserve(1L, KEY, inv.getArgument(2), LocalDateTime.now(), LocalDateTime.now().plusHours(24))));
+
+        assertThrows(IdempotencyRequestInProgressException.class, () ->
+                service.execute(principal, KEY, "routes.create", new Body(null, "Ruta"), Body.class, createAction()));
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    @DisplayName("execute — dos reservas simultáneas: la que pierde la clave única responde conflicto")
+    void execute_ConcurrentReservation_ShouldFail() {
+        when(store.reserve(any(), any(), any(), any(), any(), any()))
+                .thenThrow(new DataIntegrityViolationException("uk_idempotency_keys_user_key"));
+
+        assertThrows(IdempotencyRequestInProgressException.class, () ->
+                service.execute(principal, KEY, "routes.create", new Body(null, "Ruta"), Body.class, createAction()));
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    @DisplayName("execute — dos reservas simultáneas de una clave nueva: la víctima del interbloqueo responde conflicto")
+    void execute_ConcurrentReservationDeadlock_ShouldFail() {
+        when(store.reserve(any(), any(), any(), any(), any(), any()))
+                .thenThrow(new CannotAcquireLockException("Deadlock found when trying to get lock"));
+
+        assertThrows(IdempotencyRequestInProgressException.class, () ->
+                service.execute(principal, KEY, "routes.create", new Body(null, "Ruta"), Body.class, createAction()));
+        assertEquals(0, executions.get());
+        verify(store, never()).release(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("execute — tiempo de espera agotado por el bloqueo de la fila: responde conflicto sin ejecutar")
+    void execute_ReservationLockTimeout_ShouldFail() {
+        when(store.reserve(any(), any(), any(), any(), any(), any()))
+                .thenThrow(new PessimisticLockingFailureException("Lock wait timeout exceeded"));
+
+        assertThrows(IdempotencyRequestInProgressException.class, () ->
+                service.execute(principal, KEY, "routes.create", new Body(null, "Ruta"), Body.class, createAction()));
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    @DisplayName("execute — si la operación falla libera la clave y no guarda respuesta")
+    void execute_ActionFails_ShouldReleaseKey() {
+        when(store.reserve(any(), any(), any(), any(), any(), any())).thenReturn(Optional.empty());
+
+        assertThrows(IllegalStateException.class, () ->
+                service.execute(principal, KEY, "routes.create", new Body(null, "Ruta"), Body.class, () -> {
+                    throw new IllegalStateException("boom");
+                }));
+
+        verify(store).release(eq(1L), eq(KEY), anyString());
+        verify(store, never()).complete(any(), any(), any(), anyInt(), any(), any());
+    }
+
+    @Test
+    @DisplayName("execute — clave vacía o demasiado larga")
+    void execute_InvalidKey_ShouldFail() {
+        assertThrows(InvalidIdempotencyKeyException.class, () ->
+                service.execute(principal, "  ", "routes.create", null, Body.class, createAction()));
+        assertThrows(InvalidIdempotencyKeyException.class, () ->
+                service.execute(principal, "x".repeat(101), "routes.create", null, Body.class, createAction()));
+        verifyNoInteractions(store);
+    }
+}
@@ -0,0 +1,222 @@
+package com.fitnessapp.fitapp_api.jwt;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.fitnessapp.fitapp_api.auth.repository.RevokedTokenRepository;
+import com.fitnessapp.fitapp_api.auth.repository.UserAuthRepository;
+import com.fitnessapp.fitapp_api.auth.service.TokenRevocationService;
+import com.fitnessapp.fitapp_api.auth.service.implementation.TokenRevocationServiceImpl;
+import com.fitnessapp.fitapp_api.core.security.AuthUserDetails;
+import com.fitnessapp.fitapp_api.core.security.AuthenticatedUser;
+import com.fitnessapp.fitapp_api.core.security.JwtAuthenticationCache;
+import com.fitnessapp.fitapp_api.core.security.filters.JwtTokenValidator;
+import com.fitnessapp.fitapp_api.core.util.JwtUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.AuthenticationEntryPoint;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JwtTokenValidatorUnitTests {
+
+    private JwtUtils jwtUtils;
+    private AuthenticationEntryPoint entryPoint;
+    private SimpleMeterRegistry meterRegistry;
+    private TokenRevocationService tokenRevocationService;
+    private JwtTokenValidator validator;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtils = spy(new JwtUtils());
+        ReflectionTestUtils.setField(jwtUtils, "privateKey", "test-secret");
+        ReflectionTestUtils.setField(jwtUtils, "userGenerator", "fitapp_api");
+        ReflectionTestUtils.setField(jwtUtils, "ttlSeconds", 1800L);
+        entryPoint = mock(AuthenticationEntryPoint.class);
+        meterRegistry = new SimpleMeterRegistry();
+        JwtAuthenticationCache cache = new JwtAuthenticationCache(Duration.ofMinutes(30), 100, meterRegistry);
+        tokenRevocationService = mock(TokenRevocationService.class);
+        validator = new JwtTokenValidator(jwtUtils, entryPoint, cache, tokenRevocationService, meterRegistry);
+        SecurityContextHolder.clearContext();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Token válido autentica y las siguientes peticiones salen de la caché sin reverificar")
+    void validToken_ShouldAuthenticateAndHitCache() throws Exception {
+        String token = jwtUtils.createToken(login(7L, "user@example.com", List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+
+        for (int i = 0; i < 3; i++) {
+            SecurityContextHolder.clearContext();
+            FilterChain chain = mock(FilterChain.class);
+            validator.doFilter(request("Bearer " + token), new MockHttpServletResponse(), chain);
+
+            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+            assertEquals("user@example.com", auth.getName());
+            assertEquals(new AuthenticatedUser(7L, "user@example.com"), auth.getPrincipal());
+            assertEquals(List.of(new SimpleGrantedAuthority("ROLE_USER")), List.copyOf(auth.getAuthorities()));
+            verify(chain).doFilter(any(), any());
+        }
+
+        verify(jwtUtils, times(1)).validateToken(token);
+        assertEquals(1, meterRegistry.get("security.jwt.filter").tag("outcome", "verified").timer().count());
+        assertEquals(2, meterRegistry.get("security.jwt.filter").tag("outcome", "cache_hit").timer().count());
+    }
+
+    @Test
+    @DisplayName("Token revocado se rechaza aunque ya estuviera en la caché")
+    void revokedToken_ShouldBeRejectedEvenWhenCached() throws Exception {
+        String token = jwtUtils.createToken(login(7L, "user@example.com", List.of()));
+        String jti = JWT.decode(token).getId();
+
+        validator.doFilter(request("Bearer " + token), new MockHttpServletResponse(), mock(FilterChain.class));
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+
+        // Logout: a partir de aquí el jti figura como revocado
+        when(tokenRevocationService.isRevoked(jti)).thenReturn(true);
+        SecurityContextHolder.clearContext();
+        FilterChain chain = mock(FilterChain.class);
+        validator.doFilter(request("Bearer " + token), new MockHttpServletResponse(), chain);
+
+        verifyNoInteractions(chain);
+        verify(entryPoint).commence(any(), any(), any());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(jwtUtils, times(1)).validateToken(token);
+    }
+
+    @Test
+    @DisplayName("Tras cambiar la contraseña se rechazan todos los tokens anteriores, no solo el usado, aunque estén en caché")
+    void passwordChange_ShouldRejectEveryEarlierToken() throws Exception {
+        UserAuthRepository userAuthRepository = mock(UserAuthRepository.class);
+        JwtAuthenticationCache cache = new JwtAuthenticationCache(Duration.ofMinutes(30), 100, meterRegistry);
+        TokenRevocationServiceImpl revocations = new TokenRevocationServiceImpl(mock(RevokedTokenRepository.class),
+                userAuthRepository, jwtUtils, cache, 1000, 0.01, 1800, Duration.ofMinutes(1), meterRegistry);
+        validator = new JwtTokenValidator(jwtUtils, entryPoint, cache, revocations, meterRegistry);
+        when(userAuthRepository.findPasswordChangedAtById(7L)).thenReturn(Optional.empty());
+
+        // Dos sesiones abiertas antes del cambio (p. ej. móvil y web), ambas ya en la caché
+        String otherDevice = tokenIssuedAt(7L, Instant.now().minusSeconds(120));
+        String usedForChange = tokenIssuedAt(7L, Instant.now().minusSeconds(60));
+        for (String token : List.of(otherDevice, usedForChange)) {
+            SecurityContextHolder.clearContext();
+            validator.doFilter(request("Bearer " + token), new MockHttpServletResponse(), mock(FilterChain.class));
+            assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+        }
+
+        // Cambio de contraseña, como lo registra UserAuthServiceImpl
+        revocations.revokeIssuedBefore(7L, Instant.now().truncatedTo(ChronoUnit.SECONDS));
+
+        SecurityContextHolder.clearContext();
+        FilterChain rejected = mock(FilterChain.class);
+        validator.doFilter(request("Bearer " + otherDevice), new MockHttpServletResponse(), rejected);
+        verifyNoInteractions(rejected);
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(entryPoint).commence(any(), any(), any());
+
+        // El token emitido con la contraseña nueva sigue siendo válido
+        String fresh = jwtUtils.createToken(login(7L, "user@example.com", List.of()));
+        FilterChain accepted = mock(FilterChain.class);
+        validator.doFilter(request("Bearer " + fresh), new MockHttpServletResponse(), accepted);
+        verify(accepted).doFilter(any(), any());
+    }
+
+    @Test
+    @DisplayName("Token inválido no se cachea y devuelve 401 en cada petición")
+    void invalidToken_ShouldBeRejectedEveryTime() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            FilterChain chain = mock(FilterChain.class);
+            validator.doFilter(request("Bearer not-a-jwt"), new MockHttpServletResponse(), chain);
+            verifyNoInteractions(chain);
+        }
+
+        verify(jwtUtils, times(2)).validateToken("not-a-jwt");
+        verify(entryPoint, times(2)).commence(any(), any(), any());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertEquals(2, meterRegistry.get("security.jwt.filter").tag("outcome", "rejected").timer().count());
+    }
+
+    @Test
+    @DisplayName("Token firmado con otra clave se rechaza")
+    void tokenWithOtherKey_ShouldBeRejected() throws Exception {
+        JwtUtils other = new JwtUtils();
+        ReflectionTestUtils.setField(other, "privateKey", "other-secret");
+        ReflectionTestUtils.setField(other, "userGenerator", "fitapp_api");
+        ReflectionTestUtils.setField(other, "ttlSeconds", 1800L);
+        String token = other.createToken(login(7L, "user@example.com", List.of()));
+
+        FilterChain chain = mock(FilterChain.class);
+        validator.doFilter(request("Bearer " + token), new MockHttpServletResponse(), chain);
+
+        verifyNoInteractions(chain);
+        verify(entryPoint).commence(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Token sin claim uid se rechaza")
+    void tokenWithoutUserId_ShouldBeRejected() throws Exception {
+        String token = JWT.create()
+                .withIssuer("fitapp_api")
+                .withSubject("user@example.com")
+                .withExpiresAt(Instant.now().plusSeconds(600))
+                .sign(Algorithm.HMAC256("test-secret"));
+
+        FilterChain chain = mock(FilterChain.class);
+        validator.doFilter(request("Bearer " + token), new MockHttpServletResponse(), chain);
+
+        verifyNoInteractions(chain);
+        verify(entryPoint).commence(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("createToken exige un principal con id")
+    void createToken_WithoutUserId_ShouldFail() {
+        assertThrows(IllegalStateException.class, () -> jwtUtils.createToken(
+                new UsernamePasswordAuthenticationToken("user@example.com", null, List.of())));
+    }
+
+    private Authentication login(Long id, String email, List<SimpleGrantedAuthority> authorities) {
+        AuthUserDetails details = new AuthUserDetails(id, email, "", true, true, true, true, authorities);
+        return new UsernamePasswordAuthenticationToken(details, null, authorities);
+    }
+
+    private static String tokenIssuedAt(Long userId, Instant issuedAt) {
+        return JWT.create()
+                .withIssuer("fitapp_api")
+                .withSubject("user@example.com")
+                .withClaim(JwtUtils.USER_ID_CLAIM, userId)
+                .withArrayClaim("authorities", new String[0])
+                .withIssuedAt(issuedAt)
+                .withNotBefore(issuedAt)
+                .withExpiresAt(issuedAt.plusSeconds(1800))
+                .withJWTId(UUID.randomUUID().toString())
+                .sign(Algorithm.HMAC256("test-secret"));
+    }
+
+    private MockHttpServletRequest request(String authorization) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/home/kpis");
+        request.addHeader("Authorization", authorization);
+        return request;
+    }
+}
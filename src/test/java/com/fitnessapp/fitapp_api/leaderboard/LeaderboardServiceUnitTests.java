@@ -0,0 +1,163 @@
+package com.fitnessapp.fitapp_api.leaderboard;
+
+import com.fitnessapp.fitapp_api.auth.model.UserAuth;
+import com.fitnessapp.fitapp_api.auth.repository.UserAuthRepository;
+import com.fitnessapp.fitapp_api.core.exception.UserAuthNotFoundException;
+import com.fitnessapp.fitapp_api.leaderboard.dto.LeaderboardResponseDTO;
+import com.fitnessapp.fitapp_api.leaderboard.dto.MyLeaderboardPositionDTO;
+import com.fitnessapp.fitapp_api.leaderboard.ranking.PointsLeaderboard;
+import com.fitnessapp.fitapp_api.leaderboard.service.implementation.LeaderboardServiceImpl;
+import com.fitnessapp.fitapp_api.profile.model.UserProfile;
+import com.fitnessapp.fitapp_api.profile.repository.UserPointsView;
+import com.fitnessapp.fitapp_api.profile.repository.UserProfileRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LeaderboardServiceUnitTests {
+
+    @Spy
+    private PointsLeaderboard leaderboard = new PointsLeaderboard();
+
+    @Mock
+    private UserAuthRepository userAuthRepository;
+
+    @Mock
+    private UserProfileRepository userProfileRepository;
+
+    @InjectMocks
+    private LeaderboardServiceImpl leaderboardService;
+
+    private UserAuth me;
+
+    @BeforeEach
+    void setUp() {
+        me = user(2L, "me@example.com");
+        leaderboard.replaceAll(Map.of(1L, 900L, 2L, 400L, 3L, 100L));
+    }
+
+    @Test
+    @DisplayName("getTop — devuelve el top con nombres abreviados y marca al usuario autenticado")
+    void getTop_ShouldReturnEntriesWithNames() {
+        when(userAuthRepository.findByEmail("me@example.com")).thenReturn(Optional.of(me));
+        when(userProfileRepository.findAllByUser_IdIn(List.of(1L, 2L)))
+                .thenReturn(List.of(profile(1L, "Ana", "García"), profile(2L, "Luis", null)));
+
+        LeaderboardResponseDTO result = leaderboardService.getTop("me@example.com", 2);
+
+        assertEquals(3, result.totalUsers());
+        assertEquals(2, result.entries().size());
+        assertEquals("Ana G.", result.entries().get(0).displayName());
+        assertFalse(result.entries().get(0).me());
+        assertEquals("Luis", result.entries().get(1).displayName());
+        assertTrue(result.entries().get(1).me());
+    }
+
+    @Test
+    @DisplayName("getMyPosition — puesto y vecinos del usuario")
+    void getMyPosition_ShouldReturnRankAndNeighbors() {
+        when(userAuthRepository.findByEmail("me@example.com")).thenReturn(Optional.of(me));
+        when(userProfileRepository.findAllByUser_IdIn(List.of(1L, 2L, 3L))).thenReturn(List.of());
+
+        MyLeaderboardPositionDTO result = leaderboardService.getMyPosition("me@example.com", 1);
+
+        assertEquals(2, result.rank());
+        assertEquals(400L, result.points());
+        assertEquals(3, result.neighbors().size());
+        assertEquals("Usuario", result.neighbors().get(0).displayName());
+    }
+
+    @Test
+    @DisplayName("getMyPosition — usuario ausente se incorpora con el saldo de su perfil y su último movimiento")
+    void getMyPosition_MissingUser_ShouldAddFromProfile() {
+        UserAuth newcomer = user(4L, "new@example.com");
+        UserProfile profile = profile(4L, "Eva", "Ruiz");
+        when(userAuthRepository.findByEmail("new@example.com")).thenReturn(Optional.of(newcomer));
+        when(userProfileRepository.findPointsByUserId(4L)).thenReturn(Optional.of(points(4L, 250L, 30L)));
+        when(userProfileRepository.findAllByUser_IdIn(any())).thenReturn(List.of(profile));
+
+        MyLeaderboardPositionDTO result = leaderboardService.getMyPosition("new@example.com", 0);
+
+        assertEquals(3, result.rank());
+        assertEquals(250L, result.points());
+        assertEquals(4, result.totalUsers());
+
+        // El award 30 ya estaba en el saldo leído: si llega ahora su evento no se suma otra vez
+        leaderboard.applyAward(4L, 40L, 30L);
+        assertEquals(250L, leaderboard.rankOf(4L).orElseThrow().score());
+    }
+
+    @Test
+    @DisplayName("getTop — usuario inexistente lanza UserAuthNotFoundException")
+    void getTop_UnknownUser_ShouldThrow() {
+        when(userAuthRepository.findByEmail("x@example.com")).thenReturn(Optional.empty());
+
+        assertThrows(UserAuthNotFoundException.class, () -> leaderboardService.getTop("x@example.com", 10));
+    }
+
+    @Test
+    @DisplayName("rebuild — carga los saldos por lotes y sustituye la clasificación")
+    void rebuild_ShouldLoadAllProfiles() {
+        when(userProfileRepository.findPointsPageAfter(0L, Limit.of(1000)))
+                .thenReturn(List.of(points(5L, 50L), points(6L, 700L)));
+
+        int users = leaderboardService.rebuild();
+
+        assertEquals(2, users);
+        assertEquals(2, leaderboard.size());
+        assertEquals(1, leaderboard.rankOf(6L).orElseThrow().rank());
+        assertTrue(leaderboard.rankOf(1L).isEmpty());
+    }
+
+    private UserAuth user(Long id, String email) {
+        UserAuth user = new UserAuth();
+        user.setId(id);
+        user.setEmail(email);
+        return user;
+    }
+
+    private UserProfile profile(Long userId, String firstName, String lastName) {
+        UserProfile profile = new UserProfile();
+        profile.setUser(user(userId, userId + "@example.com"));
+        profile.setFirstName(firstName);
+        profile.setLastName(lastName);
+        return profile;
+    }
+
+    private UserPointsView points(Long userId, Long points) {
+        return points(userId, points, null);
+    }
+
+    private UserPointsView points(Long userId, Long points, Long lastLedgerId) {
+        return new UserPointsView() {
+            @Override
+            public Long getUserId() {
+                return userId;
+            }
+
+            @Override
+            public Long getPoints() {
+                return points;
+            }
+
+            @Override
+            public Long getLastLedgerId() {
+                return lastLedgerId;
+            }
+        };
+    }
+}
@@ -0,0 +1,201 @@
+package com.fitnessapp.fitapp_api.leaderboard;
+
+import com.fitnessapp.fitapp_api.leaderboard.ranking.PointsLeaderboard;
+import com.fitnessapp.fitapp_api.leaderboard.ranking.PointsLeaderboard.RankedScore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PointsLeaderboardUnitTests {
+
+    private PointsLeaderboard leaderboard;
+
+    @BeforeEach
+    void setUp() {
+        leaderboard = new PointsLeaderboard();
+        leaderboard.replaceAll(Map.of(
+                1L, 500L,
+                2L, 300L,
+                3L, 300L,
+                4L, 100L,
+                5L, 0L
+        ));
+    }
+
+    @Test
+    @DisplayName("top — ordena por puntos y los empates comparten puesto")
+    void top_ShouldOrderAndShareTies() {
+        List<RankedScore> top = leaderboard.top(4);
+
+        assertEquals(List.of(
+                new RankedScore(1, 1L, 500L),
+                new RankedScore(2, 2L, 300L),
+                new RankedScore(2, 3L, 300L),
+                new RankedScore(4, 4L, 100L)
+        ), top);
+    }
+
+    @Test
+    @DisplayName("rankOf — puesto = 1 + usuarios con más puntos")
+    void rankOf_ShouldCountUsersAbove() {
+        assertEquals(1, leaderboard.rankOf(1L).orElseThrow().rank());
+        assertEquals(2, leaderboard.rankOf(3L).orElseThrow().rank());
+        assertEquals(5, leaderboard.rankOf(5L).orElseThrow().rank());
+        assertTrue(leaderboard.rankOf(99L).isEmpty());
+    }
+
+    @Test
+    @DisplayName("addPoints — mueve al usuario y actualiza los puestos")
+    void addPoints_ShouldMoveUser() {
+        leaderboard.addPoints(4L, 450L);
+
+        assertEquals(1, leaderboard.rankOf(4L).orElseThrow().rank());
+        assertEquals(550L, leaderboard.rankOf(4L).orElseThrow().score());
+        assertEquals(2, leaderboard.rankOf(1L).orElseThrow().rank());
+        assertEquals(5, leaderboard.size());
+    }
+
+    @Test
+    @DisplayName("addPoints / ensureUser — dan de alta usuarios nuevos")
+    void addPoints_NewUser_ShouldBeAdded() {
+        leaderboard.ensureUser(6L);
+        leaderboard.addPoints(7L, 200L);
+
+        assertEquals(7, leaderboard.size());
+        assertEquals(4, leaderboard.rankOf(7L).orElseThrow().rank());
+        assertEquals(6, leaderboard.rankOf(6L).orElseThrow().rank());
+    }
+
+    @Test
+    @DisplayName("around — devuelve vecinos por encima y por debajo con su puesto")
+    void around_ShouldReturnNeighbors() {
+        List<RankedScore> around = leaderboard.around(3L, 1);
+
+        assertEquals(List.of(
+                new RankedScore(2, 2L, 300L),
+                new RankedScore(2, 3L, 300L),
+                new RankedScore(4, 4L, 100L)
+        ), around);
+        assertEquals(2, leaderboard.around(1L, 1).size());
+        assertTrue(leaderboard.around(99L, 1).isEmpty());
+    }
+
+    @Test
+    @DisplayName("saldos por encima de la capacidad inicial amplían el árbol sin perder puestos")
+    void addPoints_LargeScore_ShouldGrowTree() {
+        leaderboard.addPoints(5L, 5_000_000L);
+        leaderboard.addPoints(4L, 3_000_000L);
+
+        assertEquals(1, leaderboard.rankOf(5L).orElseThrow().rank());
+        assertEquals(2, leaderboard.rankOf(4L).orElseThrow().rank());
+        assertEquals(3, leaderboard.rankOf(1L).orElseThrow().rank());
+    }
+
+    @Test
+    @DisplayName("saldos enormes no agrandan el árbol más allá de la capacidad máxima y mantienen los puestos")
+    void addPoints_HugeScore_ShouldCapTree() {
+        leaderboard.addPoints(5L, 1L << 40);
+        leaderboard.addPoints(4L, 1L << 30);
+        leaderboard.addPoints(3L, 2_000_000L);
+
+        long[] tree = (long[]) ReflectionTestUtils.getField(leaderboard, "tree");
+        assertTrue(tree.length <= (1 << 20) + 1);
+        assertEquals(1, leaderboard.rankOf(5L).orElseThrow().rank());
+        assertEquals(2, leaderboard.rankOf(4L).orElseThrow().rank());
+        assertEquals(3, leaderboard.rankOf(3L).orElseThrow().rank());
+        assertEquals(4, leaderboard.rankOf(1L).orElseThrow().rank());
+    }
+
+    @Test
+    @DisplayName("los puestos coinciden con una ordenación completa tras muchos cambios")
+    void ranks_ShouldMatchFullSort() {
+        Random random = new Random(42);
+        Map<Long, Long> expected = new HashMap<>();
+        leaderboard.replaceAll(Map.of());
+        for (int i = 0; i < 2000; i++) {
+            long userId = random.nextInt(200);
+            long delta = random.nextInt(300) - 50;
+            leaderboard.addPoints(userId, delta);
+            expected.merge(userId, Math.max(0L, delta), (a, b) -> Math.max(0L, a + delta));
+        }
+
+        for (Map.Entry<Long, Long> e : expected.entrySet()) {
+            long above = expected.values().stream().filter(v -> v > e.getValue()).count();
+            RankedScore ranked = leaderboard.rankOf(e.getKey()).orElseThrow();
+            assertEquals(e.getValue(), ranked.score());
+            assertEquals(1 + above, ranked.rank());
+        }
+    }
+
+    @Test
+    @DisplayName("replaceAll — aplica los movimientos llegados durante la recarga que el saldo leído no incluía")
+    void replaceAll_ShouldReplayAwardsReceivedDuringRebuild() {
+        leaderboard.beginRebuild();
+        // Confirmados después de leer el saldo de 1 (ledger hasta 10) y antes de leer el de 2 (ledger hasta 9)
+        leaderboard.applyAward(1L, 50L, 11L);
+        leaderboard.applyAward(2L, 20L, 8L);
+
+        leaderboard.replaceAll(Map.of(1L, 500L, 2L, 320L), Map.of(1L, 10L, 2L, 9L));
+
+        assertEquals(550L, leaderboard.rankOf(1L).orElseThrow().score());
+        assertEquals(320L, leaderboard.rankOf(2L).orElseThrow().score());
+
+        // Fuera de la recarga: un movimiento ya aplicado no se vuelve a sumar
+        leaderboard.applyAward(1L, 50L, 11L);
+        leaderboard.applyAward(1L, 5L, 12L);
+        assertEquals(555L, leaderboard.rankOf(1L).orElseThrow().score());
+    }
+
+    @Test
+    @DisplayName("cancelRebuild — deja de guardar movimientos y la clasificación sigue como estaba")
+    void cancelRebuild_ShouldKeepCurrentScores() {
+        leaderboard.beginRebuild();
+        leaderboard.applyAward(4L, 10L, 3L);
+        leaderboard.cancelRebuild();
+
+        leaderboard.replaceAll(Map.of(4L, 100L), Map.of(4L, 2L));
+
+        assertEquals(100L, leaderboard.rankOf(4L).orElseThrow().score());
+    }
+
+    @Test
+    @DisplayName("seed — un movimiento incluido en el saldo leído no se vuelve a sumar")
+    void seed_ShouldIgnoreAwardsIncludedInBalance() {
+        leaderboard.seed(7L, 250L, 20L);
+        leaderboard.applyAward(7L, 30L, 20L);
+
+        assertEquals(250L, leaderboard.rankOf(7L).orElseThrow().score());
+
+        leaderboard.applyAward(7L, 30L, 21L);
+        assertEquals(280L, leaderboard.rankOf(7L).orElseThrow().score());
+    }
+
+    @Test
+    @DisplayName("seed — si la clasificación ya aplicó un movimiento posterior, conserva su saldo")
+    void seed_OlderBalance_ShouldKeepNewerScore() {
+        // El award 21 llega antes que el alta con el saldo leído hasta el movimiento 20
+        leaderboard.applyAward(7L, 30L, 21L);
+        leaderboard.seed(7L, 250L, 20L);
+
+        assertEquals(30L, leaderboard.rankOf(7L).orElseThrow().score());
+    }
+
+    @Test
+    @DisplayName("seed — sustituye el saldo de un usuario dado de alta con 0 puntos")
+    void seed_EnsuredUser_ShouldTakeBalanceFromDatabase() {
+        leaderboard.ensureUser(7L);
+        leaderboard.seed(7L, 250L, 20L);
+
+        assertEquals(250L, leaderboard.rankOf(7L).orElseThrow().score());
+        assertEquals(4, leaderboard.rankOf(7L).orElseThrow().rank());
+        assertEquals(6, leaderboard.size());
+    }
+}
@@ -0,0 +1,208 @@
+package com.fitnessapp.fitapp_api.points_ledger;
+
+import com.fitnessapp.fitapp_api.auth.model.UserAuth;
+import com.fitnessapp.fitapp_api.auth.repository.UserAuthRepository;
+import com.fitnessapp.fitapp_api.core.dto.CursorPageResponseDTO;
+import com.fitnessapp.fitapp_api.core.exception.InvalidCursorException;
+import com.fitnessapp.fitapp_api.core.util.Cursors;
+import com.fitnessapp.fitapp_api.gamification.dto.PointsLedgerEntryResponseDTO;
+import com.fitnessapp.fitapp_api.gamification.event.PointsAwardedEvent;
+import com.fitnessapp.fitapp_api.gamification.event.PointsBalancesReconciledEvent;
+import com.fitnessapp.fitapp_api.gamification.mapper.PointsLedgerMapper;
+import com.fitnessapp.fitapp_api.gamification.model.PointsLedgerEntry;
+import com.fitnessapp.fitapp_api.gamification.model.PointsReason;
+import com.fitnessapp.fitapp_api.gamification.repository.PointsLedgerRepository;
+import com.fitnessapp.fitapp_api.gamification.service.implementation.PointsBalanceReconciler;
+import com.fitnessapp.fitapp_api.gamification.service.implementation.PointsLedgerServiceImpl;
+import com.fitnessapp.fitapp_api.profile.repository.UserProfileRepository;
+import com.fitnessapp.fitapp_api.routeexecution.model.RouteExecution;
+import com.fitnessapp.fitapp_api.routeexecution.repository.RouteExecutionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PointsLedgerServiceUnitTests {
+
+    @Mock
+    private PointsLedgerRepository ledgerRepository;
+
+    @Mock
+    private UserProfileRepository userProfileRepository;
+
+    @Mock
+    private UserAuthRepository userAuthRepository;
+
+    @Mock
+    private RouteExecutionRepository executionRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PointsBalanceReconciler balanceReconciler;
+
+    @Spy
+    private PointsLedgerMapper mapper = Mappers.getMapper(PointsLedgerMapper.class);
+
+    @InjectMocks
+    private PointsLedgerServiceImpl pointsLedgerService;
+
+    private UserAuth user;
+
+    @BeforeEach
+    void setUp() {
+        user = new UserAuth();
+        user.setId(1L);
+        user.setEmail("test@example.com");
+    }
+
+    // ============================================
+    // award
+    // ============================================
+    @Test
+    @DisplayName("award — suma el delta con un UPDATE atómico (bloquea el perfil) y después inserta el movimiento")
+    void award_ShouldAppendEntryAndIncrementBalance() {
+        RouteExecution execution = new RouteExecution();
+        execution.setId(10L);
+        when(userAuthRepository.getReferenceById(1L)).thenReturn(user);
+        when(executionRepository.getReferenceById(10L)).thenReturn(execution);
+
+        pointsLedgerService.award(1L, 10L, 45L, PointsReason.ROUTE_EXECUTION);
+
+        ArgumentCaptor<PointsLedgerEntry> captor = ArgumentCaptor.forClass(PointsLedgerEntry.class);
+        var inOrder = inOrder(ledgerRepository, userProfileRepository);
+        inOrder.verify(userProfileRepository).addPoints(1L, 45L);
+        inOrder.verify(ledgerRepository).save(captor.capture());
+        verify(eventPublisher).publishEvent(new PointsAwardedEvent(1L, 45L, null));
+
+        PointsLedgerEntry entry = captor.getValue();
+        assertSame(user, entry.getUser());
+        assertSame(execution, entry.getExecution());
+        assertEquals(45L, entry.getDelta());
+        assertEquals(PointsReason.ROUTE_EXECUTION, entry.getReason());
+    }
+
+    @Test
+    @DisplayName("award — sin ejecución deja execution a null")
+    void award_WithoutExecution_ShouldLeaveExecutionNull() {
+        when(userAuthRepository.getReferenceById(1L)).thenReturn(user);
+
+        pointsLedgerService.award(1L, null, -20L, PointsReason.ADJUSTMENT);
+
+        ArgumentCaptor<PointsLedgerEntry> captor = ArgumentCaptor.forClass(PointsLedgerEntry.class);
+        verify(ledgerRepository).save(captor.capture());
+        assertNull(captor.getValue().getExecution());
+        verify(userProfileRepository).addPoints(1L, -20L);
+        verifyNoInteractions(executionRepository);
+    }
+
+    @Test
+    @DisplayName("award — delta 0 no registra nada")
+    void award_ZeroDelta_ShouldDoNothing() {
+        pointsLedgerService.award(1L, 10L, 0L, PointsReason.ROUTE_EXECUTION);
+
+        verifyNoInteractions(ledgerRepository, userProfileRepository, userAuthRepository, executionRepository, eventPublisher);
+    }
+
+    // ============================================
+    // getMyHistory
+    // ============================================
+    @Test
+    @DisplayName("getMyHistory — primera página con cursor al último id si hay más")
+    void getMyHistory_FirstPage_ShouldReturnNextCursor() {
+        List<PointsLedgerEntry> rows = LongStream.of(9, 8, 7).mapToObj(this::entry).toList();
+        when(ledgerRepository.findPageByUserEmail("test@example.com", Limit.of(3))).thenReturn(rows);
+
+        CursorPageResponseDTO<PointsLedgerEntryResponseDTO> page =
+                pointsLedgerService.getMyHistory("test@example.com", null, 2);
+
+        assertEquals(2, page.items().size());
+        assertTrue(page.hasNext());
+        assertEquals(Cursors.encode(8L), page.nextCursor());
+        assertEquals(9L, page.items().get(0).id());
+        assertEquals("ROUTE_EXECUTION", page.items().get(0).reason());
+    }
+
+    @Test
+    @DisplayName("getMyHistory — con cursor continúa por debajo del id indicado")
+    void getMyHistory_WithCursor_ShouldContinueAfterId() {
+        when(ledgerRepository.findPageByUserEmailAfter("test@example.com", 8L, Limit.of(21)))
+                .thenReturn(List.of(entry(7L)));
+
+        CursorPageResponseDTO<PointsLedgerEntryResponseDTO> page =
+                pointsLedgerService.getMyHistory("test@example.com", Cursors.encode(8L), null);
+
+        assertEquals(1, page.items().size());
+        assertFalse(page.hasNext());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    @DisplayName("getMyHistory — cursor manipulado lanza InvalidCursorException")
+    void getMyHistory_InvalidCursor_ShouldThrow() {
+        assertThrows(InvalidCursorException.class,
+                () -> pointsLedgerService.getMyHistory("test@example.com", Cursors.encode("abc"), null));
+        verifyNoInteractions(ledgerRepository);
+    }
+
+    // ============================================
+    // reconcileBalances
+    // ============================================
+    @Test
+    @DisplayName("reconcileBalances — recorre los lotes de usuarios, suma los corregidos y avisa de la recarga")
+    void reconcileBalances_ShouldWalkBatchesAndReturnFixedProfiles() {
+        when(balanceReconciler.reconcileBatch(0L)).thenReturn(new PointsBalanceReconciler.Batch(200L, true, 2));
+        when(balanceReconciler.reconcileBatch(200L)).thenReturn(new PointsBalanceReconciler.Batch(250L, false, 1));
+
+        assertEquals(3, pointsLedgerService.reconcileBalances());
+        verify(balanceReconciler, times(2)).reconcileBatch(any());
+        verify(eventPublisher).publishEvent(new PointsBalancesReconciledEvent(3));
+    }
+
+    @Test
+    @DisplayName("reconcileBatch — bloquea cada perfil, compara con su ledger y corrige solo los descuadrados")
+    void reconcileBatch_ShouldLockEachProfileAndFixMismatches() {
+        PointsBalanceReconciler reconciler = new PointsBalanceReconciler(userProfileRepository, ledgerRepository, 2);
+        when(userProfileRepository.findUserIdsAfter(0L, Limit.of(2))).thenReturn(List.of(1L, 2L));
+        when(userProfileRepository.lockPointsByUserId(1L)).thenReturn(Optional.of(100L));
+        when(userProfileRepository.lockPointsByUserId(2L)).thenReturn(Optional.of(50L));
+        when(ledgerRepository.sumDeltaByUserId(1L)).thenReturn(100L);
+        when(ledgerRepository.sumDeltaByUserId(2L)).thenReturn(70L);
+
+        PointsBalanceReconciler.Batch batch = reconciler.reconcileBatch(0L);
+
+        assertEquals(new PointsBalanceReconciler.Batch(2L, true, 1), batch);
+        InOrder order = inOrder(userProfileRepository, ledgerRepository);
+        order.verify(userProfileRepository).lockPointsByUserId(2L);
+        order.verify(ledgerRepository).sumDeltaByUserId(2L);
+        order.verify(userProfileRepository).setPoints(2L, 70L);
+        verify(userProfileRepository, never()).setPoints(eq(1L), anyLong());
+    }
+
+    private PointsLedgerEntry entry(long id) {
+        PointsLedgerEntry entry = new PointsLedgerEntry();
+        entry.setId(id);
+        entry.setUser(user);
+        entry.setDelta(10L);
+        entry.setReason(PointsReason.ROUTE_EXECUTION);
+        return entry;
+    }
+}
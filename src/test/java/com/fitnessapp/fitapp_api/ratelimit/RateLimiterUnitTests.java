@@ -0,0 +1,107 @@
+package com.fitnessapp.fitapp_api.ratelimit;
+
+import com.fitnessapp.fitapp_api.core.security.AuthenticatedUser;
+import com.fitnessapp.fitapp_api.core.security.ratelimit.RateLimitGroup;
+import com.fitnessapp.fitapp_api.core.security.ratelimit.RateLimiter;
+import com.fitnessapp.fitapp_api.core.security.ratelimit.TokenBucket;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterUnitTests {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimiter = new RateLimiter(List.of(
+                new RateLimitGroup("auth", List.of("/api/v1/auth/login"), RateLimitGroup.KeyType.IP, 2, Duration.ofHours(1)),
+                new RateLimitGroup("default", List.of("/api/**"), RateLimitGroup.KeyType.USER, 3, Duration.ofHours(1))
+        ), Duration.ofMinutes(10), 1000, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("El cubo permite una ráfaga de capacity y luego indica cuánto esperar")
+    void tokenBucket_BurstThenWait() {
+        long interval = TimeUnit.SECONDS.toNanos(1);
+        TokenBucket bucket = new TokenBucket(3, interval, 0L);
+
+        assertEquals(0L, bucket.tryConsume(0L));
+        assertEquals(0L, bucket.tryConsume(0L));
+        assertEquals(0L, bucket.tryConsume(0L));
+        assertEquals(interval, bucket.tryConsume(0L));
+
+        // Tras un intervalo se repone exactamente un token
+        assertEquals(0L, bucket.tryConsume(interval));
+        assertTrue(bucket.tryConsume(interval) > 0);
+    }
+
+    @Test
+    @DisplayName("Un cubo inactivo no acumula más de capacity tokens")
+    void tokenBucket_RefillCappedAtCapacity() {
+        long interval = TimeUnit.SECONDS.toNanos(1);
+        TokenBucket bucket = new TokenBucket(2, interval, 0L);
+        long later = TimeUnit.HOURS.toNanos(1);
+
+        assertEquals(0L, bucket.tryConsume(later));
+        assertEquals(0L, bucket.tryConsume(later));
+        assertTrue(bucket.tryConsume(later) > 0);
+    }
+
+    @Test
+    @DisplayName("Login se limita por IP y rechaza al agotar el cubo")
+    void tryAcquire_AuthGroupByIp() {
+        assertEquals(0L, rateLimiter.tryAcquire(request("/api/v1/auth/login", "10.0.0.1"), null));
+        assertEquals(0L, rateLimiter.tryAcquire(request("/api/v1/auth/login", "10.0.0.1"), null));
+        assertTrue(rateLimiter.tryAcquire(request("/api/v1/auth/login", "10.0.0.1"), null) > 0);
+
+        // Otra IP tiene su propio cubo
+        assertEquals(0L, rateLimiter.tryAcquire(request("/api/v1/auth/login", "10.0.0.2"), null));
+        assertEquals(1.0, meterRegistry.counter("ratelimit.rejected", "group", "auth").count());
+    }
+
+    @Test
+    @DisplayName("Las rutas autenticadas se limitan por usuario, no por IP")
+    void tryAcquire_DefaultGroupByUser() {
+        Authentication alice = auth(1L, "alice@test.com");
+        Authentication bob = auth(2L, "bob@test.com");
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0L, rateLimiter.tryAcquire(request("/api/v1/home", "10.0.0.9"), alice));
+        }
+        assertTrue(rateLimiter.tryAcquire(request("/api/v1/routes", "10.0.0.7"), alice) > 0);
+
+        // Mismo origen, otro usuario: no se ve afectado
+        assertEquals(0L, rateLimiter.tryAcquire(request("/api/v1/home", "10.0.0.9"), bob));
+    }
+
+    @Test
+    @DisplayName("Las rutas fuera de los grupos no se limitan")
+    void tryAcquire_UnmatchedPathNotLimited() {
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0L, rateLimiter.tryAcquire(request("/actuator/health", "10.0.0.1"), null));
+        }
+    }
+
+    private static MockHttpServletRequest request(String uri, String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setRemoteAddr(remoteAddr);
+        return request;
+    }
+
+    private static Authentication auth(Long id, String email) {
+        return new UsernamePasswordAuthenticationToken(new AuthenticatedUser(id, email), null, List.of());
+    }
+}
@@ -3,6 +3,7 @@ package com.fitnessapp.fitapp_api.route;
 import com.fitnessapp.fitapp_api.auth.model.UserAuth;
 import com.fitnessapp.fitapp_api.core.exception.RouteNotFoundException;
 import com.fitnessapp.fitapp_api.core.exception.UserAuthNotFoundException;
+import com.fitnessapp.fitapp_api.core.security.AuthenticatedUser;
 import com.fitnessapp.fitapp_api.route.dto.CheckpointRequestDTO;
 import com.fitnessapp.fitapp_api.route.dto.RouteRequestDTO;
 import com.fitnessapp.fitapp_api.route.dto.RouteResponseDTO;
@@ -21,6 +22,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.util.*;
@@ -43,16 +45,21 @@ class RouteCheckpointsUnitTests {
     @Spy
     private RouteMapper mapper = Mappers.getMapper(RouteMapper.class);
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private RouteServiceImpl routeService;
 
     private UserAuth user;
+    private AuthenticatedUser principal;
 
     @BeforeEach
     void setUp() {
         user = new UserAuth();
         user.setId(1L);
         user.setEmail("test@example.com");
+        principal = new AuthenticatedUser(user.getId(), user.getEmail());
     }
 
     // Helpers
@@ -94,12 +101,12 @@ class RouteCheckpointsUnitTests {
         );
         RouteRequestDTO dto = buildRequest(checkpoints);
 
-        when(userAuthRepository.findByEmail(user.getEmail()))
+        when(userAuthRepository.findById(user.getId()))
                 .thenReturn(Optional.of(user));
         when(routeRepository.save(any(Route.class)))
                 .thenAnswer(i -> i.getArgument(0));
 
-        RouteResponseDTO response = routeService.createRoute(user.getEmail(), dto);
+        RouteResponseDTO response = routeService.createRoute(principal, dto);
 
         assertNotNull(response);
         assertEquals(2, response.checkpoints().size());
@@ -115,7 +122,7 @@ class RouteCheckpointsUnitTests {
         );
         RouteRequestDTO dto = buildRequest(checkpoints);
 
-        when(userAuthRepository.findByEmail(user.getEmail()))
+        when(userAuthRepository.findById(user.getId()))
                 .thenReturn(Optional.of(user));
         when(routeRepository.save(any(Route.class)))
                 .thenAnswer(invocation -> {
@@ -127,7 +134,7 @@ class RouteCheckpointsUnitTests {
                     return saved;
                 });
 
-        routeService.createRoute(user.getEmail(), dto);
+        routeService.createRoute(principal, dto);
     }
 
     @Test
@@ -135,12 +142,12 @@ class RouteCheckpointsUnitTests {
     void createRoute_EmptyCheckpointList_ShouldCreateSuccessfully() {
         RouteRequestDTO dto = buildRequest(new ArrayList<>());
 
-        when(userAuthRepository.findByEmail(user.getEmail()))
+        when(userAuthRepository.findById(user.getId()))
                 .thenReturn(Optional.of(user));
         when(routeRepository.save(any(Route.class)))
                 .thenAnswer(i -> i.getArgument(0));
 
-        RouteResponseDTO response = routeService.createRoute(user.getEmail(), dto);
+        RouteResponseDTO response = routeService.createRoute(principal, dto);
 
         assertNotNull(response);
         assertEquals(0, response.checkpoints().size());
@@ -151,12 +158,12 @@ class RouteCheckpointsUnitTests {
     void createRoute_NullCheckpoints_ShouldCreateSuccessfully() {
         RouteRequestDTO dto = buildRequest(null);
 
-        when(userAuthRepository.findByEmail(user.getEmail()))
+        when(userAuthRepository.findById(user.getId()))
                 .thenReturn(Optional.of(user));
         when(routeRepository.save(any(Route.class)))
                 .thenAnswer(i -> i.getArgument(0));
 
-        RouteResponseDTO response = routeService.createRoute(user.getEmail(), dto);
+        RouteResponseDTO response = routeService.createRoute(principal, dto);
 
         assertNotNull(response);
         assertNull(response.checkpoints());
@@ -165,13 +172,13 @@ class RouteCheckpointsUnitTests {
     @Test
     @DisplayName("Crear ruta — usuario no existe → excepción")
     void createRoute_UserNotFound_ShouldThrow() {
-        when(userAuthRepository.findByEmail(user.getEmail()))
+        when(userAuthRepository.findById(user.getId()))
                 .thenReturn(Optional.empty());
 
         RouteRequestDTO dto = buildRequest(List.of());
 
         assertThrows(UserAuthNotFoundException.class,
-                () -> routeService.createRoute(user.getEmail(), dto));
+                () -> routeService.createRoute(principal, dto));
     }
 
     @Test
@@ -181,7 +188,7 @@ class RouteCheckpointsUnitTests {
                 checkpoint("Old1", "11,22")
         )));
 
-        when(routeRepository.findByIdAndUserEmail(1L, user.getEmail()))
+        when(routeRepository.findByIdAndUserId(1L, user.getId()))
                 .thenReturn(Optional.of(route));
         when(routeRepository.save(any(Route.class)))
                 .thenAnswer(i -> i.getArgument(0));
@@ -191,7 +198,7 @@ class RouteCheckpointsUnitTests {
                 new CheckpointRequestDTO("New2", "41.2,-8.7")
         ));
 
-        RouteResponseDTO response = routeService.updateRoute(user.getEmail(), 1L, dto);
+        RouteResponseDTO response = routeService.updateRoute(principal, 1L, dto);
 
         assertNotNull(response);
         assertEquals(2, response.checkpoints().size());
@@ -205,14 +212,14 @@ class RouteCheckpointsUnitTests {
                 checkpoint("B", "2,2")
         )));
 
-        when(routeRepository.findByIdAndUserEmail(1L, user.getEmail()))
+        when(routeRepository.findByIdAndUserId(1L, user.getId()))
                 .thenReturn(Optional.of(route));
         when(routeRepository.save(any(Route.class)))
                 .thenAnswer(i -> i.getArgument(0));
 
         RouteRequestDTO dto = buildRequest(new ArrayList<>());
 
-        RouteResponseDTO result = routeService.updateRoute(user.getEmail(), 1L, dto);
+        RouteResponseDTO result = routeService.updateRoute(principal, 1L, dto);
 
         assertNotNull(result);
         assertEquals(0, result.checkpoints().size());
@@ -223,14 +230,14 @@ class RouteCheckpointsUnitTests {
     void updateRoute_NullList_AllowsNull() {
         Route route = mockRoute(1L, List.of(checkpoint("X", "1,1")));
 
-        when(routeRepository.findByIdAndUserEmail(1L, user.getEmail()))
+        when(routeRepository.findByIdAndUserId(1L, user.getId()))
                 .thenReturn(Optional.of(route));
         when(routeRepository.save(any(Route.class)))
                 .thenAnswer(i -> i.getArgument(0));
 
         RouteRequestDTO dto = buildRequest(null);
 
-        RouteResponseDTO result = routeService.updateRoute(user.getEmail(), 1L, dto);
+        RouteResponseDTO result = routeService.updateRoute(principal, 1L, dto);
 
         assertNull(result.checkpoints());
     }
@@ -238,13 +245,13 @@ class RouteCheckpointsUnitTests {
     @Test
     @DisplayName("Actualizar ruta — no encontrada")
     void updateRoute_RouteNotFound_ShouldThrow() {
-        when(routeRepository.findByIdAndUserEmail(99L, user.getEmail()))
+        when(routeRepository.findByIdAndUserId(99L, user.getId()))
                 .thenReturn(Optional.empty());
 
         RouteRequestDTO dto = buildRequest(List.of());
 
         assertThrows(RouteNotFoundException.class,
-                () -> routeService.updateRoute(user.getEmail(), 99L, dto));
+                () -> routeService.updateRoute(principal, 99L, dto));
     }
 
     @Test
@@ -255,10 +262,10 @@ class RouteCheckpointsUnitTests {
                 checkpoint("B", "22,22")
         ));
 
-        when(routeRepository.findByIdAndUserEmail(1L, user.getEmail()))
+        when(routeRepository.findByIdAndUserId(1L, user.getId()))
                 .thenReturn(Optional.of(route));
 
-        RouteResponseDTO result = routeService.getRouteById(1L, user.getEmail());
+        RouteResponseDTO result = routeService.getRouteById(1L, principal);
 
         assertEquals(2, result.checkpoints().size());
     }
@@ -266,10 +273,10 @@ class RouteCheckpointsUnitTests {
     @Test
     @DisplayName("Obtener ruta — no existe")
     void getRouteById_NotFound() {
-        when(routeRepository.findByIdAndUserEmail(1L, user.getEmail()))
+        when(routeRepository.findByIdAndUserId(1L, user.getId()))
                 .thenReturn(Optional.empty());
 
         assertThrows(RouteNotFoundException.class,
-                () -> routeService.getRouteById(1L, user.getEmail()));
+                () -> routeService.getRouteById(1L, principal));
     }
 }
@@ -4,8 +4,10 @@ import com.fitnessapp.fitapp_api.auth.model.UserAuth;
 import com.fitnessapp.fitapp_api.auth.repository.UserAuthRepository;
 import com.fitnessapp.fitapp_api.core.exception.RouteNotFoundException;
 import com.fitnessapp.fitapp_api.core.exception.UserAuthNotFoundException;
+import com.fitnessapp.fitapp_api.core.security.AuthenticatedUser;
 import com.fitnessapp.fitapp_api.route.dto.RouteRequestDTO;
 import com.fitnessapp.fitapp_api.route.dto.RouteResponseDTO;
+import com.fitnessapp.fitapp_api.route.event.UserRoutesChangedEvent;
 import com.fitnessapp.fitapp_api.route.mapper.RouteMapper;
 import com.fitnessapp.fitapp_api.route.model.Route;
 import com.fitnessapp.fitapp_api.route.repository.RouteRepository;
@@ -20,6 +22,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -43,16 +46,21 @@ class RouteServiceUnitTests {
     @Spy
     private RouteMapper mapper = Mappers.getMapper(RouteMapper.class);
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private RouteServiceImpl service;
 
     private UserAuth user;
+    private AuthenticatedUser principal;
 
     @BeforeEach
     void setup() {
         user = new UserAuth();
         user.setId(1L);
         user.setEmail("john@doe.com");
+        principal = new AuthenticatedUser(user.getId(), user.getEmail());
     }
 
     // --------------------------------------------------------------------------------------------
@@ -86,13 +94,13 @@ class RouteServiceUnitTests {
     @Test
     @DisplayName("getMyRoutes devuelve lista mapeada correctamente")
     void getMyRoutes_ShouldReturnList() {
-        when(routeRepository.findAllByUserEmail(user.getEmail()))
+        when(routeRepository.findAllByUserId(user.getId()))
                 .thenReturn(List.of(route(1L), route(2L)));
 
-        List<RouteResponseDTO> result = service.getMyRoutes(user.getEmail());
+        List<RouteResponseDTO> result = service.getMyRoutes(principal);
 
         assertEquals(2, result.size());
-        verify(routeRepository).findAllByUserEmail(user.getEmail());
+        verify(routeRepository).findAllByUserId(user.getId());
     }
 
     // =================================================================================================
@@ -101,10 +109,10 @@ class RouteServiceUnitTests {
     @Test
     @DisplayName("getRouteById — ruta encontrada → devuelve DTO")
     void getRouteById_ShouldReturnDto() {
-        when(routeRepository.findByIdAndUserEmail(1L, user.getEmail()))
+        when(routeRepository.findByIdAndUserId(1L, user.getId()))
                 .thenReturn(Optional.of(route(1L)));
 
-        RouteResponseDTO result = service.getRouteById(1L, user.getEmail());
+        RouteResponseDTO result = service.getRouteById(1L, principal);
 
         assertNotNull(result);
         assertEquals(1L, result.id());
@@ -113,11 +121,11 @@ class RouteServiceUnitTests {
     @Test
     @DisplayName("getRouteById — ruta no existe → lanza excepción")
     void getRouteById_NotFound_ShouldThrow() {
-        when(routeRepository.findByIdAndUserEmail(1L, user.getEmail()))
+        when(routeRepository.findByIdAndUserId(1L, user.getId()))
                 .thenReturn(Optional.empty());
 
         assertThrows(RouteNotFoundException.class,
-                () -> service.getRouteById(1L, user.getEmail()));
+                () -> service.getRouteById(1L, principal));
     }
 
     // =================================================================================================
@@ -128,25 +136,26 @@ class RouteServiceUnitTests {
     void createRoute_ShouldCreate() {
         RouteRequestDTO dto = request();
 
-        when(userAuthRepository.findByEmail(user.getEmail()))
+        when(userAuthRepository.findById(user.getId()))
                 .thenReturn(Optional.of(user));
         when(routeRepository.save(any(Route.class)))
                 .thenAnswer(inv -> inv.getArgument(0));
 
-        RouteResponseDTO result = service.createRoute(user.getEmail(), dto);
+        RouteResponseDTO result = service.createRoute(principal, dto);
 
         assertNotNull(result);
+        verify(eventPublisher).publishEvent(new UserRoutesChangedEvent(user.getId(), user.getEmail()));
         verify(routeRepository).save(any(Route.class));
     }
 
     @Test
     @DisplayName("createRoute — usuario no existe → lanza UserAuthNotFoundException")
     void createRoute_UserNotFound_ShouldThrow() {
-        when(userAuthRepository.findByEmail(user.getEmail()))
+        when(userAuthRepository.findById(user.getId()))
                 .thenReturn(Optional.empty());
 
         assertThrows(UserAuthNotFoundException.class,
-                () -> service.createRoute(user.getEmail(), request()));
+                () -> service.createRoute(principal, request()));
     }
 
     // =================================================================================================
@@ -156,12 +165,12 @@ class RouteServiceUnitTests {
     @DisplayName("updateRoute — ruta existe → actualiza y devuelve DTO")
     void updateRoute_ShouldUpdate() {
         Route existing = route(1L);
-        when(routeRepository.findByIdAndUserEmail(1L, user.getEmail()))
+        when(routeRepository.findByIdAndUserId(1L, user.getId()))
                 .thenReturn(Optional.of(existing));
         when(routeRepository.save(any(Route.class)))
                 .thenAnswer(inv -> inv.getArgument(0));
 
-        RouteResponseDTO result = service.updateRoute(user.getEmail(), 1L, request());
+        RouteResponseDTO result = service.updateRoute(principal, 1L, request());
 
         assertNotNull(result);
         verify(routeRepository).save(existing);
@@ -170,11 +179,11 @@ class RouteServiceUnitTests {
     @Test
     @DisplayName("updateRoute — ruta no existe → lanza excepción")
     void updateRoute_NotFound_ShouldThrow() {
-        when(routeRepository.findByIdAndUserEmail(1L, user.getEmail()))
+        when(routeRepository.findByIdAndUserId(1L, user.getId()))
                 .thenReturn(Optional.empty());
 
         assertThrows(RouteNotFoundException.class,
-                () -> service.updateRoute(user.getEmail(), 1L, request()));
+                () -> service.updateRoute(principal, 1L, request()));
     }
 
     // =================================================================================================
@@ -184,15 +193,16 @@ class RouteServiceUnitTests {
     @DisplayName("deleteRoute — sin ejecuciones → hard delete")
     void deleteRoute_NoExecutions_ShouldHardDelete() {
         Route r = route(1L);
-        when(routeRepository.findByIdAndUserEmail(1L, user.getEmail()))
+        when(routeRepository.findByIdAndUserId(1L, user.getId()))
                 .thenReturn(Optional.of(r));
 
         when(routeExecutionRepository.existsByRouteId(1L))
                 .thenReturn(false);
 
-        service.deleteRoute(user.getEmail(), 1L);
+        service.deleteRoute(principal, 1L);
 
         verify(routeRepository).hardDelete(1L);
+        verify(eventPublisher).publishEvent(new UserRoutesChangedEvent(user.getId(), user.getEmail()));
     }
 
     @Test
@@ -200,24 +210,26 @@ class RouteServiceUnitTests {
     void deleteRoute_WithExecutions_ShouldSoftDelete() {
         Route r = route(1L);
 
-        when(routeRepository.findByIdAndUserEmail(1L, user.getEmail()))
+        when(routeRepository.findByIdAndUserId(1L, user.getId()))
                 .thenReturn(Optional.of(r));
 
         when(routeExecutionRepository.existsByRouteId(1L))
                 .thenReturn(true);
 
-        service.deleteRoute(user.getEmail(), 1L);
+        service.deleteRoute(principal, 1L);
 
         verify(routeRepository).delete(r);
+        // Las ejecuciones conservan la fila pero se muestran como "Ruta Eliminada"
+        verify(routeExecutionRepository).clearRouteNameByRouteId(1L);
     }
 
     @Test
     @DisplayName("deleteRoute — ruta no existe → lanza RouteNotFoundException")
     void deleteRoute_NotFound_ShouldThrow() {
-        when(routeRepository.findByIdAndUserEmail(1L, user.getEmail()))
+        when(routeRepository.findByIdAndUserId(1L, user.getId()))
                 .thenReturn(Optional.empty());
 
         assertThrows(RouteNotFoundException.class,
-                () -> service.deleteRoute(user.getEmail(), 1L));
+                () -> service.deleteRoute(principal, 1L));
     }
 }
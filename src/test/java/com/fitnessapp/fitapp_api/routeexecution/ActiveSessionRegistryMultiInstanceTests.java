@@ -0,0 +1,117 @@
+package com.fitnessapp.fitapp_api.routeexecution;
+
+import com.fitnessapp.fitapp_api.auth.model.UserAuth;
+import com.fitnessapp.fitapp_api.auth.repository.UserAuthRepository;
+import com.fitnessapp.fitapp_api.core.security.AuthenticatedUser;
+import com.fitnessapp.fitapp_api.route.model.Route;
+import com.fitnessapp.fitapp_api.route.repository.RouteRepository;
+import com.fitnessapp.fitapp_api.routeexecution.dto.RouteExecutionRequestDTO;
+import com.fitnessapp.fitapp_api.routeexecution.dto.RouteExecutionResponseDTO;
+import com.fitnessapp.fitapp_api.routeexecution.mapper.RouteExecutionMapper;
+import com.fitnessapp.fitapp_api.routeexecution.model.RouteExecution;
+import com.fitnessapp.fitapp_api.routeexecution.model.RouteExecution.RouteExecutionStatus;
+import com.fitnessapp.fitapp_api.routeexecution.repository.RouteExecutionRepository;
+import com.fitnessapp.fitapp_api.routeexecution.service.RouteExecutionService;
+import com.fitnessapp.fitapp_api.routeexecution.session.ActiveSessionRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Dos instancias de la API contra la misma BD: la del contexto (a través del servicio) y un segundo registro
+ * creado a mano. Las pausas y reanudaciones de una instancia deben verse en la otra sin depender de su caché.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ActiveSessionRegistryMultiInstanceTests {
+
+    @Autowired
+    private RouteExecutionService service;
+    @Autowired
+    private RouteExecutionRepository executionRepository;
+    @Autowired
+    private RouteExecutionMapper mapper;
+    @Autowired
+    private UserAuthRepository userAuthRepository;
+    @Autowired
+    private RouteRepository routeRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ActiveSessionRegistry otherInstance;
+    private TransactionTemplate tx;
+    private AuthenticatedUser principal;
+    private Long routeId;
+
+    @BeforeEach
+    void setUp() {
+        otherInstance = new ActiveSessionRegistry(executionRepository, mapper, Duration.ofHours(1), 100,
+                new SimpleMeterRegistry());
+        tx = new TransactionTemplate(transactionManager);
+
+        UserAuth user = new UserAuth();
+        user.setEmail("multi-" + System.nanoTime() + "@example.com");
+        user.setPassword("x");
+        user = userAuthRepository.save(user);
+        principal = new AuthenticatedUser(user.getId(), user.getEmail());
+
+        Route route = new Route();
+        route.setUser(user);
+        route.setName("Ruta compartida");
+        route.setStartPoint("A");
+        route.setEndPoint("B");
+        route.setDistanceKm(BigDecimal.valueOf(5));
+        routeId = routeRepository.save(route).getId();
+    }
+
+    @Test
+    @DisplayName("pausa en una instancia y reanudación en otra — ambas ven el estado de la fila, no el de su caché")
+    void pauseAndResumeAcrossInstances_ShouldUseRowState() {
+        // Instancia A inicia: su registro guarda la ejecución como IN_PROGRESS
+        Long executionId = service.startExecution(principal, routeId,
+                new RouteExecutionRequestDTO(RouteExecution.ActivityType.RUNNING_MODERATE, null)).id();
+
+        // Instancia B pausa
+        RouteExecutionResponseDTO paused = onOther(() -> otherInstance.pause(executionId, principal.id(), LocalDateTime.now()));
+        assertEquals("PAUSED", paused.status());
+        assertEquals(RouteExecutionStatus.PAUSED, executionRepository.findById(executionId).orElseThrow().getStatus());
+
+        // A reanuda aunque su caché la tenía IN_PROGRESS; pausar en A otra vez devuelve la pausa vigente
+        assertEquals("IN_PROGRESS", service.resumeExecution(principal, executionId).status());
+        assertThrows(IllegalStateException.class,
+                () -> onOther(() -> otherInstance.resume(executionId, principal.id(), LocalDateTime.now())));
+
+        RouteExecutionResponseDTO pausedInB = onOther(() -> otherInstance.pause(executionId, principal.id(), LocalDateTime.now()));
+        RouteExecutionResponseDTO pausedInA = service.pauseExecution(principal, executionId);
+        assertEquals("PAUSED", pausedInA.status());
+        assertEquals(pausedInB.pauseTime(), pausedInA.pauseTime());
+
+        // A finaliza: B ya no puede reanudar y la descarta de su caché
+        assertEquals("FINISHED", service.finishExecution(principal, executionId, new RouteExecutionRequestDTO(null, null)).status());
+        assertThrows(IllegalStateException.class,
+                () -> onOther(() -> otherInstance.resume(executionId, principal.id(), LocalDateTime.now())));
+        assertEquals(0, otherInstance.size());
+
+        RouteExecution row = executionRepository.findById(executionId).orElseThrow();
+        assertEquals(RouteExecutionStatus.FINISHED, row.getStatus());
+        assertNull(row.getPauseTime());
+        assertTrue(row.getTotalPausedTimeSec() >= 0);
+    }
+
+    private RouteExecutionResponseDTO onOther(Supplier<RouteExecutionResponseDTO> call) {
+        return tx.execute(status -> call.get());
+    }
+}
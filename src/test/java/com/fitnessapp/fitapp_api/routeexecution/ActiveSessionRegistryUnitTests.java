@@ -0,0 +1,251 @@
+package com.fitnessapp.fitapp_api.routeexecution;
+
+import com.fitnessapp.fitapp_api.auth.model.UserAuth;
+import com.fitnessapp.fitapp_api.core.exception.RouteExecutionNotFoundException;
+import com.fitnessapp.fitapp_api.route.model.Route;
+import com.fitnessapp.fitapp_api.routeexecution.dto.RouteExecutionResponseDTO;
+import com.fitnessapp.fitapp_api.routeexecution.mapper.RouteExecutionMapper;
+import com.fitnessapp.fitapp_api.routeexecution.model.RouteExecution;
+import com.fitnessapp.fitapp_api.routeexecution.model.RouteExecution.RouteExecutionStatus;
+import com.fitnessapp.fitapp_api.routeexecution.repository.RouteExecutionRepository;
+import com.fitnessapp.fitapp_api.routeexecution.repository.SessionStateView;
+import com.fitnessapp.fitapp_api.routeexecution.session.ActiveSessionRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ActiveSessionRegistryUnitTests {
+
+    @Mock
+    private RouteExecutionRepository executionRepository;
+
+    private final RouteExecutionMapper mapper = Mappers.getMapper(RouteExecutionMapper.class);
+    private ActiveSessionRegistry registry;
+    private UserAuth user;
+    private Route route;
+
+    @BeforeEach
+    void setUp() {
+        registry = new ActiveSessionRegistry(executionRepository, mapper, Duration.ofHours(12), 1000,
+                new SimpleMeterRegistry());
+        user = new UserAuth();
+        user.setId(1L);
+        user.setEmail("tester@example.com");
+        route = new Route();
+        route.setId(10L);
+        route.setName("Ruta Test");
+    }
+
+    private RouteExecution execution(Long id, RouteExecutionStatus status, LocalDateTime pauseTime, long totalPaused) {
+        RouteExecution ex = new RouteExecution();
+        ex.setId(id);
+        ex.setRoute(route);
+        ex.setRouteName(route.getName());
+        ex.setDistanceKm(BigDecimal.valueOf(3.0));
+        ex.setUser(user);
+        ex.setStatus(status);
+        ex.setStartTime(LocalDateTime.now().minusHours(1));
+        ex.setPauseTime(pauseTime);
+        ex.setTotalPausedTimeSec(totalPaused);
+        ex.setDurationSec(0L);
+        return ex;
+    }
+
+    private RouteExecutionResponseDTO started(Long id) {
+        return mapper.toResponseDto(execution(id, RouteExecutionStatus.IN_PROGRESS, null, 0L));
+    }
+
+    // Estado de la fila tal como lo deja el UPDATE de la transición
+    private void rowState(Long id, RouteExecutionStatus status, LocalDateTime pauseTime, long totalPaused) {
+        when(executionRepository.findSessionState(id)).thenReturn(Optional.of(new StateRow(status, pauseTime, totalPaused)));
+    }
+
+    private record StateRow(RouteExecutionStatus status, LocalDateTime pauseTime, Long totalPaused)
+            implements SessionStateView {
+        @Override
+        public RouteExecutionStatus getStatus() {
+            return status;
+        }
+
+        @Override
+        public LocalDateTime getPauseTime() {
+            return pauseTime;
+        }
+
+        @Override
+        public Long getTotalPausedTimeSec() {
+            return totalPaused;
+        }
+    }
+
+    @Test
+    @DisplayName("pause/resume — sesión registrada: UPDATE condicionado y respuesta con el estado de la fila, sin recargarla")
+    void pauseAndResume_TrackedSession_ShouldWriteThrough() {
+        registry.track(user.getId(), started(100L));
+        LocalDateTime pausedAt = LocalDateTime.now();
+
+        when(executionRepository.pause(100L, user.getId(), pausedAt, RouteExecutionStatus.IN_PROGRESS,
+                RouteExecutionStatus.PAUSED)).thenReturn(1);
+        rowState(100L, RouteExecutionStatus.PAUSED, pausedAt, 0L);
+        var paused = registry.pause(100L, user.getId(), pausedAt);
+        assertEquals("PAUSED", paused.status());
+        assertEquals(pausedAt, paused.pauseTime());
+        assertEquals("Ruta Test", paused.routeName());
+
+        LocalDateTime resumedAt = pausedAt.plusSeconds(90);
+        when(executionRepository.resume(100L, user.getId(), resumedAt, RouteExecutionStatus.PAUSED,
+                RouteExecutionStatus.IN_PROGRESS)).thenReturn(1);
+        rowState(100L, RouteExecutionStatus.IN_PROGRESS, null, 90L);
+        var resumed = registry.resume(100L, user.getId(), resumedAt);
+        assertEquals("IN_PROGRESS", resumed.status());
+        assertNull(resumed.pauseTime());
+        assertEquals(90L, resumed.totalPausedTimeSec());
+
+        verify(executionRepository, never()).findOpenWithUser(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("pause — si ya estaba pausada (por esta u otra instancia) devuelve la pausa existente")
+    void pause_AlreadyPaused_ShouldReturnCurrentState() {
+        registry.track(user.getId(), started(105L));
+        LocalDateTime pausedAt = LocalDateTime.now().minusSeconds(30);
+        when(executionRepository.pause(eq(105L), eq(user.getId()), any(), any(), any())).thenReturn(0);
+        rowState(105L, RouteExecutionStatus.PAUSED, pausedAt, 0L);
+
+        assertEquals(pausedAt, registry.pause(105L, user.getId(), LocalDateTime.now()).pauseTime());
+    }
+
+    @Test
+    @DisplayName("resume — si la fila no está pausada lanza IllegalStateException")
+    void resume_NotPaused_ShouldThrow() {
+        registry.track(user.getId(), started(101L));
+        when(executionRepository.resume(eq(101L), eq(user.getId()), any(), any(), any())).thenReturn(0);
+        rowState(101L, RouteExecutionStatus.IN_PROGRESS, null, 0L);
+
+        assertThrows(IllegalStateException.class, () -> registry.resume(101L, user.getId(), LocalDateTime.now()));
+        assertEquals(1, registry.size());
+    }
+
+    @Test
+    @DisplayName("pause — sesión de otro usuario se trata como inexistente")
+    void pause_OtherUser_ShouldThrowNotFound() {
+        registry.track(user.getId(), started(102L));
+
+        assertThrows(RouteExecutionNotFoundException.class, () -> registry.pause(102L, 2L, LocalDateTime.now()));
+        verify(executionRepository, never()).pause(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("resume — sesión fuera del registro se carga de BD una sola vez")
+    void resume_Untracked_ShouldLoadOnce() {
+        RouteExecution open = execution(103L, RouteExecutionStatus.PAUSED, LocalDateTime.now().minusMinutes(2), 30L);
+        when(executionRepository.findOpenWithUser(103L, user.getId(), ActiveSessionRegistry.OPEN_STATUSES))
+                .thenReturn(Optional.of(open));
+        when(executionRepository.resume(eq(103L), eq(user.getId()), any(), any(), any())).thenReturn(1);
+        when(executionRepository.pause(eq(103L), eq(user.getId()), any(), any(), any())).thenReturn(1);
+        when(executionRepository.findSessionState(103L)).thenReturn(
+                Optional.of(new StateRow(RouteExecutionStatus.IN_PROGRESS, null, 150L)),
+                Optional.of(new StateRow(RouteExecutionStatus.PAUSED, LocalDateTime.now(), 150L)));
+
+        LocalDateTime now = LocalDateTime.now();
+        assertEquals(150L, registry.resume(103L, user.getId(), now).totalPausedTimeSec());
+        assertEquals("PAUSED", registry.pause(103L, user.getId(), now.plusSeconds(10)).status());
+
+        verify(executionRepository, times(1)).findOpenWithUser(any(), any(), any());
+        assertEquals(1, registry.size());
+    }
+
+    @Test
+    @DisplayName("pause — ejecución ya finalizada lanza IllegalStateException; inexistente, RouteExecutionNotFoundException")
+    void pause_NotOpen_ShouldThrow() {
+        when(executionRepository.findOpenWithUser(eq(104L), eq(user.getId()), any())).thenReturn(Optional.empty());
+        when(executionRepository.findByIdAndUserId(104L, user.getId()))
+                .thenReturn(Optional.of(execution(104L, RouteExecutionStatus.FINISHED, null, 0L)));
+        when(executionRepository.findOpenWithUser(eq(999L), eq(user.getId()), any())).thenReturn(Optional.empty());
+        when(executionRepository.findByIdAndUserId(999L, user.getId())).thenReturn(Optional.empty());
+
+        assertThrows(IllegalStateException.class, () -> registry.pause(104L, user.getId(), LocalDateTime.now()));
+        assertThrows(RouteExecutionNotFoundException.class, () -> registry.pause(999L, user.getId(), LocalDateTime.now()));
+        assertEquals(0, registry.size());
+    }
+
+    @Test
+    @DisplayName("pause — registrada aquí pero finalizada desde otra instancia: lanza IllegalStateException y sale del registro")
+    void pause_ClosedElsewhere_ShouldThrowAndEvict() {
+        registry.track(user.getId(), started(106L));
+        when(executionRepository.pause(eq(106L), eq(user.getId()), any(), any(), any())).thenReturn(0);
+        rowState(106L, RouteExecutionStatus.FINISHED, null, 0L);
+
+        assertThrows(IllegalStateException.class, () -> registry.pause(106L, user.getId(), LocalDateTime.now()));
+        assertEquals(0, registry.size());
+    }
+
+    @Test
+    @DisplayName("load — registra las ejecuciones abiertas de BD")
+    void load_ShouldRegisterOpenExecutions() {
+        when(executionRepository.findAllOpenWithUser(ActiveSessionRegistry.OPEN_STATUSES)).thenReturn(List.of(
+                execution(140L, RouteExecutionStatus.IN_PROGRESS, null, 0L),
+                execution(141L, RouteExecutionStatus.PAUSED, LocalDateTime.now(), 12L)));
+        when(executionRepository.resume(eq(141L), eq(user.getId()), any(), any(), any())).thenReturn(1);
+        rowState(141L, RouteExecutionStatus.IN_PROGRESS, null, 20L);
+
+        assertEquals(2, registry.load());
+        assertEquals(2, registry.size());
+        assertEquals("IN_PROGRESS", registry.resume(141L, user.getId(), LocalDateTime.now()).status());
+        verify(executionRepository, never()).findOpenWithUser(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("evict — la sesión sale del registro y el siguiente acceso va a BD")
+    void evict_ShouldDropSessionSoNextAccessHitsDatabase() {
+        registry.track(user.getId(), started(130L));
+
+        registry.evict(List.of(130L));
+
+        assertEquals(0, registry.size());
+        RouteExecution expired = execution(130L, RouteExecutionStatus.EXPIRED, null, 0L);
+        when(executionRepository.findOpenWithUser(130L, user.getId(), ActiveSessionRegistry.OPEN_STATUSES))
+                .thenReturn(Optional.empty());
+        when(executionRepository.findByIdAndUserId(130L, user.getId())).thenReturn(Optional.of(expired));
+        assertThrows(IllegalStateException.class, () -> registry.resume(130L, user.getId(), LocalDateTime.now()));
+    }
+
+    @Test
+    @DisplayName("track — dentro de una transacción la sesión solo se registra si se confirma")
+    void track_InTransaction_ShouldRegisterOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            registry.track(user.getId(), started(140L));
+            registry.track(user.getId(), started(141L));
+            assertEquals(0, registry.size());
+
+            List<TransactionSynchronization> callbacks = TransactionSynchronizationManager.getSynchronizations();
+            callbacks.get(0).afterCommit();
+            callbacks.get(1).afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(1, registry.size());
+        when(executionRepository.pause(eq(140L), eq(user.getId()), any(), any(), any())).thenReturn(1);
+        rowState(140L, RouteExecutionStatus.PAUSED, LocalDateTime.now(), 0L);
+        assertEquals("PAUSED", registry.pause(140L, user.getId(), LocalDateTime.now()).status());
+    }
+}
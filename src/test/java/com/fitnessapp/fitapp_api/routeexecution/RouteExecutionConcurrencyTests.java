@@ -0,0 +1,157 @@
+package com.fitnessapp.fitapp_api.routeexecution;
+
+import com.fitnessapp.fitapp_api.auth.model.UserAuth;
+import com.fitnessapp.fitapp_api.auth.repository.UserAuthRepository;
+import com.fitnessapp.fitapp_api.core.security.AuthenticatedUser;
+import com.fitnessapp.fitapp_api.route.model.Route;
+import com.fitnessapp.fitapp_api.route.repository.RouteRepository;
+import com.fitnessapp.fitapp_api.routeexecution.dto.RouteExecutionRequestDTO;
+import com.fitnessapp.fitapp_api.routeexecution.model.RouteExecution;
+import com.fitnessapp.fitapp_api.routeexecution.model.RouteExecution.RouteExecutionStatus;
+import com.fitnessapp.fitapp_api.routeexecution.model.RouteExecutionOutbox;
+import com.fitnessapp.fitapp_api.routeexecution.repository.RouteExecutionOutboxRepository;
+import com.fitnessapp.fitapp_api.routeexecution.repository.RouteExecutionRepository;
+import com.fitnessapp.fitapp_api.routeexecution.service.RouteExecutionService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Estrés de las transiciones de estado contra H2: muchos hilos pausan, reanudan y finalizan la misma ejecución
+ * a la vez (cada transición es un UPDATE condicionado al estado) y se comprueba que no se pierde ni se duplica
+ * ningún cambio.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class RouteExecutionConcurrencyTests {
+
+    private static final int THREADS = 8;
+    private static final int OPS_PER_THREAD = 50;
+    private static final long INITIAL_PAUSE_SEC = 3600;
+
+    @Autowired
+    private RouteExecutionService service;
+    @Autowired
+    private RouteExecutionRepository executionRepository;
+    @Autowired
+    private RouteExecutionOutboxRepository outboxRepository;
+    @Autowired
+    private UserAuthRepository userAuthRepository;
+    @Autowired
+    private RouteRepository routeRepository;
+
+    @Test
+    @DisplayName("pause/resume/finish concurrentes — el tiempo en pausa se acumula una vez y solo un finish encola el outbox")
+    void concurrentTransitions_ShouldKeepInvariants() throws Exception {
+        UserAuth user = new UserAuth();
+        user.setEmail("stress-" + System.nanoTime() + "@example.com");
+        user.setPassword("x");
+        user = userAuthRepository.save(user);
+
+        Route route = new Route();
+        route.setUser(user);
+        route.setName("Ruta estrés");
+        route.setStartPoint("A");
+        route.setEndPoint("B");
+        route.setDistanceKm(BigDecimal.valueOf(5));
+        route = routeRepository.save(route);
+
+        // Pausada desde hace una hora: el primer resume que gane debe sumar ~3600 s, y solo uno puede hacerlo
+        LocalDateTime now = LocalDateTime.now();
+        RouteExecution exec = new RouteExecution();
+        exec.setRoute(route);
+        exec.setRouteName(route.getName());
+        exec.setUser(user);
+        exec.setStatus(RouteExecutionStatus.PAUSED);
+        exec.setActivityType(RouteExecution.ActivityType.RUNNING_MODERATE);
+        exec.setStartTime(now.minusHours(2));
+        exec.setPauseTime(now.minusSeconds(INITIAL_PAUSE_SEC));
+        exec.setTotalPausedTimeSec(0L);
+        exec.setDurationSec(0L);
+        Long executionId = executionRepository.save(exec).getId();
+        long initialVersion = executionRepository.findById(executionId).orElseThrow().getVersion();
+
+        AuthenticatedUser principal = new AuthenticatedUser(user.getId(), user.getEmail());
+        AtomicInteger finishes = new AtomicInteger();
+        List<Throwable> unexpected = new CopyOnWriteArrayList<>();
+        CyclicBarrier startLine = new CyclicBarrier(THREADS);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        long started = System.nanoTime();
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(pool.submit(() -> {
+                startLine.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < OPS_PER_THREAD; i++) {
+                    try {
+                        if (random.nextBoolean()) {
+                            service.pauseExecution(principal, executionId);
+                        } else {
+                            service.resumeExecution(principal, executionId);
+                        }
+                    } catch (IllegalStateException expected) {
+                        // Transición no válida en el estado que dejó otro hilo
+                    } catch (Throwable e) {
+                        unexpected.add(e);
+                    }
+                }
+                // Todos intentan finalizar a la vez al terminar
+                try {
+                    var dto = service.finishExecution(principal, executionId, new RouteExecutionRequestDTO(null, "fin"));
+                    assertEquals("FINISHED", dto.status());
+                    finishes.incrementAndGet();
+                } catch (Throwable e) {
+                    unexpected.add(e);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> f : futures) {
+            f.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+        long elapsedSec = Duration.ofNanos(System.nanoTime() - started).toSeconds() + 1;
+
+        assertTrue(unexpected.isEmpty(), () -> "Unexpected errors: " + unexpected);
+        assertEquals(THREADS, finishes.get());
+
+        RouteExecution result = executionRepository.findById(executionId).orElseThrow();
+        assertEquals(RouteExecutionStatus.FINISHED, result.getStatus());
+        assertNull(result.getPauseTime());
+
+        // La pausa inicial se suma una sola vez; el resto de pausas del test duran como mucho lo que dura el test
+        long totalPaused = result.getTotalPausedTimeSec();
+        assertTrue(totalPaused >= INITIAL_PAUSE_SEC - 1 && totalPaused <= INITIAL_PAUSE_SEC + elapsedSec,
+                "totalPausedTimeSec = " + totalPaused);
+
+        long wallSec = Duration.between(result.getStartTime(), result.getEndTime()).toSeconds();
+        assertTrue(result.getDurationSec() >= 0);
+        assertTrue(result.getDurationSec() + totalPaused <= wallSec + 1,
+                "duration " + result.getDurationSec() + " + paused " + totalPaused + " > wall " + wallSec);
+
+        // Cada transición que gana incrementa la versión de la fila
+        assertTrue(result.getVersion() > initialVersion);
+
+        // Un único finish gana y encola el post-procesado
+        List<RouteExecutionOutbox> outboxEntries = outboxRepository.findAll().stream()
+                .filter(o -> o.getExecutionId().equals(executionId))
+                .toList();
+        assertEquals(1, outboxEntries.size());
+        // El worker está desactivado en el perfil de test: nadie lo ha tocado en segundo plano
+        assertEquals(RouteExecutionOutbox.OutboxStatus.PENDING, outboxEntries.get(0).getStatus());
+        assertEquals(0, outboxEntries.get(0).getAttempts());
+    }
+}
@@ -0,0 +1,298 @@
+package com.fitnessapp.fitapp_api.routeexecution;
+
+import com.fitnessapp.fitapp_api.auth.model.UserAuth;
+import com.fitnessapp.fitapp_api.calories.dto.CCActivityRequest;
+import com.fitnessapp.fitapp_api.calories.service.CalorieCalculationService;
+import com.fitnessapp.fitapp_api.gamification.counter.DailyPointsCounter;
+import com.fitnessapp.fitapp_api.gamification.dto.PCActivityRequestDTO;
+import com.fitnessapp.fitapp_api.gamification.model.PointsReason;
+import com.fitnessapp.fitapp_api.gamification.service.PointsCalculationService;
+import com.fitnessapp.fitapp_api.gamification.service.PointsLedgerService;
+import com.fitnessapp.fitapp_api.profile.cache.ProfileSnapshot;
+import com.fitnessapp.fitapp_api.profile.cache.ProfileSnapshotCache;
+import com.fitnessapp.fitapp_api.profile.util.Gender;
+import com.fitnessapp.fitapp_api.routeexecution.event.RouteExecutionFinishedEvent;
+import com.fitnessapp.fitapp_api.routeexecution.model.RouteExecution;
+import com.fitnessapp.fitapp_api.routeexecution.model.RouteExecution.RouteExecutionStatus;
+import com.fitnessapp.fitapp_api.routeexecution.model.RouteExecutionOutbox;
+import com.fitnessapp.fitapp_api.routeexecution.model.RouteExecutionOutbox.OutboxStatus;
+import com.fitnessapp.fitapp_api.routeexecution.repository.RouteExecutionOutboxRepository;
+import com.fitnessapp.fitapp_api.routeexecution.repository.RouteExecutionRepository;
+import com.fitnessapp.fitapp_api.routeexecution.service.implementation.RouteExecutionFinishProcessorImpl;
+import com.fitnessapp.fitapp_api.stats.repository.DailyTotalsView;
+import com.fitnessapp.fitapp_api.stats.repository.UserDailyActivityRepository;
+import com.fitnessapp.fitapp_api.stats.service.DailyActivityService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RouteExecutionFinishProcessorUnitTests {
+
+    @Mock
+    private RouteExecutionOutboxRepository outboxRepository;
+    @Mock
+    private RouteExecutionRepository executionRepository;
+    @Mock
+    private ProfileSnapshotCache profileSnapshotCache;
+    @Mock
+    private CalorieCalculationService calorieCalculationService;
+    @Mock
+    private PointsCalculationService pointsCalculationService;
+    @Mock
+    private PointsLedgerService pointsLedgerService;
+    private final UserDailyActivityRepository dailyActivityRepository = mock(UserDailyActivityRepository.class);
+    @Spy
+    private DailyPointsCounter dailyPointsCounter = new DailyPointsCounter(dailyActivityRepository);
+    @Mock
+    private DailyActivityService dailyActivityService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private RouteExecutionFinishProcessorImpl processor;
+
+    private UserAuth user;
+
+    @BeforeEach
+    void setUp() {
+        user = new UserAuth();
+        user.setId(1L);
+        user.setEmail("tester@example.com");
+    }
+
+    // Perfil completo tal como lo devuelve la caché de snapshots
+    private ProfileSnapshot snapshot() {
+        return new ProfileSnapshot(user.getId(), user.getEmail(), Gender.MALE, LocalDate.of(1990, 1, 1),
+                BigDecimal.valueOf(180), BigDecimal.valueOf(75), null, 500, true);
+    }
+
+    // Ejecución recién finalizada, pendiente de post-procesado, con su registro en el outbox
+    private RouteExecution stubFinished(Long id, RouteExecution.ActivityType activityType, long durationSec) {
+        RouteExecution exec = new RouteExecution();
+        exec.setId(id);
+        exec.setUser(user);
+        exec.setRouteName("Ruta Test");
+        exec.setDistanceKm(BigDecimal.valueOf(3.0));
+        exec.setStatus(RouteExecutionStatus.FINISHED);
+        exec.setActivityType(activityType);
+        exec.setStartTime(LocalDateTime.now().minusSeconds(durationSec));
+        exec.setEndTime(LocalDateTime.now());
+        exec.setDurationSec(durationSec);
+        exec.setPostFinishPending(true);
+
+        RouteExecutionOutbox outbox = RouteExecutionOutbox.pendingFor(id, user.getId(), user.getEmail(),
+                LocalDateTime.now().minusSeconds(1));
+        outbox.setId(id + 1000);
+        when(outboxRepository.findByIdAndStatusForUpdate(id + 1000, OutboxStatus.PENDING)).thenReturn(Optional.of(outbox));
+        when(executionRepository.findById(id)).thenReturn(Optional.of(exec));
+        return exec;
+    }
+
+    private void stubSave() {
+        when(executionRepository.save(any(RouteExecution.class))).thenAnswer(inv -> inv.getArgument(0));
+    }
+
+    @Test
+    @DisplayName("process — calcula calorías y puntos, registra ledger y resumen diario y marca el registro como hecho")
+    void process_ShouldApplyPostFinishAndMarkDone() {
+        RouteExecution exec = stubFinished(400L, RouteExecution.ActivityType.RUNNING_MODERATE, 600L);
+        ProfileSnapshot profile = snapshot();
+        when(profileSnapshotCache.get(user.getId())).thenReturn(Optional.of(profile));
+        when(calorieCalculationService.calculateCalories(any(ProfileSnapshot.class), any(CCActivityRequest.class))).thenReturn(123.45);
+        when(calorieCalculationService.hasReachedDailyGoal(eq(profile), anyDouble())).thenReturn(false);
+        when(pointsCalculationService.calculatePoints(any())).thenReturn(40L);
+        stubSave();
+
+        assertTrue(processor.process(1400L));
+
+        assertEquals(123.45, exec.getCalories().doubleValue(), 0.01);
+        assertEquals(40L, exec.getPoints());
+        assertFalse(exec.isPostFinishPending());
+        verify(pointsLedgerService).award(user.getId(), 400L, 40L, PointsReason.ROUTE_EXECUTION);
+        verify(dailyActivityService).recordFinishedExecution(exec, profile.timeZone());
+        verify(eventPublisher).publishEvent(new RouteExecutionFinishedEvent(400L, user.getId(), user.getEmail()));
+    }
+
+    @Test
+    @DisplayName("process — el registro queda DONE con fecha de procesado")
+    void process_ShouldMarkOutboxDone() {
+        stubFinished(402L, RouteExecution.ActivityType.WALKING_SLOW, 600L);
+        when(profileSnapshotCache.get(user.getId())).thenReturn(Optional.empty());
+        stubSave();
+
+        processor.process(1402L);
+
+        RouteExecutionOutbox outbox = outboxRepository.findByIdAndStatusForUpdate(1402L, OutboxStatus.PENDING).orElseThrow();
+        assertEquals(OutboxStatus.DONE, outbox.getStatus());
+        assertNotNull(outbox.getProcessedAt());
+    }
+
+    @Test
+    @DisplayName("process — entrega repetida: si la ejecución ya no está pendiente no vuelve a puntuar")
+    void process_ExecutionAlreadyProcessed_ShouldNotApplyTwice() {
+        RouteExecution exec = stubFinished(403L, RouteExecution.ActivityType.RUNNING_SLOW, 900L);
+        exec.setPostFinishPending(false);
+
+        assertTrue(processor.process(1403L));
+
+        verify(executionRepository, never()).save(any());
+        verifyNoInteractions(profileSnapshotCache, pointsLedgerService, dailyActivityService, eventPublisher);
+    }
+
+    @Test
+    @DisplayName("process — si otro worker ya lo procesó no hace nada")
+    void process_AlreadyClaimed_ShouldSkip() {
+        when(outboxRepository.findByIdAndStatusForUpdate(77L, OutboxStatus.PENDING)).thenReturn(Optional.empty());
+
+        assertFalse(processor.process(77L));
+
+        verifyNoInteractions(executionRepository, pointsLedgerService, dailyActivityService);
+    }
+
+    @Test
+    @DisplayName("process — sin perfil no calcula puntos pero sí suma el resumen diario")
+    void process_NoProfile_ShouldSkipPointsCalculation() {
+        RouteExecution exec = stubFinished(601L, RouteExecution.ActivityType.WALKING_MODERATE, 900L);
+        when(profileSnapshotCache.get(user.getId())).thenReturn(Optional.empty());
+        stubSave();
+
+        processor.process(1601L);
+
+        assertEquals(0L, exec.getPoints());
+        assertEquals(BigDecimal.ZERO, exec.getCalories());
+        verify(pointsCalculationService, never()).calculatePoints(any());
+        verifyNoInteractions(pointsLedgerService);
+        verify(dailyActivityService).recordFinishedExecution(exec, null);
+    }
+
+    @Test
+    @DisplayName("process — múltiples rutas registran un movimiento de puntos cada una con los acumulados del día")
+    void process_MultipleRoutes_ShouldKeepAccumulatingPoints() {
+        stubFinished(700L, RouteExecution.ActivityType.RUNNING_INTENSE, 1200L);
+        stubFinished(701L, RouteExecution.ActivityType.CYCLING_MODERATE, 900L);
+        ProfileSnapshot profile = snapshot();
+        when(profileSnapshotCache.get(user.getId())).thenReturn(Optional.of(profile));
+        when(calorieCalculationService.calculateCalories(any(ProfileSnapshot.class), any(CCActivityRequest.class)))
+                .thenReturn(300.0, 180.0);
+        when(calorieCalculationService.hasReachedDailyGoal(eq(profile), anyDouble())).thenReturn(true);
+        when(pointsCalculationService.calculatePoints(any())).thenReturn(80L, 35L);
+        // La fila del día (bloqueada) ya incluye la primera sesión cuando se procesa la segunda
+        when(dailyActivityRepository.lockDailyTotals(eq(user.getId()), any(LocalDate.class)))
+                .thenReturn(Optional.empty(), Optional.of(dailyTotals(80L, 1, 300.0)));
+        stubSave();
+
+        processor.process(1700L);
+        processor.process(1701L);
+
+        verify(pointsLedgerService).award(user.getId(), 700L, 80L, PointsReason.ROUTE_EXECUTION);
+        verify(pointsLedgerService).award(user.getId(), 701L, 35L, PointsReason.ROUTE_EXECUTION);
+
+        // La segunda sesión se calcula con los acumulados del día tras la primera, leídos con la fila bloqueada
+        verify(dailyActivityRepository, times(2)).ensureDay(eq(user.getId()), any(LocalDate.class));
+        ArgumentCaptor<PCActivityRequestDTO> captor = ArgumentCaptor.forClass(PCActivityRequestDTO.class);
+        verify(pointsCalculationService, times(2)).calculatePoints(captor.capture());
+        assertEquals(0L, captor.getAllValues().get(0).pointsAwardedToday());
+        assertEquals(0, captor.getAllValues().get(0).sessionsToday());
+        assertEquals(80L, captor.getAllValues().get(1).pointsAwardedToday());
+        assertEquals(1, captor.getAllValues().get(1).sessionsToday());
+
+        // El objetivo de kcal se comprueba con el acumulado del día, incluida la sesión que se procesa
+        verify(calorieCalculationService).hasReachedDailyGoal(profile, 300.0);
+        verify(calorieCalculationService).hasReachedDailyGoal(profile, 480.0);
+    }
+
+    @Test
+    @DisplayName("process — perfil con goal diario completado envía el flag de bonus")
+    void process_DailyGoalCompleted_ShouldSendBonusFlag() {
+        stubFinished(720L, RouteExecution.ActivityType.RUNNING_MODERATE, 1500L);
+        ProfileSnapshot profile = snapshot();
+        when(profileSnapshotCache.get(user.getId())).thenReturn(Optional.of(profile));
+        when(calorieCalculationService.calculateCalories(any(ProfileSnapshot.class), any(CCActivityRequest.class))).thenReturn(220.0);
+        when(calorieCalculationService.hasReachedDailyGoal(eq(profile), anyDouble())).thenReturn(true);
+        when(pointsCalculationService.calculatePoints(any())).thenReturn(70L);
+        stubSave();
+
+        processor.process(1720L);
+
+        ArgumentCaptor<PCActivityRequestDTO> captor = ArgumentCaptor.forClass(PCActivityRequestDTO.class);
+        verify(pointsCalculationService).calculatePoints(captor.capture());
+        verify(pointsLedgerService).award(user.getId(), 720L, 70L, PointsReason.ROUTE_EXECUTION);
+        assertTrue(captor.getValue().dailyGoalCompleted());
+    }
+
+    @Test
+    @DisplayName("process — perfil sin goal diario cumplido no marca el flag")
+    void process_DailyGoalNotCompleted_ShouldSendFalseFlag() {
+        stubFinished(721L, RouteExecution.ActivityType.CYCLING_MODERATE, 1800L);
+        ProfileSnapshot profile = snapshot();
+        when(profileSnapshotCache.get(user.getId())).thenReturn(Optional.of(profile));
+        when(calorieCalculationService.calculateCalories(any(ProfileSnapshot.class), any(CCActivityRequest.class))).thenReturn(140.0);
+        when(calorieCalculationService.hasReachedDailyGoal(eq(profile), anyDouble())).thenReturn(false);
+        when(pointsCalculationService.calculatePoints(any())).thenReturn(25L);
+        stubSave();
+
+        processor.process(1721L);
+
+        ArgumentCaptor<PCActivityRequestDTO> captor = ArgumentCaptor.forClass(PCActivityRequestDTO.class);
+        verify(pointsCalculationService).calculatePoints(captor.capture());
+        verify(pointsLedgerService).award(user.getId(), 721L, 25L, PointsReason.ROUTE_EXECUTION);
+        assertFalse(captor.getValue().dailyGoalCompleted());
+    }
+
+    @Test
+    @DisplayName("recordFailure — reprograma con espera exponencial y, agotados los intentos, lo deja FAILED")
+    void recordFailure_ShouldBackOffAndGiveUp() {
+        RouteExecutionOutbox outbox = RouteExecutionOutbox.pendingFor(900L, user.getId(), user.getEmail(), LocalDateTime.now());
+        when(outboxRepository.findByIdAndStatusForUpdate(50L, OutboxStatus.PENDING)).thenReturn(Optional.of(outbox));
+
+        LocalDateTime before = LocalDateTime.now();
+        processor.recordFailure(50L, "boom", 3, Duration.ofSeconds(10));
+        assertEquals(1, outbox.getAttempts());
+        assertEquals(OutboxStatus.PENDING, outbox.getStatus());
+        assertFalse(outbox.getAvailableAt().isBefore(before.plusSeconds(10)));
+
+        processor.recordFailure(50L, "boom", 3, Duration.ofSeconds(10));
+        assertFalse(outbox.getAvailableAt().isBefore(before.plusSeconds(20)));
+
+        processor.recordFailure(50L, "boom", 3, Duration.ofSeconds(10));
+        assertEquals(3, outbox.getAttempts());
+        assertEquals(OutboxStatus.FAILED, outbox.getStatus());
+        assertEquals("boom", outbox.getLastError());
+    }
+
+    private static DailyTotalsView dailyTotals(long points, int sessions, double calories) {
+        return new DailyTotalsView() {
+            @Override
+            public Long getPoints() {
+                return points;
+            }
+
+            @Override
+            public Integer getSessionsCount() {
+                return sessions;
+            }
+
+            @Override
+            public BigDecimal getCalories() {
+                return BigDecimal.valueOf(calories);
+            }
+        };
+    }
+}
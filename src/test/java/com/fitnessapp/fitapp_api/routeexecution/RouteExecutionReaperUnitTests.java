@@ -0,0 +1,128 @@
+package com.fitnessapp.fitapp_api.routeexecution;
+
+import com.fitnessapp.fitapp_api.routeexecution.job.RouteExecutionReaperJob;
+import com.fitnessapp.fitapp_api.routeexecution.model.RouteExecution.RouteExecutionStatus;
+import com.fitnessapp.fitapp_api.routeexecution.repository.RouteExecutionRepository;
+import com.fitnessapp.fitapp_api.routeexecution.service.RouteExecutionReaper;
+import com.fitnessapp.fitapp_api.routeexecution.service.implementation.RouteExecutionReaperImpl;
+import com.fitnessapp.fitapp_api.routeexecution.session.ActiveSessionRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RouteExecutionReaperUnitTests {
+
+    @Mock
+    private RouteExecutionRepository executionRepository;
+
+    @Mock
+    private ActiveSessionRegistry activeSessions;
+
+    @Mock
+    private RouteExecutionReaper reaper;
+
+    private RouteExecutionReaperImpl reaperImpl;
+    private SimpleMeterRegistry meterRegistry;
+    private final LocalDateTime cutoff = LocalDateTime.now().minusHours(12);
+
+    @BeforeEach
+    void setUp() {
+        reaperImpl = new RouteExecutionReaperImpl(executionRepository);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private RouteExecutionReaperJob job(int batchSize, int maxBatches) {
+        return new RouteExecutionReaperJob(reaper, activeSessions, Duration.ofHours(12), batchSize, maxBatches,
+                meterRegistry);
+    }
+
+    private static List<Long> ids(long from, int count) {
+        return LongStream.range(from, from + count).boxed().toList();
+    }
+
+    @Test
+    @DisplayName("expireIdleBatch — expira el lote seleccionado por (status, updated_at) con LIMIT")
+    void expireIdleBatch_ShouldExpireSelectedBatch() {
+        when(executionRepository.findIdleIds(RouteExecutionStatus.PAUSED, cutoff, Limit.of(3)))
+                .thenReturn(List.of(1L, 2L, 3L));
+        when(executionRepository.expireIdle(eq(List.of(1L, 2L, 3L)), eq(RouteExecutionStatus.PAUSED), eq(cutoff),
+                eq(RouteExecutionStatus.EXPIRED), any(LocalDateTime.class))).thenReturn(3);
+
+        List<Long> expired = reaperImpl.expireIdleBatch(RouteExecutionStatus.PAUSED, cutoff, 3);
+
+        assertEquals(List.of(1L, 2L, 3L), expired);
+        verify(executionRepository, never()).findIdsByIdInAndStatus(any(), any());
+    }
+
+    @Test
+    @DisplayName("expireIdleBatch — si alguna tuvo actividad entre medias solo devuelve las que quedaron EXPIRED")
+    void expireIdleBatch_PartialUpdate_ShouldReturnOnlyExpired() {
+        when(executionRepository.findIdleIds(eq(RouteExecutionStatus.IN_PROGRESS), eq(cutoff), any(Limit.class)))
+                .thenReturn(List.of(1L, 2L, 3L));
+        when(executionRepository.expireIdle(any(), any(), any(), any(), any())).thenReturn(2);
+        when(executionRepository.findIdsByIdInAndStatus(List.of(1L, 2L, 3L), RouteExecutionStatus.EXPIRED))
+                .thenReturn(List.of(1L, 3L));
+
+        List<Long> expired = reaperImpl.expireIdleBatch(RouteExecutionStatus.IN_PROGRESS, cutoff, 10);
+
+        assertEquals(List.of(1L, 3L), expired);
+    }
+
+    @Test
+    @DisplayName("expireIdleBatch — sin candidatas no lanza el UPDATE")
+    void expireIdleBatch_NoCandidates_ShouldNotUpdate() {
+        when(executionRepository.findIdleIds(any(), any(), any(Limit.class))).thenReturn(List.of());
+
+        assertTrue(reaperImpl.expireIdleBatch(RouteExecutionStatus.PAUSED, cutoff, 10).isEmpty());
+        verify(executionRepository, never()).expireIdle(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("reap — encadena lotes llenos hasta uno incompleto, saca las sesiones del registro y cuenta por estado")
+    void reap_ShouldDrainFullBatchesAndEvictSessions() {
+        when(reaper.expireIdleBatch(eq(RouteExecutionStatus.IN_PROGRESS), any(LocalDateTime.class), eq(2)))
+                .thenReturn(ids(1, 2), ids(3, 2), ids(5, 1));
+        when(reaper.expireIdleBatch(eq(RouteExecutionStatus.PAUSED), any(LocalDateTime.class), eq(2)))
+                .thenReturn(List.of());
+
+        job(2, 10).reap();
+
+        verify(reaper, times(3)).expireIdleBatch(eq(RouteExecutionStatus.IN_PROGRESS), any(), anyInt());
+        verify(activeSessions).evict(ids(1, 2));
+        verify(activeSessions).evict(ids(3, 2));
+        verify(activeSessions).evict(ids(5, 1));
+        assertEquals(5.0, meterRegistry.get("executions.reaper.expired").tag("status", "in_progress").counter().count());
+        assertEquals(0.0, meterRegistry.get("executions.reaper.expired").tag("status", "paused").counter().count());
+    }
+
+    @Test
+    @DisplayName("reap — no pasa del máximo de lotes por pasada")
+    void reap_ShouldStopAtMaxBatches() {
+        when(reaper.expireIdleBatch(eq(RouteExecutionStatus.IN_PROGRESS), any(LocalDateTime.class), eq(2)))
+                .thenAnswer(inv -> ids(1, 2));
+        when(reaper.expireIdleBatch(eq(RouteExecutionStatus.PAUSED), any(LocalDateTime.class), eq(2)))
+                .thenReturn(List.of());
+
+        job(2, 3).reap();
+
+        verify(reaper, times(3)).expireIdleBatch(eq(RouteExecutionStatus.IN_PROGRESS), any(), anyInt());
+        assertEquals(6.0, meterRegistry.get("executions.reaper.expired").tag("status", "in_progress").counter().count());
+    }
+}
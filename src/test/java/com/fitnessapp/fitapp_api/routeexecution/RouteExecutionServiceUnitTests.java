@@ -1,26 +1,24 @@
 package com.fitnessapp.fitapp_api.routeexecution;
 
 import com.fitnessapp.fitapp_api.auth.model.UserAuth;
-import com.fitnessapp.fitapp_api.calories.service.CalorieCalculationService;
-import com.fitnessapp.fitapp_api.calories.dto.CCActivityRequest;
-import com.fitnessapp.fitapp_api.core.exception.RouteNotFoundException;
+import com.fitnessapp.fitapp_api.auth.repository.UserAuthRepository;
+import com.fitnessapp.fitapp_api.core.exception.InvalidCursorException;
 import com.fitnessapp.fitapp_api.core.exception.RouteExecutionNotFoundException;
+import com.fitnessapp.fitapp_api.core.exception.RouteNotFoundException;
 import com.fitnessapp.fitapp_api.core.exception.UserAuthNotFoundException;
-import com.fitnessapp.fitapp_api.gamification.dto.PCActivityRequestDTO;
-import com.fitnessapp.fitapp_api.gamification.service.PointsCalculationService;
-import com.fitnessapp.fitapp_api.profile.model.UserProfile;
-import com.fitnessapp.fitapp_api.profile.repository.UserProfileRepository;
+import com.fitnessapp.fitapp_api.core.security.AuthenticatedUser;
 import com.fitnessapp.fitapp_api.route.model.Route;
 import com.fitnessapp.fitapp_api.route.repository.RouteRepository;
-import com.fitnessapp.fitapp_api.routeexecution.dto.RouteExecutionHistoryResponseDTO;
 import com.fitnessapp.fitapp_api.routeexecution.dto.RouteExecutionRequestDTO;
 import com.fitnessapp.fitapp_api.routeexecution.dto.RouteExecutionResponseDTO;
 import com.fitnessapp.fitapp_api.routeexecution.mapper.RouteExecutionMapper;
-import com.fitnessapp.fitapp_api.routeexecution.model.RouteExecution;
 import com.fitnessapp.fitapp_api.routeexecution.model.RouteExecution.RouteExecutionStatus;
+import com.fitnessapp.fitapp_api.routeexecution.model.RouteExecution;
+import com.fitnessapp.fitapp_api.routeexecution.model.RouteExecutionOutbox;
+import com.fitnessapp.fitapp_api.routeexecution.repository.RouteExecutionOutboxRepository;
 import com.fitnessapp.fitapp_api.routeexecution.repository.RouteExecutionRepository;
 import com.fitnessapp.fitapp_api.routeexecution.service.implementation.RouteExecutionServiceImpl;
-import com.fitnessapp.fitapp_api.auth.repository.UserAuthRepository;
+import com.fitnessapp.fitapp_api.routeexecution.session.ActiveSessionRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -29,8 +27,9 @@ import org.mapstruct.factory.Mappers;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.Spy;
+import org.springframework.data.domain.Limit;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -53,20 +52,19 @@ class RouteExecutionServiceUnitTests {
     private UserAuthRepository userAuthRepository;
 
     @Mock
-    private UserProfileRepository userProfileRepository;
+    private RouteExecutionOutboxRepository outboxRepository;
+
+    @Mock
+    private ActiveSessionRegistry activeSessions;
 
     @Spy
     private RouteExecutionMapper mapper = Mappers.getMapper(RouteExecutionMapper.class);
 
-    @Mock
-    private CalorieCalculationService calorieCalculationService;
-    @Mock
-    private PointsCalculationService pointsCalculationService;
-
     @InjectMocks
     private RouteExecutionServiceImpl service;
 
     private UserAuth user;
+    private AuthenticatedUser principal;
     private Route route;
 
     @BeforeEach
@@ -74,6 +72,7 @@ class RouteExecutionServiceUnitTests {
         user = new UserAuth();
         user.setId(1L);
         user.setEmail("tester@example.com");
+        principal = new AuthenticatedUser(user.getId(), user.getEmail());
 
         route = new Route();
         route.setId(10L);
@@ -87,6 +86,8 @@ class RouteExecutionServiceUnitTests {
         RouteExecution ex = new RouteExecution();
         ex.setId(id);
         ex.setRoute(route);
+        ex.setRouteName(route.getName());
+        ex.setDistanceKm(route.getDistanceKm());
         ex.setUser(user);
         ex.setStatus(status);
         ex.setStartTime(start);
@@ -106,7 +107,7 @@ class RouteExecutionServiceUnitTests {
         RouteExecutionRequestDTO req = new RouteExecutionRequestDTO(null, "Notas");
 
         when(routeRepository.findById(10L)).thenReturn(Optional.of(route));
-        when(userAuthRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+        when(userAuthRepository.findById(user.getId())).thenReturn(Optional.of(user));
         // capture saved entity and return it with id
         when(executionRepository.save(any(RouteExecution.class))).thenAnswer(inv -> {
             RouteExecution r = inv.getArgument(0);
@@ -114,12 +115,20 @@ class RouteExecutionServiceUnitTests {
             return r;
         });
 
-        RouteExecutionResponseDTO result = service.startExecution(user.getEmail(), 10L, req);
+        RouteExecutionResponseDTO result = service.startExecution(principal, 10L, req);
 
         assertNotNull(result);
         assertEquals(100L, result.id());
         assertEquals("IN_PROGRESS", result.status());
-        verify(executionRepository).save(any(RouteExecution.class));
+        assertEquals("Ruta Test", result.routeName());
+
+        ArgumentCaptor<RouteExecution> captor = ArgumentCaptor.forClass(RouteExecution.class);
+        verify(executionRepository).save(captor.capture());
+        // Snapshot de la ruta tomado al iniciar
+        assertEquals("Ruta Test", captor.getValue().getRouteName());
+        assertEquals(BigDecimal.valueOf(3.0), captor.getValue().getDistanceKm());
+        // Queda abierta en el registro de sesiones
+        verify(activeSessions).track(user.getId(), result);
     }
 
     @Test
@@ -129,7 +138,7 @@ class RouteExecutionServiceUnitTests {
 
         when(routeRepository.findById(10L)).thenReturn(Optional.empty());
 
-        assertThrows(RouteNotFoundException.class, () -> service.startExecution(user.getEmail(), 10L, req));
+        assertThrows(RouteNotFoundException.class, () -> service.startExecution(principal, 10L, req));
     }
 
     @Test
@@ -138,108 +147,91 @@ class RouteExecutionServiceUnitTests {
         RouteExecutionRequestDTO req = new RouteExecutionRequestDTO(null, "Notas");
 
         when(routeRepository.findById(10L)).thenReturn(Optional.of(route));
-        when(userAuthRepository.findByEmail(user.getEmail())).thenReturn(Optional.empty());
+        when(userAuthRepository.findById(user.getId())).thenReturn(Optional.empty());
 
-        assertThrows(UserAuthNotFoundException.class, () -> service.startExecution(user.getEmail(), 10L, req));
+        assertThrows(UserAuthNotFoundException.class, () -> service.startExecution(principal, 10L, req));
     }
 
     // ============================================
     // pauseExecution
     // ============================================
     @Test
-    @DisplayName("pauseExecution — ejecución en IN_PROGRESS → marca pauseTime y pasa a PAUSED")
-    void pauseExecution_InProgress_ShouldPause() {
+    @DisplayName("pauseExecution — delega en el registro de sesiones")
+    void pauseExecution_ShouldDelegateToRegistry() {
         LocalDateTime now = LocalDateTime.now();
-        RouteExecution exec = createExecution(200L, RouteExecutionStatus.IN_PROGRESS, now.minusSeconds(30), null, 0L, 0L);
+        RouteExecutionResponseDTO paused = mapper.toResponseDto(
+                createExecution(200L, RouteExecutionStatus.PAUSED, now.minusSeconds(30), now, 0L, 0L));
+        when(activeSessions.pause(eq(200L), eq(user.getId()), any(LocalDateTime.class))).thenReturn(paused);
 
-        when(executionRepository.findByIdAndUserEmail(200L, user.getEmail())).thenReturn(Optional.of(exec));
-        when(executionRepository.save(any(RouteExecution.class))).thenAnswer(inv -> inv.getArgument(0));
-        // mapper will convert to DTO; we spy mapper so it works
-
-        var dto = service.pauseExecution(user.getEmail(), 200L);
+        var dto = service.pauseExecution(principal, 200L);
 
         assertEquals("PAUSED", dto.status());
         assertNotNull(dto.pauseTime());
-        verify(executionRepository).save(exec);
+        verifyNoInteractions(executionRepository);
     }
 
     @Test
     @DisplayName("pauseExecution — si no está IN_PROGRESS lanza IllegalStateException")
     void pauseExecution_NotInProgress_ShouldThrow() {
-        LocalDateTime now = LocalDateTime.now();
-        RouteExecution exec = createExecution(201L, RouteExecutionStatus.FINISHED, now.minusSeconds(100), null, 0L, 100L);
+        when(activeSessions.pause(eq(201L), eq(user.getId()), any(LocalDateTime.class)))
+                .thenThrow(new IllegalStateException("Execution is not in progress and cannot be paused"));
 
-        when(executionRepository.findByIdAndUserEmail(201L, user.getEmail())).thenReturn(Optional.of(exec));
-
-        assertThrows(IllegalStateException.class, () -> service.pauseExecution(user.getEmail(), 201L));
+        assertThrows(IllegalStateException.class, () -> service.pauseExecution(principal, 201L));
     }
 
     // ============================================
     // resumeExecution
     // ============================================
     @Test
-    @DisplayName("resumeExecution — ejecución pausada → acumula tiempo pausado y vuelve a IN_PROGRESS")
-    void resumeExecution_Paused_ShouldResumeAndAccumulate() {
-        LocalDateTime start = LocalDateTime.now().minusMinutes(5);
-        LocalDateTime pauseAt = LocalDateTime.now().minusSeconds(2); // paused 2 seconds ago
-        RouteExecution exec = createExecution(300L, RouteExecutionStatus.PAUSED, start, pauseAt, 5L, 0L);
-
-        when(executionRepository.findByIdAndUserEmail(300L, user.getEmail())).thenReturn(Optional.of(exec));
-        when(executionRepository.save(any(RouteExecution.class))).thenAnswer(inv -> inv.getArgument(0));
+    @DisplayName("resumeExecution — delega en el registro de sesiones")
+    void resumeExecution_ShouldDelegateToRegistry() {
+        RouteExecutionResponseDTO resumed = mapper.toResponseDto(
+                createExecution(300L, RouteExecutionStatus.IN_PROGRESS, LocalDateTime.now().minusMinutes(5), null, 7L, 0L));
+        when(activeSessions.resume(eq(300L), eq(user.getId()), any(LocalDateTime.class))).thenReturn(resumed);
 
-        var dto = service.resumeExecution(user.getEmail(), 300L);
+        var dto = service.resumeExecution(principal, 300L);
 
         assertEquals("IN_PROGRESS", dto.status());
-        // totalPausedTimeSec should be >= previous total (>=5)
-        assertTrue(exec.getTotalPausedTimeSec() >= 5L);
-        assertNull(exec.getPauseTime());
-        verify(executionRepository).save(exec);
-    }
-
-    @Test
-    @DisplayName("resumeExecution — si no está PAUSED lanza IllegalStateException")
-    void resumeExecution_NotPaused_ShouldThrow() {
-        LocalDateTime start = LocalDateTime.now().minusMinutes(10);
-        RouteExecution exec = createExecution(301L, RouteExecutionStatus.IN_PROGRESS, start, null, 0L, 0L);
-
-        when(executionRepository.findByIdAndUserEmail(301L, user.getEmail())).thenReturn(Optional.of(exec));
-
-        assertThrows(IllegalStateException.class, () -> service.resumeExecution(user.getEmail(), 301L));
+        assertEquals(7L, dto.totalPausedTimeSec());
+        verifyNoInteractions(executionRepository);
     }
 
     // ============================================
     // finishExecution
     // ============================================
     @Test
-    @DisplayName("finishExecution — desde IN_PROGRESS calcula duración y calorías y marca FINISHED")
-    void finishExecution_FromInProgress_ShouldFinishAndCalculateCalories() {
+    @DisplayName("finishExecution — desde IN_PROGRESS finaliza con un UPDATE condicionado y deja el post-procesado en el outbox")
+    void finishExecution_FromInProgress_ShouldFinishAndEnqueuePostFinish() {
         LocalDateTime start = LocalDateTime.now().minusMinutes(10);
-        RouteExecution exec = createExecution(400L, RouteExecutionStatus.IN_PROGRESS, start, null, 0L, null);
-
-        UserProfile profile = new UserProfile();
-        profile.setUser(user);
-        profile.setPoints(80L);
-
-        when(executionRepository.findByIdAndUserEmail(400L, user.getEmail())).thenReturn(Optional.of(exec));
-        when(userProfileRepository.findByUser_Email(user.getEmail())).thenReturn(Optional.of(profile));
-        when(calorieCalculationService.calculateCalories(any(UserProfile.class), any(CCActivityRequest.class))).thenReturn(123.45);
-        when(calorieCalculationService.hasReachedDailyGoal(profile)).thenReturn(false);
-        when(pointsCalculationService.calculatePoints(any())).thenReturn(40L);
-        when(executionRepository.save(any(RouteExecution.class))).thenAnswer(inv -> inv.getArgument(0));
+        RouteExecution finished = createExecution(400L, RouteExecutionStatus.FINISHED, start, null, 0L, 600L);
+        finished.setEndTime(LocalDateTime.now());
+        finished.setPostFinishPending(true);
 
         RouteExecutionRequestDTO req = new RouteExecutionRequestDTO(RouteExecution.ActivityType.RUNNING_MODERATE, "buenas");
-        var dto = service.finishExecution(user.getEmail(), 400L, req);
+        when(executionRepository.finish(eq(400L), eq(user.getId()), any(LocalDateTime.class),
+                eq(RouteExecution.ActivityType.RUNNING_MODERATE), eq("buenas"),
+                eq(RouteExecutionStatus.PAUSED), eq(RouteExecutionStatus.FINISHED))).thenReturn(1);
+        when(executionRepository.findByIdAndUserId(400L, user.getId())).thenReturn(Optional.of(finished));
+
+        var dto = service.finishExecution(principal, 400L, req);
 
         assertEquals("FINISHED", dto.status());
         assertNotNull(dto.endTime());
-        assertNotNull(dto.durationSec());
-        assertTrue(dto.durationSec() >= 0);
-        assertEquals(123.45, dto.calories(), 0.01);
-        assertEquals(40L, dto.points());
-        assertEquals(120L, profile.getPoints());
-        verify(pointsCalculationService).calculatePoints(any());
-        verify(userProfileRepository).save(profile);
-        verify(executionRepository).save(exec);
+        assertEquals(600L, dto.durationSec());
+        // Calorías y puntos aún no calculados: la respuesta sale pendiente
+        assertTrue(dto.pending());
+        assertNull(dto.calories());
+        assertEquals(0L, dto.points());
+        verify(executionRepository, never()).save(any());
+        // La ejecución deja de estar abierta: sale de la caché del registro
+        verify(activeSessions).evict(List.of(400L));
+
+        ArgumentCaptor<RouteExecutionOutbox> captor = ArgumentCaptor.forClass(RouteExecutionOutbox.class);
+        verify(outboxRepository).save(captor.capture());
+        assertEquals(400L, captor.getValue().getExecutionId());
+        assertEquals(user.getId(), captor.getValue().getUserId());
+        assertEquals(user.getEmail(), captor.getValue().getUserEmail());
+        assertEquals(RouteExecutionOutbox.OutboxStatus.PENDING, captor.getValue().getStatus());
     }
 
     @Test
@@ -251,45 +243,95 @@ class RouteExecutionServiceUnitTests {
         exec.setEndTime(end);
         exec.setCalories(BigDecimal.valueOf(50.0));
 
-        when(executionRepository.findByIdAndUserEmail(401L, user.getEmail())).thenReturn(Optional.of(exec));
+        when(executionRepository.finish(eq(401L), eq(user.getId()), any(LocalDateTime.class), isNull(), isNull(), any(), any()))
+                .thenReturn(0);
+        when(executionRepository.findByIdAndUserId(401L, user.getId())).thenReturn(Optional.of(exec));
 
-        var dto = service.finishExecution(user.getEmail(), 401L, new RouteExecutionRequestDTO(null, null));
+        var dto = service.finishExecution(principal, 401L, new RouteExecutionRequestDTO(null, null));
 
         assertEquals("FINISHED", dto.status());
-        // ensure mapper translated calories to DTO value (may be null depending on mapper)
         assertEquals(50.0, dto.calories(), 0.01);
+        // No se vuelve a encolar el post-procesado
+        verifyNoInteractions(outboxRepository);
     }
 
     @Test
     @DisplayName("finishExecution — ejecución no encontrada → lanza RouteExecutionNotFoundException")
     void finishExecution_NotFound_ShouldThrow() {
-        when(executionRepository.findByIdAndUserEmail(999L, user.getEmail())).thenReturn(Optional.empty());
+        when(executionRepository.finish(eq(999L), eq(user.getId()), any(LocalDateTime.class), any(), any(), any(), any()))
+                .thenReturn(0);
+        when(executionRepository.findByIdAndUserId(999L, user.getId())).thenReturn(Optional.empty());
 
-        assertThrows(RouteExecutionNotFoundException.class, () -> service.finishExecution(user.getEmail(), 999L, new RouteExecutionRequestDTO(null, null)));
+        assertThrows(RouteExecutionNotFoundException.class, () -> service.finishExecution(principal, 999L, new RouteExecutionRequestDTO(null, null)));
+        verifyNoInteractions(outboxRepository);
     }
 
     // ============================================
     // getMyExecutions
     // ============================================
     @Test
-    @DisplayName("getMyExecutions — devuelve lista mapeada correctamente")
+    @DisplayName("getMyExecutions — primera página mapeada y sin página siguiente")
     void getMyExecutions_ShouldReturnList() {
         LocalDateTime now = LocalDateTime.now();
-        RouteExecution e1 = createExecution(500L, RouteExecutionStatus.FINISHED, now.minusDays(1), null, 0L, 3600L);
-        RouteExecution e2 = createExecution(501L, RouteExecutionStatus.IN_PROGRESS, now.minusMinutes(10), null, 0L, 0L);
+        RouteExecution e1 = createExecution(501L, RouteExecutionStatus.IN_PROGRESS, now.minusMinutes(10), null, 0L, 0L);
+        RouteExecution e2 = createExecution(500L, RouteExecutionStatus.FINISHED, now.minusDays(1), null, 0L, 3600L);
 
-        when(executionRepository.findAllByUserEmail(user.getEmail())).thenReturn(List.of(e1, e2));
+        when(executionRepository.findPageByUserId(user.getId(), Limit.of(21))).thenReturn(List.of(e1, e2));
 
-        var result = service.getMyExecutions(user.getEmail());
+        var result = service.getMyExecutions(principal, null, null);
 
-        assertEquals(2, result.size());
-        verify(executionRepository).findAllByUserEmail(user.getEmail());
+        assertEquals(2, result.items().size());
+        assertEquals(501L, result.items().get(0).id());
+        assertFalse(result.hasNext());
+        assertNull(result.nextCursor());
+        verify(executionRepository).findPageByUserId(user.getId(), Limit.of(21));
+    }
+
+    @Test
+    @DisplayName("getMyExecutions — con más filas que el tamaño devuelve cursor y la siguiente página continúa por id")
+    void getMyExecutions_WithMoreRows_ShouldReturnCursorForNextPage() {
+        LocalDateTime now = LocalDateTime.now();
+        RouteExecution e1 = createExecution(503L, RouteExecutionStatus.FINISHED, now, null, 0L, 60L);
+        RouteExecution e2 = createExecution(502L, RouteExecutionStatus.FINISHED, now, null, 0L, 60L);
+        RouteExecution e3 = createExecution(501L, RouteExecutionStatus.FINISHED, now, null, 0L, 60L);
+
+        when(executionRepository.findPageByUserId(user.getId(), Limit.of(3))).thenReturn(List.of(e1, e2, e3));
+        when(executionRepository.findPageByUserIdAfter(user.getId(), 502L, Limit.of(3))).thenReturn(List.of(e3));
+
+        var first = service.getMyExecutions(principal, null, 2);
+
+        assertEquals(2, first.items().size());
+        assertTrue(first.hasNext());
+        assertNotNull(first.nextCursor());
+
+        var second = service.getMyExecutions(principal, first.nextCursor(), 2);
+
+        assertEquals(1, second.items().size());
+        assertEquals(501L, second.items().get(0).id());
+        assertFalse(second.hasNext());
+    }
+
+    @Test
+    @DisplayName("getMyExecutions — el tamaño de página se limita al máximo permitido")
+    void getMyExecutions_SizeAboveMax_ShouldBeCapped() {
+        when(executionRepository.findPageByUserId(user.getId(), Limit.of(101))).thenReturn(List.of());
+
+        var result = service.getMyExecutions(principal, null, 5000);
+
+        assertTrue(result.items().isEmpty());
+        verify(executionRepository).findPageByUserId(user.getId(), Limit.of(101));
+    }
+
+    @Test
+    @DisplayName("getMyExecutions — cursor manipulado → lanza InvalidCursorException")
+    void getMyExecutions_InvalidCursor_ShouldThrow() {
+        assertThrows(InvalidCursorException.class, () -> service.getMyExecutions(principal, "no-es-un-cursor!", 20));
+        verifyNoInteractions(executionRepository);
     }
 
     // ============================================
     // getMyCompletedExecutionsHistory
     // ============================================
-    // TODO: Aca se necesita un test de integracion para verificar que solo se retornan las ejecuciones FINISHED
     @Test
     @DisplayName("getMyCompletedExecutionsHistory — devuelve historial ordenado y mapeado")
     void getMyCompletedExecutionsHistory_ShouldReturnHistory() {
@@ -299,178 +341,71 @@ class RouteExecutionServiceUnitTests {
         RouteExecution recent = createExecution(601L, RouteExecutionStatus.FINISHED, now.minusMinutes(30), null, 0L, 1800L);
         recent.setEndTime(now.minusMinutes(30));
 
-        when(executionRepository.findAllByUserEmailAndStatusOrderByEndTimeDesc(
-                user.getEmail(), RouteExecutionStatus.FINISHED))
+        when(executionRepository.findHistoryFirstPage(user.getId(), RouteExecutionStatus.FINISHED, Limit.of(21)))
                 .thenReturn(List.of(recent, older));
 
-        List<RouteExecutionHistoryResponseDTO> history = service.getMyCompletedExecutionsHistory(user.getEmail());
-
-        assertEquals(2, history.size());
-        assertEquals(recent.getRoute().getName(), history.get(0).routeName());
-        assertEquals(older.getDurationSec(), history.get(1).durationSec());
-        verify(executionRepository).findAllByUserEmailAndStatusOrderByEndTimeDesc(user.getEmail(), RouteExecutionStatus.FINISHED);
-    }
-
-    @Test
-    @DisplayName("getMyCompletedExecutionsHistory — retorna lista vacía cuando no hay ejecuciones")
-    void getMyCompletedExecutionsHistory_ShouldReturnEmptyList() {
-        when(executionRepository.findAllByUserEmailAndStatusOrderByEndTimeDesc(user.getEmail(), RouteExecutionStatus.FINISHED))
-                .thenReturn(List.of());
-
-        List<RouteExecutionHistoryResponseDTO> history = service.getMyCompletedExecutionsHistory(user.getEmail());
+        var history = service.getMyCompletedExecutionsHistory(principal, null, null);
 
-        assertTrue(history.isEmpty());
-        verify(executionRepository).findAllByUserEmailAndStatusOrderByEndTimeDesc(user.getEmail(), RouteExecutionStatus.FINISHED);
+        assertEquals(2, history.items().size());
+        assertEquals(recent.getRouteName(), history.items().get(0).routeName());
+        assertEquals(older.getDurationSec(), history.items().get(1).durationSec());
+        assertFalse(history.hasNext());
+        verify(executionRepository).findHistoryFirstPage(user.getId(), RouteExecutionStatus.FINISHED, Limit.of(21));
     }
 
-    // ============================================
-    // Puntos en Ejecución finalizada y perfil
-    // ============================================
     @Test
-    @DisplayName("finishExecution — suma puntos y actualiza el perfil")
-    void finishExecution_ShouldAccumulatePointsAndUpdateProfile() {
-        LocalDateTime start = LocalDateTime.now().minusMinutes(15);
-        RouteExecution exec = createExecution(600L, RouteExecutionStatus.IN_PROGRESS, start, null, 0L, null);
-        exec.setActivityType(RouteExecution.ActivityType.RUNNING_INTENSE);
-
-        UserProfile profile = new UserProfile();
-        profile.setUser(user);
-        profile.setPoints(200L);
-
-        when(executionRepository.findByIdAndUserEmail(600L, user.getEmail())).thenReturn(Optional.of(exec));
-        when(userProfileRepository.findByUser_Email(user.getEmail())).thenReturn(Optional.of(profile));
-        when(calorieCalculationService.calculateCalories(any(UserProfile.class), any(CCActivityRequest.class))).thenReturn(250.0);
-        when(calorieCalculationService.hasReachedDailyGoal(profile)).thenReturn(true);
-        when(pointsCalculationService.calculatePoints(any())).thenReturn(60L);
-        when(executionRepository.save(any(RouteExecution.class))).thenAnswer(inv -> inv.getArgument(0));
-
-        var dto = service.finishExecution(user.getEmail(), 600L,
-                new RouteExecutionRequestDTO(RouteExecution.ActivityType.RUNNING_INTENSE, "puntos"));
-
-        assertEquals(60L, dto.points());
-        assertEquals(260L, profile.getPoints());
-        verify(pointsCalculationService).calculatePoints(any());
-        verify(userProfileRepository).save(profile);
+    @DisplayName("getMyCompletedExecutionsHistory — el cursor codifica (endTime, id) de la última fila")
+    void getMyCompletedExecutionsHistory_NextPage_ShouldUseEndTimeAndIdFromCursor() {
+        LocalDateTime end = LocalDateTime.of(2025, 12, 4, 18, 30, 15);
+        RouteExecution first = createExecution(700L, RouteExecutionStatus.FINISHED, end.minusHours(1), null, 0L, 600L);
+        first.setEndTime(end);
+        RouteExecution extra = createExecution(699L, RouteExecutionStatus.FINISHED, end.minusHours(2), null, 0L, 600L);
+        extra.setEndTime(end);
+
+        when(executionRepository.findHistoryFirstPage(user.getId(), RouteExecutionStatus.FINISHED, Limit.of(2)))
+                .thenReturn(List.of(first, extra));
+        when(executionRepository.findHistoryPageAfter(user.getId(), RouteExecutionStatus.FINISHED, end, 700L, Limit.of(2)))
+                .thenReturn(List.of(extra));
+
+        var page1 = service.getMyCompletedExecutionsHistory(principal, null, 1);
+        var page2 = service.getMyCompletedExecutionsHistory(principal, page1.nextCursor(), 1);
+
+        assertTrue(page1.hasNext());
+        assertEquals(1, page2.items().size());
+        assertFalse(page2.hasNext());
+        verify(executionRepository).findHistoryPageAfter(user.getId(), RouteExecutionStatus.FINISHED, end, 700L, Limit.of(2));
     }
 
     @Test
-    @DisplayName("finishExecution — sin perfil no actualiza puntos")
-    void finishExecution_NoProfile_ShouldSkipPointsCalculation() {
-        LocalDateTime start = LocalDateTime.now().minusMinutes(15);
-        RouteExecution exec = createExecution(601L, RouteExecutionStatus.IN_PROGRESS, start, null, 0L, null);
-        exec.setActivityType(RouteExecution.ActivityType.WALKING_MODERATE);
+    @DisplayName("getMyCompletedExecutionsHistory — ruta eliminada (snapshot sin nombre) se muestra como \"Ruta Eliminada\"")
+    void getMyCompletedExecutionsHistory_DeletedRoute_ShouldShowPlaceholderName() {
+        RouteExecution exec = createExecution(610L, RouteExecutionStatus.FINISHED, LocalDateTime.now().minusHours(1), null, 0L, 600L);
+        exec.setEndTime(LocalDateTime.now());
+        exec.setRouteName(null);
 
-        when(executionRepository.findByIdAndUserEmail(601L, user.getEmail())).thenReturn(Optional.of(exec));
-        when(userProfileRepository.findByUser_Email(user.getEmail())).thenReturn(Optional.empty());
-        when(executionRepository.save(any(RouteExecution.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(executionRepository.findHistoryFirstPage(user.getId(), RouteExecutionStatus.FINISHED, Limit.of(21)))
+                .thenReturn(List.of(exec));
 
-        var dto = service.finishExecution(user.getEmail(), 601L,
-                new RouteExecutionRequestDTO(RouteExecution.ActivityType.WALKING_MODERATE, null));
+        var history = service.getMyCompletedExecutionsHistory(principal, null, null);
 
-        assertEquals(0L, dto.points());
-        verify(pointsCalculationService, never()).calculatePoints(any());
-        verify(userProfileRepository, never()).save(any(UserProfile.class));
+        assertEquals("Ruta Eliminada", history.items().get(0).routeName());
+        assertEquals(BigDecimal.valueOf(3.0), history.items().get(0).distanceKm());
     }
 
     @Test
-    @DisplayName("finishExecution — múltiples rutas acumulan puntos sobre el perfil")
-    void finishExecution_MultipleRoutes_ShouldKeepAccumulatingPoints() {
-        LocalDateTime start = LocalDateTime.now().minusMinutes(20);
-        RouteExecution firstExec = createExecution(700L, RouteExecutionStatus.IN_PROGRESS, start, null, 0L, null);
-        firstExec.setActivityType(RouteExecution.ActivityType.RUNNING_INTENSE);
-
-        Route secondRoute = new Route();
-        secondRoute.setId(11L);
-        secondRoute.setName("Ruta Extra");
-        secondRoute.setDistanceKm(BigDecimal.valueOf(5.5));
-        secondRoute.setUser(user);
-
-        RouteExecution secondExec = createExecution(701L, RouteExecutionStatus.IN_PROGRESS, start.plusMinutes(5), null, 0L, null);
-        secondExec.setRoute(secondRoute);
-        secondExec.setActivityType(RouteExecution.ActivityType.CYCLING_MODERATE);
-
-        UserProfile profile = new UserProfile();
-        profile.setUser(user);
-        profile.setPoints(120L);
-
-        when(executionRepository.findByIdAndUserEmail(700L, user.getEmail())).thenReturn(Optional.of(firstExec));
-        when(executionRepository.findByIdAndUserEmail(701L, user.getEmail())).thenReturn(Optional.of(secondExec));
-        when(userProfileRepository.findByUser_Email(user.getEmail())).thenReturn(Optional.of(profile));
-        when(calorieCalculationService.calculateCalories(any(UserProfile.class), any(CCActivityRequest.class)))
-                .thenReturn(300.0, 180.0);
-        when(calorieCalculationService.hasReachedDailyGoal(profile)).thenReturn(true);
-        when(pointsCalculationService.calculatePoints(any())).thenReturn(80L, 35L);
-        when(executionRepository.save(any(RouteExecution.class))).thenAnswer(inv -> inv.getArgument(0));
-
-        var firstDto = service.finishExecution(user.getEmail(), 700L,
-                new RouteExecutionRequestDTO(RouteExecution.ActivityType.RUNNING_INTENSE, "ruta 1"));
-        var secondDto = service.finishExecution(user.getEmail(), 701L,
-                new RouteExecutionRequestDTO(RouteExecution.ActivityType.CYCLING_MODERATE, "ruta 2"));
-
-        assertEquals(80L, firstDto.points());
-        assertEquals(35L, secondDto.points());
-        assertEquals(120L + 80L + 35L, profile.getPoints());
-        verify(pointsCalculationService, times(2)).calculatePoints(any());
-        verify(userProfileRepository, times(2)).save(profile);
-    }
+    @DisplayName("getMyCompletedExecutionsHistory — retorna página vacía cuando no hay ejecuciones")
+    void getMyCompletedExecutionsHistory_ShouldReturnEmptyList() {
+        when(executionRepository.findHistoryFirstPage(user.getId(), RouteExecutionStatus.FINISHED, Limit.of(21)))
+                .thenReturn(List.of());
 
-    @Test
-    @DisplayName("finishExecution — perfil con goal diario completado envía flag y recibe puntos extra")
-    void finishExecution_DailyGoalCompleted_ShouldSendBonusFlag() {
-        LocalDateTime start = LocalDateTime.now().minusMinutes(25);
-        RouteExecution exec = createExecution(720L, RouteExecutionStatus.IN_PROGRESS, start, null, 0L, null);
-        exec.setActivityType(RouteExecution.ActivityType.RUNNING_MODERATE);
-
-        UserProfile profile = new UserProfile();
-        profile.setUser(user);
-        profile.setPoints(90L);
-
-        when(executionRepository.findByIdAndUserEmail(720L, user.getEmail())).thenReturn(Optional.of(exec));
-        when(userProfileRepository.findByUser_Email(user.getEmail())).thenReturn(Optional.of(profile));
-        when(calorieCalculationService.calculateCalories(any(UserProfile.class), any(CCActivityRequest.class))).thenReturn(220.0);
-        when(calorieCalculationService.hasReachedDailyGoal(profile)).thenReturn(true);
-        when(pointsCalculationService.calculatePoints(any())).thenReturn(70L);
-        when(executionRepository.save(any(RouteExecution.class))).thenAnswer(inv -> inv.getArgument(0));
-
-        var dto = service.finishExecution(user.getEmail(), 720L,
-                new RouteExecutionRequestDTO(RouteExecution.ActivityType.RUNNING_MODERATE, "goal cumplido"));
-
-        ArgumentCaptor<PCActivityRequestDTO> captor = ArgumentCaptor.forClass(PCActivityRequestDTO.class);
-        verify(pointsCalculationService).calculatePoints(captor.capture());
-
-        assertEquals(70L, dto.points());
-        assertEquals(160L, profile.getPoints());
-        assertTrue(captor.getValue().dailyGoalCompleted());
-        verify(userProfileRepository).save(profile);
-    }
+        var history = service.getMyCompletedExecutionsHistory(principal, null, null);
 
-    @Test
-    @DisplayName("finishExecution — perfil sin goal diario cumplido no marca el flag ni aplica bonus")
-    void finishExecution_DailyGoalNotCompleted_ShouldSendFalseFlag() {
-        LocalDateTime start = LocalDateTime.now().minusMinutes(30);
-        RouteExecution exec = createExecution(721L, RouteExecutionStatus.IN_PROGRESS, start, null, 0L, null);
-        exec.setActivityType(RouteExecution.ActivityType.CYCLING_MODERATE);
-
-        UserProfile profile = new UserProfile();
-        profile.setUser(user);
-        profile.setPoints(50L);
-
-        when(executionRepository.findByIdAndUserEmail(721L, user.getEmail())).thenReturn(Optional.of(exec));
-        when(userProfileRepository.findByUser_Email(user.getEmail())).thenReturn(Optional.of(profile));
-        when(calorieCalculationService.calculateCalories(any(UserProfile.class), any(CCActivityRequest.class))).thenReturn(140.0);
-        when(calorieCalculationService.hasReachedDailyGoal(profile)).thenReturn(false);
-        when(pointsCalculationService.calculatePoints(any())).thenReturn(25L);
-        when(executionRepository.save(any(RouteExecution.class))).thenAnswer(inv -> inv.getArgument(0));
-
-        var dto = service.finishExecution(user.getEmail(), 721L,
-                new RouteExecutionRequestDTO(RouteExecution.ActivityType.CYCLING_MODERATE, "sin bonus"));
-
-        ArgumentCaptor<PCActivityRequestDTO> captor = ArgumentCaptor.forClass(PCActivityRequestDTO.class);
-        verify(pointsCalculationService).calculatePoints(captor.capture());
-
-        assertEquals(25L, dto.points());
-        assertEquals(75L, profile.getPoints());
-        assertFalse(captor.getValue().dailyGoalCompleted());
-        verify(userProfileRepository).save(profile);
+        assertTrue(history.items().isEmpty());
+        assertFalse(history.hasNext());
+        assertNull(history.nextCursor());
     }
+
+    // ============================================
+    // Puntos en Ejecución finalizada y perfil
+    // ============================================
 }
@@ -0,0 +1,221 @@
+package com.fitnessapp.fitapp_api.stats_series;
+
+import com.fitnessapp.fitapp_api.auth.model.UserAuth;
+import com.fitnessapp.fitapp_api.core.exception.InvalidStatsQueryException;
+import com.fitnessapp.fitapp_api.core.exception.UserProfileNotCompletedException;
+import com.fitnessapp.fitapp_api.core.exception.UserProfileNotFoundException;
+import com.fitnessapp.fitapp_api.core.security.AuthenticatedUser;
+import com.fitnessapp.fitapp_api.profile.cache.ProfileSnapshotCache;
+import com.fitnessapp.fitapp_api.profile.model.UserProfile;
+import com.fitnessapp.fitapp_api.profile.repository.UserProfileRepository;
+import com.fitnessapp.fitapp_api.profile.service.UserProfileService;
+import com.fitnessapp.fitapp_api.stats.dto.StatsSeriesPointDTO;
+import com.fitnessapp.fitapp_api.stats.dto.StatsSeriesResponseDTO;
+import com.fitnessapp.fitapp_api.stats.repository.ActivityBucket;
+import com.fitnessapp.fitapp_api.stats.repository.UserDailyActivityRepository;
+import com.fitnessapp.fitapp_api.stats.service.implementation.StatsSeriesServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StatsSeriesServiceUnitTests {
+
+    @Mock
+    private UserProfileRepository userProfileRepository;
+
+    @Mock
+    private UserProfileService userProfileService;
+
+    @Mock
+    private UserDailyActivityRepository dailyActivityRepository;
+
+    private StatsSeriesServiceImpl statsSeriesService;
+
+    private UserProfile profile;
+    private String email;
+    private AuthenticatedUser principal;
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        ProfileSnapshotCache profileSnapshotCache = new ProfileSnapshotCache(userProfileRepository, userProfileService,
+                Duration.ofMinutes(10), 100, new SimpleMeterRegistry());
+        statsSeriesService = new StatsSeriesServiceImpl(profileSnapshotCache, dailyActivityRepository);
+
+        email = "test@example.com";
+
+        UserAuth user = new UserAuth();
+        user.setId(1L);
+        user.setEmail(email);
+        principal = new AuthenticatedUser(1L, email);
+
+        profile = new UserProfile();
+        profile.setId(1L);
+        profile.setUser(user);
+
+        today = LocalDate.now();
+    }
+
+    private void givenCompleteProfile() {
+        when(userProfileRepository.findByUser_Id(1L)).thenReturn(Optional.of(profile));
+        when(userProfileService.isProfileComplete(profile)).thenReturn(true);
+    }
+
+    // ============================================================
+    // VALIDACIONES
+    // ============================================================
+
+    @Test
+    @DisplayName("Métrica, periodo o granularidad inválidos lanzan InvalidStatsQueryException sin tocar la BD")
+    void getSeries_InvalidParams_ShouldThrow() {
+        assertThrows(InvalidStatsQueryException.class,
+                () -> statsSeriesService.getSeries(principal, "steps", "30d", "day"));
+        assertThrows(InvalidStatsQueryException.class,
+                () -> statsSeriesService.getSeries(principal, "kcal", "30x", "day"));
+        assertThrows(InvalidStatsQueryException.class,
+                () -> statsSeriesService.getSeries(principal, "kcal", "0d", "day"));
+        assertThrows(InvalidStatsQueryException.class,
+                () -> statsSeriesService.getSeries(principal, "kcal", "6y", "month"));
+        assertThrows(InvalidStatsQueryException.class,
+                () -> statsSeriesService.getSeries(principal, "kcal", "30d", "hour"));
+
+        verifyNoInteractions(userProfileRepository, dailyActivityRepository);
+    }
+
+    @Test
+    @DisplayName("Demasiados puntos (5 años diarios) lanza InvalidStatsQueryException")
+    void getSeries_TooManyPoints_ShouldThrow() {
+        givenCompleteProfile();
+
+        assertThrows(InvalidStatsQueryException.class,
+                () -> statsSeriesService.getSeries(principal, "kcal", "5y", "day"));
+        verifyNoInteractions(dailyActivityRepository);
+    }
+
+    @Test
+    @DisplayName("Perfil inexistente lanza UserProfileNotFoundException")
+    void getSeries_ProfileNotFound_ShouldThrow() {
+        when(userProfileRepository.findByUser_Id(1L)).thenReturn(Optional.empty());
+
+        assertThrows(UserProfileNotFoundException.class,
+                () -> statsSeriesService.getSeries(principal, "kcal", "30d", "day"));
+    }
+
+    @Test
+    @DisplayName("Perfil incompleto lanza UserProfileNotCompletedException")
+    void getSeries_ProfileIncomplete_ShouldThrow() {
+        when(userProfileRepository.findByUser_Id(1L)).thenReturn(Optional.of(profile));
+        when(userProfileService.isProfileComplete(profile)).thenReturn(false);
+
+        assertThrows(UserProfileNotCompletedException.class,
+                () -> statsSeriesService.getSeries(principal, "kcal", "30d", "day"));
+    }
+
+    // ============================================================
+    // SERIES
+    // ============================================================
+
+    @Test
+    @DisplayName("Diaria: un punto por día con ceros en los días sin actividad")
+    void getSeries_Daily_ShouldZeroFillMissingDays() {
+        givenCompleteProfile();
+        LocalDate from = today.minusDays(6);
+        when(dailyActivityRepository.sumByBucket(1L, from, today, "DAY"))
+                .thenReturn(List.of(bucket(today.minusDays(2), 2, 3600, 7.5, 400, 60)));
+
+        StatsSeriesResponseDTO result = statsSeriesService.getSeries(principal, "distance", "7d", "day");
+
+        assertEquals("distance", result.metric());
+        assertEquals("day", result.granularity());
+        assertEquals(from.toString(), result.from());
+        assertEquals(today.toString(), result.to());
+        assertEquals(7, result.points().size());
+        assertEquals(new StatsSeriesPointDTO(today.minusDays(2).toString(), 7.5), result.points().get(4));
+        assertEquals(0.0, result.points().get(0).value());
+        assertEquals(0.0, result.points().get(6).value());
+    }
+
+    @Test
+    @DisplayName("Mensual de un año: 12-13 buckets alineados al día 1 y una sola consulta agrupada")
+    void getSeries_YearlyMonthly_ShouldAlignToMonthStart() {
+        givenCompleteProfile();
+        LocalDate from = today.minusYears(1).plusDays(1).withDayOfMonth(1);
+        LocalDate thisMonth = today.withDayOfMonth(1);
+        when(dailyActivityRepository.sumByBucket(1L, from, today, "MONTH"))
+                .thenReturn(List.of(bucket(thisMonth, 5, 9000, 20.0, 1500, 200)));
+
+        StatsSeriesResponseDTO result = statsSeriesService.getSeries(principal, "sessions", "1y", "month");
+
+        assertEquals(from.toString(), result.from());
+        List<StatsSeriesPointDTO> points = result.points();
+        assertTrue(points.size() == 12 || points.size() == 13);
+        assertEquals(from.toString(), points.get(0).date());
+        assertEquals(new StatsSeriesPointDTO(thisMonth.toString(), 5.0), points.get(points.size() - 1));
+        verify(dailyActivityRepository, times(1)).sumByBucket(anyLong(), any(), any(), anyString());
+    }
+
+    @Test
+    @DisplayName("Semanal: buckets que empiezan en lunes")
+    void getSeries_Weekly_ShouldStartOnMonday() {
+        givenCompleteProfile();
+        when(dailyActivityRepository.sumByBucket(eq(1L), any(), eq(today), eq("WEEK"))).thenReturn(List.of());
+
+        StatsSeriesResponseDTO result = statsSeriesService.getSeries(principal, "points", "4w", "week");
+
+        LocalDate currentWeek = today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        List<StatsSeriesPointDTO> points = result.points();
+        assertTrue(points.size() == 4 || points.size() == 5);
+        points.forEach(p -> assertEquals(DayOfWeek.MONDAY, LocalDate.parse(p.date()).getDayOfWeek()));
+        assertEquals(currentWeek.toString(), points.get(points.size() - 1).date());
+    }
+
+    private ActivityBucket bucket(LocalDate start, long sessions, long durationSec, double km, double kcal, long points) {
+        return new ActivityBucket() {
+            @Override
+            public String getBucketStart() {
+                return start.toString();
+            }
+
+            @Override
+            public Long getSessionsCount() {
+                return sessions;
+            }
+
+            @Override
+            public Long getDurationSec() {
+                return durationSec;
+            }
+
+            @Override
+            public BigDecimal getDistanceKm() {
+                return BigDecimal.valueOf(km);
+            }
+
+            @Override
+            public BigDecimal getCalories() {
+                return BigDecimal.valueOf(kcal);
+            }
+
+            @Override
+            public Long getPoints() {
+                return points;
+            }
+        };
+    }
+}
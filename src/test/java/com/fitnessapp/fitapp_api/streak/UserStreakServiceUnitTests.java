@@ -0,0 +1,245 @@
+package com.fitnessapp.fitapp_api.streak;
+
+import com.fitnessapp.fitapp_api.auth.model.UserAuth;
+import com.fitnessapp.fitapp_api.auth.repository.UserAuthRepository;
+import com.fitnessapp.fitapp_api.core.security.AuthenticatedUser;
+import com.fitnessapp.fitapp_api.profile.cache.ProfileSnapshotCache;
+import com.fitnessapp.fitapp_api.profile.model.UserProfile;
+import com.fitnessapp.fitapp_api.profile.repository.UserProfileRepository;
+import com.fitnessapp.fitapp_api.profile.service.UserProfileService;
+import com.fitnessapp.fitapp_api.stats.dto.StreakResponseDTO;
+import com.fitnessapp.fitapp_api.stats.model.UserStreak;
+import com.fitnessapp.fitapp_api.stats.repository.UserDailyActivityRepository;
+import com.fitnessapp.fitapp_api.stats.repository.UserStreakRepository;
+import com.fitnessapp.fitapp_api.stats.service.implementation.UserStreakServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserStreakServiceUnitTests {
+
+    @Mock
+    private UserStreakRepository userStreakRepository;
+
+    @Mock
+    private UserDailyActivityRepository dailyActivityRepository;
+
+    @Mock
+    private UserAuthRepository userAuthRepository;
+
+    @Mock
+    private UserProfileRepository userProfileRepository;
+
+    @Mock
+    private UserProfileService userProfileService;
+
+    private UserStreakServiceImpl userStreakService;
+
+    private UserAuth user;
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        ProfileSnapshotCache profileSnapshotCache = new ProfileSnapshotCache(userProfileRepository, userProfileService,
+                Duration.ofMinutes(10), 100, new SimpleMeterRegistry());
+        userStreakService = new UserStreakServiceImpl(userStreakRepository, dailyActivityRepository, userAuthRepository,
+                profileSnapshotCache);
+
+        user = new UserAuth();
+        user.setId(1L);
+        user.setEmail("test@example.com");
+        today = LocalDate.now(ZoneId.systemDefault());
+    }
+
+    // ============================================
+    // recordActiveDay
+    // ============================================
+    @Test
+    @DisplayName("recordActiveDay — primer día activo crea la fila con racha 1")
+    void recordActiveDay_FirstDay_ShouldCreateRow() {
+        when(userStreakRepository.findByUserIdForUpdate(1L)).thenReturn(Optional.empty());
+        when(userAuthRepository.getReferenceById(1L)).thenReturn(user);
+
+        userStreakService.recordActiveDay(1L, today);
+
+        ArgumentCaptor<UserStreak> captor = ArgumentCaptor.forClass(UserStreak.class);
+        verify(userStreakRepository).save(captor.capture());
+        UserStreak saved = captor.getValue();
+        assertSame(user, saved.getUser());
+        assertEquals(1, saved.getCurrentStreak());
+        assertEquals(1, saved.getLongestStreak());
+        assertEquals(today, saved.getLastActiveDate());
+    }
+
+    @Test
+    @DisplayName("recordActiveDay — mismo día que el último activo no cambia los contadores")
+    void recordActiveDay_SameDay_ShouldKeepCounters() {
+        UserStreak streak = createStreak(3, 5, today);
+        when(userStreakRepository.findByUserIdForUpdate(1L)).thenReturn(Optional.of(streak));
+
+        userStreakService.recordActiveDay(1L, today);
+
+        assertEquals(3, streak.getCurrentStreak());
+        assertEquals(5, streak.getLongestStreak());
+        assertEquals(today, streak.getLastActiveDate());
+        verifyNoInteractions(dailyActivityRepository);
+    }
+
+    @Test
+    @DisplayName("recordActiveDay — día siguiente suma 1 y actualiza la racha más larga")
+    void recordActiveDay_NextDay_ShouldExtendStreak() {
+        UserStreak streak = createStreak(5, 5, today.minusDays(1));
+        when(userStreakRepository.findByUserIdForUpdate(1L)).thenReturn(Optional.of(streak));
+
+        userStreakService.recordActiveDay(1L, today);
+
+        assertEquals(6, streak.getCurrentStreak());
+        assertEquals(6, streak.getLongestStreak());
+        assertEquals(today, streak.getLastActiveDate());
+        verify(userStreakRepository).save(streak);
+    }
+
+    @Test
+    @DisplayName("recordActiveDay — hueco de más de un día reinicia la racha a 1 y conserva la más larga")
+    void recordActiveDay_Gap_ShouldRestartStreak() {
+        UserStreak streak = createStreak(4, 7, today.minusDays(3));
+        when(userStreakRepository.findByUserIdForUpdate(1L)).thenReturn(Optional.of(streak));
+
+        userStreakService.recordActiveDay(1L, today);
+
+        assertEquals(1, streak.getCurrentStreak());
+        assertEquals(7, streak.getLongestStreak());
+        assertEquals(today, streak.getLastActiveDate());
+        verify(userStreakRepository).save(streak);
+    }
+
+    @Test
+    @DisplayName("recordActiveDay — día anterior al último activo (llega tarde) recalcula desde el resumen diario")
+    void recordActiveDay_LateDay_ShouldRebuildFromDailySummary() {
+        // Días 1, 2, 4 y 5 ya registrados; llega tarde el 3 y une los dos tramos
+        LocalDate base = LocalDate.of(2025, 1, 1);
+        UserStreak streak = createStreak(2, 2, base.plusDays(4));
+        when(userStreakRepository.findByUserIdForUpdate(1L)).thenReturn(Optional.of(streak));
+        when(userStreakRepository.findByUserId(1L)).thenReturn(Optional.of(streak));
+        when(dailyActivityRepository.findActivityDatesByUserId(1L)).thenReturn(List.of(
+                base, base.plusDays(1), base.plusDays(2), base.plusDays(3), base.plusDays(4)
+        ));
+
+        userStreakService.recordActiveDay(1L, base.plusDays(2));
+
+        assertEquals(5, streak.getCurrentStreak());
+        assertEquals(5, streak.getLongestStreak());
+        assertEquals(base.plusDays(4), streak.getLastActiveDate());
+        verify(userStreakRepository).save(streak);
+    }
+
+    // ============================================
+    // rebuildForUser
+    // ============================================
+    @Test
+    @DisplayName("rebuildForUser — calcula racha actual, más larga y último día activo")
+    void rebuildForUser_ShouldComputeCurrentAndLongestRuns() {
+        LocalDate base = LocalDate.of(2025, 1, 1);
+        when(dailyActivityRepository.findActivityDatesByUserId(1L)).thenReturn(List.of(
+                base, base.plusDays(1), base.plusDays(2), base.plusDays(3),
+                base.plusDays(10), base.plusDays(11)
+        ));
+        when(userStreakRepository.findByUserId(1L)).thenReturn(Optional.empty());
+        when(userAuthRepository.getReferenceById(1L)).thenReturn(user);
+
+        int longest = userStreakService.rebuildForUser(1L);
+
+        assertEquals(4, longest);
+        ArgumentCaptor<UserStreak> captor = ArgumentCaptor.forClass(UserStreak.class);
+        verify(userStreakRepository).save(captor.capture());
+        UserStreak saved = captor.getValue();
+        assertSame(user, saved.getUser());
+        assertEquals(2, saved.getCurrentStreak());
+        assertEquals(4, saved.getLongestStreak());
+        assertEquals(base.plusDays(11), saved.getLastActiveDate());
+    }
+
+    @Test
+    @DisplayName("rebuildForUser — sin actividad deja los contadores a 0 sobre la fila existente")
+    void rebuildForUser_NoActivity_ShouldResetExistingRow() {
+        UserStreak existing = createStreak(5, 9, today.minusDays(3));
+        when(dailyActivityRepository.findActivityDatesByUserId(1L)).thenReturn(List.of());
+        when(userStreakRepository.findByUserId(1L)).thenReturn(Optional.of(existing));
+
+        int longest = userStreakService.rebuildForUser(1L);
+
+        assertEquals(0, longest);
+        verify(userStreakRepository).save(existing);
+        verifyNoInteractions(userAuthRepository);
+        assertEquals(0, existing.getCurrentStreak());
+        assertEquals(0, existing.getLongestStreak());
+        assertNull(existing.getLastActiveDate());
+    }
+
+    // ============================================
+    // getMyStreak
+    // ============================================
+    @Test
+    @DisplayName("getMyStreak — activo ayer mantiene la racha actual")
+    void getMyStreak_ActiveYesterday_ShouldKeepCurrentStreak() {
+        when(userStreakRepository.findByUserEmail("test@example.com"))
+                .thenReturn(Optional.of(createStreak(3, 8, today.minusDays(1))));
+        UserProfile profile = new UserProfile();
+        profile.setUser(user);
+        when(userProfileRepository.findByUser_Id(1L)).thenReturn(Optional.of(profile));
+
+        StreakResponseDTO result = userStreakService.getMyStreak(new AuthenticatedUser(1L, "test@example.com"));
+
+        assertEquals(3, result.currentStreak());
+        assertEquals(8, result.longestStreak());
+        assertEquals(today.minusDays(1), result.lastActiveDate());
+    }
+
+    @Test
+    @DisplayName("getMyStreak — sin actividad hoy ni ayer la racha actual es 0")
+    void getMyStreak_Gap_ShouldResetCurrentStreak() {
+        when(userStreakRepository.findByUserEmail("test@example.com"))
+                .thenReturn(Optional.of(createStreak(3, 8, today.minusDays(2))));
+        when(userProfileRepository.findByUser_Id(1L)).thenReturn(Optional.empty());
+
+        StreakResponseDTO result = userStreakService.getMyStreak(new AuthenticatedUser(1L, "test@example.com"));
+
+        assertEquals(0, result.currentStreak());
+        assertEquals(8, result.longestStreak());
+    }
+
+    @Test
+    @DisplayName("getMyStreak — sin fila de racha devuelve ceros")
+    void getMyStreak_NoRow_ShouldReturnZeros() {
+        when(userStreakRepository.findByUserEmail("test@example.com")).thenReturn(Optional.empty());
+
+        StreakResponseDTO result = userStreakService.getMyStreak(new AuthenticatedUser(1L, "test@example.com"));
+
+        assertEquals(new StreakResponseDTO(0, 0, null), result);
+        verifyNoInteractions(userProfileRepository);
+    }
+
+    private UserStreak createStreak(int current, int longest, LocalDate lastActive) {
+        UserStreak streak = new UserStreak();
+        streak.setUser(user);
+        streak.setCurrentStreak(current);
+        streak.setLongestStreak(longest);
+        streak.setLastActiveDate(lastActive);
+        return streak;
+    }
+}
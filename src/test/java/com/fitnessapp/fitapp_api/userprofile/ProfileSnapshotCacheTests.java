@@ -0,0 +1,65 @@
+package com.fitnessapp.fitapp_api.userprofile;
+
+import com.fitnessapp.fitapp_api.auth.model.UserAuth;
+import com.fitnessapp.fitapp_api.auth.repository.UserAuthRepository;
+import com.fitnessapp.fitapp_api.profile.cache.ProfileSnapshot;
+import com.fitnessapp.fitapp_api.profile.cache.ProfileSnapshotCache;
+import com.fitnessapp.fitapp_api.profile.model.UserProfile;
+import com.fitnessapp.fitapp_api.profile.repository.UserProfileRepository;
+import com.fitnessapp.fitapp_api.profile.util.Gender;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Carga real del snapshot contra H2, sin transacción abierta, como lo piden Home y estadísticas.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ProfileSnapshotCacheTests {
+
+    @Autowired
+    private ProfileSnapshotCache cache;
+    @Autowired
+    private UserAuthRepository userAuthRepository;
+    @Autowired
+    private UserProfileRepository userProfileRepository;
+
+    @Test
+    @DisplayName("get — carga el snapshot de BD fuera de transacción sin inicializar proxies perezosos")
+    void get_CacheMiss_ShouldLoadSnapshotOutsideTransaction() {
+        UserAuth user = new UserAuth();
+        user.setEmail("snapshot-" + System.nanoTime() + "@example.com");
+        user.setPassword("x");
+        user = userAuthRepository.save(user);
+
+        UserProfile profile = new UserProfile();
+        profile.setUser(user);
+        profile.setFirstName("Ana");
+        profile.setLastName("Test");
+        profile.setGender(Gender.FEMALE);
+        profile.setBirthDate(LocalDate.of(1990, 5, 1));
+        profile.setHeightCm(BigDecimal.valueOf(165));
+        profile.setWeightKg(BigDecimal.valueOf(60));
+        profile.setTimeZone(ZoneId.of("Europe/Madrid"));
+        profile.setGoalKcalDaily(500);
+        userProfileRepository.save(profile);
+
+        ProfileSnapshot snapshot = cache.get(user.getId()).orElseThrow();
+
+        assertEquals(user.getId(), snapshot.userId());
+        assertEquals(user.getEmail(), snapshot.email());
+        assertTrue(snapshot.complete());
+        assertNotNull(snapshot.calorieCoefficients());
+        assertEquals(ZoneId.of("Europe/Madrid"), snapshot.timeZone());
+        assertEquals(500, snapshot.goalKcalDaily());
+    }
+}
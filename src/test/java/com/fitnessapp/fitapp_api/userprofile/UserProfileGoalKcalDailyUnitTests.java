@@ -3,6 +3,7 @@ package com.fitnessapp.fitapp_api.userprofile;
 import com.fitnessapp.fitapp_api.auth.model.UserAuth;
 import com.fitnessapp.fitapp_api.auth.repository.UserAuthRepository;
 import com.fitnessapp.fitapp_api.core.exception.UserProfileNotFoundException;
+import com.fitnessapp.fitapp_api.core.security.AuthenticatedUser;
 import com.fitnessapp.fitapp_api.profile.dto.UserProfileResponseDTO;
 import com.fitnessapp.fitapp_api.profile.mapper.UserProfileMapper;
 import com.fitnessapp.fitapp_api.profile.model.UserProfile;
@@ -17,6 +18,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.Optional;
 
@@ -35,16 +37,21 @@ class UserProfileGoalKcalDailyUnitTests {
     @Spy
     private UserProfileMapper mapper = Mappers.getMapper(UserProfileMapper.class);
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private UserProfileServiceImpl service;
 
     private UserAuth userAuth;
+    private AuthenticatedUser principal;
 
     @BeforeEach
     void setup() {
         userAuth = new UserAuth();
         userAuth.setId(1L);
         userAuth.setEmail("test@example.com");
+        principal = new AuthenticatedUser(userAuth.getId(), userAuth.getEmail());
     }
 
     private UserProfile mockProfile(Integer goalKcalDaily) {
@@ -71,10 +78,10 @@ class UserProfileGoalKcalDailyUnitTests {
     void getMyProfile_ReturnsGoalKcalDailyCorrectly() {
         UserProfile profile = mockProfile(1800);
 
-        when(profileRepo.findByUser_Email("test@example.com"))
+        when(profileRepo.findByUser_Id(1L))
                 .thenReturn(Optional.of(profile));
 
-        UserProfileResponseDTO result = service.getMyProfile("test@example.com");
+        UserProfileResponseDTO result = service.getMyProfile(principal);
 
         assertNotNull(result);
         assertEquals(1800, result.goalKcalDaily());
@@ -85,10 +92,10 @@ class UserProfileGoalKcalDailyUnitTests {
     void getMyProfile_ReturnsZeroGoalKcalDaily() {
         UserProfile profile = mockProfile(0);
 
-        when(profileRepo.findByUser_Email("test@example.com"))
+        when(profileRepo.findByUser_Id(1L))
                 .thenReturn(Optional.of(profile));
 
-        UserProfileResponseDTO result = service.getMyProfile("test@example.com");
+        UserProfileResponseDTO result = service.getMyProfile(principal);
 
         assertEquals(0, result.goalKcalDaily());
     }
@@ -98,10 +105,10 @@ class UserProfileGoalKcalDailyUnitTests {
     void getMyProfile_ReturnsNullGoalKcalDaily() {
         UserProfile profile = mockProfileNoGoalKcalDaily();
 
-        when(profileRepo.findByUser_Email("test@example.com"))
+        when(profileRepo.findByUser_Id(1L))
                 .thenReturn(Optional.of(profile));
 
-        UserProfileResponseDTO result = service.getMyProfile("test@example.com");
+        UserProfileResponseDTO result = service.getMyProfile(principal);
 
         assertNull(result.goalKcalDaily());
     }
@@ -109,11 +116,11 @@ class UserProfileGoalKcalDailyUnitTests {
     @Test
     @DisplayName("getMyProfile lanza excepción si no existe el perfil")
     void getMyProfile_ProfileNotFound() {
-        when(profileRepo.findByUser_Email("test@example.com"))
+        when(profileRepo.findByUser_Id(1L))
                 .thenReturn(Optional.empty());
 
         assertThrows(UserProfileNotFoundException.class,
-                () -> service.getMyProfile("test@example.com"));
+                () -> service.getMyProfile(principal));
     }
 
     @Test
@@ -3,6 +3,7 @@ package com.fitnessapp.fitapp_api.userprofile;
 import com.fitnessapp.fitapp_api.auth.model.UserAuth;
 import com.fitnessapp.fitapp_api.auth.repository.UserAuthRepository;
 import com.fitnessapp.fitapp_api.core.exception.UserProfileNotFoundException;
+import com.fitnessapp.fitapp_api.core.security.AuthenticatedUser;
 import com.fitnessapp.fitapp_api.profile.dto.UserProfileResponseDTO;
 import com.fitnessapp.fitapp_api.profile.mapper.UserProfileMapper;
 import com.fitnessapp.fitapp_api.profile.model.UserProfile;
@@ -17,6 +18,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.Optional;
 
@@ -35,16 +37,21 @@ class UserProfilePointsUnitTests {
     @Spy
     private UserProfileMapper mapper = Mappers.getMapper(UserProfileMapper.class);
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private UserProfileServiceImpl service;
 
     private UserAuth userAuth;
+    private AuthenticatedUser principal;
 
     @BeforeEach
     void setup() {
         userAuth = new UserAuth();
         userAuth.setId(1L);
         userAuth.setEmail("test@example.com");
+        principal = new AuthenticatedUser(userAuth.getId(), userAuth.getEmail());
     }
 
     private UserProfile mockProfile(Long points) {
@@ -64,10 +71,10 @@ class UserProfilePointsUnitTests {
     void getMyProfile_ReturnsPointsCorrectly() {
         UserProfile profile = mockProfile(1500L);
 
-        when(profileRepo.findByUser_Email("test@example.com"))
+        when(profileRepo.findByUser_Id(1L))
                 .thenReturn(Optional.of(profile));
 
-        UserProfileResponseDTO result = service.getMyProfile("test@example.com");
+        UserProfileResponseDTO result = service.getMyProfile(principal);
 
         assertNotNull(result);
         assertEquals(1500L, result.points());
@@ -78,10 +85,10 @@ class UserProfilePointsUnitTests {
     void getMyProfile_ReturnsZeroPoints() {
         UserProfile profile = mockProfile(0L);
 
-        when(profileRepo.findByUser_Email("test@example.com"))
+        when(profileRepo.findByUser_Id(1L))
                 .thenReturn(Optional.of(profile));
 
-        UserProfileResponseDTO result = service.getMyProfile("test@example.com");
+        UserProfileResponseDTO result = service.getMyProfile(principal);
 
         assertEquals(0L, result.points());
     }
@@ -89,11 +96,11 @@ class UserProfilePointsUnitTests {
     @Test
     @DisplayName("getMyProfile lanza excepción si no existe el perfil")
     void getMyProfile_ProfileNotFound() {
-        when(profileRepo.findByUser_Email("test@example.com"))
+        when(profileRepo.findByUser_Id(1L))
                 .thenReturn(Optional.empty());
 
         assertThrows(UserProfileNotFoundException.class,
-                () -> service.getMyProfile("test@example.com"));
+                () -> service.getMyProfile(principal));
     }
 
     @Test